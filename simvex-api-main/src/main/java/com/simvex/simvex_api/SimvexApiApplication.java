@@ -3,8 +3,10 @@ package com.simvex.simvex_api;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableJpaAuditing // <--- 이 줄이 꼭 있어야 합니다!
+@EnableScheduling // AiAnswerCache 만료 sweep 등 백그라운드 작업
 @SpringBootApplication
 public class SimvexApiApplication {
 
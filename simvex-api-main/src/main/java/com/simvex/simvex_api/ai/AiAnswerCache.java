@@ -1,36 +1,209 @@
 // src/main/java/com/simvex/simvex_api/ai/AiAnswerCache.java
 package com.simvex.simvex_api.ai;
 
+import com.simvex.simvex_api.model.CatalogChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * AI 답변 캐시 (LRU + TTL + 용량 제한)
+ *
+ * - 키: (modelId, meshName, 정규화된 질문, 프롬프트 버전) 지문(SHA-256)
+ * - 최대 엔트리 수 / 최대 바이트를 넘으면 가장 오래 안 쓰인 항목부터 제거
+ * - 만료 항목은 읽을 때 + 주기적 sweep 에서 제거
+ * - CatalogChangedEvent (모델/부품 설명 변경) 때 모두 비운다 (옛 설명으로 만든 답변)
+ *   이벤트 없는 엔티티 쓰기로 AiContextIndex 가 새 버전으로 다시 만들어진 경우도 다음 get/put 에서 비운다
+ */
 @Component
 public class AiAnswerCache {
 
-    private static final long TTL_SECONDS = 60 * 10; // 10분
+    // 엔트리 1개당 고정 오버헤드 추정치 (맵 노드 + 레코드 + 문자열 헤더)
+    private static final long ENTRY_OVERHEAD_BYTES = 96;
 
-    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlSeconds;
+    private final AiContextIndex aiContextIndex;
+
+    // accessOrder=true → get/put 할 때마다 맨 뒤로 이동 (앞쪽이 LRU)
+    private final LinkedHashMap<String, CacheEntry> cache = new LinkedHashMap<>(256, 0.75f, true);
+    private long currentBytes = 0;
+    // 지금 들어 있는 답변을 만들 때의 AiContextIndex 버전 (-1: 아직 모름)
+    private long catalogVersion = -1;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+
+    public AiAnswerCache(
+            MeterRegistry meterRegistry,
+            AiContextIndex aiContextIndex,
+            @Value("${simvex.ai.cache.max-entries:2000}") int maxEntries,
+            @Value("${simvex.ai.cache.max-bytes:16777216}") long maxBytes,
+            @Value("${simvex.ai.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttlSeconds = ttlSeconds;
+        this.aiContextIndex = aiContextIndex;
+
+        this.hits = Counter.builder("simvex.ai.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("simvex.ai.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.sizeEvictions = Counter.builder("simvex.ai.cache.evictions").tag("cause", "size").register(meterRegistry);
+        this.expiredEvictions = Counter.builder("simvex.ai.cache.evictions").tag("cause", "expired").register(meterRegistry);
+        Gauge.builder("simvex.ai.cache.entries", this, AiAnswerCache::size).register(meterRegistry);
+        Gauge.builder("simvex.ai.cache.bytes", this, AiAnswerCache::bytes).register(meterRegistry);
+    }
+
+    /**
+     * 캐시 키 생성. 질문은 대소문자/공백/끝 문장부호를 정규화한다.
+     */
+    public static String key(Long modelId, String meshName, String question, String promptVersion) {
+        String raw = (modelId == null ? "-" : modelId.toString())
+                + '\u0000' + normalize(meshName)
+                + '\u0000' + normalize(question)
+                + '\u0000' + (promptVersion == null ? "" : promptVersion);
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(raw.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 은 모든 JVM 에 존재
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String normalize(String s) {
+        if (s == null) return "";
+        String n = s.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        return n.replaceAll("[?？!.。~]+$", "");
+    }
 
     public String get(String key) {
-        CacheEntry entry = cache.get(key);
-        if (entry == null) return null;
+        if (key == null) return null;
+        // 인덱스 첫 로드(DB)는 캐시 락 밖에서
+        long version = aiContextIndex.version();
+        synchronized (this) {
+            syncCatalogVersion(version);
+            CacheEntry entry = cache.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
 
-        if (Instant.now().getEpochSecond() > entry.expiresAt) {
-            cache.remove(key);
-            return null;
+            if (Instant.now().getEpochSecond() > entry.expiresAt) {
+                removeEntry(key, entry);
+                expiredEvictions.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.answer;
         }
-        return entry.answer;
     }
 
     public void put(String key, String answer) {
-        cache.put(key, new CacheEntry(
-                answer,
-                Instant.now().getEpochSecond() + TTL_SECONDS
-        ));
+        put(key, answer, ttlSeconds);
+    }
+
+    /**
+     * TTL 을 직접 지정해 저장 (사전 생성 답변처럼 수업 시간 동안 유지해야 하는 항목용)
+     */
+    public void put(String key, String answer, long ttlSeconds) {
+        if (key == null || answer == null) return;
+
+        long size = estimateBytes(key, answer);
+        if (size > maxBytes) return; // 단일 항목이 예산보다 크면 캐시하지 않음
+
+        long version = aiContextIndex.version();
+        synchronized (this) {
+            syncCatalogVersion(version);
+            CacheEntry old = cache.remove(key);
+            if (old != null) currentBytes -= old.bytes;
+
+            cache.put(key, new CacheEntry(
+                    answer,
+                    Instant.now().getEpochSecond() + ttlSeconds,
+                    size
+            ));
+            currentBytes += size;
+
+            evictOverflow();
+        }
+    }
+
+    /**
+     * 백그라운드 만료 정리. 다시 읽히지 않는 항목도 TTL 이후 메모리에서 빠진다.
+     */
+    @Scheduled(fixedDelayString = "${simvex.ai.cache.sweep-interval-ms:60000}")
+    public synchronized void sweep() {
+        long now = Instant.now().getEpochSecond();
+        Iterator<Map.Entry<String, CacheEntry>> it = cache.entrySet().iterator();
+        while (it.hasNext()) {
+            CacheEntry e = it.next().getValue();
+            if (now > e.expiresAt) {
+                it.remove();
+                currentBytes -= e.bytes;
+                expiredEvictions.increment();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        cache.clear();
+        currentBytes = 0;
+    }
+
+    // 인덱스 버전이 바뀌었으면 옛 설명으로 만든 답변을 모두 버린다
+    private void syncCatalogVersion(long version) {
+        if (version == catalogVersion) return;
+        cache.clear();
+        currentBytes = 0;
+        catalogVersion = version;
+    }
+
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    public synchronized long bytes() {
+        return currentBytes;
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, CacheEntry>> it = cache.entrySet().iterator();
+        while ((cache.size() > maxEntries || currentBytes > maxBytes) && it.hasNext()) {
+            CacheEntry e = it.next().getValue();
+            it.remove();
+            currentBytes -= e.bytes;
+            sizeEvictions.increment();
+        }
+    }
+
+    private void removeEntry(String key, CacheEntry entry) {
+        cache.remove(key);
+        currentBytes -= entry.bytes;
+    }
+
+    private static long estimateBytes(String key, String answer) {
+        // Java 문자열은 최악의 경우 char 당 2바이트 (한국어 답변은 LATIN1 압축 불가)
+        return ENTRY_OVERHEAD_BYTES + 2L * key.length() + 2L * answer.length();
     }
 
-    private record CacheEntry(String answer, long expiresAt) {}
+    private record CacheEntry(String answer, long expiresAt, long bytes) {}
 }
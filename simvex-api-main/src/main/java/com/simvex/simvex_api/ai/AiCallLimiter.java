@@ -0,0 +1,152 @@
+// src/main/java/com/simvex/simvex_api/ai/AiCallLimiter.java
+package com.simvex.simvex_api.ai;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 동시에 진행 중인 LLM 호출 수 제한 (논블로킹)
+ *
+ * - max-in-flight 까지는 바로 실행
+ * - 초과분은 스레드를 막지 않고 대기열에서 순서를 기다림
+ * - 대기열(max-waiting)까지 꽉 차면 즉시 AiBusyException
+ */
+@Component
+public class AiCallLimiter {
+
+    private final Semaphore permits;
+    private final int maxWaiting;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Counter rejected;
+
+    public AiCallLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${simvex.ai.llm.max-in-flight:64}") int maxInFlight,
+            @Value("${simvex.ai.llm.max-waiting:256}") int maxWaiting) {
+        this.permits = new Semaphore(maxInFlight);
+        this.maxWaiting = maxWaiting;
+
+        this.rejected = Counter.builder("simvex.ai.llm.rejected").register(meterRegistry);
+        Gauge.builder("simvex.ai.llm.in-flight", inFlight, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("simvex.ai.llm.waiting", waiting, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public <T> Mono<T> limit(Mono<T> call) {
+        return Mono.usingWhen(acquire(), permit -> call, permit -> release());
+    }
+
+    public <T> Flux<T> limit(Flux<T> call) {
+        return Flux.usingWhen(acquire(), permit -> call, permit -> release());
+    }
+
+    /**
+     * 지금 빈 permit 이 있을 때만 실행하고, 없으면 기다리지 않고 AiBusyException (헤지처럼 안 해도 되는 호출용)
+     */
+    public <T> Mono<T> tryLimit(Mono<T> call) {
+        return Mono.usingWhen(acquireNow(), permit -> call, permit -> release());
+    }
+
+    public <T> Flux<T> tryLimit(Flux<T> call) {
+        return Flux.usingWhen(acquireNow(), permit -> call, permit -> release());
+    }
+
+    private Mono<Boolean> acquireNow() {
+        return Mono.defer(() -> {
+            // 대기 중인 요청이 있으면 그쪽이 먼저
+            if (!waiters.isEmpty() || !permits.tryAcquire()) {
+                return Mono.error(new AiBusyException());
+            }
+            inFlight.incrementAndGet();
+            return Mono.just(Boolean.TRUE);
+        });
+    }
+
+    private Mono<Boolean> acquire() {
+        return Mono.create(sink -> {
+            if (permits.tryAcquire()) {
+                inFlight.incrementAndGet();
+                sink.success(Boolean.TRUE);
+                return;
+            }
+            if (waiting.incrementAndGet() > maxWaiting) {
+                waiting.decrementAndGet();
+                rejected.increment();
+                sink.error(new AiBusyException());
+                return;
+            }
+
+            Waiter w = new Waiter(sink);
+            sink.onCancel(() -> {
+                // 대기 중에 클라이언트가 끊으면 대기열에서 빠진다
+                if (w.claim()) {
+                    waiting.decrementAndGet();
+                    waiters.remove(w);
+                }
+            });
+            waiters.offer(w);
+            // tryAcquire 실패 ~ offer 사이에 반납된 permit 이 있을 수 있으므로 한 번 더 확인
+            drain();
+        });
+    }
+
+    private Mono<Void> release() {
+        return Mono.fromRunnable(() -> {
+            inFlight.decrementAndGet();
+            permits.release();
+            drain();
+        });
+    }
+
+    private void drain() {
+        while (!waiters.isEmpty()) {
+            if (!permits.tryAcquire()) return;
+
+            Waiter w;
+            do {
+                w = waiters.poll();
+            } while (w != null && !w.claim());
+
+            if (w == null) {
+                permits.release();
+                continue;
+            }
+            waiting.decrementAndGet();
+            inFlight.incrementAndGet();
+            w.sink.success(Boolean.TRUE);
+        }
+    }
+
+    private static final class Waiter {
+        private final MonoSink<Boolean> sink;
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+
+        private Waiter(MonoSink<Boolean> sink) {
+            this.sink = sink;
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    public static class AiBusyException extends RuntimeException {
+        public AiBusyException() {
+            super("Too many concurrent AI requests");
+        }
+    }
+}
@@ -0,0 +1,303 @@
+// src/main/java/com/simvex/simvex_api/ai/AiChatHistoryWriter.java
+package com.simvex.simvex_api.ai;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 대화 기록 write-behind 저장
+ *
+ * 요청 스레드는 큐에 넣기만 하고, 백그라운드 스레드 1개가 모아서 JDBC batch insert 한다.
+ * - ai_chat_histories.id 가 IDENTITY 라 Hibernate 는 insert 를 batch 로 묶지 못하므로 JdbcTemplate 으로 직접 넣는다
+ *   (model_id 는 FK 값만 쓰므로 ModelEntity 를 읽지 않는다)
+ * - 큐가 가득 차면 offer-timeout 만큼 기다리고, 그래도 자리가 없으면 호출 스레드에서 바로 저장 (유실 없음)
+ * - 연결 끊김 / 타임아웃 / 락 같은 일시적 DB 오류는 같은 배치를 max-attempts 번까지 지수 백오프로 다시 쓴다.
+ *   그 밖의 오류(제약 위반 등)는 한 건씩 나눠 써서 문제 있는 행만 버린다
+ * - 종료 시 남은 기록을 모두 저장한 뒤 끝난다. running 확인과 큐 넣기는 읽기 락, 종료 전환은 쓰기 락으로 묶어
+ *   종료 직전에 들어온 기록이 마지막 drain 뒤에 큐에 남는 일이 없게 한다
+ * - 아직 저장 전인 마지막 기록의 ai_summary 는 latestPending 으로, 저장 전 기록 전체는 pending 으로 조회할 수 있다
+ *   (연속 질문의 대화 맥락 유지, 대화 요약)
+ *
+ * simvex.ai.history.write-behind=false 이면 매 요청 동기 저장 (p99 비교용)
+ */
+@Component
+public class AiChatHistoryWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO ai_chat_histories
+                (model_id, mesh_name, question, answer, user_id, ai_summary,
+                 llm_model, input_tokens, output_tokens, upstream_latency_ms, prompt_version, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean writeBehind;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    private final BlockingQueue<PendingChat> queue;
+    private final ConcurrentHashMap<String, PendingChat> latestPending = new ConcurrentHashMap<>();
+    private final Thread worker;
+    // 워커가 큐에서 꺼내 지금 쓰고 있는 배치 (큐에도 DB 에도 안 보이는 구간)
+    private volatile List<PendingChat> inFlight = List.of();
+    private final ReentrantReadWriteLock runningLock = new ReentrantReadWriteLock();
+    private volatile boolean running = true;
+
+    private final Counter written;
+    private final Counter failed;
+    private final Counter retried;
+    private final Counter overflow;
+    private final Timer flushTimer;
+
+    public AiChatHistoryWriter(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${simvex.ai.history.write-behind:true}") boolean writeBehind,
+            @Value("${simvex.ai.history.capacity:10000}") int capacity,
+            @Value("${simvex.ai.history.batch-size:100}") int batchSize,
+            @Value("${simvex.ai.history.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${simvex.ai.history.offer-timeout-ms:100}") long offerTimeoutMs,
+            @Value("${simvex.ai.history.max-attempts:3}") int maxAttempts,
+            @Value("${simvex.ai.history.retry-backoff-ms:200}") long retryBackoffMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeBehind = writeBehind;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        this.written = Counter.builder("simvex.ai.history.written").register(meterRegistry);
+        this.failed = Counter.builder("simvex.ai.history.failed").register(meterRegistry);
+        this.retried = Counter.builder("simvex.ai.history.retried")
+                .description("일시적 DB 오류로 배치를 다시 쓴 횟수")
+                .register(meterRegistry);
+        this.overflow = Counter.builder("simvex.ai.history.overflow")
+                .description("큐가 가득 차 호출 스레드에서 직접 저장한 건수")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("simvex.ai.history.flush").register(meterRegistry);
+        Gauge.builder("simvex.ai.history.queue", queue, BlockingQueue::size).register(meterRegistry);
+
+        this.worker = new Thread(this::runLoop, "ai-history-writer");
+        this.worker.setDaemon(true);
+        if (writeBehind) worker.start();
+    }
+
+    public void submit(PendingChat chat) {
+        if (!writeBehind) {
+            write(List.of(chat));
+            return;
+        }
+
+        boolean accepting;
+        boolean queued = false;
+        runningLock.readLock().lock();
+        try {
+            accepting = running;
+            if (accepting) {
+                latestPending.put(pendingKey(chat.modelId(), chat.userId()), chat);
+                queued = queue.offer(chat, offerTimeoutMs, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepting = true;
+        } finally {
+            runningLock.readLock().unlock();
+        }
+        if (!accepting) {
+            // 종료 뒤에 들어온 기록은 호출 스레드에서 바로 저장
+            write(List.of(chat));
+        } else if (!queued) {
+            overflow.increment();
+            write(List.of(chat));
+            latestPending.remove(pendingKey(chat.modelId(), chat.userId()), chat);
+        }
+    }
+
+    /**
+     * 아직 DB 에 쓰이지 않은 (modelId, userId) 의 가장 최근 기록
+     */
+    public PendingChat latestPending(Long modelId, String userId) {
+        return latestPending.get(pendingKey(modelId, userId));
+    }
+
+    /**
+     * 아직 DB 에 쓰이지 않은 (modelId, userId) 기록, 최신 순 최대 limit 건 (쓰는 중인 배치 포함)
+     * 방금 커밋된 배치가 DB 조회 결과와 겹쳐 나올 수 있으므로 합치는 쪽에서 중복을 거른다
+     */
+    public List<PendingChat> pending(Long modelId, String userId, int limit) {
+        List<PendingChat> out = new ArrayList<>();
+        for (PendingChat c : inFlight) {
+            if (matches(c, modelId, userId)) out.add(c);
+        }
+        for (PendingChat c : queue) {
+            if (matches(c, modelId, userId)) out.add(c);
+        }
+        PendingChat latest = latestPending.get(pendingKey(modelId, userId));
+        if (latest != null && !out.contains(latest)) out.add(latest);
+
+        out.sort(Comparator.comparing(PendingChat::createdAt).reversed());
+        return out.size() > limit ? List.copyOf(out.subList(0, limit)) : out;
+    }
+
+    private static boolean matches(PendingChat c, Long modelId, String userId) {
+        return c.modelId().equals(modelId) && c.userId() != null && c.userId().equals(userId);
+    }
+
+    private void runLoop() {
+        List<PendingChat> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingChat first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                // 종료 신호: 루프 조건에서 남은 큐를 마저 비운다
+            } catch (Exception e) {
+                System.out.println("[AI] history writer error: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingChat> batch) {
+        inFlight = List.copyOf(batch);
+        try {
+            flushTimer.record(() -> write(batch));
+        } finally {
+            inFlight = List.of();
+        }
+        for (PendingChat c : batch) {
+            latestPending.remove(pendingKey(c.modelId(), c.userId()), c);
+        }
+    }
+
+    private void write(List<PendingChat> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                insert(batch);
+                written.increment(batch.size());
+                return;
+            } catch (Exception e) {
+                if (!isTransient(e)) {
+                    writeEach(batch, e);
+                    return;
+                }
+                if (attempt >= maxAttempts) {
+                    failed.increment(batch.size());
+                    System.out.println("[AI] history save failed after " + attempt + " attempts ("
+                            + batch.size() + " rows): " + e.getMessage());
+                    return;
+                }
+                retried.increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    // 일시적 오류가 아니면 한 건 때문에 배치 전체를 잃지 않도록 한 건씩 다시 시도
+    private void writeEach(List<PendingChat> batch, Exception cause) {
+        if (batch.size() == 1) {
+            failed.increment();
+            System.out.println("[AI] history save failed: " + cause.getMessage());
+            return;
+        }
+        for (PendingChat c : batch) write(List.of(c));
+    }
+
+    private void insert(List<PendingChat> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, c) -> {
+            ps.setLong(1, c.modelId());
+            ps.setString(2, c.meshName());
+            ps.setString(3, c.question());
+            ps.setString(4, c.answer());
+            ps.setString(5, c.userId());
+            ps.setString(6, c.aiSummary());
+            OpenAIClient.Usage u = c.usage();
+            ps.setString(7, u != null ? u.model() : null);
+            ps.setObject(8, u != null ? u.inputTokens() : null, Types.INTEGER);
+            ps.setObject(9, u != null ? u.outputTokens() : null, Types.INTEGER);
+            ps.setObject(10, u != null ? u.latencyMs() : null, Types.BIGINT);
+            ps.setString(11, c.promptVersion());
+            ps.setTimestamp(12, Timestamp.valueOf(c.createdAt()));
+        });
+    }
+
+    static boolean isTransient(Throwable e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException;
+    }
+
+    private void backoff(int attempt) {
+        long delay = retryBackoffMs * (1L << Math.min(attempt - 1, 10));
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            // 종료 중이면 기다리지 않고 바로 다시 시도 (인터럽트 상태는 유지)
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!writeBehind) return;
+        // 쓰기 락: 이미 running 을 확인하고 큐에 넣는 중인 submit 이 끝날 때까지 기다린다
+        runningLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            runningLock.writeLock().unlock();
+        }
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 혹시 남은 것이 있으면 여기서 마저 저장
+        List<PendingChat> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) write(rest);
+        System.out.println("[AI] history writer stopped");
+    }
+
+    private static String pendingKey(Long modelId, String userId) {
+        return modelId + "|" + userId;
+    }
+
+    /**
+     * @param promptVersion 다른 사용자에게 재사용해도 되는 답변이면 프롬프트 템플릿 버전 (AiService.reusableVersion), 아니면 null
+     */
+    public record PendingChat(Long modelId, String meshName, String question, String answer, String userId,
+                              String aiSummary, OpenAIClient.Usage usage, String promptVersion,
+                              LocalDateTime createdAt) {}
+}
@@ -0,0 +1,246 @@
+// src/main/java/com/simvex/simvex_api/ai/AiCircuitBreaker.java
+package com.simvex.simvex_api.ai;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * OpenAI 서킷 브레이커
+ *
+ * 최근 window-size 건의 호출 결과로 실패율 / 느린 호출 비율을 계산한다.
+ * - CLOSED    : 정상. 임계치를 넘으면 OPEN
+ * - OPEN      : open-duration 동안 호출하지 않고 즉시 CircuitOpenException (→ 대체 답변)
+ * - HALF_OPEN : half-open-calls 건만 시험 호출. 모두 성공하면 CLOSED, 하나라도 실패하면 다시 OPEN
+ *
+ * 상태는 /actuator/health (aiCircuit) 와 simvex.ai.circuit.* 지표로 확인한다.
+ */
+@Component("aiCircuit")
+public class AiCircuitBreaker implements HealthIndicator {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final double slowCallRateThreshold;
+    private final long openDurationMs;
+    private final int halfOpenCalls;
+
+    private final MeterRegistry meterRegistry;
+
+    // 링 버퍼: 0=성공, 1=실패, 2=느린 성공
+    private final byte[] window;
+    private int windowPos = 0;
+    private int windowCount = 0;
+    private int failures = 0;
+    private int slowCalls = 0;
+
+    private State state = State.CLOSED;
+    private long openedAt = 0;
+    private int halfOpenInFlight = 0;
+    private int halfOpenSuccesses = 0;
+    private Instant lastTransition = Instant.now();
+
+    public AiCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${simvex.ai.circuit.window-size:20}") int windowSize,
+            @Value("${simvex.ai.circuit.minimum-calls:10}") int minimumCalls,
+            @Value("${simvex.ai.circuit.failure-rate-threshold:50}") double failureRateThreshold,
+            @Value("${simvex.ai.circuit.slow-call-ms:20000}") long slowCallMs,
+            @Value("${simvex.ai.circuit.slow-call-rate-threshold:80}") double slowCallRateThreshold,
+            @Value("${simvex.ai.circuit.open-duration-ms:30000}") long openDurationMs,
+            @Value("${simvex.ai.circuit.half-open-calls:3}") int halfOpenCalls) {
+        this.meterRegistry = meterRegistry;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallMs * 1_000_000L;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openDurationMs = openDurationMs;
+        this.halfOpenCalls = halfOpenCalls;
+        this.window = new byte[windowSize];
+
+        Gauge.builder("simvex.ai.circuit.state", this, b -> b.state().ordinal())
+                .description("0=CLOSED, 1=OPEN, 2=HALF_OPEN")
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> protect(Mono<T> call) {
+        return protect(call, UnaryOperator.identity());
+    }
+
+    public <T> Flux<T> protect(Flux<T> call) {
+        return protect(call, UnaryOperator.identity());
+    }
+
+    /**
+     * 브레이커를 동시 호출 제한(admission, 예: AiCallLimiter::limit)보다 먼저 확인한다
+     * - OPEN 이면 대기열에 서지 않고 바로 CircuitOpenException (→ 대체 답변)
+     * - 소요 시간은 admission 을 통과해 실제 호출이 시작된 뒤부터 잰다 (대기열 시간은 느린 호출로 세지 않음)
+     * - admission 이 거절(AiBusyException)하면 호출 자체가 없었으므로 성공/실패 어느 쪽으로도 세지 않는다
+     */
+    public <T> Mono<T> protect(Mono<T> call, UnaryOperator<Mono<T>> admission) {
+        return Mono.defer(() -> {
+            if (!tryAcquire()) return Mono.error(new CircuitOpenException());
+            AtomicLong start = new AtomicLong();
+            return admission.apply(Mono.defer(() -> {
+                        start.set(System.nanoTime());
+                        return call;
+                    }))
+                    .doOnSuccess(v -> onResult(false, elapsed(start)))
+                    .doOnError(e -> onError(e, start))
+                    .doOnCancel(this::onCancel);
+        });
+    }
+
+    public <T> Flux<T> protect(Flux<T> call, UnaryOperator<Flux<T>> admission) {
+        return Flux.defer(() -> {
+            if (!tryAcquire()) return Flux.error(new CircuitOpenException());
+            AtomicLong start = new AtomicLong();
+            return admission.apply(Flux.defer(() -> {
+                        start.set(System.nanoTime());
+                        return call;
+                    }))
+                    .doOnComplete(() -> onResult(false, elapsed(start)))
+                    .doOnError(e -> onError(e, start))
+                    .doOnCancel(this::onCancel);
+        });
+    }
+
+    private void onError(Throwable e, AtomicLong start) {
+        if (e instanceof AiCallLimiter.AiBusyException) {
+            onCancel();
+        } else {
+            onResult(countsAsFailure(e), elapsed(start));
+        }
+    }
+
+    private static long elapsed(AtomicLong start) {
+        long s = start.get();
+        return s == 0 ? 0 : System.nanoTime() - s;
+    }
+
+    public synchronized State state() {
+        // OPEN 유지 시간이 지나면 조회 시점에 HALF_OPEN 으로 본다
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openDurationMs) {
+            transition(State.HALF_OPEN);
+        }
+        return state;
+    }
+
+    private synchronized boolean tryAcquire() {
+        switch (state()) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (halfOpenInFlight + halfOpenSuccesses >= halfOpenCalls) return false;
+                halfOpenInFlight++;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private synchronized void onResult(boolean failure, long durationNanos) {
+        boolean slow = !failure && durationNanos >= slowCallNanos;
+
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+            if (failure || slow) {
+                transition(State.OPEN);
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state != State.CLOSED) return;
+
+        record(failure ? (byte) 1 : slow ? (byte) 2 : (byte) 0);
+        if (windowCount < minimumCalls) return;
+
+        double failureRate = failures * 100.0 / windowCount;
+        double slowRate = slowCalls * 100.0 / windowCount;
+        if (failureRate >= failureRateThreshold || slowRate >= slowCallRateThreshold) {
+            System.out.println("[AI] circuit OPEN (failureRate=" + failureRate + "%, slowRate=" + slowRate + "%)");
+            transition(State.OPEN);
+        }
+    }
+
+    private synchronized void onCancel() {
+        if (state == State.HALF_OPEN) halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+    }
+
+    private void record(byte outcome) {
+        if (windowCount == windowSize) {
+            byte old = window[windowPos];
+            if (old == 1) failures--;
+            if (old == 2) slowCalls--;
+        } else {
+            windowCount++;
+        }
+        window[windowPos] = outcome;
+        if (outcome == 1) failures++;
+        if (outcome == 2) slowCalls++;
+        windowPos = (windowPos + 1) % windowSize;
+    }
+
+    private void transition(State to) {
+        if (state == to) return;
+        meterRegistry.counter("simvex.ai.circuit.transitions", "from", state.name(), "to", to.name()).increment();
+        System.out.println("[AI] circuit " + state + " → " + to);
+
+        state = to;
+        lastTransition = Instant.now();
+        if (to == State.OPEN) openedAt = System.currentTimeMillis();
+        if (to == State.HALF_OPEN) {
+            halfOpenInFlight = 0;
+            halfOpenSuccesses = 0;
+        }
+        if (to == State.CLOSED) {
+            windowPos = 0;
+            windowCount = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+    }
+
+    // 4xx(429 제외)는 요청 문제이지 upstream 장애가 아니다
+    private boolean countsAsFailure(Throwable e) {
+        if (e instanceof WebClientResponseException we) {
+            int status = we.getStatusCode().value();
+            return status == 429 || status >= 500;
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized Health health() {
+        State s = state();
+        // 브레이커가 열려도 서비스 자체는 대체 답변으로 동작하므로 UP 으로 두고 상태만 노출
+        return Health.up()
+                .withDetail("state", s.name())
+                .withDetail("failures", failures)
+                .withDetail("slowCalls", slowCalls)
+                .withDetail("calls", windowCount)
+                .withDetail("lastTransition", lastTransition.toString())
+                .build();
+    }
+
+    public static class CircuitOpenException extends RuntimeException {
+        public CircuitOpenException() {
+            super("AI circuit is open");
+        }
+    }
+}
@@ -1,6 +1,28 @@
 // src/main/java/com/simvex/simvex_api/ai/AiClient.java
 package com.simvex.simvex_api.ai;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * LLM 제공자 (AiClientRouter 가 요청마다 하나를 고른다)
+ *
+ * 응답/스트림/usage 형식은 OpenAIClient 의 레코드를 공통으로 쓴다.
+ */
 public interface AiClient {
-    String ask(String prompt);
+
+    // 라우터/지표/응답 meta.provider 에 쓰이는 이름 (예: "openai", "local")
+    String name();
+
+    // 설정(키, 주소)이 있어 호출 가능한지
+    boolean enabled();
+
+    Mono<OpenAIClient.AiResponseWrapper> askAsync(String prompt, String previousResponseId);
+
+    Flux<OpenAIClient.StreamDelta> askStream(String prompt, String previousResponseId);
+
+    // previous_response_id 로 서버 쪽 대화를 이어갈 수 있는지 (false 면 항상 새 대화)
+    default boolean supportsConversation() {
+        return false;
+    }
 }
@@ -0,0 +1,450 @@
+// src/main/java/com/simvex/simvex_api/ai/AiClientRouter.java
+package com.simvex.simvex_api.ai;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * LLM 제공자 라우터
+ *
+ * 등록된 AiClient 중 활성(설정 있음)인 것을 모아 요청마다 하나를 고른다. (MockAiClient 는 제외: AiService 의 오프라인 대체용)
+ * - 선택: 제공자별 EWMA 지연 × (1 + error-penalty × EWMA 오류율) 이 가장 낮은 곳. 동시 호출 상한(max-concurrency)에 찬 곳은 건너뜀
+ *         explore-ratio 만큼은 무작위로 다른 제공자를 골라 통계가 굳지 않게 한다
+ * - 헤징: 첫 제공자가 p95 지연(최근 window 건)을 넘기도록 답이 없으면 두 번째 제공자에도 보내고 먼저 온 쪽을 쓴다 (나머지는 취소)
+ *         스트리밍은 첫 조각이 오기까지의 시간(TTFT)으로 같은 판단을 한다
+ *         첫 제공자가 그 전에 실패하면(연결 실패 / 5xx 등) 헤지 지연을 기다리지 않고 바로 두 번째 제공자로 넘긴다 (hedges{result=failover})
+ *         헤지는 별도의 upstream 호출이므로 호출 쪽이 넘긴 HedgeAdmission 으로 동시 호출 permit / 토큰 예산을 따로 잡는다.
+ *         잡지 못하면 헤지 없이 첫 제공자만 기다린다 (simvex.ai.router.hedges{result=skipped})
+ * - 대화 체인: previous_response_id 는 서버 쪽 대화를 지원하는 openai 에서만 이어갈 수 있으므로 openai 로 고정 (헤징 없음)
+ *         쓸 수 없으면 체인을 버리고 새 대화로 보낸다 (simvex.ai.router.chain-dropped)
+ *         대화를 지원하지 않는 제공자(local)가 답한 턴은 response_id 가 없으므로 AiService 가 이전 ID 를 그대로 유지한다
+ *
+ * 제공자별 설정: simvex.ai.router.providers.{name}.{enabled, priority, max-concurrency}
+ */
+@Component
+public class AiClientRouter {
+
+    private static final String PREFIX = "simvex.ai.router.providers.";
+
+    private final List<Provider> providers;
+    private final Map<String, Provider> byName = new HashMap<>();
+
+    private final boolean hedgeEnabled;
+    private final long hedgeMinDelayMs;
+    private final long hedgeInitialDelayMs;
+    private final int minSamples;
+    private final double alpha;
+    private final double errorPenalty;
+    private final double unhealthyErrorRate;
+    private final double exploreRatio;
+
+    private final Counter hedgesStarted;
+    private final Counter hedgesWon;
+    private final Counter hedgesSkipped;
+    private final Counter failovers;
+    private final Counter chainDropped;
+
+    public AiClientRouter(
+            List<AiClient> clients,
+            Environment env,
+            MeterRegistry meterRegistry,
+            @Value("${simvex.ai.router.hedge.enabled:true}") boolean hedgeEnabled,
+            @Value("${simvex.ai.router.hedge.min-delay-ms:1500}") long hedgeMinDelayMs,
+            @Value("${simvex.ai.router.hedge.initial-delay-ms:8000}") long hedgeInitialDelayMs,
+            @Value("${simvex.ai.router.hedge.min-samples:20}") int minSamples,
+            @Value("${simvex.ai.router.window:200}") int window,
+            @Value("${simvex.ai.router.ewma-alpha:0.2}") double alpha,
+            @Value("${simvex.ai.router.initial-latency-ms:3000}") long initialLatencyMs,
+            @Value("${simvex.ai.router.error-penalty:4.0}") double errorPenalty,
+            @Value("${simvex.ai.router.unhealthy-error-rate:0.5}") double unhealthyErrorRate,
+            @Value("${simvex.ai.router.explore-ratio:0.02}") double exploreRatio) {
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeMinDelayMs = hedgeMinDelayMs;
+        this.hedgeInitialDelayMs = hedgeInitialDelayMs;
+        this.minSamples = minSamples;
+        this.alpha = alpha;
+        this.errorPenalty = errorPenalty;
+        this.unhealthyErrorRate = unhealthyErrorRate;
+        this.exploreRatio = exploreRatio;
+
+        List<Provider> list = new ArrayList<>();
+        for (AiClient c : clients) {
+            if (MockAiClient.NAME.equals(c.name()) || !c.enabled()) continue;
+            if (!env.getProperty(PREFIX + c.name() + ".enabled", Boolean.class, true)) continue;
+            int priority = env.getProperty(PREFIX + c.name() + ".priority", Integer.class,
+                    OpenAIClient.NAME.equals(c.name()) ? 0 : 100);
+            int maxConcurrency = env.getProperty(PREFIX + c.name() + ".max-concurrency", Integer.class, 64);
+            list.add(new Provider(c, priority, maxConcurrency, window, initialLatencyMs));
+        }
+        list.sort(Comparator.comparingInt((Provider p) -> p.priority).thenComparing(p -> p.name));
+        this.providers = List.copyOf(list);
+
+        for (Provider p : providers) {
+            byName.put(p.name, p);
+            Gauge.builder("simvex.ai.router.latency.ewma", p, Provider::ewmaLatencyMs)
+                    .tag("provider", p.name).baseUnit("milliseconds").register(meterRegistry);
+            Gauge.builder("simvex.ai.router.latency.p95", p, x -> x.askLatency.p95())
+                    .tag("provider", p.name).baseUnit("milliseconds").register(meterRegistry);
+            Gauge.builder("simvex.ai.router.error-rate", p, Provider::errorRate)
+                    .tag("provider", p.name).register(meterRegistry);
+            Gauge.builder("simvex.ai.router.in-flight", p.inFlight, AtomicInteger::get)
+                    .tag("provider", p.name).register(meterRegistry);
+            p.successes = Counter.builder("simvex.ai.router.calls")
+                    .tag("provider", p.name).tag("outcome", "success").register(meterRegistry);
+            p.errors = Counter.builder("simvex.ai.router.calls")
+                    .tag("provider", p.name).tag("outcome", "error").register(meterRegistry);
+            p.rejected = Counter.builder("simvex.ai.router.calls")
+                    .tag("provider", p.name).tag("outcome", "rejected").register(meterRegistry);
+        }
+        this.hedgesStarted = Counter.builder("simvex.ai.router.hedges").tag("result", "started").register(meterRegistry);
+        this.hedgesWon = Counter.builder("simvex.ai.router.hedges").tag("result", "won").register(meterRegistry);
+        this.hedgesSkipped = Counter.builder("simvex.ai.router.hedges").tag("result", "skipped").register(meterRegistry);
+        this.failovers = Counter.builder("simvex.ai.router.hedges").tag("result", "failover").register(meterRegistry);
+        this.chainDropped = Counter.builder("simvex.ai.router.chain-dropped").register(meterRegistry);
+
+        System.out.println("[AI] providers: " + (providers.isEmpty() ? "(none, mock)" : providers.stream()
+                .map(p -> p.name + "(max " + p.maxConcurrency + ")").toList()));
+    }
+
+    // 실제 제공자가 하나라도 있는지 (없으면 AiService 가 mock 으로 답한다)
+    public boolean enabled() {
+        return !providers.isEmpty();
+    }
+
+    // 우선순위가 가장 높은 제공자 이름 (제공자를 특정할 수 없는 오류 결과 표기용)
+    public String defaultProvider() {
+        return providers.isEmpty() ? MockAiClient.NAME : providers.get(0).name;
+    }
+
+    // 이 제공자의 답변이 서버 쪽 대화 체인을 한 턴 늘리는지 (AiConversationManager 턴 집계용)
+    public boolean continuesConversation(String provider) {
+        Provider p = provider != null ? byName.get(provider) : null;
+        return p != null && p.client.supportsConversation();
+    }
+
+    /**
+     * @param hedge 헤지 호출에 따로 동시 호출 permit / 토큰 예산을 잡는 훅 (잡지 못하면 헤지하지 않음)
+     */
+    public Mono<Routed<OpenAIClient.AiResponseWrapper>> askAsync(String prompt, String previousResponseId,
+                                                                 HedgeAdmission hedge) {
+        return Mono.defer(() -> {
+            Provider pinned = pin(previousResponseId);
+            if (pinned != null) {
+                return attempt(pinned, p -> p.client.askAsync(prompt, previousResponseId), p -> p.askLatency);
+            }
+
+            Provider primary = choose(null);
+            if (primary == null) return Mono.error(new AiCallLimiter.AiBusyException());
+
+            if (!hedgeEnabled || providers.size() < 2) {
+                return attempt(primary, p -> p.client.askAsync(prompt, null), p -> p.askLatency);
+            }
+
+            AtomicBoolean primaryFailed = new AtomicBoolean();
+            Sinks.Empty<Void> failover = Sinks.empty();
+            Mono<Routed<OpenAIClient.AiResponseWrapper>> first =
+                    attempt(primary, p -> p.client.askAsync(prompt, null), p -> p.askLatency)
+                            .doOnError(e -> {
+                                primaryFailed.set(true);
+                                failover.tryEmitEmpty();
+                            });
+
+            Mono<Routed<OpenAIClient.AiResponseWrapper>> second = hedgeTrigger(primary.askLatency, failover)
+                    .then(Mono.defer(() -> {
+                        Provider p2 = choose(primary);
+                        if (p2 == null) return Mono.empty();
+                        return hedge.admit(Mono.defer(() -> {
+                                    countHedge(primaryFailed.get());
+                                    return attempt(p2, p -> p.client.askAsync(prompt, null), p -> p.askLatency);
+                                }))
+                                .onErrorResume(this::notAdmitted, e -> {
+                                    hedgesSkipped.increment();
+                                    return Mono.empty();
+                                });
+                    }));
+
+            return Mono.firstWithValue(first, second)
+                    .doOnNext(r -> {
+                        if (!r.provider().equals(primary.name)) hedgesWon.increment();
+                    })
+                    .onErrorMap(NoSuchElementException.class, AiClientRouter::firstCause);
+        });
+    }
+
+    public Flux<Routed<OpenAIClient.StreamDelta>> askStream(String prompt, String previousResponseId,
+                                                            HedgeAdmission hedge) {
+        return Flux.defer(() -> {
+            Provider pinned = pin(previousResponseId);
+            if (pinned != null) {
+                return attemptStream(pinned, prompt, previousResponseId);
+            }
+
+            Provider primary = choose(null);
+            if (primary == null) return Flux.error(new AiCallLimiter.AiBusyException());
+
+            if (!hedgeEnabled || providers.size() < 2) return attemptStream(primary, prompt, null);
+
+            // 첫 조각 전에 실패한 경우만 의미가 있다 (조각을 보낸 뒤라면 이미 second 는 취소됨)
+            AtomicBoolean primaryFailed = new AtomicBoolean();
+            Sinks.Empty<Void> failover = Sinks.empty();
+            Flux<Routed<OpenAIClient.StreamDelta>> first = attemptStream(primary, prompt, null)
+                    .doOnError(e -> {
+                        primaryFailed.set(true);
+                        failover.tryEmitEmpty();
+                    });
+
+            Flux<Routed<OpenAIClient.StreamDelta>> second = hedgeTrigger(primary.streamLatency, failover)
+                    .thenMany(Flux.defer(() -> {
+                        Provider p2 = choose(primary);
+                        if (p2 == null) return Flux.empty();
+                        return hedge.admit(Flux.defer(() -> {
+                                    countHedge(primaryFailed.get());
+                                    return attemptStream(p2, prompt, null);
+                                }))
+                                .onErrorResume(this::notAdmitted, e -> {
+                                    hedgesSkipped.increment();
+                                    return Flux.empty();
+                                });
+                    }));
+
+            // 첫 조각을 먼저 보낸 쪽만 이어서 흘려보내고 다른 쪽은 취소
+            return Flux.firstWithValue(first, second)
+                    .switchOnFirst((signal, flux) -> {
+                        if (signal.hasValue() && !signal.get().provider().equals(primary.name)) hedgesWon.increment();
+                        return flux;
+                    })
+                    .onErrorMap(NoSuchElementException.class, AiClientRouter::firstCause);
+        });
+    }
+
+    // 체인을 이어갈 제공자 (openai). 쓸 수 없으면 null (새 대화로 라우팅)
+    private Provider pin(String previousResponseId) {
+        if (previousResponseId == null || previousResponseId.isBlank()) return null;
+
+        Provider p = byName.get(OpenAIClient.NAME);
+        if (p == null || !p.client.supportsConversation() || !p.hasCapacity() || p.errorRate() >= unhealthyErrorRate) {
+            chainDropped.increment();
+            return null;
+        }
+        return p;
+    }
+
+    // 헤지를 시작하지 못한 경우 (permit / 토큰 예산 / 제공자 동시 호출 상한). 헤지를 건너뛰고 첫 제공자만 기다린다
+    private boolean notAdmitted(Throwable e) {
+        return e instanceof AiCallLimiter.AiBusyException || e instanceof AiRateLimiter.AiRateLimitedException;
+    }
+
+    private Provider choose(Provider exclude) {
+        List<Provider> available = new ArrayList<>(providers.size());
+        for (Provider p : providers) {
+            if (p != exclude && p.hasCapacity()) available.add(p);
+        }
+        if (available.isEmpty()) return null;
+
+        if (available.size() > 1 && ThreadLocalRandom.current().nextDouble() < exploreRatio) {
+            return available.get(ThreadLocalRandom.current().nextInt(available.size()));
+        }
+
+        // 건강한 제공자가 있으면 그 중에서, 모두 나쁘면 전체에서 고른다
+        List<Provider> healthy = available.stream().filter(p -> p.errorRate() < unhealthyErrorRate).toList();
+        List<Provider> pool = healthy.isEmpty() ? available : healthy;
+        return pool.stream()
+                .min(Comparator.comparingDouble(this::score).thenComparingInt(p -> p.priority))
+                .orElse(null);
+    }
+
+    private double score(Provider p) {
+        return p.ewmaLatencyMs() * (1 + errorPenalty * p.errorRate());
+    }
+
+    // 헤지 지연이 지나거나 첫 제공자가 실패하면 (먼저 오는 쪽) 두 번째 제공자를 시작한다
+    private Mono<Void> hedgeTrigger(LatencyStats stats, Sinks.Empty<Void> failover) {
+        return Mono.firstWithSignal(Mono.delay(hedgeDelay(stats)).then(), failover.asMono());
+    }
+
+    private void countHedge(boolean primaryFailed) {
+        (primaryFailed ? failovers : hedgesStarted).increment();
+    }
+
+    private Duration hedgeDelay(LatencyStats stats) {
+        if (stats.count() < minSamples) return Duration.ofMillis(hedgeInitialDelayMs);
+        return Duration.ofMillis(Math.max(hedgeMinDelayMs, stats.p95()));
+    }
+
+    private <T> Mono<Routed<T>> attempt(Provider p, Function<Provider, Mono<T>> call,
+                                        Function<Provider, LatencyStats> stats) {
+        return Mono.defer(() -> {
+            if (!p.tryAcquire()) {
+                p.rejected.increment();
+                return Mono.error(new AiCallLimiter.AiBusyException());
+            }
+            long start = System.nanoTime();
+            return call.apply(p)
+                    .doOnSuccess(v -> p.onSuccess(stats.apply(p), elapsedMs(start), alpha))
+                    .doOnError(e -> p.onError(alpha))
+                    .doFinally(s -> p.release())
+                    .map(v -> new Routed<>(p.name, v));
+        });
+    }
+
+    private Flux<Routed<OpenAIClient.StreamDelta>> attemptStream(Provider p, String prompt, String previousResponseId) {
+        return Flux.defer(() -> {
+            if (!p.tryAcquire()) {
+                p.rejected.increment();
+                return Flux.error(new AiCallLimiter.AiBusyException());
+            }
+            long start = System.nanoTime();
+            boolean[] first = {true};
+            return p.client.askStream(prompt, previousResponseId)
+                    .doOnNext(d -> {
+                        // 지연 표본은 첫 조각까지의 시간 (TTFT)
+                        if (first[0]) {
+                            first[0] = false;
+                            p.onSuccess(p.streamLatency, elapsedMs(start), alpha);
+                        }
+                    })
+                    .doOnError(e -> p.onError(alpha))
+                    .doFinally(s -> p.release())
+                    .map(d -> new Routed<>(p.name, d));
+        });
+    }
+
+    // firstWithValue 는 모든 쪽이 실패하면 원인들을 cause(복합 예외) / suppressed 로 묶는다 → 첫 제공자의 원인을 그대로 돌려준다
+    private static Throwable firstCause(NoSuchElementException e) {
+        List<Throwable> causes = new ArrayList<>(Arrays.asList(e.getSuppressed()));
+        if (e.getCause() != null) causes.addAll(Exceptions.unwrapMultiple(e.getCause()));
+        return causes.stream().filter(c -> !(c instanceof NoSuchElementException)).findFirst().orElse(e);
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    public record Routed<T>(String provider, T value) {}
+
+    /**
+     * 헤지 호출 하나를 감싸 동시 호출 permit / upstream 토큰 예산을 헤지 몫으로 따로 잡는다.
+     * 잡지 못하면 AiBusyException / AiRateLimitedException 으로 끝내면 된다 (라우터는 헤지를 건너뜀)
+     */
+    public interface HedgeAdmission {
+        <T> Mono<T> admit(Mono<T> call);
+
+        <T> Flux<T> admit(Flux<T> call);
+    }
+
+    private static final class Provider {
+        private final AiClient client;
+        private final String name;
+        private final int priority;
+        private final int maxConcurrency;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LatencyStats askLatency;
+        private final LatencyStats streamLatency;
+
+        private volatile double ewmaErrorRate = 0;
+
+        private Counter successes;
+        private Counter errors;
+        private Counter rejected;
+
+        Provider(AiClient client, int priority, int maxConcurrency, int window, long initialLatencyMs) {
+            this.client = client;
+            this.name = client.name();
+            this.priority = priority;
+            this.maxConcurrency = maxConcurrency;
+            this.askLatency = new LatencyStats(window, initialLatencyMs);
+            this.streamLatency = new LatencyStats(window, initialLatencyMs);
+        }
+
+        boolean hasCapacity() {
+            return inFlight.get() < maxConcurrency;
+        }
+
+        boolean tryAcquire() {
+            while (true) {
+                int n = inFlight.get();
+                if (n >= maxConcurrency) return false;
+                if (inFlight.compareAndSet(n, n + 1)) return true;
+            }
+        }
+
+        void release() {
+            inFlight.decrementAndGet();
+        }
+
+        double ewmaLatencyMs() {
+            return askLatency.ewma();
+        }
+
+        double errorRate() {
+            return ewmaErrorRate;
+        }
+
+        synchronized void onSuccess(LatencyStats stats, long latencyMs, double alpha) {
+            stats.record(latencyMs, alpha);
+            ewmaErrorRate = ewmaErrorRate * (1 - alpha);
+            successes.increment();
+        }
+
+        synchronized void onError(double alpha) {
+            ewmaErrorRate = ewmaErrorRate * (1 - alpha) + alpha;
+            errors.increment();
+        }
+    }
+
+    // EWMA + 최근 window 건 링 버퍼 (p95 계산용)
+    private static final class LatencyStats {
+        private final long[] samples;
+        private int next;
+        private int count;
+        private double ewma;
+
+        LatencyStats(int window, long initialMs) {
+            this.samples = new long[Math.max(1, window)];
+            this.ewma = initialMs;
+        }
+
+        synchronized void record(long ms, double alpha) {
+            samples[next] = ms;
+            next = (next + 1) % samples.length;
+            if (count < samples.length) count++;
+            ewma = count == 1 ? ms : ewma * (1 - alpha) + ms * alpha;
+        }
+
+        synchronized double ewma() {
+            return ewma;
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized long p95() {
+            if (count == 0) return 0;
+            long[] copy = Arrays.copyOf(samples, count);
+            Arrays.sort(copy);
+            return copy[(int) Math.ceil(count * 0.95) - 1];
+        }
+    }
+}
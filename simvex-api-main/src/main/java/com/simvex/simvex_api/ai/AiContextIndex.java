@@ -0,0 +1,190 @@
+// src/main/java/com/simvex/simvex_api/ai/AiContextIndex.java
+package com.simvex.simvex_api.ai;
+
+import com.simvex.simvex_api.model.CatalogChangedEvent;
+import com.simvex.simvex_api.model.CatalogVersion;
+import com.simvex.simvex_api.model.ModelEntity;
+import com.simvex.simvex_api.model.ModelRepository;
+import com.simvex.simvex_api.part.PartEntity;
+import com.simvex.simvex_api.part.PartRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AI 컨텍스트용 모델/부품 인덱스 (메모리, 불변 스냅샷)
+ *
+ * 부품 카탈로그는 작고 거의 바뀌지 않으므로, 전체를 한 번 읽어 프롬프트에 들어갈 문자열까지 미리 만들어 둔다.
+ * buildContext 는 DB 조회 / jsonb 역직렬화 없이 해시 조회만 한다.
+ *
+ * - 첫 조회 시 로드, 이후 CatalogChangedEvent (임포트/모델 변경 커밋 후) 마다 새 스냅샷으로 통째로 교체
+ * - 스냅샷마다 만들 때의 CatalogVersion 을 기록한다. 이벤트 없는 엔티티 쓰기로 버전이 달라졌으면
+ *   지금 스냅샷을 그대로 돌려주고 백그라운드 스레드 하나가 다시 만든다 (조회 스레드는 DB 를 기다리지 않음)
+ * - 읽는 쪽은 volatile 참조 하나만 읽으므로 재빌드 중에도 이전 스냅샷을 일관되게 본다
+ */
+@Component
+public class AiContextIndex {
+
+    private final ModelRepository modelRepository;
+    private final PartRepository partRepository;
+    private final CatalogVersion catalogVersion;
+
+    // 버전이 어긋났을 때의 재빌드는 한 번에 하나만 대기
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ai-context-index");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    public AiContextIndex(ModelRepository modelRepository, PartRepository partRepository,
+                          CatalogVersion catalogVersion) {
+        this.modelRepository = modelRepository;
+        this.partRepository = partRepository;
+        this.catalogVersion = catalogVersion;
+    }
+
+    public ModelContext model(Long modelId) {
+        if (modelId == null) return null;
+        return snapshot().models().get(modelId);
+    }
+
+    public PartContext part(Long modelId, String meshName) {
+        if (modelId == null || meshName == null) return null;
+        return snapshot().parts().get(partKey(modelId, meshName));
+    }
+
+    /**
+     * 지금 스냅샷이 만들어진 CatalogVersion. 이 인덱스로 만든 캐시(prefix, 답변)는 이 값이 바뀌면 버린다
+     * 전역 버전보다 뒤처져 있으면 재빌드를 예약하고, 새 스냅샷이 들어올 때 값이 바뀐다
+     */
+    public long version() {
+        return snapshot().version();
+    }
+
+    // 다른 리스너(예: 속도 제한 예산)가 새 인덱스를 보도록 가장 먼저 실행
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        rebuild();
+        System.out.println("[AI] context index rebuilt (" + event.reason() + "): "
+                + snapshot.models().size() + " models, " + snapshot.parts().size() + " parts");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            rebuild();
+            return snapshot;
+        }
+        if (s.version() != catalogVersion.current()) {
+            rebuildLater();
+        }
+        return s;
+    }
+
+    private void rebuildLater() {
+        if (!rebuildQueued.compareAndSet(false, true)) return;
+        try {
+            rebuilder.execute(() -> {
+                // 만드는 도중의 쓰기는 다시 예약되도록 먼저 내린다
+                rebuildQueued.set(false);
+                try {
+                    rebuild();
+                } catch (Exception e) {
+                    System.out.println("[AI] context index rebuild failed: " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rebuildQueued.set(false);
+        }
+    }
+
+    private synchronized void rebuild() {
+        // 읽기 전에 버전을 잡아 둔다 (읽는 도중 바뀌면 다음 조회에서 또 어긋나 다시 만든다)
+        long version = catalogVersion.current();
+        Snapshot current = snapshot;
+        if (current != null && current.version() == version) return;
+
+        Map<Long, ModelContext> models = new HashMap<>();
+        for (ModelEntity m : modelRepository.findAll()) {
+            models.put(m.getId(), ModelContext.of(m));
+        }
+
+        Map<String, PartContext> parts = new HashMap<>();
+        for (PartEntity p : partRepository.findAll()) {
+            // 지연 로딩 프록시여도 getId() 는 초기화 없이 식별자만 돌려준다
+            Long modelId = p.getModel().getId();
+            parts.put(partKey(modelId, p.getMeshName()), PartContext.of(p));
+        }
+
+        this.snapshot = new Snapshot(version, Map.copyOf(models), Map.copyOf(parts));
+    }
+
+    private static String partKey(Long modelId, String meshName) {
+        return modelId + "|" + meshName;
+    }
+
+    private record Snapshot(long version, Map<Long, ModelContext> models, Map<String, PartContext> parts) {}
+
+    /**
+     * @param description 원문 설명 (AiPromptBuilder 가 예산에 맞춰 자를 때 사용, 없으면 null)
+     * @param context     프롬프트 [Context Info] 의 모델 부분 (자르지 않은 원문)
+     * @param fallback    AI 호출 불가 시 대체 답변 본문 (설명이 없으면 null)
+     */
+    public record ModelContext(String title, String domainKey, String description, String context, String fallback) {
+        static ModelContext of(ModelEntity m) {
+            String desc = m.getDescription();
+            String fallback = (desc != null && !desc.isBlank()) ? "[" + m.getTitle() + "]\n" + desc : null;
+            return new ModelContext(m.getTitle(), m.getDomainKey(), desc, format(m.getTitle(), desc), fallback);
+        }
+
+        static String format(String title, String desc) {
+            return """
+                    - Model Title: %s
+                    - Model Description: %s
+                    """.formatted(title, desc != null ? desc : "N/A");
+        }
+    }
+
+    public record PartContext(String title, String description, String context, String fallback) {
+        static PartContext of(PartEntity p) {
+            Map<String, Object> content = p.getContent() != null ? p.getContent() : Map.of();
+            String title = (content.get("title") != null) ? content.get("title").toString() : p.getMeshName();
+            // 임포트 데이터는 "description" 키로 저장됨 (Data_*.json 의 desc)
+            String desc = firstText(content, "desc", "description");
+            return new PartContext(title, desc, format(title, desc), desc != null ? "[" + title + "]\n" + desc : null);
+        }
+
+        static String format(String title, String desc) {
+            return """
+                    - Part Name: %s
+                    - Part Description: %s
+                    """.formatted(title, desc != null ? desc : "설명 없음");
+        }
+
+        private static String firstText(Map<String, Object> content, String... keys) {
+            for (String k : keys) {
+                Object v = content.get(k);
+                if (v != null && !v.toString().isBlank()) return v.toString();
+            }
+            return null;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 // src/main/java/com/simvex/simvex_api/ai/AiContextResult.java
 package com.simvex.simvex_api.ai;
 
+import java.util.HashMap;
 import java.util.Map;
 
 // class -> record 로 변경
@@ -8,6 +9,30 @@ public record AiContextResult(
     String mode,          // "GLOBAL" | "PART"
     String partContext,   // 부품 정보 (기존 context)
     String modelContext,  // [신규] 모델 정보 (Title, Description)
-    String aiSummary,
-    Map<String, Object> meta
-) {}
\ No newline at end of file
+    String aiSummary,     // 마지막 대화의 response_id (캐시 답변 등 upstream 을 안 거치면 그대로 이어받음)
+    Map<String, Object> meta,
+    String degradedAnswer, // [신규] AI 호출 불가 시 대신 보여줄 기본 설명 (부품/모델 설명 기반)
+    String upstreamResponseId,  // 이번 OpenAI 호출의 previous_response_id (맥락 압축 시 null → 새 체인)
+    String conversationSummary, // 맥락 압축 시 프롬프트에 넣을 이전 대화 요약 (아니면 null)
+    AiPromptBuilder.Prefix promptPrefix // (model, part) 별로 캐시된 정적 프롬프트 앞부분 (설명은 토큰 예산 안으로 자름)
+) {
+    // 이전 체인도 대화 요약도 없는 턴: 답변이 (model, mesh, question, 템플릿 버전) 만으로 정해져 다른 사용자와 나눠 쓸 수 있다
+    public boolean standalone() {
+        return upstreamResponseId == null && conversationSummary == null;
+    }
+
+    // 대화 중이지만 앞 대화와 무관한 질문이라 체인 밖에서 답하는 턴 (저장할 때는 이전 체인 ID 를 그대로 잇는다)
+    public boolean detached() {
+        return standalone() && aiSummary != null;
+    }
+
+    // 이전 체인 / 대화 요약을 빼고 같은 사용자의 체인 ID(aiSummary) 만 남긴다
+    public AiContextResult detach() {
+        if (standalone()) return this;
+        Map<String, Object> m = meta != null ? new HashMap<>(meta) : new HashMap<>();
+        m.remove("conversationCompacted");
+        m.put("conversationDetached", true);
+        return new AiContextResult(mode, partContext, modelContext, aiSummary, m, degradedAnswer,
+                null, null, promptPrefix);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,212 @@
+// src/main/java/com/simvex/simvex_api/ai/AiConversationManager.java
+package com.simvex.simvex_api.ai;
+
+import com.simvex.simvex_api.domain.AiChatHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 대화 맥락 압축
+ *
+ * previous_response_id 로 계속 이어 붙이면 OpenAI 쪽 대화가 끝없이 길어져 매 턴 전체 기록만큼 입력 토큰을 낸다.
+ * (user, model) 별로 체인 길이(턴 수, 마지막 입력 토큰 수)를 세다가 임계치를 넘으면
+ * 최근 대화를 짧은 요약으로 만들어 프롬프트에 넣고 previous_response_id 없이 새 체인을 시작한다.
+ *
+ * - 요약은 LLM 호출 없이 최근 기록에서 뽑아 만든다 (추가 비용 없음)
+ *   DB 기록과 AiChatHistoryWriter 에 아직 저장 대기 중인 기록을 합쳐서 본다 (write-behind 로 방금 한 대화가 빠지지 않게)
+ * - 상태는 메모리에만 둔다. 재시작 후에는 0턴부터 다시 센다 (압축이 조금 늦어질 뿐 대화는 이어진다)
+ * - 절감량: 압축 직전 체인의 입력 토큰 - 새 체인 첫 턴의 입력 토큰 (simvex.ai.conversation.tokens-saved)
+ */
+@Component
+public class AiConversationManager {
+
+    private final boolean enabled;
+    private final int maxTurns;
+    private final int maxInputTokens;
+    private final int summaryTurns;
+    private final int summaryMaxChars;
+    private final long idleTtlMs;
+
+    private final AiChatHistoryRepository aiChatHistoryRepository;
+    private final AiChatHistoryWriter aiChatHistoryWriter;
+
+    private final ConcurrentHashMap<String, ChainState> chains = new ConcurrentHashMap<>();
+
+    private final Counter compactions;
+    private final DistributionSummary tokensSaved;
+
+    public AiConversationManager(
+            AiChatHistoryRepository aiChatHistoryRepository,
+            AiChatHistoryWriter aiChatHistoryWriter,
+            MeterRegistry meterRegistry,
+            @Value("${simvex.ai.conversation.enabled:true}") boolean enabled,
+            @Value("${simvex.ai.conversation.max-turns:10}") int maxTurns,
+            @Value("${simvex.ai.conversation.max-input-tokens:8000}") int maxInputTokens,
+            @Value("${simvex.ai.conversation.summary-turns:5}") int summaryTurns,
+            @Value("${simvex.ai.conversation.summary-max-chars:1500}") int summaryMaxChars,
+            @Value("${simvex.ai.conversation.idle-ttl-minutes:1440}") long idleTtlMinutes) {
+        this.aiChatHistoryRepository = aiChatHistoryRepository;
+        this.aiChatHistoryWriter = aiChatHistoryWriter;
+        this.enabled = enabled;
+        this.maxTurns = maxTurns;
+        this.maxInputTokens = maxInputTokens;
+        this.summaryTurns = summaryTurns;
+        this.summaryMaxChars = summaryMaxChars;
+        this.idleTtlMs = TimeUnit.MINUTES.toMillis(idleTtlMinutes);
+
+        this.compactions = Counter.builder("simvex.ai.conversation.compactions").register(meterRegistry);
+        this.tokensSaved = DistributionSummary.builder("simvex.ai.conversation.tokens-saved")
+                .baseUnit("tokens")
+                .description("압축 직후 첫 턴에서 줄어든 입력 토큰 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 이번 질문에 쓸 대화 맥락을 정한다 (블로킹: 압축 시 최근 기록을 DB 에서 읽음)
+     *
+     * @param previousResponseId 마지막 대화의 response_id (없으면 null)
+     */
+    public Context prepare(Long modelId, String userId, String previousResponseId) {
+        if (!enabled || modelId == null || userId == null || previousResponseId == null) {
+            return new Context(previousResponseId, null);
+        }
+
+        ChainState state = chains.get(key(modelId, userId));
+        if (state == null || !state.exceeds(maxTurns, maxInputTokens)) {
+            return new Context(previousResponseId, null);
+        }
+
+        String summary = summarize(modelId, userId, state.summary);
+        state.pendingCompaction(summary);
+        return new Context(null, summary);
+    }
+
+    /**
+     * OpenAI 를 실제로 호출해 대화가 한 턴 이어졌을 때 (캐시/공유 답변은 체인을 늘리지 않으므로 호출하지 않음)
+     */
+    public void record(Long modelId, String userId, OpenAIClient.Usage usage) {
+        if (!enabled || modelId == null || userId == null || usage == null) return;
+        ChainState state = chains.computeIfAbsent(key(modelId, userId), k -> new ChainState());
+        Integer saved = state.onTurn(usage.inputTokens());
+        if (saved != null) {
+            compactions.increment();
+            if (saved > 0) tokensSaved.record(saved);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${simvex.ai.conversation.sweep-interval-ms:600000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        chains.values().removeIf(s -> now - s.touchedAt > idleTtlMs);
+    }
+
+    // 최근 summary-turns 개 대화의 질문 + 답변 앞부분, 이전 요약이 있으면 앞에 붙인다
+    private String summarize(Long modelId, String userId, String previousSummary) {
+        List<Turn> rows = recentTurns(modelId, userId);
+
+        StringBuilder sb = new StringBuilder("- Previous Conversation Summary:\n");
+        if (previousSummary != null) {
+            sb.append("  (earlier) ").append(clip(previousSummary.replace('\n', ' '), summaryMaxChars / 4)).append('\n');
+        }
+        int perTurn = Math.max(80, summaryMaxChars / Math.max(1, rows.size()));
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            var r = rows.get(i);
+            sb.append("  Q: ").append(clip(r.question(), perTurn / 3)).append('\n');
+            sb.append("  A: ").append(clip(r.answer(), perTurn)).append('\n');
+        }
+        return clip(sb.toString(), summaryMaxChars);
+    }
+
+    // 저장 대기 중인 기록 + DB 기록을 최신 순으로 합쳐 summary-turns 개 (방금 커밋된 배치와 겹치는 행은 하나만)
+    private List<Turn> recentTurns(Long modelId, String userId) {
+        List<Turn> merged = new ArrayList<>();
+        for (AiChatHistoryWriter.PendingChat c : aiChatHistoryWriter.pending(modelId, userId, summaryTurns)) {
+            merged.add(new Turn(c.question(), c.answer(), c.createdAt()));
+        }
+        for (AiChatHistoryRepository.HistoryRow r : aiChatHistoryRepository.findPageBefore(
+                modelId, userId, LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE,
+                PageRequest.of(0, summaryTurns))) {
+            merged.add(new Turn(r.getQuestion(), r.getAnswer(), r.getCreatedAt()));
+        }
+        merged.sort(Comparator.comparing(Turn::createdAt).reversed());
+
+        Set<String> seen = new HashSet<>();
+        List<Turn> out = new ArrayList<>(summaryTurns);
+        for (Turn t : merged) {
+            if (out.size() >= summaryTurns) break;
+            // DB 왕복으로 시각 정밀도가 달라질 수 있어 ms 단위로 비교
+            if (seen.add(t.createdAt().truncatedTo(ChronoUnit.MILLIS) + "|" + t.question())) out.add(t);
+        }
+        return out;
+    }
+
+    private static String clip(String s, int max) {
+        if (s == null) return "";
+        String one = s.strip();
+        return one.length() <= max ? one : one.substring(0, max) + "…";
+    }
+
+    private static String key(Long modelId, String userId) {
+        return modelId + "|" + userId;
+    }
+
+    /**
+     * @param previousResponseId 이어갈 response_id (압축 시 null → 새 체인)
+     * @param summary            새 체인 첫 턴 프롬프트에 넣을 요약 (압축하지 않으면 null)
+     */
+    public record Context(String previousResponseId, String summary) {}
+
+    private record Turn(String question, String answer, LocalDateTime createdAt) {}
+
+    private static final class ChainState {
+        private int turns;
+        private int lastInputTokens;
+        private String summary;
+        private Integer compactedFromTokens;
+        private volatile long touchedAt = System.currentTimeMillis();
+
+        synchronized boolean exceeds(int maxTurns, int maxInputTokens) {
+            return turns >= maxTurns || lastInputTokens >= maxInputTokens;
+        }
+
+        synchronized void pendingCompaction(String newSummary) {
+            // 같은 사용자가 연달아 보내도 압축 전 토큰 수는 처음 값으로 유지
+            if (compactedFromTokens == null) compactedFromTokens = lastInputTokens;
+            summary = newSummary;
+            touchedAt = System.currentTimeMillis();
+        }
+
+        /**
+         * @return 이번 턴이 압축 후 첫 턴이면 절감 토큰 수, 아니면 null
+         */
+        synchronized Integer onTurn(Integer inputTokens) {
+            touchedAt = System.currentTimeMillis();
+            int tokens = inputTokens == null ? 0 : inputTokens;
+            if (compactedFromTokens != null) {
+                int saved = compactedFromTokens - tokens;
+                compactedFromTokens = null;
+                turns = 1;
+                lastInputTokens = tokens;
+                return saved;
+            }
+            turns++;
+            lastInputTokens = tokens;
+            return null;
+        }
+    }
+}
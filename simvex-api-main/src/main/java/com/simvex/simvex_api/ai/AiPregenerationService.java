@@ -0,0 +1,347 @@
+// src/main/java/com/simvex/simvex_api/ai/AiPregenerationService.java
+package com.simvex.simvex_api.ai;
+
+import com.simvex.simvex_api.domain.AiChatHistoryRepository;
+import com.simvex.simvex_api.dto.AiAskRequestDto;
+import com.simvex.simvex_api.part.PartEntity;
+import com.simvex.simvex_api.part.PartRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 모델 전체 부품 답변 사전 생성 (관리자 배치)
+ *
+ * 수업 전에 모델의 모든 부품 × 질문 템플릿 답변을 미리 만들어 두어, 첫 실시간 질문이 캐시에서 바로 나가게 한다.
+ * - 부품 목록: PartRepository.findByModelIdOrderByIdAsc
+ * - 질문 템플릿: simvex.ai.pregen.questions (또는 요청 본문), "{part}" 는 부품 이름으로 치환
+ * - 동시 실행 수 parallelism 으로 제한. OpenAI 호출은 기존 AiCallLimiter / AiCircuitBreaker / upstream 토큰 예산을 그대로 거친다
+ *   (예산 초과 시 Retry-After 만큼 기다렸다가 재시도)
+ * - 결과는 AiAnswerCache(사전 생성 TTL) + AiSemanticCache + ai_chat_histories(사전 생성 계정 user-id) 에 저장
+ * - 재개: 시작할 때 사전 생성 계정의 기존 기록 중 현재 템플릿 버전(prompt_version)으로 만든 것을 읽어,
+ *   이미 만든 (부품, 질문) 은 호출 없이 캐시만 다시 채운다 (취소/실패/재시작 후 다시 실행하면 남은 것만 생성)
+ * - OpenAI 키가 없으면 AiService 와 같이 MockAiClient 로 생성되므로 오프라인에서도 전체 흐름을 돌려볼 수 있다
+ *   단 mock 답변은 캐시/기록에 남기지 않는다 (실시간 질문에 나가거나 나중에 재개 시 재사용되지 않게)
+ *
+ * 모델당 작업은 하나만 실행된다. 진행 상황은 status() (GET /api/ai/admin/pregenerate/{modelId}) 로 조회.
+ */
+@Service
+public class AiPregenerationService {
+
+    private final PartRepository partRepository;
+    private final AiChatHistoryRepository aiChatHistoryRepository;
+    private final AiService aiService;
+    private final AiContextIndex aiContextIndex;
+    private final AiAnswerCache aiAnswerCache;
+    private final AiSemanticCache aiSemanticCache;
+    private final AiChatHistoryWriter aiChatHistoryWriter;
+    private final PromptTemplateService promptTemplateService;
+
+    private final List<String> defaultQuestions;
+    private final int defaultParallelism;
+    private final int maxParallelism;
+    private final int maxRetries;
+    private final long cacheTtlSeconds;
+    private final String pregenUserId;
+
+    private final ConcurrentHashMap<Long, Job> jobs = new ConcurrentHashMap<>();
+
+    private final Counter generated;
+    private final Counter reused;
+    private final Counter failed;
+
+    public AiPregenerationService(
+            PartRepository partRepository,
+            AiChatHistoryRepository aiChatHistoryRepository,
+            AiService aiService,
+            AiContextIndex aiContextIndex,
+            AiAnswerCache aiAnswerCache,
+            AiSemanticCache aiSemanticCache,
+            AiChatHistoryWriter aiChatHistoryWriter,
+            PromptTemplateService promptTemplateService,
+            MeterRegistry meterRegistry,
+            @Value("${simvex.ai.pregen.questions:이 부품의 역할은 무엇인가요?|이 부품은 어떻게 작동하나요?|이 부품의 재질과 특징은 무엇인가요?}") String questions,
+            @Value("${simvex.ai.pregen.parallelism:4}") int defaultParallelism,
+            @Value("${simvex.ai.pregen.max-parallelism:16}") int maxParallelism,
+            @Value("${simvex.ai.pregen.max-retries:3}") int maxRetries,
+            @Value("${simvex.ai.pregen.cache-ttl-hours:24}") long cacheTtlHours,
+            @Value("${simvex.ai.pregen.user-id:__pregen__}") String pregenUserId) {
+        this.partRepository = partRepository;
+        this.aiChatHistoryRepository = aiChatHistoryRepository;
+        this.aiService = aiService;
+        this.aiContextIndex = aiContextIndex;
+        this.aiAnswerCache = aiAnswerCache;
+        this.aiSemanticCache = aiSemanticCache;
+        this.aiChatHistoryWriter = aiChatHistoryWriter;
+        this.promptTemplateService = promptTemplateService;
+        this.defaultQuestions = parseQuestions(Arrays.asList(questions.split("\\|")));
+        this.defaultParallelism = Math.max(1, defaultParallelism);
+        this.maxParallelism = Math.max(1, maxParallelism);
+        this.maxRetries = maxRetries;
+        this.cacheTtlSeconds = Duration.ofHours(cacheTtlHours).toSeconds();
+        this.pregenUserId = pregenUserId;
+
+        this.generated = Counter.builder("simvex.ai.pregen.items").tag("result", "generated").register(meterRegistry);
+        this.reused = Counter.builder("simvex.ai.pregen.items").tag("result", "reused").register(meterRegistry);
+        this.failed = Counter.builder("simvex.ai.pregen.items").tag("result", "failed").register(meterRegistry);
+    }
+
+    /**
+     * 사전 생성 시작 (블로킹: 부품 목록/기존 기록 조회 후 백그라운드 실행)
+     *
+     * @param questions   null 이면 설정값 사용
+     * @param parallelism null 이면 설정값 사용 (max-parallelism 이하로 제한)
+     */
+    public JobStatus start(Long modelId, List<String> questions, Integer parallelism) {
+        List<String> templates = (questions == null || questions.isEmpty()) ? defaultQuestions : parseQuestions(questions);
+        if (templates.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "questions is empty");
+        }
+        int concurrency = Math.min(maxParallelism, parallelism == null || parallelism <= 0 ? defaultParallelism : parallelism);
+
+        List<PartEntity> parts = partRepository.findByModelIdOrderByIdAsc(modelId);
+        if (parts.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "no parts for model " + modelId);
+        }
+
+        Job job = new Job(modelId, parts.size(), concurrency);
+        Job running = jobs.compute(modelId, (id, old) -> (old != null && old.isRunning()) ? old : job);
+        if (running != job) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "pregeneration already running for model " + modelId);
+        }
+
+        try {
+            // 이미 만든 답변 (재개용): mesh|정규화된 질문 → 답변
+            Map<String, String> done = new HashMap<>();
+            for (AiChatHistoryRepository.QaRow row : aiChatHistoryRepository.findReusableQaByModelAndUser(
+                    modelId, pregenUserId, promptTemplateService.version())) {
+                done.put(itemKey(row.getMeshName(), row.getQuestion()), row.getAnswer());
+            }
+
+            List<Item> items = new ArrayList<>(parts.size() * templates.size());
+            for (PartEntity p : parts) {
+                AiContextIndex.PartContext ctx = aiContextIndex.part(modelId, p.getMeshName());
+                String title = ctx != null ? ctx.title() : p.getMeshName();
+                for (String t : templates) {
+                    String question = t.replace("{part}", title);
+                    items.add(new Item(p.getMeshName(), question, done.get(itemKey(p.getMeshName(), question))));
+                }
+            }
+            job.total.set(items.size());
+            job.disposable = run(job, items);
+        } catch (RuntimeException e) {
+            job.finish("FAILED", e.getMessage());
+            throw e;
+        }
+
+        System.out.println("[AI] pregen started: model=" + modelId + ", parts=" + parts.size()
+                + ", items=" + job.total.get() + ", parallelism=" + concurrency);
+        return job.status();
+    }
+
+    public JobStatus status(Long modelId) {
+        Job job = jobs.get(modelId);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "no pregeneration job for model " + modelId);
+        }
+        return job.status();
+    }
+
+    /**
+     * 실행 중인 작업 취소. 이미 만든 답변은 남으므로 다시 start 하면 이어서 진행된다.
+     */
+    public JobStatus cancel(Long modelId) {
+        Job job = jobs.get(modelId);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "no pregeneration job for model " + modelId);
+        }
+        Disposable d = job.disposable;
+        if (job.isRunning() && d != null) {
+            d.dispose();
+        }
+        return job.status();
+    }
+
+    private Disposable run(Job job, List<Item> items) {
+        return Flux.fromIterable(items)
+                .flatMap(item -> process(job, item), job.parallelism)
+                .subscribeOn(Schedulers.boundedElastic())
+                .doFinally(signal -> {
+                    job.finish(signal == SignalType.CANCEL ? "CANCELLED" : "COMPLETED", null);
+                    System.out.println("[AI] pregen " + job.state + ": " + job.progressLine());
+                })
+                .subscribe(null, e -> System.out.println("[AI] pregen error: " + e.getMessage()));
+    }
+
+    private Mono<Void> process(Job job, Item item) {
+        Long modelId = job.modelId;
+
+        // 이전 실행에서 이미 만든 답변: 호출 없이 캐시만 다시 채운다
+        if (item.existingAnswer() != null) {
+            cache(modelId, item.meshName(), item.question(), item.existingAnswer());
+            job.reused.incrementAndGet();
+            reused.increment();
+            job.progressed();
+            return Mono.empty();
+        }
+
+        AiAskRequestDto req = new AiAskRequestDto();
+        req.modelId = modelId;
+        req.meshName = item.meshName();
+        req.question = item.question();
+
+        // 대화 체인 없이 (userId=null) 부품 맥락만으로 프롬프트 생성
+        return Mono.fromCallable(() -> aiService.buildContext(modelId, item.meshName(), null))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(ctx -> aiService.generateFreshAnswer(req, aiService.composePrompt(item.question(), ctx))
+                        .map(result -> new Generated(result, aiService.reusableVersion(ctx, result))))
+                .retryWhen(Retry.from(signals -> signals.concatMap(rs -> {
+                    // upstream 토큰 예산 초과만 Retry-After 만큼 기다렸다가 재시도
+                    if (rs.failure() instanceof AiRateLimiter.AiRateLimitedException e && rs.totalRetries() < maxRetries) {
+                        return Mono.delay(Duration.ofSeconds(Math.max(1, e.getRetryAfterSeconds())));
+                    }
+                    return Mono.error(rs.failure());
+                })))
+                .doOnNext(g -> {
+                    AiService.AiAnswerResult result = g.result();
+                    if (result.errorCode() != null || result.answer() == null || result.answer().isBlank()) {
+                        markFailed(job, item, result.errorCode());
+                        return;
+                    }
+                    if (MockAiClient.NAME.equals(result.provider())) {
+                        // 흐름만 확인: 진행은 세지만 캐시/기록에는 남기지 않는다
+                        job.generated.incrementAndGet();
+                        job.progressed();
+                        return;
+                    }
+                    cache(modelId, item.meshName(), item.question(), result.answer());
+                    aiChatHistoryWriter.submit(new AiChatHistoryWriter.PendingChat(
+                            modelId, item.meshName(), item.question(), result.answer(), pregenUserId,
+                            null, result.usage(), g.promptVersion(), LocalDateTime.now()));
+                    job.generated.incrementAndGet();
+                    generated.increment();
+                    job.progressed();
+                })
+                .onErrorResume(e -> {
+                    markFailed(job, item, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void cache(Long modelId, String meshName, String question, String answer) {
+        aiAnswerCache.put(aiService.answerCacheKey(modelId, meshName, question), answer, cacheTtlSeconds);
+        aiSemanticCache.put(modelId, meshName, question, answer);
+    }
+
+    private void markFailed(Job job, Item item, String error) {
+        job.failed.incrementAndGet();
+        job.lastError = item.meshName() + ": " + error;
+        failed.increment();
+        job.progressed();
+    }
+
+    private static List<String> parseQuestions(List<String> raw) {
+        List<String> out = new ArrayList<>();
+        for (String q : raw) {
+            if (q != null && !q.isBlank()) out.add(q.strip());
+        }
+        return List.copyOf(out);
+    }
+
+    private static String itemKey(String meshName, String question) {
+        return meshName + "|" + AiAnswerCache.normalize(question);
+    }
+
+    private record Item(String meshName, String question, String existingAnswer) {}
+
+    private record Generated(AiService.AiAnswerResult result, String promptVersion) {}
+
+    private static final class Job {
+        private final String jobId = UUID.randomUUID().toString();
+        private final Long modelId;
+        private final int parts;
+        private final int parallelism;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+
+        private final AtomicInteger total = new AtomicInteger();
+        private final AtomicInteger generated = new AtomicInteger();
+        private final AtomicInteger reused = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        private volatile String state = "RUNNING";
+        private volatile LocalDateTime finishedAt;
+        private volatile String lastError;
+        private volatile Disposable disposable;
+
+        Job(Long modelId, int parts, int parallelism) {
+            this.modelId = modelId;
+            this.parts = parts;
+            this.parallelism = parallelism;
+        }
+
+        boolean isRunning() {
+            return "RUNNING".equals(state);
+        }
+
+        synchronized void finish(String finalState, String error) {
+            if (!isRunning()) return;
+            state = finalState;
+            finishedAt = LocalDateTime.now();
+            if (error != null) lastError = error;
+        }
+
+        int processed() {
+            return generated.get() + reused.get() + failed.get();
+        }
+
+        // 10% 단위로 진행 로그
+        void progressed() {
+            int n = processed();
+            int t = total.get();
+            int step = Math.max(1, t / 10);
+            if (n % step == 0 || n == t) {
+                System.out.println("[AI] pregen progress: " + progressLine());
+            }
+        }
+
+        String progressLine() {
+            return "model=" + modelId + " " + processed() + "/" + total.get()
+                    + " (generated=" + generated.get() + ", reused=" + reused.get() + ", failed=" + failed.get() + ")";
+        }
+
+        JobStatus status() {
+            return new JobStatus(jobId, modelId, state, parts, total.get(), processed(),
+                    generated.get(), reused.get(), failed.get(), parallelism, startedAt, finishedAt, lastError);
+        }
+    }
+
+    /**
+     * @param processed generated + reused + failed
+     * @param reused    이전 실행에서 이미 만들어 두어 캐시만 다시 채운 항목
+     * @param failed    이번 실행에서 실패한 항목 (다시 start 하면 재시도)
+     */
+    public record JobStatus(String jobId, Long modelId, String state, int parts, int total, int processed,
+                            int generated, int reused, int failed, int parallelism,
+                            LocalDateTime startedAt, LocalDateTime finishedAt, String lastError) {}
+}
@@ -0,0 +1,228 @@
+// src/main/java/com/simvex/simvex_api/ai/AiPromptBuilder.java
+package com.simvex.simvex_api.ai;
+
+import com.simvex.simvex_api.model.CatalogChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * /api/ai/ask 프롬프트 조립 (토큰 예산 + 정적 prefix 캐시)
+ *
+ * 프롬프트 = 정적 prefix (prompts/ask_context.txt: 역할/지시/모델·부품 설명) + 턴별 꼬리 (prompts/ask_question.txt: 대화 요약 + 질문)
+ * - prefix 는 (modelId, meshName) 마다 한 번 만들어 캐시한다. 매 턴 같은 문자열이 앞에 오므로 제공자 쪽 프롬프트 캐시가 적중한다
+ * - 모델/부품 설명은 context-budget-tokens 안에 들어가도록 순위대로 배분하고, 넘치면 문장 경계에서 자른다
+ *   (부품 선택 시: 부품 설명 > 모델 설명. 각 섹션은 최소 min-section-tokens 는 남긴다)
+ * - 템플릿 버전이 바뀌거나 CatalogChangedEvent 가 오면 캐시를 비운다
+ * - prefix 마다 만들 때 읽은 AiContextIndex 스냅샷의 CatalogVersion 을 기록한다.
+ *   이벤트 없는 엔티티 쓰기로 인덱스가 새로 만들어지면 버전이 달라지므로 다음 조회에서 새 설명으로 다시 만든다
+ *
+ * 자르기 전/후 크기: simvex.ai.prompt.tokens{stage=raw|budgeted} (요청마다, 추정 토큰)
+ */
+@Component
+public class AiPromptBuilder {
+
+    private static final String TRUNCATED = " …(생략)";
+
+    private final PromptTemplateService promptTemplateService;
+    private final AiContextIndex aiContextIndex;
+    private final int contextBudgetTokens;
+    private final int minSectionTokens;
+
+    private final ConcurrentHashMap<String, Prefix> prefixes = new ConcurrentHashMap<>();
+
+    private final DistributionSummary rawTokens;
+    private final DistributionSummary budgetedTokens;
+    private final Counter prefixHits;
+    private final Counter prefixMisses;
+    private final Counter truncations;
+
+    public AiPromptBuilder(
+            PromptTemplateService promptTemplateService,
+            AiContextIndex aiContextIndex,
+            MeterRegistry meterRegistry,
+            @Value("${simvex.ai.prompt.context-budget-tokens:1200}") int contextBudgetTokens,
+            @Value("${simvex.ai.prompt.min-section-tokens:150}") int minSectionTokens) {
+        this.promptTemplateService = promptTemplateService;
+        this.aiContextIndex = aiContextIndex;
+        this.contextBudgetTokens = contextBudgetTokens;
+        this.minSectionTokens = minSectionTokens;
+
+        this.rawTokens = DistributionSummary.builder("simvex.ai.prompt.tokens")
+                .tag("stage", "raw").baseUnit("tokens")
+                .description("설명을 자르지 않았을 때의 프롬프트 추정 토큰")
+                .register(meterRegistry);
+        this.budgetedTokens = DistributionSummary.builder("simvex.ai.prompt.tokens")
+                .tag("stage", "budgeted").baseUnit("tokens")
+                .description("실제로 보낸 프롬프트 추정 토큰")
+                .register(meterRegistry);
+        this.prefixHits = Counter.builder("simvex.ai.prompt.prefix").tag("result", "hit").register(meterRegistry);
+        this.prefixMisses = Counter.builder("simvex.ai.prompt.prefix").tag("result", "miss").register(meterRegistry);
+        this.truncations = Counter.builder("simvex.ai.prompt.truncations").register(meterRegistry);
+    }
+
+    /**
+     * (modelId, meshName) 의 정적 prefix. meshName 이 없으면 모델 전체 질문용.
+     */
+    public Prefix prefix(Long modelId, String meshName) {
+        String version = promptTemplateService.version();
+        boolean partSelected = modelId != null && meshName != null && !meshName.isBlank();
+        String key = (modelId == null ? "-" : modelId.toString()) + "|" + (partSelected ? meshName : "");
+
+        Prefix p = prefixes.get(key);
+        if (p != null && p.version().equals(version) && p.catalogVersion() == aiContextIndex.version()) {
+            prefixHits.increment();
+            return p;
+        }
+        prefixMisses.increment();
+        p = build(modelId, meshName, version);
+        // 없는 부품 이름은 요청에서 마음대로 올 수 있으므로 캐시하지 않는다 (키 수 = 카탈로그 크기)
+        if (p.cacheable()) prefixes.put(key, p);
+        return p;
+    }
+
+    /**
+     * prefix + 대화 요약 + 질문
+     */
+    public String compose(Prefix prefix, String conversationSummary, String question) {
+        Map<String, String> vars = new HashMap<>();
+        vars.put("conversationSummary", conversationSummary != null ? conversationSummary : "");
+        vars.put("question", question);
+        String tail = promptTemplateService.render("ask_question", vars);
+
+        int tailTokens = estimateTokens(tail);
+        rawTokens.record(prefix.rawTokens() + tailTokens);
+        budgetedTokens.record(prefix.tokens() + tailTokens);
+
+        return prefix.text() + tail;
+    }
+
+    // 인덱스가 먼저 새로 만들어진 뒤(HIGHEST_PRECEDENCE) 실행되므로 비운 직후 다시 만들어지는 prefix 는 새 설명을 쓴다
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        prefixes.clear();
+    }
+
+    private Prefix build(Long modelId, String meshName, String version) {
+        // 설명보다 먼저 읽는다 (그 사이 스냅샷이 바뀌면 옛 버전이 기록되어 다음 조회에서 한 번 더 만들 뿐)
+        long catalogVersion = aiContextIndex.version();
+        AiContextIndex.ModelContext model = aiContextIndex.model(modelId);
+        boolean partSelected = modelId != null && meshName != null && !meshName.isBlank();
+        AiContextIndex.PartContext part = partSelected ? aiContextIndex.part(modelId, meshName) : null;
+
+        // 순위: 부품 설명 > 모델 설명
+        List<String> ranked = new ArrayList<>();
+        if (part != null) ranked.add(part.description());
+        if (model != null) ranked.add(model.description());
+        List<String> fitted = fit(ranked);
+
+        int i = 0;
+        String partDesc = part != null ? fitted.get(i++) : null;
+        String modelDesc = model != null ? fitted.get(i) : null;
+
+        String modelContext = model != null ? AiContextIndex.ModelContext.format(model.title(), modelDesc) : "";
+        String partContext;
+        if (!partSelected) {
+            partContext = "- (부품이 선택되지 않음, 전체 모델에 대한 질문)";
+        } else if (part == null) {
+            partContext = "- 해당 부품(%s) 정보를 찾을 수 없습니다.".formatted(meshName);
+        } else {
+            partContext = AiContextIndex.PartContext.format(part.title(), partDesc);
+        }
+
+        Map<String, String> vars = new HashMap<>();
+        vars.put("modelContext", modelContext);
+        vars.put("partContext", partContext);
+        String text = promptTemplateService.render("ask_context", vars);
+
+        int tokens = estimateTokens(text);
+        int raw = tokens;
+        for (int k = 0; k < ranked.size(); k++) {
+            raw += estimateTokens(ranked.get(k)) - estimateTokens(fitted.get(k));
+        }
+        if (raw > tokens) {
+            truncations.increment();
+            System.out.println("[PROMPT] prefix " + modelId + "/" + meshName + ": " + raw + " → " + tokens + " tokens");
+        }
+        boolean cacheable = (modelId == null || model != null) && (!partSelected || part != null);
+        return new Prefix(text, tokens, raw, version, catalogVersion, cacheable);
+    }
+
+    /**
+     * 순위대로 예산을 배분한다. 뒤 순위 섹션을 위해 각각 min-section-tokens (또는 그보다 짧으면 그 길이) 는 남겨 둔다.
+     */
+    List<String> fit(List<String> ranked) {
+        int[] need = new int[ranked.size()];
+        for (int i = 0; i < need.length; i++) need[i] = estimateTokens(ranked.get(i));
+
+        List<String> out = new ArrayList<>(ranked.size());
+        int remaining = contextBudgetTokens;
+        for (int i = 0; i < need.length; i++) {
+            int reserve = 0;
+            for (int j = i + 1; j < need.length; j++) reserve += Math.min(need[j], minSectionTokens);
+            int alloc = Math.min(need[i], Math.max(Math.min(need[i], minSectionTokens), remaining - reserve));
+            out.add(truncate(ranked.get(i), alloc));
+            remaining = Math.max(0, remaining - alloc);
+        }
+        return out;
+    }
+
+    /**
+     * maxTokens 안으로 자른다. 뒤쪽 30% 안에 문장 끝(. ! ? 。 줄바꿈)이 있으면 거기서 끊는다.
+     */
+    static String truncate(String text, int maxTokens) {
+        if (text == null || estimateTokens(text) <= maxTokens) return text;
+
+        double budget = Math.max(0, maxTokens - estimateTokens(TRUNCATED));
+        double used = 0;
+        int end = 0;
+        while (end < text.length()) {
+            double cost = tokenCost(text.charAt(end));
+            if (used + cost > budget) break;
+            used += cost;
+            end++;
+        }
+
+        int cut = end;
+        for (int i = end - 1; i >= end * 0.7; i--) {
+            char c = text.charAt(i);
+            if (c == '.' || c == '!' || c == '?' || c == '。' || c == '\n') {
+                cut = i + 1;
+                break;
+            }
+        }
+        return text.substring(0, cut).strip() + TRUNCATED;
+    }
+
+    /**
+     * 토크나이저 없이 추정: ASCII 4자 ≈ 1토큰, 한글 등 그 외 문자 1자 ≈ 1토큰 (한국어 위주라 보수적으로 잡음)
+     */
+    public static int estimateTokens(CharSequence s) {
+        if (s == null) return 0;
+        double t = 0;
+        for (int i = 0; i < s.length(); i++) t += tokenCost(s.charAt(i));
+        return (int) Math.ceil(t);
+    }
+
+    private static double tokenCost(char c) {
+        return c < 128 ? 0.25 : 1.0;
+    }
+
+    /**
+     * @param tokens    실제 prefix 추정 토큰
+     * @param rawTokens 설명을 자르지 않았다면의 추정 토큰
+     * @param version        만들 때의 템플릿 버전 (바뀌면 다시 만든다)
+     * @param catalogVersion 만들 때 읽은 AiContextIndex 스냅샷의 CatalogVersion (바뀌면 다시 만든다)
+     */
+    public record Prefix(String text, int tokens, int rawTokens, String version, long catalogVersion,
+                         boolean cacheable) {}
+}
@@ -0,0 +1,144 @@
+// src/main/java/com/simvex/simvex_api/ai/AiQuestionNormalizer.java
+package com.simvex.simvex_api.ai;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 유사 질문 비교용 질문 정규화 (AiSemanticCache)
+ *
+ * 문자 n-gram 만으로는 "피스톤은 무슨 역할?" / "피스톤 역할이 뭐야" 처럼 어순·조사·어미가 다른 질문이 멀어지고,
+ * "역할을 해?" / "역할을 안 해?" 처럼 한 글자 다른 반대 질문이 가까워진다. 그래서 비교 전에
+ * - 조사/어미를 떼고, 의문사·보조 동사 같은 불용어를 빼고, 같은 뜻의 낱말(역할/기능/용도/role/function)을 대표어로 바꾼다
+ * - 부정어(안/못/않/없/not)와 반대말 쌍(증가/감소, 상사점/하사점 …)은 벡터가 아니라 극성으로 따로 들고 있다가
+ *   극성이 다르면 점수와 관계없이 다른 질문으로 본다
+ * 사전에 없는 말바꿈(다른 동의어, 긴 문장 재구성)은 잡지 못한다. 이 경우는 놓쳐서 LLM 을 한 번 더 부를 뿐 틀린 답을 주지는 않는다.
+ */
+final class AiQuestionNormalizer {
+    private AiQuestionNormalizer() {}
+
+    // 뜻이 없는 말 (의문사, 요청 표현, 영어 관사/조동사)
+    private static final Set<String> STOPWORDS = Set.of(
+            "무슨", "뭐", "뭐야", "뭐예요", "뭔가요", "뭔지", "뭘까", "무엇", "무엇인가요", "무엇인지", "무엇이야", "어떤",
+            "알려줘", "알려주세요", "설명해줘", "설명해주세요", "설명해", "궁금해", "궁금해요", "좀", "이", "그",
+            "해", "해요", "하나요", "하니", "하냐", "합니까", "하는지", "하지", "할까", "하는", "한다", "함",
+            "인가요", "인가", "인지", "이야", "야", "이에요", "예요", "입니까", "있어", "있나요", "있어요",
+            "what", "whats", "is", "are", "was", "the", "a", "an", "of", "does", "did", "please", "tell", "me",
+            "explain", "about", "this", "it", "its", "s", "to", "for", "can", "you", "i", "which", "there");
+
+    // 같은 뜻의 낱말 → 대표어
+    private static final Map<String, String> SYNONYMS = Map.ofEntries(
+            Map.entry("역할", "역할"), Map.entry("기능", "역할"), Map.entry("용도", "역할"), Map.entry("목적", "역할"),
+            Map.entry("하는일", "역할"), Map.entry("role", "역할"), Map.entry("function", "역할"),
+            Map.entry("purpose", "역할"), Map.entry("job", "역할"),
+            Map.entry("재질", "재질"), Map.entry("소재", "재질"), Map.entry("재료", "재질"), Map.entry("material", "재질"),
+            Map.entry("작동", "작동"), Map.entry("동작", "작동"), Map.entry("원리", "작동"), Map.entry("어떻게", "작동"),
+            Map.entry("work", "작동"), Map.entry("operate", "작동"), Map.entry("how", "작동"),
+            Map.entry("무게", "무게"), Map.entry("중량", "무게"), Map.entry("weight", "무게"),
+            Map.entry("크기", "크기"), Map.entry("치수", "크기"), Map.entry("size", "크기"), Map.entry("dimension", "크기"),
+            Map.entry("위치", "위치"), Map.entry("어디", "위치"), Map.entry("where", "위치"), Map.entry("location", "위치"));
+
+    // 반대말 쌍: 낱말 앞부분으로 맞춘다 (높은/높아/높이 → 높)
+    private static final String[][][] ANTONYMS = {
+            {{"증가", "늘어", "늘리", "늘면", "increase"}, {"감소", "줄어", "줄이", "줄면", "decrease"}},
+            {{"상승", "올라", "올리", "rise", "raise"}, {"하강", "내려", "내리", "fall", "lower"}},
+            {{"높", "high"}, {"낮", "low"}},
+            {{"빠르", "빠른", "빨리", "빨라", "fast"}, {"느리", "느린", "느려", "slow"}},
+            {{"최대", "maxim"}, {"최소", "minim"}},
+            {{"상사점", "tdc"}, {"하사점", "bdc"}},
+            {{"흡입", "흡기", "intake"}, {"배기", "exhaust"}},
+            {{"압축", "compress"}, {"팽창", "expan"}},
+            {{"가열", "heat"}, {"냉각", "cool"}},
+            {{"열리", "열려", "열린", "open"}, {"닫히", "닫혀", "닫힌", "close"}},
+            {{"전진", "forward"}, {"후진", "backward"}},
+    };
+
+    // 어미/조사: 앞에서부터 처음 맞는 것 하나를 떼고(긴 것을 앞에 둔다), 남는 말이 2글자 이상일 때만 뗀다 ("길이", "높이" 는 그대로)
+    private static final String[] ENDINGS = {
+            "해주세요", "하나요", "합니까", "하는지", "해줘요", "되나요", "인가요", "이에요", "입니까", "이라는",
+            "에서는", "으로는", "해줘", "해요", "하니", "하냐", "하는", "한다", "된다", "되는", "되니", "이야", "이란",
+            "에서", "으로", "에게", "까지", "부터", "보다", "처럼", "라는",
+            "해", "함", "돼", "란", "의", "은", "는", "이", "가", "을", "를", "에", "와", "과", "도", "로", "만", "요", "야"};
+
+    private static final Set<String> NEGATIONS = Set.of("안", "못", "not", "no", "never", "without", "cannot");
+
+    /**
+     * @param tokens   대표어로 바꾼 내용어 (중복 없음, 순서는 임베딩에 쓰지 않는다)
+     * @param polarity 부정("neg")과 반대말 쪽("ant3:1" 등) 표시. 다르면 점수가 높아도 다른 질문이다
+     */
+    record Form(List<String> tokens, Set<String> polarity) {}
+
+    static Form of(String question) {
+        String s = AiAnswerCache.normalize(question)
+                .replace("’", "'")
+                .replace("n't", " not")
+                .replaceAll("[\\p{Punct}？！。]", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+        // "하는 일" 처럼 띄어 쓴 대표 표현은 붙여서 본다
+        s = s.replace("하는 일", "하는일");
+
+        String[] words = s.isEmpty() ? new String[0] : s.split(" ");
+        Set<String> tokens = new LinkedHashSet<>();
+        Set<String> polarity = new TreeSet<>();
+        for (int i = 0; i < words.length; i++) {
+            String w = words[i];
+            // "what does the piston do" 의 마지막 do 는 역할을 묻는 것
+            if (w.equals("do") || w.equals("does")) {
+                if (i == words.length - 1) tokens.add("역할");
+                continue;
+            }
+            if (negation(w)) {
+                polarity.add("neg");
+                continue;
+            }
+            String stem = stem(w);
+            if (stem.isEmpty() || STOPWORDS.contains(w) || STOPWORDS.contains(stem)) continue;
+            String antonym = antonym(stem);
+            if (antonym != null) polarity.add(antonym);
+            tokens.add(SYNONYMS.getOrDefault(stem, stem));
+        }
+        return new Form(List.copyOf(tokens), polarity);
+    }
+
+    // 안/못 (띄어 쓴 것과 "안해", "못해" 처럼 붙여 쓴 것), 않/없 이 들어간 말, 영어 not
+    private static boolean negation(String w) {
+        if (NEGATIONS.contains(w)) return true;
+        if ((w.startsWith("안") || w.startsWith("못")) && w.length() >= 2 && "하해되돼".indexOf(w.charAt(1)) >= 0) {
+            return true;
+        }
+        return w.contains("않") || w.contains("없") || w.startsWith("아니") || w.startsWith("아닌");
+    }
+
+    private static String stem(String w) {
+        if (w.chars().allMatch(c -> c < 128)) {
+            // 영어 복수/3인칭 s ("pistons", "works")
+            return w.length() > 3 && w.endsWith("s") && !w.endsWith("ss") ? w.substring(0, w.length() - 1) : w;
+        }
+        String stem = w;
+        // 어미 뒤에 조사가 붙는 경우("작동하는지를")까지 두 번 뗀다
+        for (int round = 0; round < 2; round++) {
+            for (String e : ENDINGS) {
+                if (stem.endsWith(e) && stem.length() - e.length() >= 2) {
+                    stem = stem.substring(0, stem.length() - e.length());
+                    break;
+                }
+            }
+        }
+        return stem;
+    }
+
+    private static String antonym(String stem) {
+        for (int i = 0; i < ANTONYMS.length; i++) {
+            for (int side = 0; side < 2; side++) {
+                for (String prefix : ANTONYMS[i][side]) {
+                    if (stem.startsWith(prefix)) return "ant" + i + ":" + side;
+                }
+            }
+        }
+        return null;
+    }
+}
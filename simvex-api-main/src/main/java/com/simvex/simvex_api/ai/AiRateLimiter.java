@@ -0,0 +1,260 @@
+// src/main/java/com/simvex/simvex_api/ai/AiRateLimiter.java
+package com.simvex.simvex_api.ai;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.simvex.simvex_api.model.CatalogChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * AI 요청 속도 제한 (토큰 버킷, 락 없음)
+ *
+ * - user     : X-User-ID 별 분당 요청 수 (+ burst). 초과 시 컨트롤러 진입 직후 429
+ * - upstream : 실제 OpenAI 로 나가는 호출의 분당 토큰 예산 (캐시 적중은 차감하지 않음)
+ *              호출 전에는 예상치로 차감하고, 응답의 usage 로 차이를 정산한다
+ *
+ * 예산은 simvex.ai.rate.models.{modelId}.* → simvex.ai.rate.domains.{domainKey}.* → simvex.ai.rate.* 순으로 찾는다.
+ * 덮어쓴 단위(모델/도메인)는 별도 버킷을 가지므로 다른 모델의 사용량과 섞이지 않는다.
+ * 모델별 예산은 처음 요청 시 한 번 계산된다 (설정 변경은 재시작, 모델 도메인 변경은 CatalogChangedEvent 후 반영).
+ * AiContextIndex 에 없는 modelId (요청에서 마음대로 올 수 있음) 는 모두 기본 예산 하나를 같이 쓴다 → 예산 맵 크기 = 카탈로그 크기 + 1
+ */
+@Component
+public class AiRateLimiter {
+
+    private static final String PREFIX = "simvex.ai.rate.";
+
+    private final boolean enabled;
+    private final int outputTokensEstimate;
+    private final long idleTtlNanos;
+
+    private final Environment env;
+    private final AiContextIndex aiContextIndex;
+    private final MeterRegistry meterRegistry;
+
+    // 키: 카탈로그에 있는 modelId, 그 밖(없는 모델, modelId 없음)은 UNKNOWN_MODEL
+    private static final Long UNKNOWN_MODEL = -1L;
+    private final ConcurrentHashMap<Long, Budget> budgets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, TokenBucket> upstreamBuckets = new ConcurrentHashMap<>();
+
+    public AiRateLimiter(
+            Environment env,
+            AiContextIndex aiContextIndex,
+            MeterRegistry meterRegistry,
+            @Value("${simvex.ai.rate.enabled:true}") boolean enabled,
+            @Value("${simvex.ai.rate.upstream.output-tokens-estimate:600}") int outputTokensEstimate,
+            @Value("${simvex.ai.rate.idle-bucket-ttl-seconds:600}") long idleTtlSeconds) {
+        this.env = env;
+        this.aiContextIndex = aiContextIndex;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.outputTokensEstimate = outputTokensEstimate;
+        this.idleTtlNanos = TimeUnit.SECONDS.toNanos(idleTtlSeconds);
+
+        Gauge.builder("simvex.ai.rate.buckets", userBuckets, ConcurrentHashMap::size).register(meterRegistry);
+        Gauge.builder("simvex.ai.rate.budgets", budgets, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    /**
+     * 사용자 요청 1건 차감. 초과 시 AiRateLimitedException (429 + Retry-After)
+     */
+    public void acquireUser(String userId, Long modelId) {
+        if (!enabled) return;
+        Budget b = budget(modelId);
+        if (b.userPerMinute() <= 0) return;
+
+        TokenBucket bucket = userBuckets.computeIfAbsent(b.userScope() + "|" + userId,
+                k -> new TokenBucket(b.userBurst(), b.userPerMinute()));
+        check("user", b.userScope(), bucket.tryConsume(1));
+    }
+
+    /**
+     * upstream 호출 1건의 예상 토큰 차감. 초과 시 AiRateLimitedException
+     */
+    public void acquireUpstream(Long modelId, String prompt) {
+        if (!enabled) return;
+        Budget b = budget(modelId);
+        if (b.upstreamTokensPerMinute() <= 0) return;
+
+        TokenBucket bucket = upstreamBuckets.computeIfAbsent(b.upstreamScope(),
+                k -> new TokenBucket(b.upstreamTokensPerMinute(), b.upstreamTokensPerMinute()));
+        check("upstream", b.upstreamScope(), bucket.tryConsume(estimateTokens(prompt)));
+    }
+
+    /**
+     * 응답의 실제 usage 로 예상치와의 차이를 정산 (남으면 돌려주고 모자라면 더 차감)
+     */
+    public void settleUpstream(Long modelId, String prompt, Integer inputTokens, Integer outputTokens) {
+        if (!enabled || inputTokens == null || outputTokens == null) return;
+        Budget b = budget(modelId);
+        TokenBucket bucket = upstreamBuckets.get(b.upstreamScope());
+        if (bucket == null) return;
+        bucket.add(estimateTokens(prompt) - (inputTokens + outputTokens));
+    }
+
+    // 정확한 토크나이저 없이 대략치 (AiPromptBuilder 와 같은 추정) + 예상 출력 토큰
+    int estimateTokens(String prompt) {
+        return AiPromptBuilder.estimateTokens(prompt) + outputTokensEstimate;
+    }
+
+    private void check(String type, String scope, long waitNanos) {
+        String result = waitNanos == 0 ? "admitted" : "throttled";
+        meterRegistry.counter("simvex.ai.rate.requests", "type", type, "scope", scope, "result", result).increment();
+        if (waitNanos != 0) {
+            throw new AiRateLimitedException(type, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+        }
+    }
+
+    // 가득 찬 채로 오래 안 쓰인 사용자 버킷은 새 버킷과 같으므로 지운다
+    @Scheduled(fixedDelayString = "${simvex.ai.rate.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        userBuckets.values().removeIf(b -> b.idleFull(now, idleTtlNanos));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        budgets.clear();
+    }
+
+    // 모델별 예산은 처음 한 번만 계산 (인덱스 첫 로드가 DB 를 읽을 수 있으므로 맵 락 밖에서)
+    // 카탈로그에 없는 modelId 는 id 로 캐시하지 않고 공용 기본 예산을 쓴다 (나중에 모델이 생기면 그때부터 자기 예산)
+    private Budget budget(Long modelId) {
+        Budget cached = modelId == null ? null : budgets.get(modelId);
+        if (cached != null) return cached;
+
+        AiContextIndex.ModelContext model = aiContextIndex.model(modelId);
+        Long key = model != null ? modelId : UNKNOWN_MODEL;
+        cached = budgets.get(key);
+        if (cached != null) return cached;
+
+        Budget resolved = model != null ? resolve(modelId, model.domainKey()) : resolve(null, null);
+        Budget raced = budgets.putIfAbsent(key, resolved);
+        return raced != null ? raced : resolved;
+    }
+
+    private Budget resolve(Long modelId, String domainKey) {
+        String[] levels = {
+                modelId == null ? null : PREFIX + "models." + modelId + ".",
+                domainKey == null ? null : PREFIX + "domains." + domainKey + ".",
+                PREFIX
+        };
+        String[] scopes = {"model:" + modelId, "domain:" + domainKey, "default"};
+
+        int userLevel = firstLevel(levels, "user.requests-per-minute", "user.burst");
+        int upstreamLevel = firstLevel(levels, "upstream.tokens-per-minute");
+
+        double userPerMinute = lookup(levels, userLevel, "user.requests-per-minute", 20);
+        double userBurst = lookup(levels, userLevel, "user.burst", 5);
+        double upstreamTpm = lookup(levels, upstreamLevel, "upstream.tokens-per-minute", 200_000);
+
+        return new Budget(scopes[userLevel], userPerMinute, Math.max(1, userBurst),
+                scopes[upstreamLevel], upstreamTpm);
+    }
+
+    // 해당 키를 하나라도 직접 지정한 가장 구체적인 단위 (없으면 기본)
+    private int firstLevel(String[] levels, String... keys) {
+        for (int i = 0; i < levels.length - 1; i++) {
+            if (levels[i] == null) continue;
+            for (String key : keys) {
+                if (env.containsProperty(levels[i] + key)) return i;
+            }
+        }
+        return levels.length - 1;
+    }
+
+    private double lookup(String[] levels, int from, String key, double defaultValue) {
+        for (int i = from; i < levels.length; i++) {
+            if (levels[i] == null) continue;
+            Double v = env.getProperty(levels[i] + key, Double.class);
+            if (v != null) return v;
+        }
+        return defaultValue;
+    }
+
+    private record Budget(String userScope, double userPerMinute, double userBurst,
+                          String upstreamScope, double upstreamTokensPerMinute) {}
+
+    /**
+     * CAS 로 갱신하는 토큰 버킷. 상태(잔량, 마지막 갱신 시각)는 불변 객체로 통째로 교체한다.
+     */
+    static final class TokenBucket {
+        private final double capacity;
+        private final double perNano;
+        private final AtomicReference<State> state;
+
+        private record State(double tokens, long at) {}
+
+        TokenBucket(double capacity, double perMinute) {
+            this.capacity = capacity;
+            this.perNano = perMinute / TimeUnit.MINUTES.toNanos(1);
+            this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+        }
+
+        /**
+         * @return 0 이면 차감 성공, 아니면 n 개가 모일 때까지 남은 시간(ns)
+         */
+        long tryConsume(double n) {
+            while (true) {
+                State cur = state.get();
+                long now = System.nanoTime();
+                double tokens = refill(cur, now);
+                // 한 번에 capacity 보다 큰 요청은 가득 찬 상태에서만 통과시킨다
+                double need = Math.min(n, capacity);
+                if (tokens < need) {
+                    return Math.max(1, (long) Math.ceil((need - tokens) / perNano));
+                }
+                if (state.compareAndSet(cur, new State(tokens - n, now))) return 0;
+            }
+        }
+
+        void add(double delta) {
+            while (true) {
+                State cur = state.get();
+                long now = System.nanoTime();
+                double tokens = Math.min(capacity, refill(cur, now) + delta);
+                if (state.compareAndSet(cur, new State(tokens, now))) return;
+            }
+        }
+
+        boolean idleFull(long now, long idleNanos) {
+            State cur = state.get();
+            return now - cur.at() >= idleNanos && refill(cur, now) >= capacity;
+        }
+
+        private double refill(State s, long now) {
+            return Math.min(capacity, s.tokens() + Math.max(0, now - s.at()) * perNano);
+        }
+    }
+
+    public static class AiRateLimitedException extends ResponseStatusException {
+        private final long retryAfterSeconds;
+
+        public AiRateLimitedException(String type, long retryAfterSeconds) {
+            super(HttpStatus.TOO_MANY_REQUESTS, "AI rate limit exceeded (" + type + ")");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+// src/main/java/com/simvex/simvex_api/ai/AiRequestCoalescer.java
+package com.simvex.simvex_api.ai;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 동일 질문 single-flight
+ *
+ * 같은 키의 호출이 이미 진행 중이면 새로 호출하지 않고 그 결과를 함께 받는다.
+ * (예: 수업 중 30명이 같은 질문을 동시에 보내도 OpenAI 호출은 1번)
+ * 호출이 끝나면 키는 바로 빠지므로, 이후 요청은 AiAnswerCache 가 받는다.
+ * 에러도 진행 중에 합류한 요청에만 공유되고, 끝난 뒤의 요청은 새로 호출한다.
+ */
+@Component
+public class AiRequestCoalescer {
+
+    private final ConcurrentHashMap<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+    private final Counter followers;
+
+    public AiRequestCoalescer(MeterRegistry meterRegistry) {
+        this.leaders = Counter.builder("simvex.ai.coalesce.calls").tag("role", "leader").register(meterRegistry);
+        this.followers = Counter.builder("simvex.ai.coalesce.calls").tag("role", "follower").register(meterRegistry);
+        Gauge.builder("simvex.ai.coalesce.in-flight", inFlight, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Mono<Shared<T>> execute(String key, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            Mono<T> existing = (Mono<T>) inFlight.get(key);
+            if (existing != null) {
+                followers.increment();
+                return existing.map(v -> new Shared<>(v, false));
+            }
+
+            AtomicReference<Mono<T>> self = new AtomicReference<>();
+            Mono<T> shared = Mono.defer(call)
+                    // 결과를 내보내기 전에 키를 빼서, 끝난 뒤에 온 요청이 cache() 에 남은 결과(특히 에러)를 받지 않게 한다
+                    .doOnTerminate(() -> inFlight.remove(key, self.get()))
+                    .doFinally(signal -> inFlight.remove(key, self.get()))
+                    .cache();
+            self.set(shared);
+
+            Mono<T> raced = (Mono<T>) inFlight.putIfAbsent(key, shared);
+            if (raced != null) {
+                followers.increment();
+                return raced.map(v -> new Shared<>(v, false));
+            }
+            leaders.increment();
+            return shared.map(v -> new Shared<>(v, true));
+        });
+    }
+
+    // leader=false 이면 다른 요청이 호출한 결과를 공유받은 것
+    public record Shared<T>(T value, boolean leader) {}
+}
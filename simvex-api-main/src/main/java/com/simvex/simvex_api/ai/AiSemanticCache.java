@@ -0,0 +1,316 @@
+// src/main/java/com/simvex/simvex_api/ai/AiSemanticCache.java
+package com.simvex.simvex_api.ai;
+
+import com.simvex.simvex_api.domain.AiChatHistoryRepository;
+import com.simvex.simvex_api.model.CatalogChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * 의미 기반(유사 질문) 답변 캐시
+ *
+ * 어미·조사·어순이나 사전에 있는 동의어만 다른 질문("피스톤은 무슨 역할?" / "피스톤 역할이 뭐야" / "피스톤의 기능은?")을 같은 질문으로 본다.
+ * 뜻을 이해하는 임베딩 모델이 아니므로 사전에 없는 말바꿈은 놓친다 (놓치면 LLM 을 부를 뿐 틀린 답을 주지는 않는다)
+ * - 정규화: AiQuestionNormalizer 가 조사/어미/불용어를 떼고 동의어를 대표어로 바꾼다
+ * - 임베딩: 네트워크 없이 정규화된 낱말 + 낱말 안 문자 2-gram 을 해싱한 고정 차원 벡터 (L2 정규화)
+ * - 인덱스: (modelId, meshName) 별 최근 답변 목록, 코사인 유사도 >= threshold 이면 적중
+ *   threshold 기본값 0.85 는 AiSemanticCacheTest 의 정답 표시된 질문 쌍(같은 질문 / 다른 질문)으로 맞췄다
+ * - 부정("안 해", "not")이나 반대말(증가/감소, 상사점/하사점 …)이 한쪽에만 있으면 점수와 관계없이 다른 질문으로 본다
+ * - 항목은 프롬프트 템플릿 버전에 묶인다. 버전이 바뀌면(템플릿 hot-reload) 통째로 비운다
+ * - ttl-seconds 가 지난 항목은 쓰지 않고, CatalogChangedEvent (모델/부품 설명 변경) 때도 비운다
+ *   이벤트 없는 엔티티 쓰기로 AiContextIndex 버전이 바뀐 경우도 다음 조회/저장에서 비운다
+ * - "더 자세히 설명해줘" 처럼 앞 대화를 가리키는 질문은 저장/조회하지 않는다 (looksLikeFollowUp)
+ * - 기동 시 ai_chat_histories 에서 다른 사용자와 나눠 써도 되는 답변(prompt_version = 현재 버전, TTL 안)만 읽어 채운다
+ *   대화 맥락(이전 체인/요약)이 붙은 턴과 prompt_version 이 없는 옛 기록은 제외된다
+ */
+@Component
+public class AiSemanticCache {
+
+    // 앞 대화를 이어받는 질문 (다른 사용자의 같은 문장과 뜻이 다르다)
+    private static final Pattern FOLLOW_UP = Pattern.compile(
+            "(더 ?자세히|좀 ?더|조금 ?더|다시 ?설명|다시 ?말해|이어서|계속|그거|그것|그게|그건|이거|이것|위에서|위 내용|방금|아까|앞에서"
+                    + "|요약해|정리해|more detail|explain more|elaborate|continue|go on|what about|previous|above|that one"
+                    // "그럼 재질은?" 처럼 접속어로 시작하는 생략형 질문도 앞 대화를 전제로 한다
+                    + "|^(그럼|그러면|그렇다면|그래서|그리고|그 다음|그다음|then|and|so|also)(?=[\\s,]|$))");
+
+    private final boolean enabled;
+    private final double threshold;
+    private final int dims;
+    private final int maxPerPart;
+    private final int warmupRows;
+    private final long ttlMs;
+
+    private final AiChatHistoryRepository aiChatHistoryRepository;
+    private final PromptTemplateService promptTemplateService;
+    private final AiContextIndex aiContextIndex;
+
+    private final ConcurrentHashMap<String, PartIndex> indexes = new ConcurrentHashMap<>();
+    private final AtomicInteger totalEntries = new AtomicInteger();
+    // 지금 들어 있는 항목들의 템플릿 버전 / AiContextIndex 버전 (-1: 아직 모름)
+    private volatile String version;
+    private volatile long catalogVersion = -1;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer lookupTimer;
+
+    public AiSemanticCache(
+            AiChatHistoryRepository aiChatHistoryRepository,
+            PromptTemplateService promptTemplateService,
+            AiContextIndex aiContextIndex,
+            MeterRegistry meterRegistry,
+            @Value("${simvex.ai.semantic.enabled:true}") boolean enabled,
+            @Value("${simvex.ai.semantic.threshold:0.85}") double threshold,
+            @Value("${simvex.ai.semantic.dims:512}") int dims,
+            @Value("${simvex.ai.semantic.max-per-part:200}") int maxPerPart,
+            @Value("${simvex.ai.semantic.warmup-rows:5000}") int warmupRows,
+            @Value("${simvex.ai.semantic.ttl-seconds:86400}") long ttlSeconds) {
+        this.aiChatHistoryRepository = aiChatHistoryRepository;
+        this.promptTemplateService = promptTemplateService;
+        this.aiContextIndex = aiContextIndex;
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.dims = dims;
+        this.maxPerPart = maxPerPart;
+        this.warmupRows = warmupRows;
+        this.ttlMs = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.version = promptTemplateService.version();
+
+        this.hits = Counter.builder("simvex.ai.semantic.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("simvex.ai.semantic.requests").tag("result", "miss").register(meterRegistry);
+        this.lookupTimer = Timer.builder("simvex.ai.semantic.lookup")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("simvex.ai.semantic.entries", totalEntries, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled || warmupRows <= 0) return;
+        try {
+            String current = currentVersion();
+            LocalDateTime since = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(ttlMs));
+            // 최신 기록부터 읽으므로, 오래된 기록을 먼저 넣도록 뒤에서부터 추가
+            List<AiChatHistoryRepository.QaRow> rows = aiChatHistoryRepository
+                    .findRecentReusableQa(current, since, PageRequest.of(0, warmupRows));
+            for (int i = rows.size() - 1; i >= 0; i--) {
+                var r = rows.get(i);
+                add(r.getModelId(), r.getMeshName(), r.getQuestion(), r.getAnswer(), epochMillis(r.getCreatedAt()));
+            }
+            System.out.println("[AI] semantic cache warm-up: " + totalEntries.get() + " entries (version=" + current + ")");
+        } catch (Exception e) {
+            System.out.println("[AI] semantic cache warm-up failed: " + e.getMessage());
+        }
+    }
+
+    public String lookup(Long modelId, String meshName, String question) {
+        if (!enabled || modelId == null || question == null || looksLikeFollowUp(question)) return null;
+
+        long start = System.nanoTime();
+        try {
+            currentVersion();
+            PartIndex index = indexes.get(indexKey(modelId, meshName));
+            Match best = index == null ? null : index.best(query(question), System.currentTimeMillis() - ttlMs);
+            if (best != null && best.score >= threshold) {
+                hits.increment();
+                return best.answer;
+            }
+            misses.increment();
+            return null;
+        } finally {
+            lookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 대화 맥락 없이 만든 답변만 넣는다 (호출 쪽 책임: AiService 는 standalone 턴만, 사전 생성은 항상 standalone)
+     */
+    public void put(Long modelId, String meshName, String question, String answer) {
+        currentVersion();
+        add(modelId, meshName, question, answer, System.currentTimeMillis());
+    }
+
+    private void add(Long modelId, String meshName, String question, String answer, long createdAtMs) {
+        if (!enabled || modelId == null || question == null || answer == null || answer.isBlank()) return;
+        if (looksLikeFollowUp(question)) return;
+        indexes.computeIfAbsent(indexKey(modelId, meshName), k -> new PartIndex())
+                .add(query(question), answer, createdAtMs);
+    }
+
+    // 모델/부품 설명이 바뀌면 그 설명으로 만든 답변은 버린다
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        clear();
+    }
+
+    @Scheduled(fixedDelayString = "${simvex.ai.cache.sweep-interval-ms:60000}")
+    public void sweep() {
+        long oldest = System.currentTimeMillis() - ttlMs;
+        for (PartIndex index : indexes.values()) index.expire(oldest);
+    }
+
+    /**
+     * 앞 대화를 가리키는 질문인지 ("더 자세히 설명해줘", "explain more" 등)
+     */
+    static boolean looksLikeFollowUp(String question) {
+        return FOLLOW_UP.matcher(AiAnswerCache.normalize(question)).find();
+    }
+
+    // 템플릿 버전이나 카탈로그(AiContextIndex) 버전이 바뀌었으면 옛 항목을 비우고 현재 템플릿 버전을 돌려준다
+    private String currentVersion() {
+        String v = promptTemplateService.version();
+        long c = aiContextIndex.version();
+        if (!v.equals(version) || c != catalogVersion) {
+            synchronized (this) {
+                if (!v.equals(version) || c != catalogVersion) {
+                    clear();
+                    version = v;
+                    catalogVersion = c;
+                }
+            }
+        }
+        return v;
+    }
+
+    // 맵에서 빼지 않고 각 인덱스를 비운다 (동시에 add 중인 인덱스가 맵 밖으로 떨어져 개수가 어긋나지 않게)
+    private void clear() {
+        for (PartIndex index : indexes.values()) index.clear();
+    }
+
+    // 부품 미선택(null/공백)은 모델 전체 질문 하나로 본다 (AiPromptBuilder 와 같은 기준)
+    private String indexKey(Long modelId, String meshName) {
+        return modelId + "|" + (meshName == null || meshName.isBlank() ? "" : meshName);
+    }
+
+    private static long epochMillis(LocalDateTime t) {
+        return t == null ? System.currentTimeMillis() : t.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // 두 질문의 유사도 (같은 모델/부품 안에서 비교한다고 본다). 극성이 다르면 0
+    double similarity(String a, String b) {
+        Query qa = query(a);
+        Query qb = query(b);
+        return qa.polarity.equals(qb.polarity) ? dot(qa.vector, qb.vector) : 0;
+    }
+
+    private Query query(String question) {
+        AiQuestionNormalizer.Form form = AiQuestionNormalizer.of(question);
+        return new Query(embed(form.tokens()), form.polarity());
+    }
+
+    /**
+     * 해싱 트릭 임베딩. 부호 비트로 충돌 편향을 상쇄한다.
+     * 낱말이 주 특징이고, 낱말 안 2-gram 은 표기 차이("크랭크샤프트" / "크랭크 샤프트")를 조금 메운다. 어순은 보지 않는다.
+     */
+    private float[] embed(List<String> tokens) {
+        float[] v = new float[dims];
+        for (String t : tokens) {
+            addFeature(v, "w:" + t, 2.0f);
+            String padded = " " + t + " ";
+            for (int i = 0; i + 2 <= padded.length(); i++) {
+                addFeature(v, padded.substring(i, i + 2), 0.5f);
+            }
+        }
+
+        double norm = 0;
+        for (float x : v) norm += x * x;
+        if (norm > 0) {
+            float inv = (float) (1.0 / Math.sqrt(norm));
+            for (int i = 0; i < v.length; i++) v[i] *= inv;
+        }
+        return v;
+    }
+
+    private void addFeature(float[] v, String feature, float weight) {
+        int h = mix(feature.hashCode());
+        int idx = Math.floorMod(h, dims);
+        v[idx] += ((h >>> 31) == 0) ? weight : -weight;
+    }
+
+    // murmur3 finalizer: String.hashCode 의 하위 비트 편중 완화
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) sum += a[i] * b[i];
+        return sum;
+    }
+
+    private record Match(String answer, double score) {}
+
+    // polarity: 부정/반대말 표시 (AiQuestionNormalizer.Form)
+    private record Query(float[] vector, Set<String> polarity) {}
+
+    private record Entry(Query query, String answer, long createdAtMs) {}
+
+    private final class PartIndex {
+        private final Deque<Entry> entries = new ArrayDeque<>();
+
+        // createdAtMs < oldest 인 항목은 만료로 보고 건너뛴다
+        // 극성이 다른 항목("역할을 해?" ↔ "역할을 안 해?")은 후보에서 뺀다
+        synchronized Match best(Query q, long oldest) {
+            Match best = null;
+            for (Entry e : entries) {
+                if (e.createdAtMs < oldest || !q.polarity.equals(e.query.polarity)) continue;
+                double score = dot(q.vector, e.query.vector);
+                if (best == null || score > best.score) best = new Match(e.answer, score);
+            }
+            return best;
+        }
+
+        synchronized void add(Query q, String answer, long createdAtMs) {
+            // 거의 같은 질문이 이미 있으면 최신 답변으로 교체
+            entries.removeIf(e -> {
+                boolean dup = q.polarity.equals(e.query.polarity) && dot(q.vector, e.query.vector) >= 0.98;
+                if (dup) totalEntries.decrementAndGet();
+                return dup;
+            });
+            entries.addLast(new Entry(q, answer, createdAtMs));
+            totalEntries.incrementAndGet();
+            while (entries.size() > maxPerPart) {
+                entries.removeFirst();
+                totalEntries.decrementAndGet();
+            }
+        }
+
+        synchronized void expire(long oldest) {
+            entries.removeIf(e -> {
+                boolean expired = e.createdAtMs < oldest;
+                if (expired) totalEntries.decrementAndGet();
+                return expired;
+            });
+        }
+
+        synchronized void clear() {
+            totalEntries.addAndGet(-entries.size());
+            entries.clear();
+        }
+    }
+}
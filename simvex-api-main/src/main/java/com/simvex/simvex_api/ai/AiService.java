@@ -1,67 +1,114 @@
 // src/main/java/com/simvex/simvex_api/ai/AiService.java
 package com.simvex.simvex_api.ai;
 
-import com.simvex.simvex_api.domain.AiChatHistoryEntity;
 import com.simvex.simvex_api.domain.AiChatHistoryRepository;
-import com.simvex.simvex_api.model.ModelEntity;
-import com.simvex.simvex_api.model.ModelRepository;
-import com.simvex.simvex_api.part.PartEntity;
-import com.simvex.simvex_api.part.PartRepository;
-import jakarta.transaction.Transactional;
+import com.simvex.simvex_api.dto.AiAskRequestDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class AiService {
 
-    private final PartRepository partRepository;
-    private final ModelRepository modelRepository;
+    private static final String DEGRADED_PREFIX = "(AI 응답이 지연되어 기본 설명으로 대신합니다)\n\n";
+
     private final AiChatHistoryRepository aiChatHistoryRepository;
-    private final OpenAIClient openAIClient;
+    private final AiClientRouter aiClientRouter;
     private final MockAiClient mockAiClient;
+    private final AiAnswerCache aiAnswerCache;
+    private final AiCallLimiter aiCallLimiter;
+    private final AiRequestCoalescer aiRequestCoalescer;
+    private final AiCircuitBreaker aiCircuitBreaker;
+    private final AiSemanticCache aiSemanticCache;
+    private final PromptTemplateService promptTemplateService;
+    private final AiPromptBuilder aiPromptBuilder;
+    private final AiRateLimiter aiRateLimiter;
+    private final AiContextIndex aiContextIndex;
+    private final AiChatHistoryWriter aiChatHistoryWriter;
+    private final AiConversationManager aiConversationManager;
+    private final int historyPageSize;
+    private final int historyMaxPageSize;
 
     public AiService(
-            PartRepository partRepository,
-            ModelRepository modelRepository,
             AiChatHistoryRepository aiChatHistoryRepository,
-            OpenAIClient openAIClient,
-            MockAiClient mockAiClient) {
-        this.partRepository = partRepository;
-        this.modelRepository = modelRepository;
+            AiClientRouter aiClientRouter,
+            MockAiClient mockAiClient,
+            AiAnswerCache aiAnswerCache,
+            AiCallLimiter aiCallLimiter,
+            AiRequestCoalescer aiRequestCoalescer,
+            AiCircuitBreaker aiCircuitBreaker,
+            AiSemanticCache aiSemanticCache,
+            PromptTemplateService promptTemplateService,
+            AiPromptBuilder aiPromptBuilder,
+            AiRateLimiter aiRateLimiter,
+            AiContextIndex aiContextIndex,
+            AiChatHistoryWriter aiChatHistoryWriter,
+            AiConversationManager aiConversationManager,
+            @Value("${simvex.ai.history.page-size:50}") int historyPageSize,
+            @Value("${simvex.ai.history.max-page-size:200}") int historyMaxPageSize) {
         this.aiChatHistoryRepository = aiChatHistoryRepository;
-        this.openAIClient = openAIClient;
+        this.aiClientRouter = aiClientRouter;
         this.mockAiClient = mockAiClient;
+        this.aiAnswerCache = aiAnswerCache;
+        this.aiCallLimiter = aiCallLimiter;
+        this.aiRequestCoalescer = aiRequestCoalescer;
+        this.aiCircuitBreaker = aiCircuitBreaker;
+        this.aiSemanticCache = aiSemanticCache;
+        this.promptTemplateService = promptTemplateService;
+        this.aiPromptBuilder = aiPromptBuilder;
+        this.aiRateLimiter = aiRateLimiter;
+        this.aiContextIndex = aiContextIndex;
+        this.aiChatHistoryWriter = aiChatHistoryWriter;
+        this.aiConversationManager = aiConversationManager;
+        this.historyPageSize = historyPageSize;
+        this.historyMaxPageSize = historyMaxPageSize;
     }
 
     // 1. 컨텍스트 빌드
+    // 모델/부품 정보는 AiContextIndex(메모리) 에서 읽고, DB 는 사용자 대화 맥락 조회에만 쓴다
     public AiContextResult buildContext(Long modelId, String meshName, String userId) {
         Map<String, Object> meta = new HashMap<>();
         String modelContext = "";
         String previousAiSummary = null;
+        String degradedAnswer = DEGRADED_PREFIX + "현재 AI 답변을 불러올 수 없습니다. 잠시 후 다시 질문해 주세요.";
 
         if (modelId != null) {
-            Optional<ModelEntity> modelOpt = modelRepository.findById(modelId);
-            if (modelOpt.isPresent()) {
-                ModelEntity m = modelOpt.get();
-                modelContext = """
-                        - Model Title: %s
-                        - Model Description: %s
-                        """.formatted(m.getTitle(), m.getDescription() != null ? m.getDescription() : "N/A");
+            AiContextIndex.ModelContext model = aiContextIndex.model(modelId);
+            if (model != null) {
+                modelContext = model.context();
+                if (model.fallback() != null) {
+                    degradedAnswer = DEGRADED_PREFIX + model.fallback();
+                }
 
                 // [삭제됨] 모델 기본 맥락(m.getAiSummary()) 로드 로직 제거
             }
 
             // [오직 내 기록만 사용]
+            // 아직 저장 대기 중인 기록이 있으면 그것이 가장 최근 대화다
             if (userId != null) {
-                Optional<AiChatHistoryEntity> lastChat = aiChatHistoryRepository
-                        .findTopByModel_IdAndUserIdOrderByCreatedAtDesc(modelId, userId);
-                if (lastChat.isPresent() && lastChat.get().getAiSummary() != null) {
-                    previousAiSummary = lastChat.get().getAiSummary();
+                AiChatHistoryWriter.PendingChat pending = aiChatHistoryWriter.latestPending(modelId, userId);
+                if (pending != null) {
+                    previousAiSummary = pending.aiSummary();
+                } else {
+                    List<String> last = aiChatHistoryRepository
+                            .findLatestAiSummary(modelId, userId, PageRequest.of(0, 1));
+                    if (!last.isEmpty()) {
+                        previousAiSummary = last.get(0);
+                    }
                 }
             }
         }
@@ -72,96 +119,378 @@ public class AiService {
             meta.put("partFound", false);
             partContext = "- (부품이 선택되지 않음, 전체 모델에 대한 질문)";
         } else {
-            Optional<PartEntity> partOpt = partRepository.findByModel_IdAndMeshName(modelId, meshName);
-            meta.put("partFound", partOpt.isPresent());
-            if (partOpt.isPresent()) {
-                PartEntity part = partOpt.get();
-                Map<String, Object> content = part.getContent();
-                String title = (content.get("title") != null) ? content.get("title").toString() : meshName;
-                String desc = (content.get("desc") != null) ? content.get("desc").toString() : "설명 없음";
-                partContext = """
-                        - Part Name: %s
-                        - Part Description: %s
-                        """.formatted(title, desc);
+            AiContextIndex.PartContext part = aiContextIndex.part(modelId, meshName);
+            meta.put("partFound", part != null);
+            if (part != null) {
+                partContext = part.context();
+                if (part.fallback() != null) {
+                    degradedAnswer = DEGRADED_PREFIX + part.fallback();
+                }
             } else {
                 partContext = "- 해당 부품(%s) 정보를 찾을 수 없습니다.".formatted(meshName);
             }
         }
 
-        return new AiContextResult("PART", partContext, modelContext, previousAiSummary, meta);
+        // 체인이 길어졌으면 요약 + 새 체인으로 (AiConversationManager)
+        AiConversationManager.Context conversation = aiConversationManager.prepare(modelId, userId, previousAiSummary);
+        if (conversation.summary() != null) {
+            meta.put("conversationCompacted", true);
+        }
+
+        return new AiContextResult("PART", partContext, modelContext, previousAiSummary, meta, degradedAnswer,
+                conversation.previousResponseId(), conversation.summary(), aiPromptBuilder.prefix(modelId, meshName));
     }
 
-    // 2. 프롬프트 생성 (유지)
-    public String composePrompt(String question, String partContext, String modelContext) {
-        return """
-                [Role]
-                You are a knowledgeable technical assistant explaining a 3D model.
+    // 1-1. 질문 단위 맥락 판단
+    // 대화 체인이 있어도 앞 대화와 무관한 질문(클라이언트 followUp=false, 또는 지시어 없는 문장)은 체인/요약 없이 답한다
+    // → 답이 (model, mesh, question) 만으로 정해지므로 공유 캐시 / 유사 질문 캐시 / 동일 질문 합치기 / 사전 생성 답변을 그대로 쓴다
+    public AiContextResult buildContext(AiAskRequestDto req, String userId) {
+        return forQuestion(req, buildContext(req.modelId, req.meshName, userId));
+    }
 
-                [Context Info]
-                %s
-                %s
+    public AiContextResult forQuestion(AiAskRequestDto req, AiContextResult ctx) {
+        boolean followUp = req.followUp != null ? req.followUp : AiSemanticCache.looksLikeFollowUp(req.question);
+        return followUp ? ctx : ctx.detach();
+    }
 
-                [Instructions]
+    // 2. 프롬프트 생성: 캐시된 정적 prefix (prompts/ask_context.txt) + 대화 요약/질문 (prompts/ask_question.txt)
+    public String composePrompt(String question, AiContextResult ctx) {
+        return aiPromptBuilder.compose(ctx.promptPrefix(), ctx.conversationSummary(), question);
+    }
 
-                Answer the user's question based on the Context Info.
-                If the context has a conversation history, use it.
-                Infer function from name if description is missing.
+    // 3-1. 캐시 우선 답변 생성 (논블로킹)
+    // 정확히 같은 질문 캐시 → 유사 질문 캐시 → (동일 질문 합치기) → upstream 토큰 예산 → OpenAI
+    // 예산 초과(AiRateLimitedException)는 대체 답변으로 바꾸지 않고 그대로 429 로 내보낸다
+    // 캐시 적중 시 대화 맥락(previous_response_id)은 그대로 이어지도록 이전 ID를 돌려준다
+    // 이전 체인 / 대화 요약이 붙은 턴(앞 대화를 잇는 질문)은 답이 그 사용자 대화에 따라 달라지므로 캐시 조회/저장, 합치기 없이 바로 호출한다
+    // 체인에서 떼어 낸 질문(ctx.detached)은 공유 경로로 답하고, 저장할 체인 ID 는 이전 것을 유지한다
+    // 대화를 지원하지 않는 제공자(local)가 답하면 response_id 가 없으므로 이전 ID 를 유지해 openai 체인을 잇는다
+    public Mono<AiAnswerResult> generateAnswerAsync(AiAskRequestDto req, String prompt, AiContextResult ctx) {
+        String previousAiSummary = ctx.aiSummary();
+        String cacheKey = sharedCacheKey(req, ctx);
+        if (cacheKey == null) {
+            return Mono.defer(() -> upstreamBudget(req, prompt)
+                    .then(generateAnswerAsync(req.modelId, prompt, ctx.upstreamResponseId()))
+                    .doOnNext(result -> settleUpstream(req, prompt, result))
+                    .map(result -> keepChain(result, previousAiSummary))
+                    .map(result -> withFallback(result, null, ctx)));
+        }
+        return Mono.defer(() -> {
+            AiAnswerResult cached = cachedAnswer(req, cacheKey, previousAiSummary);
+            if (cached != null) return Mono.just(cached);
 
-                Answer in Korean. Use line breaks to separate paragraphs or list items clearly.
+            return aiRequestCoalescer.execute(cacheKey, () -> upstreamBudget(req, prompt)
+                            .then(generateAnswerAsync(req.modelId, prompt, ctx.upstreamResponseId()))
+                            .doOnNext(result -> {
+                                remember(req, cacheKey, result);
+                                settleUpstream(req, prompt, result);
+                            }))
+                    .map(shared -> shared.leader()
+                            ? joinChain(shared.value(), ctx)
+                            : asFollower(shared.value(), previousAiSummary))
+                    .map(result -> withFallback(result, cacheKey, ctx));
+        });
+    }
 
-                Keep your answer concise and to the point. Avoid unnecessary rhetoric or repetition.
-                Summarize the explanation in 3~5 sentences if possible.
+    // 실제 LLM 제공자로 나가는 호출만 분당 토큰 예산에서 차감한다 (mock 은 제외)
+    private Mono<Void> upstreamBudget(AiAskRequestDto req, String prompt) {
+        if (!aiClientRouter.enabled()) return Mono.empty();
+        return Mono.fromRunnable(() -> aiRateLimiter.acquireUpstream(req.modelId, prompt));
+    }
+
+    // 예상치로 차감했던 토큰 예산을 실제 usage 로 정산
+    private void settleUpstream(AiAskRequestDto req, String prompt, AiAnswerResult result) {
+        if (result.usage() == null) return;
+        aiRateLimiter.settleUpstream(req.modelId, prompt, result.usage().inputTokens(), result.usage().outputTokens());
+    }
+
+    // 3-3. 사전 생성용 답변 (AiPregenerationService)
+    // 캐시를 거치지 않고 항상 새로 만든다. 대화 체인 없이(previous_response_id 없음) 호출하고 upstream 예산은 똑같이 차감
+    // 캐시/기록 저장은 호출 쪽에서 한다
+    public Mono<AiAnswerResult> generateFreshAnswer(AiAskRequestDto req, String prompt) {
+        return upstreamBudget(req, prompt)
+                .then(generateAnswerAsync(req.modelId, prompt, null))
+                .doOnNext(result -> settleUpstream(req, prompt, result));
+    }
 
-                주어진 정보는 참고만 하고 반드시 question에 대해서만 답해줘
-                [Question]
-                %s
-                """.formatted(modelContext, partContext, question);
+    // 다른 사용자와 나눠 써도 되는 턴(ctx.standalone)이면 답변 캐시 키, 아니면 null (캐시/합치기 안 함)
+    private String sharedCacheKey(AiAskRequestDto req, AiContextResult ctx) {
+        return ctx.standalone() ? answerCacheKey(req.modelId, req.meshName, req.question) : null;
     }
 
-    // 3. 답변 생성 (유지)
-    public AiAnswerResult generateAnswer(String prompt, String previousAiSummary) {
-        if (!openAIClient.enabled()) {
-            return new AiAnswerResult(mockAiClient.ask(prompt), null, "mock", null, null);
+    private AiAnswerResult cachedAnswer(AiAskRequestDto req, String cacheKey, String previousAiSummary) {
+        if (cacheKey == null) return null;
+        String exact = aiAnswerCache.get(cacheKey);
+        if (exact != null) {
+            return new AiAnswerResult(exact, previousAiSummary, "cache", null, null);
         }
-        try {
-            OpenAIClient.AiResponseWrapper wrapper = openAIClient.ask(prompt, previousAiSummary);
-            if (wrapper.text() == null || wrapper.text().isBlank()) {
-                return new AiAnswerResult("", null, "openai", "empty_answer", "Empty response");
+        String similar = aiSemanticCache.lookup(req.modelId, req.meshName, req.question);
+        if (similar != null) {
+            return new AiAnswerResult(similar, previousAiSummary, "semantic_cache", null, null);
+        }
+        return null;
+    }
+
+    private void remember(AiAskRequestDto req, String cacheKey, AiAnswerResult result) {
+        if (cacheKey == null || result.errorCode() != null || result.answer() == null || result.answer().isBlank()) return;
+        aiAnswerCache.put(cacheKey, result.answer());
+        aiSemanticCache.put(req.modelId, req.meshName, req.question, result.answer());
+    }
+
+    // upstream 실패(브레이커 OPEN, 대기열 초과, 타임아웃 등) 시 대체 답변
+    // 1) 그 사이 다른 요청이 채운 캐시 답변 (캐시 키가 있는 턴만) 2) 부품/모델 설명 기반 기본 답변
+    // 기본 답변은 errorCode 를 유지하므로 대화 기록에는 저장되지 않는다
+    private AiAnswerResult withFallback(AiAnswerResult result, String cacheKey, AiContextResult ctx) {
+        if (result.errorCode() == null) return result;
+
+        String cached = cacheKey != null ? aiAnswerCache.get(cacheKey) : null;
+        if (cached != null) {
+            return new AiAnswerResult(cached, ctx.aiSummary(), "cache", null, null);
+        }
+        return new AiAnswerResult(ctx.degradedAnswer(), ctx.aiSummary(), "fallback",
+                result.errorCode(), result.errorMessage());
+    }
+
+    // response_id 를 주지 않는 제공자(local 등)의 답변은 이전 체인 ID 를 그대로 이어 저장한다
+    private static AiAnswerResult keepChain(AiAnswerResult result, String previousAiSummary) {
+        if (result.errorCode() != null || result.newResponseId() != null || previousAiSummary == null) return result;
+        return new AiAnswerResult(result.answer(), previousAiSummary, result.provider(), null, null, result.usage());
+    }
+
+    // 체인 밖에서 답한 턴(detached)은 새 response_id 대신 이전 체인 ID 를 저장해 대화가 끊기지 않게 한다
+    private static AiAnswerResult joinChain(AiAnswerResult result, AiContextResult ctx) {
+        if (!ctx.detached() || result.errorCode() != null) return keepChain(result, ctx.aiSummary());
+        return new AiAnswerResult(result.answer(), ctx.aiSummary(), result.provider(), null, null, result.usage());
+    }
+
+    // 공유받은 답변의 response_id 는 다른 사용자의 대화 체인이므로, 내 체인(이전 ID)을 그대로 유지한다
+    // usage 는 leader 에게만 남겨 토큰이 중복 집계되지 않게 한다
+    private AiAnswerResult asFollower(AiAnswerResult shared, String previousAiSummary) {
+        if (shared.errorCode() != null) return shared;
+        return new AiAnswerResult(shared.answer(), previousAiSummary, shared.provider(), null, null);
+    }
+
+    public String answerCacheKey(Long modelId, String meshName, String question) {
+        return AiAnswerCache.key(modelId, meshName, question, promptTemplateService.version());
+    }
+
+    // 3. 답변 생성
+    // 동시 LLM 호출 수는 AiCallLimiter 로 제한되고, 제공자는 AiClientRouter 가 고른다 (provider = 답한 제공자)
+    // 헤지 호출은 hedgeAdmission 으로 permit / 토큰 예산을 따로 잡는다
+    public Mono<AiAnswerResult> generateAnswerAsync(Long modelId, String prompt, String previousAiSummary) {
+        if (!aiClientRouter.enabled()) {
+            return Mono.fromSupplier(() -> new AiAnswerResult(mockAiClient.ask(prompt), null, "mock", null, null));
+        }
+        // 브레이커가 열려 있으면 limiter 대기열에 서지 않고 바로 대체 답변
+        return aiCircuitBreaker.protect(
+                        aiClientRouter.askAsync(prompt, previousAiSummary, hedgeAdmission(modelId, prompt)),
+                        aiCallLimiter::limit)
+                .map(routed -> {
+                    OpenAIClient.AiResponseWrapper wrapper = routed.value();
+                    if (wrapper.text() == null || wrapper.text().isBlank()) {
+                        return new AiAnswerResult("", null, routed.provider(), "empty_answer", "Empty response");
+                    }
+                    return new AiAnswerResult(wrapper.text(), wrapper.responseId(), routed.provider(), null, null,
+                            wrapper.usage());
+                })
+                .onErrorResume(e -> Mono.just(toErrorResult(e)));
+    }
+
+    // 헤지는 두 번째 upstream 호출이므로 첫 호출의 permit / 예산에 얹지 않는다
+    // permit 은 기다리지 않고 빈 자리가 있을 때만, 토큰 예산도 따로 차감 (못 잡으면 라우터가 헤지를 건너뜀)
+    private AiClientRouter.HedgeAdmission hedgeAdmission(Long modelId, String prompt) {
+        return new AiClientRouter.HedgeAdmission() {
+            @Override
+            public <T> Mono<T> admit(Mono<T> call) {
+                return aiCallLimiter.tryLimit(
+                        Mono.fromRunnable(() -> aiRateLimiter.acquireUpstream(modelId, prompt)).then(call));
+            }
+
+            @Override
+            public <T> Flux<T> admit(Flux<T> call) {
+                return aiCallLimiter.tryLimit(
+                        Mono.fromRunnable(() -> aiRateLimiter.acquireUpstream(modelId, prompt)).thenMany(call));
             }
-            return new AiAnswerResult(wrapper.text(), wrapper.responseId(), "openai", null, null);
-        } catch (WebClientResponseException e) {
-            return new AiAnswerResult("Error", null, "openai", "http_" + e.getStatusCode().value(),
-                    e.getResponseBodyAsString());
-        } catch (Exception e) {
-            return new AiAnswerResult("Error", null, "openai", "error", e.getMessage());
+        };
+    }
+
+    private AiAnswerResult toErrorResult(Throwable e) {
+        String provider = aiClientRouter.defaultProvider();
+        if (e instanceof WebClientResponseException we) {
+            return new AiAnswerResult("Error", null, provider, "http_" + we.getStatusCode().value(),
+                    we.getResponseBodyAsString());
+        }
+        if (e instanceof AiCallLimiter.AiBusyException) {
+            return new AiAnswerResult("Error", null, provider, "busy", e.getMessage());
         }
+        if (e instanceof AiCircuitBreaker.CircuitOpenException) {
+            return new AiAnswerResult("Error", null, provider, "circuit_open", e.getMessage());
+        }
+        return new AiAnswerResult("Error", null, provider, "error", e.getMessage());
+    }
+
+    // 3-2. 스트리밍 답변 생성
+    // 텍스트 조각을 delta 이벤트로 흘려보내고, 마지막에 전체 결과(AiAnswerResult)를 담은 이벤트 1개를 보낸다
+    public Flux<AiStreamEvent> streamAnswer(AiAskRequestDto req, String prompt, AiContextResult ctx) {
+        String previousAiSummary = ctx.aiSummary();
+        String cacheKey = sharedCacheKey(req, ctx);
+        AiAnswerResult cached = cachedAnswer(req, cacheKey, previousAiSummary);
+        if (cached != null) {
+            return Flux.just(AiStreamEvent.delta(cached.answer()), AiStreamEvent.done(cached));
+        }
+        if (!aiClientRouter.enabled()) {
+            String mock = mockAiClient.ask(prompt);
+            return Flux.just(
+                    AiStreamEvent.delta(mock),
+                    AiStreamEvent.done(new AiAnswerResult(mock, null, "mock", null, null)));
+        }
+
+        // 예산 초과는 스트림 시작 전에 에러로 내보내 429 로 응답되게 한다
+        aiRateLimiter.acquireUpstream(req.modelId, prompt);
+
+        return Flux.defer(() -> {
+            StringBuilder answer = new StringBuilder();
+            AtomicReference<String> provider = new AtomicReference<>(aiClientRouter.defaultProvider());
+            AtomicReference<String> responseId = new AtomicReference<>();
+            AtomicReference<OpenAIClient.Usage> usage = new AtomicReference<>();
+
+            Flux<AiStreamEvent> deltas = aiCircuitBreaker.protect(aiClientRouter.askStream(
+                            prompt, ctx.upstreamResponseId(), hedgeAdmission(req.modelId, prompt)),
+                            aiCallLimiter::limit)
+                    .concatMap(routed -> {
+                        OpenAIClient.StreamDelta d = routed.value();
+                        provider.set(routed.provider());
+                        if (d.responseId() != null) responseId.set(d.responseId());
+                        if (d.usage() != null) usage.set(d.usage());
+                        if (d.text() == null) return Flux.empty();
+                        answer.append(d.text());
+                        return Flux.just(AiStreamEvent.delta(d.text()));
+                    });
+
+            Mono<AiStreamEvent> done = Mono.fromSupplier(() -> {
+                String text = answer.toString();
+                if (text.isBlank()) {
+                    return AiStreamEvent.done(new AiAnswerResult("", null, provider.get(), "empty_answer", "Empty response"));
+                }
+                AiAnswerResult result = joinChain(new AiAnswerResult(text, responseId.get(), provider.get(), null,
+                        null, usage.get()), ctx);
+                remember(req, cacheKey, result);
+                settleUpstream(req, prompt, result);
+                return AiStreamEvent.done(result);
+            });
+
+            return deltas.concatWith(done)
+                    .onErrorResume(e -> Flux.just(AiStreamEvent.done(toErrorResult(e))))
+                    .concatMap(ev -> {
+                        // 아직 한 글자도 못 보냈다면 대체 답변으로 바꿔서 보낸다
+                        if (ev.result() == null || ev.result().errorCode() == null || answer.length() > 0) {
+                            return Flux.just(ev);
+                        }
+                        AiAnswerResult fallback = withFallback(ev.result(), cacheKey, ctx);
+                        return Flux.just(AiStreamEvent.delta(fallback.answer()), AiStreamEvent.done(fallback));
+                    });
+        });
     }
 
     // 4. 대화 저장 (유지: 히스토리에만 저장)
-    @Transactional
-    public void saveChatInteraction(Long modelId, String question, String answer, String newAiSummary, String userId) {
+    // AiChatHistoryWriter 큐에 넣고 바로 돌아온다 (백그라운드에서 batch insert)
+    public void saveChatInteraction(Long modelId, String meshName, String question, AiAnswerResult result,
+            AiContextResult ctx, String userId) {
         if (modelId == null)
             return;
 
-        ModelEntity model = modelRepository.findById(modelId)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid Model ID"));
+        aiChatHistoryWriter.submit(new AiChatHistoryWriter.PendingChat(
+                modelId, meshName, question, result.answer(), userId, result.newResponseId(), result.usage(),
+                reusableVersion(ctx, result), LocalDateTime.now()));
+        // 서버 쪽 대화를 잇지 않는 제공자(local)의 답변과 체인 밖에서 답한 턴은 체인 길이에 넣지 않는다
+        if (!ctx.detached() && aiClientRouter.continuesConversation(result.provider())) {
+            aiConversationManager.record(modelId, userId, result.usage());
+        }
+    }
 
-        AiChatHistoryEntity history = new AiChatHistoryEntity(model, question, answer, userId, newAiSummary);
-        aiChatHistoryRepository.save(history);
+    // 다른 사용자에게 재사용해도 되는 답변이면 현재 템플릿 버전 (기록의 prompt_version)
+    // 대화 맥락 없이 이 요청이 실제 LLM 을 호출해 만든 답변만 (캐시/공유/mock/대체 답변은 usage 가 null)
+    public String reusableVersion(AiContextResult ctx, AiAnswerResult result) {
+        if (!ctx.standalone() || result.errorCode() != null || result.usage() == null) return null;
+        return promptTemplateService.version();
     }
 
-    // 5. 조회 (유지)
-    public List<AiChatHistoryDto> getChatHistory(Long modelId, String userId) {
-        return aiChatHistoryRepository.findByModel_IdAndUserIdOrderByCreatedAtAsc(modelId, userId)
-                .stream()
-                .map(h -> new AiChatHistoryDto(h.getQuestion(), h.getAnswer(), h.getCreatedAt()))
-                .toList();
+    // 5. 조회 (keyset 페이지)
+    // 커서보다 오래된 대화 limit 건을 읽어 오래된 → 최신 순으로 돌려준다 (cursor 가 없으면 가장 최근 페이지)
+    // summaryOnly 이면 answer 본문을 읽지 않는다
+    public AiChatHistoryPage getChatHistory(Long modelId, String userId, String cursor, Integer limit,
+            boolean summaryOnly) {
+        int size = (limit == null || limit <= 0) ? historyPageSize : Math.min(limit, historyMaxPageSize);
+        HistoryCursor from = HistoryCursor.decode(cursor);
+        PageRequest page = PageRequest.of(0, size + 1);
+
+        List<? extends AiChatHistoryRepository.HistorySummaryRow> rows = summaryOnly
+                ? aiChatHistoryRepository.findSummaryPageBefore(modelId, userId, from.createdAt(), from.id(), page)
+                : aiChatHistoryRepository.findPageBefore(modelId, userId, from.createdAt(), from.id(), page);
+
+        boolean hasMore = rows.size() > size;
+        List<? extends AiChatHistoryRepository.HistorySummaryRow> pageRows = hasMore ? rows.subList(0, size) : rows;
+
+        List<AiChatHistoryDto> items = new ArrayList<>(pageRows.size());
+        for (int i = pageRows.size() - 1; i >= 0; i--) {
+            var h = pageRows.get(i);
+            String answer = h instanceof AiChatHistoryRepository.HistoryRow full ? full.getAnswer() : null;
+            items.add(new AiChatHistoryDto(h.getQuestion(), answer, h.getCreatedAt()));
+        }
+
+        String next = null;
+        if (hasMore) {
+            var oldest = pageRows.get(pageRows.size() - 1);
+            next = new HistoryCursor(oldest.getCreatedAt(), oldest.getId()).encode();
+        }
+        return new AiChatHistoryPage(items, next);
+    }
+
+    // 대화 목록 커서: 마지막으로 받은 가장 오래된 행의 (createdAt, id), URL-safe Base64
+    record HistoryCursor(LocalDateTime createdAt, Long id) {
+        private static final HistoryCursor START = new HistoryCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+        static HistoryCursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) return START;
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = raw.lastIndexOf('|');
+                return new HistoryCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+            }
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
     }
 
+    // usage 는 이 요청이 실제로 OpenAI 를 호출했을 때만 채워진다 (캐시/공유/mock/대체 답변은 null)
     public record AiAnswerResult(String answer, String newResponseId, String provider, String errorCode,
-            String errorMessage) {
+            String errorMessage, OpenAIClient.Usage usage) {
+        public AiAnswerResult(String answer, String newResponseId, String provider, String errorCode,
+                String errorMessage) {
+            this(answer, newResponseId, provider, errorCode, errorMessage, null);
+        }
+    }
+
+    // delta != null 이면 텍스트 조각, result != null 이면 스트림 종료
+    public record AiStreamEvent(String delta, AiAnswerResult result) {
+        static AiStreamEvent delta(String text) {
+            return new AiStreamEvent(text, null);
+        }
+
+        static AiStreamEvent done(AiAnswerResult result) {
+            return new AiStreamEvent(null, result);
+        }
+    }
+
+    public record AiChatHistoryDto(String question, String answer, LocalDateTime timestamp) {
     }
 
-    public record AiChatHistoryDto(String question, String answer, java.time.LocalDateTime timestamp) {
+    // nextCursor 가 null 이면 더 오래된 대화 없음
+    public record AiChatHistoryPage(List<AiChatHistoryDto> items, String nextCursor) {
     }
 }
\ No newline at end of file
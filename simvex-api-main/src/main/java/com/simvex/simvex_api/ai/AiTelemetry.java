@@ -0,0 +1,90 @@
+// src/main/java/com/simvex/simvex_api/ai/AiTelemetry.java
+package com.simvex.simvex_api.ai;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI 요청 1건 단위 지표 (어떤 3D 모델이 LLM 비용 / 꼬리 지연을 만드는지 보기 위함)
+ *
+ * - simvex.ai.request.latency  {model_id, mode, provider, cache, outcome} : 요청 전체 지연
+ * - simvex.ai.upstream.latency {model_id, llm_model}                     : OpenAI 호출 지연 (재시도 포함)
+ * - simvex.ai.tokens           {model_id, mode, llm_model, kind}         : 입력/출력 토큰 누계
+ *
+ * 토큰/upstream 지연은 실제로 OpenAI 를 호출한 요청(leader)에만 기록된다. 캐시 적중, 공유받은 답변은 0 비용.
+ * model_id 는 요청 본문 값이라, AiContextIndex 에 있는 모델만 그대로 쓰고 나머지는 "unknown" 으로 묶는다
+ * (임의의 id 로 percentile histogram 시계열이 끝없이 늘어나지 않게)
+ */
+@Component
+public class AiTelemetry {
+
+    private final MeterRegistry meterRegistry;
+    private final AiContextIndex aiContextIndex;
+
+    public AiTelemetry(MeterRegistry meterRegistry, AiContextIndex aiContextIndex) {
+        this.meterRegistry = meterRegistry;
+        this.aiContextIndex = aiContextIndex;
+    }
+
+    public void record(Long modelId, String mode, AiService.AiAnswerResult result, long startNanos) {
+        String model = modelTag(modelId);
+        String safeMode = mode == null ? "none" : mode;
+
+        Timer.builder("simvex.ai.request.latency")
+                .tag("model_id", model)
+                .tag("mode", safeMode)
+                .tag("provider", result.provider())
+                .tag("cache", cacheStatus(result.provider()))
+                .tag("outcome", result.errorCode() == null ? "ok" : result.errorCode())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+
+        OpenAIClient.Usage usage = result.usage();
+        if (usage == null) return;
+
+        String llmModel = usage.model() == null ? "unknown" : usage.model();
+        Timer.builder("simvex.ai.upstream.latency")
+                .tag("model_id", model)
+                .tag("llm_model", llmModel)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(usage.latencyMs(), TimeUnit.MILLISECONDS);
+        if (usage.inputTokens() != null) {
+            meterRegistry.counter("simvex.ai.tokens", "model_id", model, "mode", safeMode,
+                    "llm_model", llmModel, "kind", "input").increment(usage.inputTokens());
+        }
+        if (usage.outputTokens() != null) {
+            meterRegistry.counter("simvex.ai.tokens", "model_id", model, "mode", safeMode,
+                    "llm_model", llmModel, "kind", "output").increment(usage.outputTokens());
+        }
+    }
+
+    private String modelTag(Long modelId) {
+        if (modelId == null) return "none";
+        return aiContextIndex.model(modelId) != null ? modelId.toString() : "unknown";
+    }
+
+    public static String cacheStatus(String provider) {
+        return switch (provider) {
+            case "cache" -> "HIT";
+            case "semantic_cache" -> "SEMANTIC_HIT";
+            default -> "MISS";
+        };
+    }
+
+    // 응답 meta.usage 에 그대로 싣는 형태
+    public static Map<String, Object> usageMeta(OpenAIClient.Usage usage) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("model", usage.model());
+        m.put("inputTokens", usage.inputTokens());
+        m.put("outputTokens", usage.outputTokens());
+        m.put("upstreamLatencyMs", usage.latencyMs());
+        return m;
+    }
+}
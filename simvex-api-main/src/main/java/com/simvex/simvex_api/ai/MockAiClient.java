@@ -2,17 +2,42 @@
 package com.simvex.simvex_api.ai;
 
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.Instant;
 
+// 실제 제공자가 하나도 없을 때 AiService 가 쓰는 오프라인 대체 (라우터 대상 아님)
 @Component
 public class MockAiClient implements AiClient {
 
+    public static final String NAME = "mock";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
     @Override
+    public boolean enabled() {
+        return true;
+    }
+
     public String ask(String prompt) {
         // 지금은 Mock 유지
         return "Mock 답변\n"
                 + "- prompt 길이: " + (prompt == null ? 0 : prompt.length()) + "\n"
                 + "- 생성시각: " + Instant.now();
     }
+
+    @Override
+    public Mono<OpenAIClient.AiResponseWrapper> askAsync(String prompt, String previousResponseId) {
+        return Mono.fromSupplier(() -> new OpenAIClient.AiResponseWrapper(ask(prompt), null, null));
+    }
+
+    @Override
+    public Flux<OpenAIClient.StreamDelta> askStream(String prompt, String previousResponseId) {
+        return askAsync(prompt, previousResponseId).flux()
+                .map(r -> new OpenAIClient.StreamDelta(r.text(), null, null));
+    }
 }
@@ -2,75 +2,191 @@ package com.simvex.simvex_api.ai;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
 @Component
-public class OpenAIClient {
+public class OpenAIClient implements AiClient {
+
+    public static final String NAME = "openai";
+
+    private static final ParameterizedTypeReference<ServerSentEvent<Map<String, Object>>> SSE_TYPE =
+            new ParameterizedTypeReference<>() {};
 
     private final WebClient webClient;
     private final String apiKey;
+    private final String model;
 
-    public OpenAIClient(WebClient openAIWebClient, @Value("${openai.api-key:}") String apiKey) {
+    public OpenAIClient(
+            @Qualifier("openAIWebClient") WebClient openAIWebClient,
+            @Value("${openai.api-key:}") String apiKey,
+            @Value("${openai.model:gpt-5-mini}") String model) {
         this.webClient = openAIWebClient;
         this.apiKey = apiKey;
+        this.model = model;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
     }
 
+    @Override
     public boolean enabled() {
         return apiKey != null && !apiKey.isBlank();
     }
 
+    // Responses API 는 previous_response_id 로 서버 쪽 대화를 이어간다
+    @Override
+    public boolean supportsConversation() {
+        return true;
+    }
+
+    public String model() {
+        return model;
+    }
+
     // [변경] 리턴 타입을 String -> AiResponseWrapper (ID 포함)로 변경
     // [변경] 파라미터에 previousResponseId 추가
     public AiResponseWrapper ask(String prompt, String previousResponseId) {
-        
+        return askAsync(prompt, previousResponseId).block();
+    }
+
+    /**
+     * 논블로킹 호출. 응답을 기다리는 동안 어떤 스레드도 점유하지 않는다.
+     * 타임아웃은 시도마다 openai.http.response-timeout-ms (OpenAIConfig) 를 따른다. 재시도 대기까지 묶는 전체 상한은 두지 않는다.
+     * 결과에는 usage(토큰 수)와 upstream 지연(재시도 포함)이 함께 담긴다.
+     */
+    @Override
+    public Mono<AiResponseWrapper> askAsync(String prompt, String previousResponseId) {
+
         // previousResponseId가 있으면 포함하여 요청 객체 생성
         var req = new ResponsesRequest(
-                "gpt-5-mini", // 또는 사용 가능한 모델명
+                model,
                 List.of(
                         new InputMessage(
                                 "user",
                                 List.of(new ContentPart("input_text", prompt))
                         )
                 ),
-                previousResponseId // null이면 포함되지 않음 (JsonInclude 설정 필요)
+                previousResponseId, // null이면 포함되지 않음 (JsonInclude 설정 필요)
+                null
         );
 
-        try {
-            ResponsesResponse res = webClient.post()
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return webClient.post()
                     .uri("/responses")
                     .contentType(MediaType.APPLICATION_JSON)
                     .bodyValue(req)
                     .retrieve()
                     .bodyToMono(ResponsesResponse.class)
-                    .timeout(Duration.ofSeconds(60))
-                    .block();
+                    .map(res -> {
+                        String answerText;
+                        if (res.output_text != null && !res.output_text.isBlank()) {
+                            answerText = res.output_text;
+                        } else {
+                            answerText = extractOutputText(res.output);
+                        }
+
+                        // 응답 텍스트와 함께 새로운 response_id 반환
+                        return new AiResponseWrapper(answerText != null ? answerText : "", res.id,
+                                Usage.of(res.model != null ? res.model : model, res.usage, elapsedMs(start)));
+                    })
+                    .defaultIfEmpty(new AiResponseWrapper("", null, null))
+                    .doOnError(WebClientResponseException.class,
+                            e -> System.out.println("OPENAI ERROR: " + e.getResponseBodyAsString()));
+        });
+    }
 
-            if (res == null) return new AiResponseWrapper("", null);
+    /**
+     * Responses API 스트리밍 호출 (stream=true)
+     * 텍스트 조각(delta)을 받는 대로 흘려보내고, 완료 시 response_id 를 담은 이벤트를 마지막으로 보낸다.
+     * 타임아웃은 전체 시간이 아니라 이벤트 사이의 공백 기준이다 (openai.http.response-timeout-ms, OpenAIConfig).
+     * 완료 이벤트에는 usage 와 첫 요청부터 완료까지의 지연이 담긴다.
+     */
+    @Override
+    public Flux<StreamDelta> askStream(String prompt, String previousResponseId) {
+        var req = new ResponsesRequest(
+                model,
+                List.of(
+                        new InputMessage(
+                                "user",
+                                List.of(new ContentPart("input_text", prompt))
+                        )
+                ),
+                previousResponseId,
+                true
+        );
 
-            String answerText = "";
-            if (res.output_text != null && !res.output_text.isBlank()) {
-                answerText = res.output_text;
-            } else {
-                answerText = extractOutputText(res.output);
-            }
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return webClient.post()
+                    .uri("/responses")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .bodyValue(req)
+                    .retrieve()
+                    .bodyToFlux(SSE_TYPE)
+                    .concatMap(sse -> toStreamDelta(sse, start))
+                    .doOnError(WebClientResponseException.class,
+                            e -> System.out.println("OPENAI STREAM ERROR: " + e.getResponseBodyAsString()));
+        });
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
 
-            // 응답 텍스트와 함께 새로운 response_id 반환
-            return new AiResponseWrapper(answerText != null ? answerText : "", res.id);
+    private Mono<StreamDelta> toStreamDelta(ServerSentEvent<Map<String, Object>> sse, long start) {
+        Map<String, Object> data = sse.data();
+        if (data == null) return Mono.empty();
 
-        } catch (WebClientResponseException e) {
-            System.out.println("OPENAI ERROR: " + e.getResponseBodyAsString());
-            throw e;
+        String type = data.get("type") != null ? data.get("type").toString() : sse.event();
+        if (type == null) return Mono.empty();
+
+        switch (type) {
+            case "response.output_text.delta" -> {
+                Object delta = data.get("delta");
+                return delta instanceof String s && !s.isEmpty()
+                        ? Mono.just(new StreamDelta(s, null, null))
+                        : Mono.empty();
+            }
+            case "response.completed" -> {
+                if (!(data.get("response") instanceof Map<?, ?> r)) {
+                    return Mono.just(new StreamDelta(null, null, null));
+                }
+                String id = r.get("id") != null ? r.get("id").toString() : null;
+                String responseModel = r.get("model") != null ? r.get("model").toString() : model;
+                Usage usage = r.get("usage") instanceof Map<?, ?> u
+                        ? new Usage(responseModel, intValue(u.get("input_tokens")), intValue(u.get("output_tokens")), elapsedMs(start))
+                        : Usage.of(responseModel, null, elapsedMs(start));
+                return Mono.just(new StreamDelta(null, id, usage));
+            }
+            case "response.failed", "error" -> {
+                return Mono.error(new IllegalStateException("OpenAI stream failed: " + data));
+            }
+            default -> {
+                return Mono.empty();
+            }
         }
     }
 
+    private static Integer intValue(Object v) {
+        return v instanceof Number n ? n.intValue() : null;
+    }
+
     @SuppressWarnings("unchecked")
     private String extractOutputText(List<Object> output) {
         // (기존 로직 유지)
@@ -100,7 +216,8 @@ public class OpenAIClient {
     public record ResponsesRequest(
             String model, 
             List<InputMessage> input,
-            String previous_response_id // [추가] 필드
+            String previous_response_id, // [추가] 필드
+            Boolean stream // 스트리밍 요청일 때만 true
     ) {}
 
     public record InputMessage(String role, List<ContentPart> content) {}
@@ -109,10 +226,30 @@ public class OpenAIClient {
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class ResponsesResponse {
         public String id; // OpenAI가 반환하는 Response ID
+        public String model;
         public String output_text;
         public List<Object> output;
+        public ResponseUsage usage;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ResponseUsage {
+        public Integer input_tokens;
+        public Integer output_tokens;
     }
 
     // [신규] 결과 래퍼 클래스
-    public record AiResponseWrapper(String text, String responseId) {}
+    public record AiResponseWrapper(String text, String responseId, Usage usage) {}
+
+    // 스트리밍 이벤트: text 조각 또는 (완료 시) responseId + usage
+    public record StreamDelta(String text, String responseId, Usage usage) {}
+
+    // 토큰 수는 응답에 usage 가 없으면 null
+    public record Usage(String model, Integer inputTokens, Integer outputTokens, long latencyMs) {
+        static Usage of(String model, ResponseUsage u, long latencyMs) {
+            return u == null
+                    ? new Usage(model, null, null, latencyMs)
+                    : new Usage(model, u.input_tokens, u.output_tokens, latencyMs);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+// src/main/java/com/simvex/simvex_api/ai/OpenAICompatibleClient.java
+package com.simvex.simvex_api.ai;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * OpenAI 호환 로컬/사설 엔드포인트 (vLLM, Ollama, LM Studio 등의 /v1/chat/completions)
+ *
+ * - simvex.ai.providers.local.base-url 이 비어 있으면 비활성 (라우터가 고르지 않음)
+ * - Chat Completions 는 서버 쪽 대화 상태가 없으므로 previous_response_id 를 쓰지 않는다 (매 턴 새 대화)
+ * - 로컬 스텁 서버를 base-url 로 지정하면 OpenAI 없이 라우팅/헤징을 확인할 수 있다
+ */
+@Component
+public class OpenAICompatibleClient implements AiClient {
+
+    public static final String NAME = "local";
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String model;
+    private final Duration timeout;
+
+    public OpenAICompatibleClient(
+            @Qualifier("localAiWebClient") WebClient localAiWebClient,
+            ObjectMapper objectMapper,
+            @Value("${simvex.ai.providers.local.base-url:}") String baseUrl,
+            @Value("${simvex.ai.providers.local.model:llama3.1:8b}") String model,
+            @Value("${simvex.ai.providers.local.timeout-ms:60000}") long timeoutMs) {
+        this.webClient = localAiWebClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.model = model;
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean enabled() {
+        return baseUrl != null && !baseUrl.isBlank();
+    }
+
+    @Override
+    public Mono<OpenAIClient.AiResponseWrapper> askAsync(String prompt, String previousResponseId) {
+        ChatRequest req = new ChatRequest(model, List.of(new ChatMessage("user", prompt)), null, null);
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return webClient.post()
+                    .uri("/chat/completions")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(req)
+                    .retrieve()
+                    .bodyToMono(ChatResponse.class)
+                    .timeout(timeout)
+                    .map(res -> {
+                        String text = null;
+                        if (res.choices != null && !res.choices.isEmpty() && res.choices.get(0).message != null) {
+                            text = res.choices.get(0).message.content;
+                        }
+                        // 대화를 이어갈 수 없으므로 response_id 는 돌려주지 않는다
+                        return new OpenAIClient.AiResponseWrapper(text != null ? text : "", null,
+                                usage(res.model, res.usage, start));
+                    })
+                    .defaultIfEmpty(new OpenAIClient.AiResponseWrapper("", null, null))
+                    .doOnError(WebClientResponseException.class,
+                            e -> System.out.println("LOCAL AI ERROR: " + e.getResponseBodyAsString()));
+        });
+    }
+
+    /**
+     * stream=true: "data: {chunk}" 를 받는 대로 흘려보내고 "data: [DONE]" 에서 끝난다.
+     * 마지막 청크(include_usage)의 usage 를 완료 이벤트에 담는다.
+     */
+    @Override
+    public Flux<OpenAIClient.StreamDelta> askStream(String prompt, String previousResponseId) {
+        ChatRequest req = new ChatRequest(model, List.of(new ChatMessage("user", prompt)), true,
+                new StreamOptions(true));
+
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return webClient.post()
+                    .uri("/chat/completions")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .bodyValue(req)
+                    .retrieve()
+                    .bodyToFlux(SSE_TYPE)
+                    .timeout(timeout)
+                    .takeUntil(sse -> "[DONE]".equals(sse.data()))
+                    .concatMap(sse -> toStreamDelta(sse.data(), start))
+                    .doOnError(WebClientResponseException.class,
+                            e -> System.out.println("LOCAL AI STREAM ERROR: " + e.getResponseBodyAsString()));
+        });
+    }
+
+    private Mono<OpenAIClient.StreamDelta> toStreamDelta(String data, long start) {
+        if (data == null || data.isBlank()) return Mono.empty();
+        if ("[DONE]".equals(data)) {
+            return Mono.just(new OpenAIClient.StreamDelta(null, null, null));
+        }
+
+        JsonNode chunk;
+        try {
+            chunk = objectMapper.readTree(data);
+        } catch (Exception e) {
+            return Mono.error(new IllegalStateException("Invalid stream chunk: " + data));
+        }
+
+        JsonNode usage = chunk.get("usage");
+        if (usage != null && !usage.isNull()) {
+            String responseModel = chunk.hasNonNull("model") ? chunk.get("model").asText() : model;
+            return Mono.just(new OpenAIClient.StreamDelta(null, null, new OpenAIClient.Usage(responseModel,
+                    intValue(usage.get("prompt_tokens")), intValue(usage.get("completion_tokens")), elapsedMs(start))));
+        }
+
+        JsonNode content = chunk.path("choices").path(0).path("delta").get("content");
+        return content != null && content.isTextual() && !content.asText().isEmpty()
+                ? Mono.just(new OpenAIClient.StreamDelta(content.asText(), null, null))
+                : Mono.empty();
+    }
+
+    private OpenAIClient.Usage usage(String responseModel, ChatUsage u, long start) {
+        String m = responseModel != null ? responseModel : model;
+        return u == null
+                ? new OpenAIClient.Usage(m, null, null, elapsedMs(start))
+                : new OpenAIClient.Usage(m, u.prompt_tokens, u.completion_tokens, elapsedMs(start));
+    }
+
+    private static Integer intValue(JsonNode n) {
+        return n != null && n.isNumber() ? n.intValue() : null;
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    // ===== DTOs =====
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ChatRequest(String model, List<ChatMessage> messages, Boolean stream, StreamOptions stream_options) {}
+
+    public record ChatMessage(String role, String content) {}
+
+    public record StreamOptions(boolean include_usage) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ChatResponse {
+        public String id;
+        public String model;
+        public List<Choice> choices;
+        public ChatUsage usage;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Choice {
+        public ChatMessageBody message;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ChatMessageBody {
+        public String content;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ChatUsage {
+        public Integer prompt_tokens;
+        public Integer completion_tokens;
+    }
+}
@@ -1,23 +1,120 @@
 // src/main/java/com/simvex/simvex_api/ai/OpenAIConfig.java
 package com.simvex.simvex_api.ai;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Configuration
 public class OpenAIConfig {
 
+    /**
+     * OpenAI 전용 커넥션 풀
+     * 기본 Reactor Netty 풀(전역 공유, 대기열 무제한)을 쓰지 않고 크기/대기/유휴 정리를 명시한다.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider openAIConnectionProvider(
+            @Value("${openai.http.max-connections:100}") int maxConnections,
+            @Value("${openai.http.pending-acquire-max:500}") int pendingAcquireMax,
+            @Value("${openai.http.pending-acquire-timeout-ms:10000}") long pendingAcquireTimeoutMs,
+            @Value("${openai.http.max-idle-ms:30000}") long maxIdleMs,
+            @Value("${openai.http.max-life-ms:300000}") long maxLifeMs,
+            @Value("${openai.http.evict-interval-ms:30000}") long evictIntervalMs) {
+        return ConnectionProvider.builder("openai")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleMs))
+                .maxLifeTime(Duration.ofMillis(maxLifeMs))
+                .evictInBackground(Duration.ofMillis(evictIntervalMs))
+                .metrics(true) // reactor.netty.connection.provider.* (풀 대기 시간 등)
+                .build();
+    }
+
     @Bean
-    public WebClient openAIWebClient(@Value("${openai.api-key:}") String apiKey) {
+    public WebClient openAIWebClient(
+            @Value("${openai.api-key:}") String apiKey,
+            @Value("${openai.base-url:https://api.openai.com/v1}") String baseUrl,
+            @Value("${openai.http.connect-timeout-ms:5000}") int connectTimeoutMs,
+            @Value("${openai.http.response-timeout-ms:60000}") long responseTimeoutMs,
+            @Value("${openai.http.http2:false}") boolean http2,
+            @Value("${openai.retry.max-retries:2}") int maxRetries,
+            @Value("${openai.retry.backoff-ms:500}") long backoffMs,
+            @Value("${openai.retry.max-backoff-ms:8000}") long maxBackoffMs,
+            @Qualifier("openAIConnectionProvider") ConnectionProvider openAIConnectionProvider,
+            MeterRegistry meterRegistry) {
+
+        HttpClient httpClient = HttpClient.create(openAIConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                // 읽기 사이 공백 기준 → 스트리밍 응답에도 그대로 적용된다
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs))
+                .protocol(http2
+                        ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11})
+                // 단계별 지연(connect, tls, 첫 바이트 등) → reactor.netty.http.client.*
+                .metrics(true, uri -> "/responses");
+
         WebClient.Builder b = WebClient.builder()
-                .baseUrl("https://api.openai.com/v1");
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(new OpenAIRetryFilter(
+                        maxRetries,
+                        Duration.ofMillis(backoffMs),
+                        Duration.ofMillis(maxBackoffMs),
+                        meterRegistry));
 
         if (apiKey != null && !apiKey.isBlank()) {
             b.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey);
         }
         return b.build();
     }
+
+    // OpenAI 호환 로컬 엔드포인트 전용 커넥션 풀 (OpenAI 풀과 섞이지 않게 분리)
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider localAiConnectionProvider(
+            @Value("${simvex.ai.providers.local.max-connections:32}") int maxConnections) {
+        return ConnectionProvider.builder("local-ai")
+                .maxConnections(maxConnections)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * OpenAI 호환 로컬 엔드포인트 (OpenAICompatibleClient) 전용 클라이언트
+     * 재시도 필터는 두지 않는다: 느리거나 실패하면 AiClientRouter 가 다른 제공자로 넘긴다.
+     */
+    @Bean
+    public WebClient localAiWebClient(
+            @Value("${simvex.ai.providers.local.base-url:}") String baseUrl,
+            @Value("${simvex.ai.providers.local.api-key:}") String apiKey,
+            @Value("${openai.http.connect-timeout-ms:5000}") int connectTimeoutMs,
+            @Value("${simvex.ai.providers.local.timeout-ms:60000}") long responseTimeoutMs,
+            @Qualifier("localAiConnectionProvider") ConnectionProvider localAiConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(localAiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+
+        WebClient.Builder b = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient));
+        if (baseUrl != null && !baseUrl.isBlank()) {
+            b.baseUrl(baseUrl);
+        }
+        if (apiKey != null && !apiKey.isBlank()) {
+            b.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey);
+        }
+        return b.build();
+    }
 }
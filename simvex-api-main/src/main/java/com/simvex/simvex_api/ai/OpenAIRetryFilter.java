@@ -0,0 +1,127 @@
+// src/main/java/com/simvex/simvex_api/ai/OpenAIRetryFilter.java
+package com.simvex.simvex_api.ai;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ConnectTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * OpenAI 호출 재시도 + 시도별 지연 측정
+ *
+ * - 429 / 5xx 응답, 연결 실패(요청이 나가기 전)만 재시도
+ * - Retry-After 헤더가 있으면 그 시간만큼, 없으면 지수 백오프 + jitter
+ *   서버가 준 Retry-After 가 최대 백오프보다 길면 줄여서 먼저 재시도하지 않고(429 를 더 키움) 그 응답을 바로 돌려준다
+ * - 마지막 시도의 응답은 그대로 통과시키므로 호출부에서는 기존처럼 WebClientResponseException 을 받는다
+ * - 시도마다 simvex.ai.openai.attempt 타이머에 기록 (upstream 지연 vs 우리 쪽 대기 구분용)
+ */
+public class OpenAIRetryFilter implements ExchangeFilterFunction {
+
+    private final int maxRetries;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final MeterRegistry meterRegistry;
+
+    public OpenAIRetryFilter(int maxRetries, Duration baseBackoff, Duration maxBackoff, MeterRegistry meterRegistry) {
+        this.maxRetries = maxRetries;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return attempt(request, next, 1);
+    }
+
+    private Mono<ClientResponse> attempt(ClientRequest request, ExchangeFunction next, int attempt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean lastAttempt = attempt > maxRetries;
+
+        // 다음 시도에서 난 에러가 이전 시도의 onErrorResume 에 다시 잡히지 않도록 Mono<Mono<>> 로 한 번 감싼다
+        return next.exchange(request)
+                .doOnNext(response -> record(sample, String.valueOf(response.statusCode().value())))
+                .doOnError(e -> record(sample, connectFailure(e) ? "connect_error" : "error"))
+                .map(response -> handleResponse(request, next, attempt, lastAttempt, response))
+                .onErrorResume(e -> !lastAttempt && connectFailure(e), e -> {
+                    Duration delay = backoff(attempt);
+                    System.out.println("[OPENAI] 연결 실패 → " + delay.toMillis() + "ms 후 재시도 (" + attempt + "/" + maxRetries + ")");
+                    return Mono.just(Mono.delay(delay).then(attempt(request, next, attempt + 1)));
+                })
+                .flatMap(m -> m);
+    }
+
+    private Mono<ClientResponse> handleResponse(ClientRequest request, ExchangeFunction next,
+                                                int attempt, boolean lastAttempt, ClientResponse response) {
+        int status = response.statusCode().value();
+        if (lastAttempt || !retryableStatus(status)) return Mono.just(response);
+
+        Duration delay = retryAfter(response.headers().asHttpHeaders());
+        if (delay != null && delay.compareTo(maxBackoff) > 0) {
+            System.out.println("[OPENAI] HTTP " + status + " Retry-After " + delay.toSeconds() + "s > 최대 백오프 "
+                    + maxBackoff.toMillis() + "ms → 재시도하지 않음");
+            return Mono.just(response);
+        }
+        if (delay == null) delay = backoff(attempt);
+
+        System.out.println("[OPENAI] HTTP " + status + " → " + delay.toMillis() + "ms 후 재시도 (" + attempt + "/" + maxRetries + ")");
+        return response.releaseBody()
+                .then(Mono.delay(delay))
+                .then(attempt(request, next, attempt + 1));
+    }
+
+    private void record(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("simvex.ai.openai.attempt")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private boolean retryableStatus(int status) {
+        return status == 429 || status >= 500;
+    }
+
+    // 요청 본문이 나가기 전에 실패한 경우만 (POST 중복 과금 방지)
+    private boolean connectFailure(Throwable e) {
+        Throwable t = e;
+        while (t != null) {
+            if (t instanceof ConnectException || t instanceof ConnectTimeoutException) return true;
+            t = t.getCause();
+        }
+        return false;
+    }
+
+    private Duration backoff(int attempt) {
+        long cap = Math.min(maxBackoff.toMillis(), baseBackoff.toMillis() << Math.min(attempt - 1, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(cap / 2, cap + 1));
+    }
+
+    // Retry-After: 초(delta-seconds) 또는 HTTP-date
+    static Duration retryAfter(HttpHeaders headers) {
+        String v = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (v == null || v.isBlank()) return null;
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(v.trim())));
+        } catch (NumberFormatException ignore) {
+            // HTTP-date 형식 시도
+        }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(v.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            Duration d = Duration.between(ZonedDateTime.now(at.getZone()), at);
+            return d.isNegative() ? Duration.ZERO : d;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -1,50 +1,216 @@
 // src/main/java/com/simvex/simvex_api/ai/PromptTemplateService.java
 package com.simvex.simvex_api.ai;
 
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
+/**
+ * 프롬프트 템플릿 엔진
+ *
+ * - prompts/*.txt 를 기동 시 한 번만 읽어 [리터럴 | {{변수}}] 세그먼트 목록으로 컴파일
+ * - render 는 StringBuilder 한 번 순회로 끝 (매 호출 파일 읽기 / replace 반복 없음)
+ * - simvex.ai.prompts.dir 가 지정되면 그 폴더의 같은 이름 파일이 우선하며, 수정되면 재시작 없이 다시 읽는다
+ */
 @Service
 public class PromptTemplateService {
 
+    private static final String CLASSPATH_PATTERN = "classpath:/prompts/*.txt";
+
+    private final String overrideDir;
+
+    // 교체는 항상 새 맵으로 (읽는 쪽은 락 없이 스냅샷 사용)
+    private volatile Map<String, CompiledTemplate> templates = Map.of();
+    private volatile String version = PromptTemplates.VERSION;
+    private final Map<String, Long> overrideModified = new HashMap<>();
+
+    public PromptTemplateService(@Value("${simvex.ai.prompts.dir:}") String overrideDir) {
+        this.overrideDir = overrideDir;
+        reload();
+    }
+
     public String render(
             String mode,
             String context,
             String question,
             String notes
     ) {
-        String templateName = chooseTemplate(mode, notes);
-        String template = loadTemplate(templateName);
+        Map<String, String> vars = new HashMap<>();
+        vars.put("context", context);
+        vars.put("question", question);
+        vars.put("notes", notes);
+        return render(chooseTemplate(mode, notes), vars);
+    }
 
-        return template
-                .replace("{{context}}", safe(context))
-                .replace("{{question}}", safe(question))
-                .replace("{{notes}}", safe(notes));
+    public String render(String name, Map<String, String> vars) {
+        CompiledTemplate t = templates.get(name);
+        if (t == null) {
+            throw new IllegalArgumentException("Unknown prompt template: " + name);
+        }
+        return t.render(vars);
+    }
+
+    /**
+     * 템플릿 내용이 바뀌면 함께 바뀌는 버전 (AiAnswerCache 키에 포함)
+     */
+    public String version() {
+        return version;
     }
 
     private String chooseTemplate(String mode, String notes) {
         if ("PART".equals(mode)) {
             if (notes != null && !notes.isBlank()) {
-                return "prompts/part_with_notes.txt";
+                return "part_with_notes";
+            }
+            return "part";
+        }
+        return "global";
+    }
+
+    @Scheduled(fixedDelayString = "${simvex.ai.prompts.reload-interval-ms:5000}")
+    public void reloadIfChanged() {
+        if (overrideDir == null || overrideDir.isBlank()) return;
+        Map<String, Long> current = scanOverrideDir();
+        boolean changed;
+        synchronized (overrideModified) {
+            changed = !current.equals(overrideModified);
+        }
+        if (changed) {
+            reload();
+            System.out.println("[PROMPT] 템플릿 다시 읽음 (version=" + version + ")");
+        }
+    }
+
+    private synchronized void reload() {
+        Map<String, String> sources = new TreeMap<>();
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(CLASSPATH_PATTERN);
+            for (Resource r : resources) {
+                String file = r.getFilename();
+                if (file == null) continue;
+                sources.put(file.substring(0, file.length() - ".txt".length()),
+                        new String(r.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Prompt template load failed: " + CLASSPATH_PATTERN, e);
+        }
+
+        Map<String, Long> modified = scanOverrideDir();
+        for (String name : modified.keySet()) {
+            Path p = Paths.get(overrideDir, name + ".txt");
+            try {
+                sources.put(name, Files.readString(p, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                System.out.println("[PROMPT] 템플릿 읽기 실패 (무시): " + p + " - " + e.getMessage());
+            }
+        }
+
+        Map<String, CompiledTemplate> compiled = new HashMap<>();
+        sources.forEach((name, src) -> compiled.put(name, CompiledTemplate.compile(src)));
+
+        this.templates = Map.copyOf(compiled);
+        this.version = PromptTemplates.VERSION + "-" + hash(sources);
+        synchronized (overrideModified) {
+            overrideModified.clear();
+            overrideModified.putAll(modified);
+        }
+    }
+
+    private Map<String, Long> scanOverrideDir() {
+        Map<String, Long> out = new HashMap<>();
+        if (overrideDir == null || overrideDir.isBlank()) return out;
+        Path dir = Paths.get(overrideDir);
+        if (!Files.isDirectory(dir)) return out;
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.txt")) {
+            for (Path p : stream) {
+                String file = p.getFileName().toString();
+                out.put(file.substring(0, file.length() - ".txt".length()),
+                        Files.getLastModifiedTime(p).toMillis());
             }
-            return "prompts/part.txt";
+        } catch (IOException e) {
+            System.out.println("[PROMPT] 템플릿 폴더 확인 실패: " + dir + " - " + e.getMessage());
         }
-        return "prompts/global.txt";
+        return out;
     }
 
-    private String loadTemplate(String path) {
+    private static String hash(Map<String, String> sources) {
         try {
-            ClassPathResource res = new ClassPathResource(path);
-            return new String(res.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            sources.forEach((name, src) -> {
+                md.update(name.getBytes(StandardCharsets.UTF_8));
+                md.update((byte) 0);
+                md.update(src.getBytes(StandardCharsets.UTF_8));
+                md.update((byte) 0);
+            });
+            return HexFormat.of().formatHex(md.digest(), 0, 6);
         } catch (Exception e) {
-            throw new RuntimeException("Prompt template load failed: " + path, e);
+            throw new IllegalStateException(e);
         }
     }
 
-    private String safe(String s) {
-        return s == null ? "" : s;
+    /**
+     * 컴파일된 템플릿: literal[i] 다음에 vars[i] 가 온다 (마지막 literal 뒤에는 변수 없음)
+     */
+    static final class CompiledTemplate {
+        private final String[] literals;
+        private final String[] varNames;
+        private final int literalLength;
+
+        private CompiledTemplate(String[] literals, String[] varNames) {
+            this.literals = literals;
+            this.varNames = varNames;
+            int len = 0;
+            for (String l : literals) len += l.length();
+            this.literalLength = len;
+        }
+
+        static CompiledTemplate compile(String src) {
+            List<String> literals = new ArrayList<>();
+            List<String> vars = new ArrayList<>();
+            int pos = 0;
+            while (true) {
+                int open = src.indexOf("{{", pos);
+                int close = open < 0 ? -1 : src.indexOf("}}", open + 2);
+                if (open < 0 || close < 0) break;
+                literals.add(src.substring(pos, open));
+                vars.add(src.substring(open + 2, close).trim());
+                pos = close + 2;
+            }
+            literals.add(src.substring(pos));
+            return new CompiledTemplate(literals.toArray(String[]::new), vars.toArray(String[]::new));
+        }
+
+        String render(Map<String, String> values) {
+            int capacity = literalLength;
+            for (String v : varNames) {
+                String s = values.get(v);
+                if (s != null) capacity += s.length();
+            }
+            StringBuilder sb = new StringBuilder(capacity);
+            for (int i = 0; i < varNames.length; i++) {
+                sb.append(literals[i]);
+                String s = values.get(varNames[i]);
+                if (s != null) sb.append(s);
+            }
+            sb.append(literals[literals.length - 1]);
+            return sb.toString();
+        }
     }
 }
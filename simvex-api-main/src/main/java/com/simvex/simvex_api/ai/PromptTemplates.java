@@ -4,6 +4,9 @@ package com.simvex.simvex_api.ai;
 public final class PromptTemplates {
     private PromptTemplates() {}
 
+    // 프롬프트 문구를 바꾸면 올려야 함 (AiAnswerCache 키에 포함되어 이전 답변 캐시가 무효화됨)
+    public static final String VERSION = "v1";
+
     public static final String SYSTEM_HEADER =
             "너는 3D 모델 기반 학습 도우미다.\n" +
                     "요구사항: 간결하고 정확하게 한국어로 설명한다.\n";
@@ -1,33 +1,62 @@
 package com.simvex.simvex_api.bootstrap;
 
+import com.simvex.simvex_api.model.AssetImportManifestEntity;
+import com.simvex.simvex_api.model.AssetImportManifestRepository;
 import com.simvex.simvex_api.model.AssetImportService;
+import com.simvex.simvex_api.model.AssetStore;
+import com.simvex.simvex_api.model.AssetVariants;
+import com.simvex.simvex_api.model.CatalogChangedEvent;
+import com.simvex.simvex_api.model.GlbIndex;
+import com.simvex.simvex_api.model.GlbSplitter;
 import com.simvex.simvex_api.model.ModelEntity;
 import com.simvex.simvex_api.model.ModelRepository;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.*;
 
 @Component
 public class AssetImportRunner implements CommandLineRunner {
 
     private final AssetImportService assetImportService;
+    private final AssetStore assetStore;
+    private final AssetVariants assetVariants;
+    private final GlbSplitter glbSplitter;
+    private final GlbIndex glbIndex;
+    private final AssetImportManifestRepository manifestRepository;
     private final ModelRepository modelRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AssetImportRunner(AssetImportService assetImportService, ModelRepository modelRepository) {
+    public AssetImportRunner(
+            AssetImportService assetImportService,
+            AssetStore assetStore,
+            AssetVariants assetVariants,
+            GlbSplitter glbSplitter,
+            GlbIndex glbIndex,
+            AssetImportManifestRepository manifestRepository,
+            ModelRepository modelRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.assetImportService = assetImportService;
+        this.assetStore = assetStore;
+        this.assetVariants = assetVariants;
+        this.glbSplitter = glbSplitter;
+        this.glbIndex = glbIndex;
+        this.manifestRepository = manifestRepository;
         this.modelRepository = modelRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public void run(String... args) {
         try {
             System.out.println("========== [SimVex 초기화] 시작 ==========");
+            long start = System.currentTimeMillis();
             
             // 1. 폴더 스캔 및 DB 등록 (공백 -> 언더바 강제 변환)
             initializeModelsFromProjectDir();
@@ -35,7 +64,7 @@ public class AssetImportRunner implements CommandLineRunner {
             // 2. 부품 데이터 연결
             assetImportService.importAllFromResources();
             
-            System.out.println("========== [SimVex 초기화] 완료 ==========");
+            System.out.println("========== [SimVex 초기화] 완료 (" + (System.currentTimeMillis() - start) + "ms) ==========");
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -43,54 +72,102 @@ public class AssetImportRunner implements CommandLineRunner {
 
     @Transactional
     protected void initializeModelsFromProjectDir() {
-        String userDir = System.getProperty("user.dir");
-        // 경로 찾기
-        Path assetsDir = findPath(userDir, "src/main/resources/static/assets/3d");
-        
-        if (assetsDir == null || !Files.exists(assetsDir)) {
-             // 혹시 simvex-api 폴더 안에 있을 경우
-             assetsDir = findPath(userDir, "simvex-api-main/src/main/resources/static/assets/3d");
-        }
+        // 경로 찾기 (simvex.assets.import.root → 작업 폴더 기준 기본 위치)
+        Path assetsDir = assetStore.root();
 
         if (assetsDir == null) {
             System.out.println("⚠️ 3D 폴더를 찾을 수 없습니다.");
             return;
         }
 
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(assetsDir)) {
-            for (Path entry : stream) {
-                if (Files.isDirectory(entry)) {
-                    String rawFolderName = entry.getFileName().toString();
-                    
-                    // [핵심] 폴더명에 공백이 있든 없든, DB에는 무조건 언더바로 저장하여 통일
-                    String standardizedTitle = rawFolderName.replace(" ", "_");
-                    
-                    // URL 생성 (파일명도 .glb로 가정)
-                    String correctUrl = "/assets/3d/" + standardizedTitle + "/" + standardizedTitle + ".glb";
-
-                    createOrUpdateModel(standardizedTitle, correctUrl);
+        try {
+            // 지난 기동 때의 GLB 해시 → 크기/수정 시각이 같으면 다시 읽지 않는다
+            Map<String, AssetImportManifestEntity> manifest = new HashMap<>();
+            for (AssetImportManifestEntity m : manifestRepository.findByPathStartingWith(AssetImportManifestEntity.GLB)) {
+                manifest.put(m.getPath(), m);
+                String path = m.getPath().substring(AssetImportManifestEntity.GLB.length());
+                int slash = path.indexOf('/');
+                if (slash > 0 && m.getSizeBytes() != null && m.getLastModified() != null) {
+                    assetStore.remember(path.substring(0, slash), path.substring(slash + 1),
+                            m.getContentHash(), m.getSizeBytes(), m.getLastModified());
+                }
+            }
+
+            List<Path> folders = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(assetsDir)) {
+                for (Path entry : stream) {
+                    if (Files.isDirectory(entry)) folders.add(entry);
+                }
+            }
+            folders.sort(Comparator.naturalOrder());
+
+            // 폴더별 GLB 준비 (해시, 전송 변형, 부품 분할, 메시 인덱스) 는 서로 독립이라 병렬로
+            List<PreparedFolder> prepared = assetImportService.runParallel(folders, this::prepareFolder);
+
+            // DB 반영은 순서대로
+            List<AssetImportManifestEntity> changedRows = new ArrayList<>();
+            for (PreparedFolder p : prepared) {
+                createOrUpdateModel(p.title(), p.url());
+
+                AssetStore.Entry e = p.glb();
+                if (e == null) continue;
+                String key = AssetImportManifestEntity.GLB + p.folder() + "/" + p.glbFile();
+                AssetImportManifestEntity row = manifest.get(key);
+                if (row != null && e.hash().equals(row.getContentHash())
+                        && Objects.equals(row.getSizeBytes(), e.size())
+                        && Objects.equals(row.getLastModified(), e.lastModifiedMillis())) {
+                    continue;
                 }
+                if (row == null) row = new AssetImportManifestEntity(key);
+                row.setContentHash(e.hash());
+                row.setSizeBytes(e.size());
+                row.setLastModified(e.lastModifiedMillis());
+                row.setImportedAt(LocalDateTime.now());
+                changedRows.add(row);
             }
+            manifestRepository.saveAll(changedRows);
+            System.out.println("[IMPORT] 에셋 폴더 " + folders.size() + "개, GLB 변경 " + changedRows.size() + "개");
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
-    
-    private Path findPath(String base, String sub) {
-        Path p = Paths.get(base, sub);
-        return Files.exists(p) ? p : null;
+
+    private PreparedFolder prepareFolder(Path dir) {
+        String rawFolderName = dir.getFileName().toString();
+
+        // [핵심] 폴더명에 공백이 있든 없든, DB에는 무조건 언더바로 저장하여 통일
+        String standardizedTitle = rawFolderName.replace(" ", "_");
+
+        // URL 생성 (파일명도 .glb로 가정, 대소문자가 다르면 실제 파일 이름 사용)
+        // 내용 해시가 들어간 /assets/v/<hash>/... 라서 파일이 바뀌면 URL 도 바뀐다
+        String correctUrl = assetStore.versionedUrl(rawFolderName, standardizedTitle + ".glb");
+
+        // 전송용 압축 변형(gzip 등), 부품별 GLB, 메시 인덱스 미리 생성
+        // 모두 원본 해시 기준으로 캐시되므로 바뀌지 않은 GLB 는 디스크 캐시만 확인하고 끝난다
+        String glbFile = assetStore.findFile(rawFolderName, standardizedTitle + ".glb");
+        AssetStore.Entry entry = glbFile != null ? assetStore.entry(rawFolderName, glbFile) : null;
+        if (entry != null) {
+            assetVariants.prepare(rawFolderName, glbFile);
+            glbSplitter.split(rawFolderName, glbFile);
+            glbIndex.inspect(entry);
+        }
+        return new PreparedFolder(standardizedTitle, correctUrl, rawFolderName, glbFile, entry);
     }
 
+    private record PreparedFolder(String title, String url, String folder, String glbFile, AssetStore.Entry glb) {}
+
     private void createOrUpdateModel(String title, String url) {
         Optional<ModelEntity> existing = modelRepository.findByTitle(title);
         if (existing.isEmpty()) {
             modelRepository.save(new ModelEntity(title, url));
+            eventPublisher.publishEvent(new CatalogChangedEvent("model created: " + title));
             System.out.println("✅ 모델 생성: " + title);
         } else {
             ModelEntity m = existing.get();
             if (!m.getModelUrl().equals(url)) {
                 m.setModelUrl(url);
                 modelRepository.save(m);
+                eventPublisher.publishEvent(new CatalogChangedEvent("model updated: " + title));
                 System.out.println("🔄 모델 URL 업데이트: " + title);
             }
         }
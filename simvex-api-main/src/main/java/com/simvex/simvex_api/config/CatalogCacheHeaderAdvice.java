@@ -0,0 +1,50 @@
+// src/main/java/com/simvex/simvex_api/config/CatalogCacheHeaderAdvice.java
+package com.simvex.simvex_api.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * CatalogCacheInterceptor 가 통과시킨 카탈로그 GET 요청의 2xx 응답에만 ETag / Last-Modified / Cache-Control 을 붙인다
+ *
+ * 본문을 쓰기 직전에 실행되므로 ResponseEntity 의 상태 코드가 이미 정해져 있다.
+ * 404 등은 헤더 없이 나가 CDN / 브라우저가 캐시하지 않는다.
+ * 컨트롤러가 Cache-Control 을 직접 정한 응답(예: 재빌드 중인 스냅샷의 no-store)은 건드리지 않는다.
+ */
+@ControllerAdvice
+public class CatalogCacheHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (response.getHeaders().containsKey(HttpHeaders.CACHE_CONTROL)) return body;
+        if (request instanceof ServletServerHttpRequest req && response instanceof ServletServerHttpResponse res) {
+            apply(req.getServletRequest(), res.getServletResponse());
+        }
+        return body;
+    }
+
+    static void apply(HttpServletRequest request, HttpServletResponse response) {
+        Object validators = request.getAttribute(CatalogCacheInterceptor.VALIDATORS_ATTRIBUTE);
+        int status = response.getStatus();
+        if (validators instanceof CatalogCacheInterceptor.Validators v && status >= 200 && status < 300) {
+            v.apply(response);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+// src/main/java/com/simvex/simvex_api/config/CatalogCacheInterceptor.java
+package com.simvex.simvex_api.config;
+
+import com.simvex.simvex_api.model.CatalogVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 카탈로그/번들 GET 응답의 HTTP 캐시 헤더 (WebConfig 에서 경로 등록)
+ *
+ * - ETag/Last-Modified 는 CatalogVersion 하나에서 나온다 (응답 내용은 카탈로그 버전의 함수)
+ * - If-None-Match / If-Modified-Since 가 맞으면 컨트롤러에 가기 전에 304 로 끝낸다 (DB 조회 없음)
+ * - Cache-Control: public, max-age (브라우저), s-maxage (CDN/리버스 프록시)
+ * - 304 가 아니면 컨트롤러 전의 버전만 요청 속성에 적어 두고, 헤더는 CatalogCacheHeaderAdvice 가 2xx 응답에만 붙인다
+ *   (404 같은 오류 응답이 CDN 에 s-maxage 동안 캐시되지 않도록)
+ */
+@Component
+public class CatalogCacheInterceptor implements HandlerInterceptor {
+
+    static final String VALIDATORS_ATTRIBUTE = CatalogCacheInterceptor.class.getName() + ".validators";
+
+    private final CatalogVersion catalogVersion;
+    private final String cacheControl;
+
+    public CatalogCacheInterceptor(
+            CatalogVersion catalogVersion,
+            @Value("${simvex.http.catalog-cache.max-age-seconds:60}") long maxAgeSeconds,
+            @Value("${simvex.http.catalog-cache.s-max-age-seconds:300}") long sMaxAgeSeconds) {
+        this.catalogVersion = catalogVersion;
+        this.cacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS)
+                .sMaxAge(sMaxAgeSeconds, TimeUnit.SECONDS)
+                .cachePublic()
+                .getHeaderValue();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) return true;
+
+        // 컨트롤러가 읽기 전의 버전. 응답보다 오래된 ETag 는 재검증이 200 으로 끝날 뿐이라 안전하다
+        Validators validators = new Validators(catalogVersion.etag(), catalogVersion.lastModifiedMillis(), cacheControl);
+
+        // response 없이 비교만 한다 (헤더는 304 이거나 2xx 일 때만 붙임)
+        if (new ServletWebRequest(request).checkNotModified(validators.etag(), validators.lastModifiedMillis())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            validators.apply(response);
+            return false;
+        }
+        request.setAttribute(VALIDATORS_ATTRIBUTE, validators);
+        return true;
+    }
+
+    record Validators(String etag, long lastModifiedMillis, String cacheControl) {
+        void apply(HttpServletResponse response) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModifiedMillis / 1000 * 1000);
+        }
+    }
+}
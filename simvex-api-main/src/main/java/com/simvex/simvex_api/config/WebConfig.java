@@ -2,16 +2,37 @@ package com.simvex.simvex_api.config;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
+
+    private final CatalogCacheInterceptor catalogCacheInterceptor;
+
+    public WebConfig(CatalogCacheInterceptor catalogCacheInterceptor) {
+        this.catalogCacheInterceptor = catalogCacheInterceptor;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")               // 모든 경로에 대해
                 .allowedOriginPatterns("*")      // 모든 주소(ngrok, IP 등) 허용
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // 모든 방식 허용
                 .allowedHeaders("*")             // 모든 헤더 허용
+                .exposedHeaders("X-Next-Cursor", "Retry-After", "ETag") // 대화 목록 커서, 429 재시도 시간, 카탈로그 버전
                 .allowCredentials(true);         // 쿠키/인증정보 허용
     }
-}
\ No newline at end of file
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 임포트 때만 바뀌는 카탈로그 조회: ETag/304 + Cache-Control
+        registry.addInterceptor(catalogCacheInterceptor)
+                .addPathPatterns(
+                        "/api/models",
+                        "/api/models/{id:\\d+}",
+                        "/api/models/{id:\\d+}/parts",
+                        "/api/study/catalog",
+                        "/api/study/*/*/*/bundle");
+    }
+}
@@ -0,0 +1,79 @@
+package com.simvex.simvex_api.controller;
+
+import com.simvex.simvex_api.ai.AiPregenerationService;
+import com.simvex.simvex_api.dto.AiPregenerateRequestDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * AI 관리자 API
+ * X-Admin-Token 헤더가 simvex.ai.pregen.admin-token 과 같아야 한다.
+ * 토큰이 설정되지 않았으면 관리자 API 는 모두 거절된다 (유료 사전 생성을 아무나 시작하지 못하게).
+ */
+@RestController
+@RequestMapping("/api/ai/admin")
+public class AiAdminController {
+
+    private final AiPregenerationService aiPregenerationService;
+    private final String adminToken;
+
+    public AiAdminController(AiPregenerationService aiPregenerationService,
+                             @Value("${simvex.ai.pregen.admin-token:}") String adminToken) {
+        this.aiPregenerationService = aiPregenerationService;
+        this.adminToken = adminToken;
+    }
+
+    /**
+     * POST /api/ai/admin/pregenerate/{modelId}
+     * 모델의 모든 부품 × 질문 템플릿 답변을 백그라운드에서 미리 생성한다 (202, 진행 상황 반환).
+     * 이미 만든 답변은 건너뛰므로 취소/실패 후 다시 호출하면 이어서 진행된다.
+     */
+    @PostMapping("/pregenerate/{modelId}")
+    public ResponseEntity<AiPregenerationService.JobStatus> pregenerate(
+            @PathVariable Long modelId,
+            @RequestHeader(value = "X-Admin-Token", required = false) String token,
+            @RequestBody(required = false) AiPregenerateRequestDto req
+    ) {
+        checkAdmin(token);
+        AiPregenerationService.JobStatus status = aiPregenerationService.start(
+                modelId, req != null ? req.questions : null, req != null ? req.parallelism : null);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+
+    // GET /api/ai/admin/pregenerate/{modelId} - 진행 상황
+    @GetMapping("/pregenerate/{modelId}")
+    public AiPregenerationService.JobStatus pregenerateStatus(
+            @PathVariable Long modelId,
+            @RequestHeader(value = "X-Admin-Token", required = false) String token
+    ) {
+        checkAdmin(token);
+        return aiPregenerationService.status(modelId);
+    }
+
+    // DELETE /api/ai/admin/pregenerate/{modelId} - 취소 (만든 답변은 유지)
+    @DeleteMapping("/pregenerate/{modelId}")
+    public AiPregenerationService.JobStatus cancelPregenerate(
+            @PathVariable Long modelId,
+            @RequestHeader(value = "X-Admin-Token", required = false) String token
+    ) {
+        checkAdmin(token);
+        return aiPregenerationService.cancel(modelId);
+    }
+
+    private void checkAdmin(String token) {
+        if (adminToken.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "admin API disabled (admin-token not configured)");
+        }
+        // 길이/내용에 따라 비교 시간이 달라지지 않게 상수 시간 비교
+        if (token == null || !MessageDigest.isEqual(
+                adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "admin token required");
+        }
+    }
+}
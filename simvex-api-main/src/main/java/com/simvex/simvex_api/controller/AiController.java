@@ -1,13 +1,20 @@
 package com.simvex.simvex_api.controller;
 
 import com.simvex.simvex_api.ai.AiContextResult;
+import com.simvex.simvex_api.ai.AiRateLimiter;
 import com.simvex.simvex_api.ai.AiService;
+import com.simvex.simvex_api.ai.AiTelemetry;
 import com.simvex.simvex_api.dto.AiAskRequestDto;
 import com.simvex.simvex_api.dto.AiAskResponseDto;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.HashMap;
 import java.util.List;
@@ -19,53 +26,144 @@ import java.util.Map;
 public class AiController {
 
     private final AiService aiService;
+    private final AiRateLimiter aiRateLimiter;
+    private final AiTelemetry aiTelemetry;
 
-    public AiController(AiService aiService) {
+    public AiController(AiService aiService, AiRateLimiter aiRateLimiter, AiTelemetry aiTelemetry) {
         this.aiService = aiService;
+        this.aiRateLimiter = aiRateLimiter;
+        this.aiTelemetry = aiTelemetry;
     }
 
+    /**
+     * GET /api/ai/history/{modelId}?limit=50&cursor=...&view=summary
+     * 가장 최근 limit 건을 오래된 → 최신 순 배열로 돌려준다.
+     * 더 오래된 대화가 있으면 X-Next-Cursor 헤더 값을 cursor 로 넘겨 이전 페이지를 받는다.
+     * view=summary 이면 answer 를 비운다 (본문을 읽지 않음).
+     */
     @GetMapping("/history/{modelId}")
     public ResponseEntity<List<AiService.AiChatHistoryDto>> getHistory(
             @PathVariable Long modelId,
-            @RequestHeader(value="X-User-ID", defaultValue="default-guest") String userId
+            @RequestHeader(value="X-User-ID", defaultValue="default-guest") String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view
     ) {
-        return ResponseEntity.ok(aiService.getChatHistory(modelId, userId));
+        AiService.AiChatHistoryPage page = aiService.getChatHistory(modelId, userId, cursor, limit, "summary".equals(view));
+        ResponseEntity.BodyBuilder res = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            res.header("X-Next-Cursor", page.nextCursor());
+        }
+        return res.body(page.items());
     }
 
+    /**
+     * POST /api/ai/ask
+     * Mono 를 반환하므로 Tomcat 워커 스레드는 LLM 응답을 기다리지 않고 바로 반납된다.
+     * DB 조회/저장(블로킹 JPA)만 boundedElastic 스레드에서 짧게 실행된다.
+     */
     @PostMapping("/ask")
-    public AiAskResponseDto ask(
+    public Mono<AiAskResponseDto> ask(
             @RequestBody AiAskRequestDto req,
             @RequestHeader(value="X-User-ID", defaultValue="default-guest") String userId
     ) {
+        long start = System.nanoTime();
         if (req == null || req.question == null || req.question.trim().isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "question is required");
         }
+        // 사용자별 분당 요청 수 초과 시 429 + Retry-After
+        aiRateLimiter.acquireUser(userId, req.modelId);
 
-        // userId 전달
-        AiContextResult ctx = aiService.buildContext(req.modelId, req.meshName, userId);
-        String previousAiSummary = ctx.aiSummary(); 
-
-        String prompt = aiService.composePrompt(
-                req.question, 
-                ctx.partContext(), 
-                ctx.modelContext()
-        );
+        return loadContext(req, userId).flatMap(ctx -> {
+            String prompt = aiService.composePrompt(req.question, ctx);
 
-        AiService.AiAnswerResult result = aiService.generateAnswer(prompt, previousAiSummary);
+            return aiService.generateAnswerAsync(req, prompt, ctx)
+                    .flatMap(result -> {
+                        aiTelemetry.record(req.modelId, ctx.mode(), result, start);
+                        AiAskResponseDto body = new AiAskResponseDto(
+                                result.answer(), ctx.partContext(), ctx.mode(), buildMeta(ctx, result, start));
+                        if (result.errorCode() != null) return Mono.just(body);
+                        return saveInteraction(req, result, ctx, userId).thenReturn(body);
+                    });
+        });
+    }
 
-        if (result.errorCode() == null) {
-            // userId 전달
-            aiService.saveChatInteraction(req.modelId, req.question, result.answer(), result.newResponseId(), userId);
+    /**
+     * POST /api/ai/ask/stream
+     * 답변을 SSE 로 스트리밍한다.
+     * - event: delta → {"text": "..."} (생성되는 대로)
+     * - event: done  → /ask 와 같은 형태의 AiAskResponseDto (전체 답변 + meta)
+     * 대화 기록은 스트림이 끝난 뒤 한 번 저장된다.
+     */
+    @PostMapping(value = "/ask/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> askStream(
+            @RequestBody AiAskRequestDto req,
+            @RequestHeader(value="X-User-ID", defaultValue="default-guest") String userId
+    ) {
+        long start = System.nanoTime();
+        if (req == null || req.question == null || req.question.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "question is required");
         }
+        // 사용자별 분당 요청 수 초과 시 429 + Retry-After
+        aiRateLimiter.acquireUser(userId, req.modelId);
+
+        return loadContext(req, userId).flatMapMany(ctx -> {
+            String prompt = aiService.composePrompt(req.question, ctx);
+
+            return aiService.streamAnswer(req, prompt, ctx)
+                    .concatMap(ev -> {
+                        if (ev.delta() != null) {
+                            return Mono.just(ServerSentEvent.<Object>builder(Map.of("text", ev.delta()))
+                                    .event("delta")
+                                    .build());
+                        }
 
+                        AiService.AiAnswerResult result = ev.result();
+                        aiTelemetry.record(req.modelId, ctx.mode(), result, start);
+                        AiAskResponseDto body = new AiAskResponseDto(
+                                result.answer(), ctx.partContext(), ctx.mode(), buildMeta(ctx, result, start));
+                        ServerSentEvent<Object> done = ServerSentEvent.<Object>builder(body).event("done").build();
+
+                        if (result.errorCode() != null) return Mono.just(done);
+
+                        // 답변은 이미 전달됐으므로 저장 실패가 스트림을 깨지 않게 한다
+                        return saveInteraction(req, result, ctx, userId)
+                                .onErrorResume(e -> {
+                                    System.out.println("[AI] stream history save failed: " + e.getMessage());
+                                    return Mono.empty();
+                                })
+                                .thenReturn(done);
+                    });
+        });
+    }
+
+    // JPA 조회는 블로킹이므로 요청 스레드/Netty 이벤트 루프가 아닌 boundedElastic 에서 수행
+    private Mono<AiContextResult> loadContext(AiAskRequestDto req, String userId) {
+        return Mono.fromCallable(() -> aiService.buildContext(req, userId))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<Void> saveInteraction(AiAskRequestDto req, AiService.AiAnswerResult result, AiContextResult ctx,
+                                       String userId) {
+        return Mono.fromRunnable(() -> aiService.saveChatInteraction(
+                        req.modelId, req.meshName, req.question, result, ctx, userId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private Map<String, Object> buildMeta(AiContextResult ctx, AiService.AiAnswerResult result, long start) {
         Map<String, Object> meta = new HashMap<>();
         if (ctx.meta() != null) meta.putAll(ctx.meta());
         meta.put("provider", result.provider());
+        meta.put("cache", AiTelemetry.cacheStatus(result.provider()));
+        meta.put("latencyMs", (System.nanoTime() - start) / 1_000_000);
+        if (result.usage() != null) {
+            meta.put("usage", AiTelemetry.usageMeta(result.usage()));
+        }
         if (result.errorCode() != null) {
             meta.put("aiErrorCode", result.errorCode());
             meta.put("aiErrorMessage", result.errorMessage());
         }
-
-        return new AiAskResponseDto(result.answer(), ctx.partContext(), ctx.mode(), meta);
+        return meta;
     }
 }
\ No newline at end of file
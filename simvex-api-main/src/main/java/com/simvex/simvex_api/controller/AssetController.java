@@ -0,0 +1,258 @@
+// src/main/java/com/simvex/simvex_api/controller/AssetController.java
+package com.simvex.simvex_api.controller;
+
+import com.simvex.simvex_api.model.AssetStore;
+import com.simvex.simvex_api.model.AssetVariants;
+import com.simvex.simvex_api.model.GlbSplitter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 내용 해시 URL 로 3D 에셋 전송 (GET/HEAD /assets/v/{hash}/{folder}/{file})
+ *
+ * - URL 에 내용 해시가 있으므로 Cache-Control: immutable, 1년. 재방문 시 요청 자체가 나가지 않는다
+ * - Range (단일 구간) → 206, 만족 불가 → 416. If-Range 가 ETag 와 다르면 전체를 보낸다
+ * - 본문은 Tomcat sendfile (커널 zero-copy) 로 보내고, 지원하지 않는 커넥터면 FileChannel.transferTo 로 보낸다
+ * - 해시가 현재 파일과 다르면(파일 교체 후 예전 URL) 현재 URL 로 302
+ * - 미리 만든 변형(AssetVariants) 중 Accept-Encoding 과 지오메트리 코덱 힌트(X-Asset-Codecs 헤더 또는 ?codecs=)
+ *   로 받을 수 있는 가장 작은 것을 보낸다. Range/ETag 는 고른 변형의 바이트 기준
+ * - /assets/parts/{hash}/{file}: GlbSplitter 가 만든 부품별 GLB / proxy.glb (같은 캐시/Range 규칙)
+ *
+ * 예전 경로(/assets/3d/...) 는 Spring 정적 리소스 핸들러가 그대로 서비스한다.
+ */
+@RestController
+public class AssetController {
+
+    // Tomcat (org.apache.catalina.Globals) sendfile 요청 속성
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String CODECS_HEADER = "X-Asset-Codecs";
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    private final AssetStore assetStore;
+    private final AssetVariants assetVariants;
+    private final GlbSplitter glbSplitter;
+    private final long sendfileMinBytes;
+
+    private final Counter sendfileCount;
+    private final Counter channelCount;
+    private final Counter notModifiedCount;
+
+    public AssetController(
+            AssetStore assetStore,
+            AssetVariants assetVariants,
+            GlbSplitter glbSplitter,
+            MeterRegistry meterRegistry,
+            @Value("${simvex.assets.serve.sendfile-min-bytes:49152}") long sendfileMinBytes) {
+        this.assetStore = assetStore;
+        this.assetVariants = assetVariants;
+        this.glbSplitter = glbSplitter;
+        this.sendfileMinBytes = sendfileMinBytes;
+        this.sendfileCount = Counter.builder("simvex.assets.requests").tag("mode", "sendfile").register(meterRegistry);
+        this.channelCount = Counter.builder("simvex.assets.requests").tag("mode", "channel").register(meterRegistry);
+        this.notModifiedCount = Counter.builder("simvex.assets.requests").tag("mode", "not-modified").register(meterRegistry);
+    }
+
+    @GetMapping("/assets/v/{hash}/{folder}/{file:.+}")
+    public void serve(
+            @PathVariable String hash,
+            @PathVariable String folder,
+            @PathVariable String file,
+            @RequestParam(value = "codecs", required = false) String codecsParam,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        AssetStore.Entry entry = assetStore.entry(folder, file);
+        if (entry == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!entry.hash().equals(hash)) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            response.setHeader(HttpHeaders.LOCATION,
+                    AssetStore.VERSIONED_PREFIX + entry.hash() + "/" + folder + "/" + file);
+            response.setStatus(HttpServletResponse.SC_FOUND);
+            return;
+        }
+
+        List<AssetVariants.Variant> variants = assetVariants.prepare(folder, file);
+        if (variants.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String codecs = codecsParam != null ? codecsParam : request.getHeader(CODECS_HEADER);
+        AssetVariants.Variant variant = assetVariants.select(
+                variants, request.getHeader(HttpHeaders.ACCEPT_ENCODING), parseCodecs(codecs));
+
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING + ", " + CODECS_HEADER);
+        send(request, response, variant.path(), variant.size(), variant.etag(), contentType(file), variant.encoding());
+    }
+
+    /**
+     * 부품별 GLB / 저폴리 프록시 (GlbSplitter 결과). 경로에 원본 해시가 있으므로 immutable
+     */
+    @GetMapping(GlbSplitter.PARTS_PREFIX + "{hash}/{file:.+}")
+    public void servePart(
+            @PathVariable String hash,
+            @PathVariable String file,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        Path path = glbSplitter.file(hash, file);
+        if (path == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        send(request, response, path, Files.size(path), "\"" + hash + "-" + file + "\"",
+                contentType(file), AssetVariants.IDENTITY);
+    }
+
+    private void send(HttpServletRequest request, HttpServletResponse response,
+                      Path path, long size, String etag, String contentType, String encoding) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(contentType);
+        if (!AssetVariants.IDENTITY.equals(encoding)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            notModifiedCount.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long length = size;
+
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] r = parseRange(range, size);
+            if (r == UNSATISFIABLE) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (r != null) {
+                start = r[0];
+                length = r[1] - r[0] + 1;
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + r[0] + "-" + r[1] + "/" + size);
+            }
+        }
+
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) return;
+
+        transfer(request, response, path, start, length);
+    }
+
+    private void transfer(HttpServletRequest request, HttpServletResponse response,
+                          Path path, long start, long length) throws IOException {
+        // 응답을 쓰지 않고 속성만 남기면 서블릿이 끝난 뒤 Tomcat 이 파일을 소켓으로 직접 보낸다
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED)) && length >= sendfileMinBytes) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            sendfileCount.increment();
+            return;
+        }
+
+        channelCount.increment();
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long pos = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long n = ch.transferTo(pos, remaining, out);
+                if (n <= 0) break;
+                pos += n;
+                remaining -= n;
+            }
+        }
+    }
+
+    /**
+     * "bytes=a-b" / "bytes=a-" / "bytes=-n" 하나만 처리한다. 여러 구간이거나 형식이 이상하면 null (전체 전송)
+     * @return [start, end] (end 포함), 범위가 파일 밖이면 UNSATISFIABLE
+     */
+    static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=")) return null;
+        String spec = header.substring("bytes=".length()).trim();
+        if (spec.contains(",")) return null;
+
+        int dash = spec.indexOf('-');
+        if (dash < 0) return null;
+        try {
+            String a = spec.substring(0, dash).trim();
+            String b = spec.substring(dash + 1).trim();
+            if (a.isEmpty()) {
+                // 마지막 n 바이트
+                if (b.isEmpty()) return null;
+                long n = Long.parseLong(b);
+                if (n <= 0 || size == 0) return UNSATISFIABLE;
+                return new long[]{Math.max(0, size - n), size - 1};
+            }
+            long start = Long.parseLong(a);
+            long end = b.isEmpty() ? size - 1 : Math.min(Long.parseLong(b), size - 1);
+            if (start >= size) return UNSATISFIABLE;
+            if (end < start) return null;
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Set<String> parseCodecs(String codecs) {
+        if (codecs == null || codecs.isBlank()) return Set.of();
+        return Arrays.stream(codecs.split(","))
+                .map(c -> c.trim().toLowerCase(Locale.ROOT))
+                .filter(c -> !c.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    // If-None-Match 는 약한 비교 (W/ 무시), 여러 값/“*” 허용
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String t : ifNoneMatch.split(",")) {
+            String v = t.trim();
+            if (v.startsWith("W/")) v = v.substring(2);
+            if (v.equals("*") || v.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    private static String contentType(String file) {
+        String f = file.toLowerCase(Locale.ROOT);
+        if (f.endsWith(".glb")) return "model/gltf-binary";
+        if (f.endsWith(".gltf")) return "model/gltf+json";
+        return "application/octet-stream";
+    }
+}
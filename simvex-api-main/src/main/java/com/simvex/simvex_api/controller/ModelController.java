@@ -7,8 +7,12 @@ import com.simvex.simvex_api.part.PartRepository;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/models")
@@ -28,29 +32,27 @@ public class ModelController {
         this.memoRepository = memoRepository;
     }
 
-    // 모델 목록
+    // 모델 목록 (description 제외 projection)
     @GetMapping
     public List<ModelDto> listModels() {
-        return modelRepository.findAll().stream()
-                .map(ModelDto::from)
-                .toList();
+        return modelRepository.findAllSummaries();
     }
 
     // 모델 상세
     @GetMapping("/{id}")
     public ResponseEntity<ModelDto> getModel(@PathVariable Long id) {
-        return modelRepository.findById(id)
-                .map(ModelDto::from)
+        return modelRepository.findDtoById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    // 부품 목록
+    // 부품 목록 (모델 존재 확인과 조회를 쿼리 한 번으로)
     @GetMapping("/{id}/parts")
     public ResponseEntity<List<PartDto>> listParts(@PathVariable Long id) {
-        if (!modelRepository.existsById(id)) return ResponseEntity.notFound().build();
-        List<PartDto> parts = partRepository.findByModelIdOrderByIdAsc(id).stream()
-                .map(PartDto::from)
+        List<PartDto> rows = partRepository.findDtosWithModelCheck(id);
+        if (rows.isEmpty()) return ResponseEntity.notFound().build();
+        List<PartDto> parts = rows.stream()
+                .filter(p -> p.id != null) // 부품 없는 모델의 left join 빈 행
                 .toList();
         return ResponseEntity.ok(parts);
     }
@@ -58,20 +60,23 @@ public class ModelController {
     // 퀴즈 목록
     @GetMapping("/{id}/quizzes")
     public ResponseEntity<List<QuizDto>> listQuizzes(@PathVariable Long id) {
-        List<QuizDto> quizzes = quizRepository.findByModelIdOrderByIdAsc(id).stream()
-                .map(QuizDto::from)
-                .toList();
-        return ResponseEntity.ok(quizzes);
+        return ResponseEntity.ok(quizRepository.findDtosByModelId(id));
     }
 
     // 모의고사 (랜덤 20문제)
     @GetMapping("/exam")
     public ResponseEntity<List<QuizDto>> generateExam(@RequestParam List<Long> modelIds) {
-        List<QuizEntity> allQuizzes = quizRepository.findByModelIds(modelIds);
-        Collections.shuffle(allQuizzes);
-        List<QuizDto> selected = allQuizzes.stream()
-                .limit(20)
-                .map(QuizDto::from)
+        // ID 만 섞어서 20개를 고른 뒤, 고른 문제만 읽는다
+        List<Long> ids = new ArrayList<>(quizRepository.findIdsByModelIds(modelIds));
+        Collections.shuffle(ids);
+        List<Long> picked = ids.subList(0, Math.min(20, ids.size()));
+        if (picked.isEmpty()) return ResponseEntity.ok(List.of());
+
+        Map<Long, QuizDto> byId = quizRepository.findDtosByIds(picked).stream()
+                .collect(Collectors.toMap(QuizDto::getId, q -> q));
+        List<QuizDto> selected = picked.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .toList();
         return ResponseEntity.ok(selected);
     }
@@ -9,7 +9,10 @@ import java.time.LocalDateTime;
 
 @Entity
 @EntityListeners(AuditingEntityListener.class)
-@Table(name = "ai_chat_histories")
+@Table(
+        name = "ai_chat_histories",
+        indexes = @Index(name = "idx_ai_chat_model_user_created", columnList = "model_id, user_id, created_at, id")
+)
 public class AiChatHistoryEntity {
 
     @Id
@@ -20,6 +23,10 @@ public class AiChatHistoryEntity {
     @JoinColumn(name = "model_id", nullable = false)
     private ModelEntity model;
 
+    // [NEW] 질문 대상 부품 (전체 모델 질문이면 null)
+    @Column(name = "mesh_name")
+    private String meshName;
+
     @Column(columnDefinition = "TEXT", nullable = false)
     private String question;
 
@@ -34,25 +41,57 @@ public class AiChatHistoryEntity {
     @Column(name = "ai_summary")
     private String aiSummary;
 
+    // [NEW] 호출 비용/지연 (실제 OpenAI 호출 시에만, 캐시 답변은 null)
+    @Column(name = "llm_model")
+    private String llmModel;
+
+    @Column(name = "input_tokens")
+    private Integer inputTokens;
+
+    @Column(name = "output_tokens")
+    private Integer outputTokens;
+
+    @Column(name = "upstream_latency_ms")
+    private Long upstreamLatencyMs;
+
+    // [NEW] 대화 맥락(이전 체인/요약) 없이 LLM 이 새로 만든 답변이면 그때의 프롬프트 템플릿 버전, 아니면 null
+    // 다른 사용자에게 재사용해도 되는 답변 표시 (유사 질문 캐시 초기 적재, 사전 생성 재개 기준)
+    @Column(name = "prompt_version")
+    private String promptVersion;
+
     @CreatedDate
     @Column(updatable = false)
     private LocalDateTime createdAt;
 
     public AiChatHistoryEntity() {}
 
-    public AiChatHistoryEntity(ModelEntity model, String question, String answer, String userId, String aiSummary) {
+    public AiChatHistoryEntity(ModelEntity model, String meshName, String question, String answer, String userId, String aiSummary) {
         this.model = model;
+        this.meshName = meshName;
         this.question = question;
         this.answer = answer;
         this.userId = userId;
         this.aiSummary = aiSummary;
     }
 
+    public void recordUsage(String llmModel, Integer inputTokens, Integer outputTokens, Long upstreamLatencyMs) {
+        this.llmModel = llmModel;
+        this.inputTokens = inputTokens;
+        this.outputTokens = outputTokens;
+        this.upstreamLatencyMs = upstreamLatencyMs;
+    }
+
     public Long getId() { return id; }
     public ModelEntity getModel() { return model; }
+    public String getMeshName() { return meshName; }
     public String getQuestion() { return question; }
     public String getAnswer() { return answer; }
     public String getUserId() { return userId; }
     public String getAiSummary() { return aiSummary; }
+    public String getLlmModel() { return llmModel; }
+    public Integer getInputTokens() { return inputTokens; }
+    public Integer getOutputTokens() { return outputTokens; }
+    public Long getUpstreamLatencyMs() { return upstreamLatencyMs; }
+    public String getPromptVersion() { return promptVersion; }
     public LocalDateTime getCreatedAt() { return createdAt; }
 }
\ No newline at end of file
@@ -1,14 +1,76 @@
 package com.simvex.simvex_api.domain;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 public interface AiChatHistoryRepository extends JpaRepository<AiChatHistoryEntity, Long> {
 
-    // 채팅 목록 조회
-    List<AiChatHistoryEntity> findByModel_IdAndUserIdOrderByCreatedAtAsc(Long modelId, String userId);
+    // 채팅 목록 조회 (keyset 페이지, 최신순) - 커서 (createdAt, id) 보다 오래된 것만
+    // idx_ai_chat_model_user_created (model_id, user_id, created_at, id) 를 역방향으로 읽는다
+    @Query("SELECT h.id AS id, h.question AS question, h.answer AS answer, h.createdAt AS createdAt " +
+            "FROM AiChatHistoryEntity h " +
+            "WHERE h.model.id = :modelId AND h.userId = :userId " +
+            "AND (h.createdAt < :createdAt OR (h.createdAt = :createdAt AND h.id < :id)) " +
+            "ORDER BY h.createdAt DESC, h.id DESC")
+    List<HistoryRow> findPageBefore(@Param("modelId") Long modelId, @Param("userId") String userId,
+                                    @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                    Pageable pageable);
+
+    // 위와 같지만 answer 본문(TEXT)을 읽지 않는다
+    @Query("SELECT h.id AS id, h.question AS question, h.createdAt AS createdAt " +
+            "FROM AiChatHistoryEntity h " +
+            "WHERE h.model.id = :modelId AND h.userId = :userId " +
+            "AND (h.createdAt < :createdAt OR (h.createdAt = :createdAt AND h.id < :id)) " +
+            "ORDER BY h.createdAt DESC, h.id DESC")
+    List<HistorySummaryRow> findSummaryPageBefore(@Param("modelId") Long modelId, @Param("userId") String userId,
+                                                  @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                  Pageable pageable);
+
+    // [NEW] 가장 최근 대화의 맥락 ID 만 조회 (마지막 맥락 찾기용, 같은 인덱스 사용)
+    @Query("SELECT h.aiSummary FROM AiChatHistoryEntity h " +
+            "WHERE h.model.id = :modelId AND h.userId = :userId " +
+            "ORDER BY h.createdAt DESC, h.id DESC")
+    List<String> findLatestAiSummary(@Param("modelId") Long modelId, @Param("userId") String userId,
+                                     Pageable pageable);
+
+    // [NEW] 유사 질문 캐시(AiSemanticCache) 초기 적재용 - 최신순
+    // 대화 맥락 없이 현재 템플릿 버전으로 만든 답변(prompt_version)만, since 이후 것만 읽는다
+    @Query("SELECT h.model.id AS modelId, h.meshName AS meshName, h.question AS question, h.answer AS answer, " +
+            "h.createdAt AS createdAt " +
+            "FROM AiChatHistoryEntity h WHERE h.promptVersion = :promptVersion AND h.createdAt >= :since " +
+            "ORDER BY h.id DESC")
+    List<QaRow> findRecentReusableQa(@Param("promptVersion") String promptVersion,
+                                     @Param("since") LocalDateTime since, Pageable pageable);
+
+    // [NEW] 사전 생성 답변 재개용 - 특정 사용자(사전 생성 계정)의 모델별 질문/답변 (idx_ai_chat_model_user_created 앞부분 사용)
+    // 현재 템플릿 버전으로 LLM 이 만든 답변(prompt_version)만 (mock / 옛 템플릿 답변은 다시 생성)
+    @Query("SELECT h.model.id AS modelId, h.meshName AS meshName, h.question AS question, h.answer AS answer, " +
+            "h.createdAt AS createdAt " +
+            "FROM AiChatHistoryEntity h WHERE h.model.id = :modelId AND h.userId = :userId " +
+            "AND h.promptVersion = :promptVersion ORDER BY h.id ASC")
+    List<QaRow> findReusableQaByModelAndUser(@Param("modelId") Long modelId, @Param("userId") String userId,
+                                             @Param("promptVersion") String promptVersion);
+
+    interface HistorySummaryRow {
+        Long getId();
+        String getQuestion();
+        LocalDateTime getCreatedAt();
+    }
+
+    interface HistoryRow extends HistorySummaryRow {
+        String getAnswer();
+    }
 
-    // [NEW] 가장 최근 대화 1개 조회 (마지막 맥락 찾기용)
-    Optional<AiChatHistoryEntity> findTopByModel_IdAndUserIdOrderByCreatedAtDesc(Long modelId, String userId);
+    interface QaRow {
+        Long getModelId();
+        String getMeshName();
+        String getQuestion();
+        String getAnswer();
+        LocalDateTime getCreatedAt();
+    }
 }
\ No newline at end of file
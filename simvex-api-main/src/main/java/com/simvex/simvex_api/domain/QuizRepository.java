@@ -1,5 +1,6 @@
 package com.simvex.simvex_api.domain;
 
+import com.simvex.simvex_api.dto.QuizDto;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,7 +9,16 @@ import java.util.List;
 public interface QuizRepository extends JpaRepository<QuizEntity, Long> {
     List<QuizEntity> findByModelIdOrderByIdAsc(Long modelId);
 
-    // 여러 모델의 퀴즈를 한 번에 가져오기 (모의고사용)
-    @Query("SELECT q FROM QuizEntity q WHERE q.model.id IN :modelIds")
-    List<QuizEntity> findByModelIds(@Param("modelIds") List<Long> modelIds);
+    // 모델 퀴즈 목록 (모델 제목까지 join 한 번으로, 퀴즈마다 모델을 지연 로딩하지 않음)
+    @Query("SELECT new com.simvex.simvex_api.dto.QuizDto(q.id, q.question, q.answer, q.options, q.explanation, m.title) " +
+            "FROM QuizEntity q JOIN q.model m WHERE m.id = :modelId ORDER BY q.id")
+    List<QuizDto> findDtosByModelId(@Param("modelId") Long modelId);
+
+    // 모의고사: 후보는 ID 만 뽑고, 고른 문제만 본문을 읽는다
+    @Query("SELECT q.id FROM QuizEntity q WHERE q.model.id IN :modelIds")
+    List<Long> findIdsByModelIds(@Param("modelIds") List<Long> modelIds);
+
+    @Query("SELECT new com.simvex.simvex_api.dto.QuizDto(q.id, q.question, q.answer, q.options, q.explanation, m.title) " +
+            "FROM QuizEntity q JOIN q.model m WHERE q.id IN :ids")
+    List<QuizDto> findDtosByIds(@Param("ids") List<Long> ids);
 }
\ No newline at end of file
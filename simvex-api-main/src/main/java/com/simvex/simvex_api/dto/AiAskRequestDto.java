@@ -6,4 +6,6 @@ public class AiAskRequestDto {
     public String meshName;
     public String question;
     public String notes;
+    // 앞 대화를 이어받는 질문인지 (true/false 면 그대로, null 이면 서버가 질문 문장으로 판단)
+    public Boolean followUp;
 }
@@ -0,0 +1,10 @@
+// src/main/java/com/simvex/simvex_api/dto/AiPregenerateRequestDto.java
+package com.simvex.simvex_api.dto;
+
+import java.util.List;
+
+// 모두 생략 가능 (생략 시 simvex.ai.pregen.* 설정값)
+public class AiPregenerateRequestDto {
+    public List<String> questions;   // "{part}" 는 부품 이름으로 치환
+    public Integer parallelism;
+}
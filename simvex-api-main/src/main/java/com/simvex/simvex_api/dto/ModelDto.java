@@ -17,6 +17,23 @@ public class ModelDto {
 
     public ModelDto() {}
 
+    // JPQL 생성자 표현식용 (목록: description 없음)
+    public ModelDto(Long id, String title, String modelUrl, String domainKey, String categoryKey, String slug) {
+        this(id, title, modelUrl, null, domainKey, categoryKey, slug);
+    }
+
+    // JPQL 생성자 표현식용 (상세)
+    public ModelDto(Long id, String title, String modelUrl, String description,
+                    String domainKey, String categoryKey, String slug) {
+        this.id = id;
+        this.title = title;
+        this.modelUrl = modelUrl;
+        this.description = description;
+        this.domainKey = domainKey;
+        this.categoryKey = categoryKey;
+        this.slug = slug;
+    }
+
     public static ModelDto from(ModelEntity e) {
         ModelDto dto = new ModelDto();
         dto.setId(e.getId());
@@ -12,6 +12,15 @@ public class PartDto {
     // ✅ jsonb(Map) 그대로 내려준다
     public Map<String, Object> content;
 
+    public PartDto() {}
+
+    // JPQL 생성자 표현식용
+    public PartDto(Long id, String meshName, Map<String, Object> content) {
+        this.id = id;
+        this.meshName = meshName;
+        this.content = content;
+    }
+
     public static PartDto from(PartEntity e) {
         PartDto dto = new PartDto();
         dto.id = e.getId();
@@ -6,6 +6,8 @@ import java.util.List;
 public class StudyBundleDto {
     public StudyModelDto model;
     public List<PartDto> parts;
+    // 점진적 로딩 순서: 저폴리 proxy → 부품별 GLB (월드 bbox 부피 큰 순). 분할하지 못한 모델은 빈 목록
+    public List<StreamAssetDto> assets;
 
     public static class StudyModelDto {
         public Long id;
@@ -14,5 +16,21 @@ public class StudyBundleDto {
         public String modelUrl;
         public String domainKey;
         public String categoryKey;
+        // modelUrl 로 받을 수 있는 전송 변형 (Accept-Encoding / X-Asset-Codecs 로 서버가 고름)
+        public List<AssetVariantDto> variants;
+    }
+
+    public static class AssetVariantDto {
+        public String codec;     // null(원본 지오메트리) / meshopt / draco
+        public String encoding;  // identity / gzip / br
+        public long size;
+    }
+
+    public static class StreamAssetDto {
+        public String kind;      // proxy / part
+        public String meshName;  // part: GLB 노드 이름 (sanitize, PartDto.meshName 과 같은 형식), proxy: null
+        public String url;       // /assets/parts/<원본해시>/<파일>
+        public long size;
+        public long triangles;
     }
 }
@@ -0,0 +1,88 @@
+// src/main/java/com/simvex/simvex_api/model/AssetImportManifestEntity.java
+package com.simvex.simvex_api.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 임포트한 파일의 내용 해시 (바뀌지 않은 파일은 다음 기동 때 건너뜀)
+ *
+ * - "glb:<폴더>/<파일>": GLB. 크기/수정 시각이 같으면 해시를 다시 계산하지 않는다 (AssetStore 에 미리 넣어 둠)
+ * - "json:<파일>": Data_*.json. 같이 임포트한 GLB 해시와 모델 ID 도 기록해서, GLB 만 바뀌어도 다시 임포트한다
+ */
+@Entity
+@Table(name = "asset_import_manifest")
+public class AssetImportManifestEntity implements Persistable<String> {
+
+    public static final String GLB = "glb:";
+    public static final String JSON = "json:";
+
+    @Id
+    @Column(length = 512)
+    private String path;
+
+    @Column(name = "content_hash", nullable = false)
+    private String contentHash;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    // epoch millis (GLB 만)
+    @Column(name = "last_modified")
+    private Long lastModified;
+
+    // json 행: 같이 임포트한 GLB ("<폴더>/<파일>") 와 그 해시, 연결된 모델
+    @Column(name = "glb_path", length = 512)
+    private String glbPath;
+
+    @Column(name = "glb_hash")
+    private String glbHash;
+
+    @Column(name = "model_id")
+    private Long modelId;
+
+    @Column(name = "imported_at", nullable = false)
+    private LocalDateTime importedAt;
+
+    // 키를 직접 정하므로 save() 가 SELECT 후 merge 하지 않도록 새 행 여부를 직접 알려준다
+    @Transient
+    private boolean isNew;
+
+    protected AssetImportManifestEntity() {}
+
+    public AssetImportManifestEntity(String path) {
+        this.path = path;
+        this.isNew = true;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() { return path; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    public String getPath() { return path; }
+    public String getContentHash() { return contentHash; }
+    public Long getSizeBytes() { return sizeBytes; }
+    public Long getLastModified() { return lastModified; }
+    public String getGlbPath() { return glbPath; }
+    public String getGlbHash() { return glbHash; }
+    public Long getModelId() { return modelId; }
+    public LocalDateTime getImportedAt() { return importedAt; }
+
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+    public void setSizeBytes(Long sizeBytes) { this.sizeBytes = sizeBytes; }
+    public void setLastModified(Long lastModified) { this.lastModified = lastModified; }
+    public void setGlbPath(String glbPath) { this.glbPath = glbPath; }
+    public void setGlbHash(String glbHash) { this.glbHash = glbHash; }
+    public void setModelId(Long modelId) { this.modelId = modelId; }
+    public void setImportedAt(LocalDateTime importedAt) { this.importedAt = importedAt; }
+}
@@ -0,0 +1,14 @@
+// src/main/java/com/simvex/simvex_api/model/AssetImportManifestRepository.java
+package com.simvex.simvex_api.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AssetImportManifestRepository extends JpaRepository<AssetImportManifestEntity, String> {
+
+    // "glb:" / "json:" 행만
+    List<AssetImportManifestEntity> findByPathStartingWith(String prefix);
+}
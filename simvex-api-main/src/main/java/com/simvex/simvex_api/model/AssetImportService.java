@@ -6,12 +6,26 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.simvex.simvex_api.domain.QuizEntity;
 import com.simvex.simvex_api.part.PartEntity;
 import com.simvex.simvex_api.part.PartRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 @Service
 public class AssetImportService {
@@ -19,18 +33,44 @@ public class AssetImportService {
     private final ObjectMapper objectMapper;
     private final ModelRepository modelRepository;
     private final PartRepository partRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AssetStore assetStore;
+    private final GlbIndex glbIndex;
+    private final GlbSplitter glbSplitter;
+    private final AssetImportManifestRepository manifestRepository;
+    private final int parallelism;
 
     public AssetImportService(
             ObjectMapper objectMapper,
             ModelRepository modelRepository,
-            PartRepository partRepository) {
+            PartRepository partRepository,
+            ApplicationEventPublisher eventPublisher,
+            AssetStore assetStore,
+            GlbIndex glbIndex,
+            GlbSplitter glbSplitter,
+            AssetImportManifestRepository manifestRepository,
+            @Value("${simvex.assets.import.parallelism:4}") int parallelism) {
         this.objectMapper = objectMapper;
         this.modelRepository = modelRepository;
         this.partRepository = partRepository;
+        this.eventPublisher = eventPublisher;
+        this.assetStore = assetStore;
+        this.glbIndex = glbIndex;
+        this.glbSplitter = glbSplitter;
+        this.manifestRepository = manifestRepository;
+        this.parallelism = Math.max(1, parallelism);
     }
 
+    /**
+     * Data_*.json → 모델 설명/퀴즈/부품 동기화 (보존 모드)
+     *
+     * - 파일 읽기 + 해시 + 파싱은 병렬 (simvex.assets.import.parallelism), DB 쓰기는 이 트랜잭션 안에서 순서대로
+     * - manifest 의 JSON 해시와 같이 임포트한 GLB 해시가 그대로이고 모델이 남아 있으면 건너뛴다
+     * - 부품은 모델마다 한 번 읽어 meshName 맵으로 찾고, 새 부품은 saveAll 로 한 번에 저장
+     */
     @Transactional
     public void importAllFromResources() throws Exception {
+        long start = System.currentTimeMillis();
         PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
         Resource[] resources = resolver.getResources("classpath:/import/Data_*.json");
 
@@ -39,15 +79,24 @@ public class AssetImportService {
             return;
         }
 
+        Map<String, AssetImportManifestEntity> manifest = new HashMap<>();
+        for (AssetImportManifestEntity m : manifestRepository.findByPathStartingWith(AssetImportManifestEntity.JSON))
+            manifest.put(m.getPath(), m);
+
         List<ModelEntity> existingModels = modelRepository.findAll();
+        Set<Long> modelIds = new HashSet<>();
+        for (ModelEntity m : existingModels)
+            modelIds.add(m.getId());
 
-        for (Resource r : resources) {
-            Map<String, Object> root = objectMapper.readValue(
-                    r.getInputStream(),
-                    new TypeReference<Map<String, Object>>() {
-                    });
+        // 1. 읽기 + 해시 + 파싱 (병렬), 바뀌지 않은 파일은 null
+        List<ParsedJson> parsed = runParallel(Arrays.asList(resources), r -> readIfChanged(r, manifest, modelIds));
 
-            String jsonFileName = Optional.ofNullable(r.getFilename()).orElse("unknown.json");
+        int imported = 0;
+        for (ParsedJson pj : parsed) {
+            if (pj == null)
+                continue;
+            Map<String, Object> root = pj.root();
+            String jsonFileName = pj.fileName();
             String integratedFile = asString(root.get("integrated_file"));
             List<Map<String, Object>> assets = asListOfMap(root.get("assets"));
 
@@ -101,16 +150,50 @@ public class AssetImportService {
 
             // [유지] 부품(Assets) 처리
             String folderName = extractFolderName(model.getModelUrl(), model.getTitle());
-            String fileUrl = "/assets/3d/" + folderName + "/" + integratedFile;
+            // 내용 해시 URL (/assets/v/<hash>/...), 파일이 없으면 예전 /assets/3d/... 형식
+            String fileUrl = assetStore.versionedUrl(folderName, integratedFile);
+            // 실제 GLB 의 노드/메시 인덱스 (JSON 청크만 읽음), 파일이 없거나 깨졌으면 null
+            String glbFile = assetStore.findFile(folderName, integratedFile);
+            AssetStore.Entry glbEntry = glbFile != null ? assetStore.entry(folderName, glbFile) : null;
+            GlbIndex.GlbInfo glb = glbIndex.inspect(glbEntry);
+            // 부품별 GLB + 저폴리 프록시 (점진적 로딩용), 분할할 수 없으면 null
+            GlbSplitter.Split split = glbFile != null ? glbSplitter.split(folderName, glbFile) : null;
+            Set<String> titles = new HashSet<>();
+            List<String> missing = new ArrayList<>();
+
+            // 이 모델의 기존 부품 (쿼리 한 번), 같은 이름이 여러 개면 처음 것
+            Map<String, PartEntity> partsByMesh = new HashMap<>();
+            for (PartEntity p : partRepository.findByModelIdOrderByIdAsc(model.getId()))
+                partsByMesh.putIfAbsent(p.getMeshName(), p);
+            List<PartEntity> newParts = new ArrayList<>();
 
             for (Map<String, Object> a : assets) {
                 String meshName = firstNonBlank(asString(a.get("title")), asString(a.get("id")));
                 if (meshName == null || meshName.isBlank())
                     continue;
 
-                Optional<PartEntity> existingPart = findPart(model.getId(), meshName);
-                if (existingPart.isPresent())
+                titles.add(GlbIndex.sanitize(meshName));
+                GlbIndex.NodeInfo node = glb != null ? glb.nodes().get(GlbIndex.sanitize(meshName)) : null;
+                if (glb != null && node == null) missing.add(meshName);
+
+                // GLB 에서 나오는 값 (null 이면 content 에서 뺀다)
+                Map<String, Object> assetFields = new LinkedHashMap<>();
+                assetFields.put("fileUrl", fileUrl);
+                if (glb != null) assetFields.put("mesh", node != null ? node.toContent() : null);
+                if (glbFile != null) {
+                    GlbSplitter.PartAsset partAsset = split != null ? split.part(meshName) : null;
+                    assetFields.put("partUrl", partAsset != null ? partAsset.url() : null);
+                }
+
+                PartEntity p = partsByMesh.get(meshName);
+                if (p != null) {
+                    // 보존 모드여도 GLB 가 바뀌었으면(URL 해시, 메시 정보, 부품 GLB) 그 값들만 갱신
+                    if (p.getContent() != null) {
+                        Map<String, Object> updated = new LinkedHashMap<>(p.getContent());
+                        if (applyAssetFields(updated, assetFields)) p.setContent(updated);
+                    }
                     continue;
+                }
 
                 Map<String, Object> content = new LinkedHashMap<>();
                 content.put("name", meshName);
@@ -121,18 +204,157 @@ public class AssetImportService {
                 content.put("position", a.get("position"));
                 content.put("vector", a.get("vector"));
                 content.put("explodeVector", a.get("explodeVector"));
+                applyAssetFields(content, assetFields);
 
                 PartEntity part = new PartEntity(model, meshName, content);
-                partRepository.save(part);
+                newParts.add(part);
+                partsByMesh.put(meshName, part);
             }
-            System.out.println("[IMPORT] 완료 (보존 모드): " + jsonFileName);
+            partRepository.saveAll(newParts);
+            reportMeshMismatch(jsonFileName, glbFile, glb, titles, missing);
+
+            AssetImportManifestEntity row = manifest.computeIfAbsent(
+                    AssetImportManifestEntity.JSON + jsonFileName, AssetImportManifestEntity::new);
+            row.setContentHash(pj.hash());
+            row.setGlbPath(glbEntry != null ? folderName + "/" + glbFile : null);
+            row.setGlbHash(glbEntry != null ? glbEntry.hash() : null);
+            row.setModelId(model.getId());
+            row.setImportedAt(LocalDateTime.now());
+            manifestRepository.save(row);
+
+            imported++;
+            System.out.println("[IMPORT] 완료 (보존 모드): " + jsonFileName + " (새 부품 " + newParts.size() + ")");
         }
+
+        System.out.println("[IMPORT] Data_*.json " + resources.length + "개 중 " + imported + "개 임포트, "
+                + (resources.length - imported) + "개 변경 없음 (" + (System.currentTimeMillis() - start) + "ms)");
+        if (imported == 0)
+            return;
+
+        // 커밋 후 AI 컨텍스트 인덱스 등이 다시 만들어진다
+        eventPublisher.publishEvent(new CatalogChangedEvent("import"));
     }
 
-    private Optional<PartEntity> findPart(Long modelId, String meshName) {
-        return partRepository.findByModelIdOrderByIdAsc(modelId).stream()
-                .filter(p -> meshName.equals(p.getMeshName()))
-                .findFirst();
+    /**
+     * 항목마다 task 를 고정 크기 풀(parallelism)에서 실행하고 입력 순서대로 결과를 모은다 (null 허용)
+     * 작업 하나가 실패하면 그 예외를 그대로 던진다
+     */
+    public <T, R> List<R> runParallel(List<T> items, Function<T, R> task) throws Exception {
+        int threads = Math.min(parallelism, items.size());
+        if (threads <= 1) {
+            List<R> out = new ArrayList<>();
+            for (T item : items)
+                out.add(task.apply(item));
+            return out;
+        }
+
+        AtomicInteger seq = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "asset-import-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<R>> futures = new ArrayList<>();
+            for (T item : items)
+                futures.add(pool.submit(() -> task.apply(item)));
+            List<R> out = new ArrayList<>();
+            for (Future<R> f : futures)
+                out.add(f.get());
+            return out;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io)
+                throw io.getCause();
+            if (e.getCause() instanceof Exception ex)
+                throw ex;
+            throw e;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 내용 해시가 manifest 와 같고, 같이 임포트한 GLB 도 그대로이고, 모델도 남아 있으면 null (건너뜀)
+     */
+    private ParsedJson readIfChanged(Resource r, Map<String, AssetImportManifestEntity> manifest, Set<Long> modelIds) {
+        String fileName = Optional.ofNullable(r.getFilename()).orElse("unknown.json");
+        try {
+            byte[] bytes;
+            try (InputStream in = r.getInputStream()) {
+                bytes = in.readAllBytes();
+            }
+            String hash = sha256(bytes);
+
+            AssetImportManifestEntity row = manifest.get(AssetImportManifestEntity.JSON + fileName);
+            if (row != null && hash.equals(row.getContentHash())
+                    && modelIds.contains(row.getModelId()) && glbUnchanged(row))
+                return null;
+
+            Map<String, Object> root = objectMapper.readValue(bytes, new TypeReference<Map<String, Object>>() {
+            });
+            return new ParsedJson(fileName, hash, root);
+        } catch (IOException e) {
+            throw new UncheckedIOException(fileName + " 읽기 실패", e);
+        }
+    }
+
+    private boolean glbUnchanged(AssetImportManifestEntity row) {
+        String path = row.getGlbPath();
+        if (path == null)
+            return false; // 지난번에 GLB 를 못 찾았으면 다시 시도
+        int slash = path.indexOf('/');
+        AssetStore.Entry entry = assetStore.entry(path.substring(0, slash), path.substring(slash + 1));
+        return entry != null && entry.hash().equals(row.getGlbHash());
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return content 가 바뀌었는지
+     */
+    private boolean applyAssetFields(Map<String, Object> content, Map<String, Object> fields) {
+        boolean changed = false;
+        for (var e : fields.entrySet()) {
+            String key = e.getKey();
+            Object value = e.getValue();
+            if (value == null ? !content.containsKey(key) : value.equals(content.get(key)))
+                continue;
+            if (value != null) content.put(key, value);
+            else content.remove(key);
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Data_*.json 과 실제 GLB 비교 결과 출력
+     * - missing: JSON 에는 있는데 GLB 에 그 이름의 노드가 없음 (AI 컨텍스트/하이라이트가 동작하지 않는 부품)
+     * - unmapped: GLB 에 메시가 있는데 JSON 에 설명이 없음
+     */
+    private void reportMeshMismatch(String jsonFileName, String glbFile, GlbIndex.GlbInfo glb,
+                                    Set<String> titles, List<String> missing) {
+        if (glb == null) {
+            System.out.println("[IMPORT] GLB 검증 생략 (파일 없음/파싱 실패): " + jsonFileName);
+            return;
+        }
+        List<String> unmapped = new ArrayList<>();
+        for (var e : glb.nodes().entrySet()) {
+            if (e.getValue().mesh() != null && !titles.contains(e.getKey())) unmapped.add(e.getValue().name());
+        }
+        if (missing.isEmpty() && unmapped.isEmpty()) {
+            System.out.println("[IMPORT] GLB 검증 OK: " + glbFile + " (" + titles.size() + " parts, "
+                    + glb.totalTriangles() + " triangles)");
+            return;
+        }
+        System.out.println("[IMPORT] GLB 불일치: " + jsonFileName + " ↔ " + glbFile
+                + " / GLB 에 없음 " + missing.size() + missing
+                + " / JSON 에 없음 " + unmapped.size() + unmapped);
     }
 
     private ModelEntity findBestModelMatch(List<ModelEntity> existing, String rawKey, String integratedFile) {
@@ -201,4 +423,6 @@ public class AssetImportService {
                 return s;
         return null;
     }
-}
\ No newline at end of file
+
+    private record ParsedJson(String fileName, String hash, Map<String, Object> root) {}
+}
@@ -0,0 +1,185 @@
+// src/main/java/com/simvex/simvex_api/model/AssetStore.java
+package com.simvex.simvex_api.model;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 3D 에셋(static/assets/3d/<폴더>/<파일>.glb) 파일 인덱스 + 내용 해시 URL
+ *
+ * - versionedUrl() 은 /assets/v/<해시>/<폴더>/<파일> 을 돌려준다. 해시는 파일 내용 SHA-256 앞 16자리
+ *   내용이 바뀌면 URL 이 바뀌므로 응답은 immutable 로 1년 캐시해도 된다 (AssetController)
+ * - 해시는 (크기, 수정 시각) 이 같으면 다시 계산하지 않는다. 재시작 후에도 임포트 manifest 값으로 이어서 쓴다
+ * - 파일 이름 대소문자가 다르면(예: Suspension/SUSPENSION.glb) 폴더 안에서 대소문자 무시로 찾는다
+ */
+@Component
+public class AssetStore {
+
+    public static final String VERSIONED_PREFIX = "/assets/v/";
+    public static final String LEGACY_PREFIX = "/assets/3d/";
+
+    private final Path configuredRoot;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private volatile Path root;
+
+    public AssetStore(@Value("${simvex.assets.import.root:}") String root) {
+        this.configuredRoot = (root == null || root.isBlank()) ? null : Paths.get(root);
+    }
+
+    /**
+     * 에셋 루트 (설정값 → 작업 폴더 기준 기본 위치 순으로 찾음). 없으면 null
+     */
+    public Path root() {
+        Path r = root;
+        if (r != null) return r;
+
+        String userDir = System.getProperty("user.dir");
+        for (Path candidate : new Path[]{
+                configuredRoot,
+                Paths.get(userDir, "src/main/resources/static/assets/3d"),
+                // 혹시 simvex-api 폴더 안에 있을 경우
+                Paths.get(userDir, "simvex-api-main/src/main/resources/static/assets/3d")}) {
+            if (candidate != null && Files.isDirectory(candidate)) {
+                r = candidate.toAbsolutePath().normalize();
+                root = r;
+                return r;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 폴더 안의 실제 파일 이름 (같은 이름 → 대소문자 무시 → 폴더 안 첫 .glb). 없으면 null
+     */
+    public String findFile(String folder, String fileName) {
+        Path dir = dir(folder);
+        if (dir == null) return null;
+        if (fileName != null && Files.isRegularFile(dir.resolve(fileName))) return fileName;
+
+        try (Stream<Path> files = Files.list(dir)) {
+            String fallback = null;
+            for (Path p : (Iterable<Path>) files::iterator) {
+                if (!Files.isRegularFile(p)) continue;
+                String name = p.getFileName().toString();
+                if (name.equalsIgnoreCase(fileName)) return name;
+                if (fallback == null && name.toLowerCase(Locale.ROOT).endsWith(".glb")) fallback = name;
+            }
+            return fallback;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * /assets/v/<해시>/<폴더>/<파일>. 파일이 없으면 예전 형식(/assets/3d/<폴더>/<파일>) 을 그대로 돌려준다
+     */
+    public String versionedUrl(String folder, String fileName) {
+        String actual = findFile(folder, fileName);
+        Entry e = actual != null ? entry(folder, actual) : null;
+        if (e == null) return LEGACY_PREFIX + folder + "/" + fileName;
+        return VERSIONED_PREFIX + e.hash() + "/" + folder + "/" + actual;
+    }
+
+    /**
+     * "/assets/v/<hash>/<folder>/<file>" 또는 "/assets/3d/<folder>/<file>" → {folder, file}. 형식이 다르면 null
+     */
+    public static String[] parseUrl(String url) {
+        if (url == null) return null;
+        String rest;
+        if (url.startsWith(VERSIONED_PREFIX)) {
+            rest = url.substring(VERSIONED_PREFIX.length());
+            int slash = rest.indexOf('/');
+            if (slash < 0) return null;
+            rest = rest.substring(slash + 1);
+        } else if (url.startsWith(LEGACY_PREFIX)) {
+            rest = url.substring(LEGACY_PREFIX.length());
+        } else {
+            return null;
+        }
+        int slash = rest.indexOf('/');
+        if (slash <= 0 || slash == rest.length() - 1) return null;
+        return new String[]{rest.substring(0, slash), rest.substring(slash + 1)};
+    }
+
+    /**
+     * 현재 파일 정보 (해시 갱신 포함). 루트 밖 경로이거나 파일이 없으면 null
+     */
+    public Entry entry(String folder, String fileName) {
+        Path dir = dir(folder);
+        if (dir == null || fileName == null) return null;
+        Path file = dir.resolve(fileName).normalize();
+        if (!file.getParent().equals(dir) || !Files.isRegularFile(file)) return null;
+
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            long size = attrs.size();
+            long mtime = attrs.lastModifiedTime().toMillis();
+            String key = folder + "/" + fileName;
+
+            Entry cached = entries.get(key);
+            if (cached != null && cached.size() == size && cached.lastModifiedMillis() == mtime) return cached;
+
+            Entry fresh = new Entry(file, sha256Prefix(file), size, mtime);
+            entries.put(key, fresh);
+            return fresh;
+        } catch (IOException e) {
+            System.out.println("[ASSET] 해시 실패: " + file + " (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+
+    /**
+     * 이전 기동 때 계산한 해시를 미리 넣어 둔다 (임포트 manifest). 크기/수정 시각이 다르면 entry() 가 다시 계산한다
+     */
+    public void remember(String folder, String fileName, String hash, long size, long lastModifiedMillis) {
+        Path dir = dir(folder);
+        if (dir == null || fileName == null) return;
+        Path file = dir.resolve(fileName).normalize();
+        if (!file.getParent().equals(dir)) return;
+        entries.putIfAbsent(folder + "/" + fileName, new Entry(file, hash, size, lastModifiedMillis));
+    }
+
+    private Path dir(String folder) {
+        Path r = root();
+        if (r == null || folder == null || folder.isBlank()) return null;
+        Path dir = r.resolve(folder).normalize();
+        if (!dir.startsWith(r) || dir.equals(r) || !Files.isDirectory(dir)) return null;
+        return dir;
+    }
+
+    private static String sha256Prefix(Path file) throws IOException {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(64 * 1024);
+            while (ch.read(buf) > 0) {
+                buf.flip();
+                md.update(buf);
+                buf.clear();
+            }
+        }
+        return HexFormat.of().formatHex(md.digest()).substring(0, 16);
+    }
+
+    /**
+     * @param hash 내용 SHA-256 앞 16자리 (URL/ETag 에 사용)
+     */
+    public record Entry(Path path, String hash, long size, long lastModifiedMillis) {}
+}
@@ -0,0 +1,232 @@
+// src/main/java/com/simvex/simvex_api/model/AssetVariants.java
+package com.simvex.simvex_api.model;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GLB 전송 변형 (지오메트리 코덱 × 전송 인코딩) 준비/선택
+ *
+ * 서버가 직접 만드는 것은 gzip 뿐이다. br / meshopt / draco 는 외부 도구 결과가 있을 때만 변형으로 등록한다.
+ *
+ * - gzip: 임포트 때 JDK Deflater (최고 압축) 로 만들어 cache-dir/<원본해시>[.<codec>].glb.gz 에 둔다.
+ *   원본 해시가 키라서 GLB 가 바뀌면 자동으로 새로 만들고, 이미 있으면 다시 만들지 않는다
+ * - br: JDK 에 brotli 인코더가 없으므로 외부 도구로 만든 파일이 있을 때만 쓴다 (<원본>.br 또는 cache-dir/<원본해시>.glb.br)
+ * - meshopt/draco: 같은 폴더의 <이름>.meshopt.glb / <이름>.draco.glb (gltfpack 등으로 만든 파일) 이 있으면 변형으로 등록.
+ *   glTF 확장(EXT_meshopt_compression, KHR_draco_mesh_compression)으로 자기 기술적이라 디코더를 가진 클라이언트에만 보낸다.
+ *   키/ETag/.gz 이름은 <원본해시>.<codec>-<변형해시> 라서 원본은 그대로고 압축본만 다시 만들어도 새 변형으로 바뀐다
+ * - 원본보다 min-saving-percent 이상 작지 않은 인코딩 변형은 버린다
+ */
+@Component
+public class AssetVariants {
+
+    public static final String IDENTITY = "identity";
+    public static final String GZIP = "gzip";
+    public static final String BR = "br";
+    private static final List<String> CODECS = List.of("meshopt", "draco");
+
+    private final AssetStore assetStore;
+    private final boolean enabled;
+    private final Path cacheDir;
+    private final int minSavingPercent;
+
+    // "folder/file" → (원본 + 압축본 해시로 만든 키, 변형 목록). 키가 달라지면 다시 만든다
+    private final ConcurrentHashMap<String, Prepared> variants = new ConcurrentHashMap<>();
+
+    public AssetVariants(
+            AssetStore assetStore,
+            @Value("${simvex.assets.variants.enabled:true}") boolean enabled,
+            @Value("${simvex.assets.variants.cache-dir:${java.io.tmpdir}/simvex-asset-variants}") String cacheDir,
+            @Value("${simvex.assets.variants.min-saving-percent:5}") int minSavingPercent) {
+        this.assetStore = assetStore;
+        this.enabled = enabled;
+        this.cacheDir = Paths.get(cacheDir);
+        this.minSavingPercent = minSavingPercent;
+    }
+
+    /**
+     * 변형을 만들고(없을 때만) 목록을 돌려준다. 첫 번째는 identity 원본, 원본이 없으면 빈 목록
+     * 임포트 때 미리 불리므로 요청 경로에서는 보통 캐시 조회만 한다
+     */
+    public List<Variant> prepare(String folder, String fileName) {
+        AssetStore.Entry source = assetStore.entry(folder, fileName);
+        if (source == null) return List.of();
+
+        Map<String, AssetStore.Entry> geometry = enabled ? geometryFiles(folder, fileName) : Map.of();
+        StringBuilder key = new StringBuilder(source.hash());
+        geometry.forEach((codec, geo) -> key.append('|').append(codec).append(':').append(geo.hash()));
+        String cacheKey = key.toString();
+
+        return variants.compute(folder + "/" + fileName, (k, cur) -> cur != null && cur.key().equals(cacheKey)
+                ? cur
+                : new Prepared(cacheKey, build(folder, fileName, source, geometry))).variants();
+    }
+
+    // 외부 도구로 만든 지오메트리 압축본 (<이름>.<codec>.glb), CODECS 순서
+    private Map<String, AssetStore.Entry> geometryFiles(String folder, String fileName) {
+        String base = fileName.replaceFirst("(?i)\\.glb$", "");
+        Map<String, AssetStore.Entry> out = new LinkedHashMap<>();
+        for (String codec : CODECS) {
+            AssetStore.Entry geo = assetStore.entry(folder, base + "." + codec + ".glb");
+            if (geo != null) out.put(codec, geo);
+        }
+        return out;
+    }
+
+    /**
+     * 클라이언트가 받을 수 있는 것 중 가장 작은 변형
+     * @param variants       prepare() 결과 (첫 번째는 항상 identity 원본)
+     * @param acceptEncoding Accept-Encoding 헤더
+     * @param codecs         클라이언트가 디코딩할 수 있는 지오메트리 코덱 (meshopt, draco), 없으면 원본 지오메트리만
+     */
+    public Variant select(List<Variant> variants, String acceptEncoding, Set<String> codecs) {
+        Variant best = null;
+        for (Variant v : variants) {
+            if (v.codec() != null && !codecs.contains(v.codec())) continue;
+            if (!accepts(acceptEncoding, v.encoding())) continue;
+            if (best == null || v.size() < best.size()) best = v;
+        }
+        // identity 원본은 Accept-Encoding 이 막아도 보낼 수 있다
+        return best != null ? best : variants.get(0);
+    }
+
+    /**
+     * "/assets/v/<hash>/<folder>/<file>" 또는 "/assets/3d/<folder>/<file>" 의 변형 목록 (bundle 광고용)
+     */
+    public List<Variant> forUrl(String url) {
+        String[] location = AssetStore.parseUrl(url);
+        return location == null ? List.of() : prepare(location[0], location[1]);
+    }
+
+    private List<Variant> build(String folder, String fileName, AssetStore.Entry source,
+                                Map<String, AssetStore.Entry> geometry) {
+        List<Variant> out = new ArrayList<>();
+        out.add(identity(null, source.path(), source.size(), source.hash()));
+        if (!enabled) return List.copyOf(out);
+
+        long start = System.currentTimeMillis();
+        addEncodings(out, null, source.path(), source.size(), source.hash());
+
+        // 압축본 자신의 해시도 키에 넣는다 (원본이 같아도 압축본이 바뀌면 ETag / .gz 가 달라짐)
+        geometry.forEach((codec, geo) -> {
+            String key = source.hash() + "." + codec + "-" + geo.hash();
+            out.add(identity(codec, geo.path(), geo.size(), key));
+            addEncodings(out, codec, geo.path(), geo.size(), key);
+        });
+
+        StringBuilder sb = new StringBuilder();
+        for (Variant v : out) sb.append(' ').append(v.label()).append('=').append(v.size());
+        System.out.println("[ASSET] variants " + folder + "/" + fileName + ":" + sb
+                + " (" + (System.currentTimeMillis() - start) + "ms)");
+        return List.copyOf(out);
+    }
+
+    private void addEncodings(List<Variant> out, String codec, Path file, long size, String key) {
+        try {
+            Path gz = cacheDir.resolve(key + ".glb.gz");
+            if (!Files.isRegularFile(gz)) gzip(file, gz);
+            addIfSmaller(out, codec, GZIP, gz, size, key);
+        } catch (IOException e) {
+            System.out.println("[ASSET] gzip 실패: " + file + " (" + e.getMessage() + ")");
+        }
+
+        Path br = file.resolveSibling(file.getFileName() + ".br");
+        if (!Files.isRegularFile(br)) br = cacheDir.resolve(key + ".glb.br");
+        if (Files.isRegularFile(br)) {
+            try {
+                // 원본보다 오래된 외부 .br 은 원본 교체 전 것이므로 쓰지 않는다
+                if (Files.getLastModifiedTime(br).compareTo(Files.getLastModifiedTime(file)) >= 0
+                        || br.startsWith(cacheDir)) {
+                    addIfSmaller(out, codec, BR, br, size, key);
+                }
+            } catch (IOException ignored) {
+                // 변형 없이 진행
+            }
+        }
+    }
+
+    private void addIfSmaller(List<Variant> out, String codec, String encoding, Path file, long originalSize, String key)
+            throws IOException {
+        long size = Files.size(file);
+        if (size * 100 <= originalSize * (100L - minSavingPercent)) {
+            out.add(new Variant(codec, encoding, file, size, "\"" + key + "-" + encoding + "\""));
+        }
+    }
+
+    private static Variant identity(String codec, Path file, long size, String key) {
+        return new Variant(codec, IDENTITY, file, size, "\"" + key + "\"");
+    }
+
+    private static void gzip(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        // 임시 파일에 쓰고 원자적으로 옮겨서 다른 인스턴스가 반쯤 쓴 파일을 보지 않게 한다
+        Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp), 64 * 1024) {
+                 { def.setLevel(Deflater.BEST_COMPRESSION); }
+             }) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Accept-Encoding 에서 q=0 이 아닌지 (identity 는 명시적으로 막지 않으면 허용)
+     */
+    static boolean accepts(String acceptEncoding, String encoding) {
+        if (IDENTITY.equals(encoding)) {
+            if (acceptEncoding == null) return true;
+            Double q = quality(acceptEncoding, IDENTITY);
+            return q == null || q > 0;
+        }
+        if (acceptEncoding == null) return false;
+        Double q = quality(acceptEncoding, encoding);
+        if (q == null) q = quality(acceptEncoding, "*");
+        return q != null && q > 0;
+    }
+
+    private static Double quality(String header, String coding) {
+        for (String part : header.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (!tokens[0].trim().equalsIgnoreCase(coding)) continue;
+            double q = 1.0;
+            for (int i = 1; i < tokens.length; i++) {
+                String t = tokens[i].trim();
+                if (t.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(t.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            return q;
+        }
+        return null;
+    }
+
+    private record Prepared(String key, List<Variant> variants) {}
+
+    /**
+     * @param codec    지오메트리 코덱 (null 이면 원본 지오메트리)
+     * @param encoding identity / gzip / br (Content-Encoding)
+     * @param etag     변형마다 다른 ETag
+     */
+    public record Variant(String codec, String encoding, Path path, long size, String etag) {
+        public String label() {
+            return (codec != null ? codec : "glb") + "+" + encoding;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+// src/main/java/com/simvex/simvex_api/model/CatalogChangedEvent.java
+package com.simvex.simvex_api.model;
+
+/**
+ * 모델/부품 데이터가 바뀌었음을 알리는 이벤트 (임포트, 모델 등록/수정 후 발행)
+ * 트랜잭션 안에서 발행되면 커밋 후에 리스너가 실행된다.
+ */
+public record CatalogChangedEvent(String reason) {}
@@ -0,0 +1,26 @@
+// src/main/java/com/simvex/simvex_api/model/CatalogEntityListener.java
+package com.simvex.simvex_api.model;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * ModelEntity/PartEntity 가 쓰이면 카탈로그 버전을 올린다 (이벤트를 발행하지 않는 쓰기도 ETag 에 반영되도록)
+ * Hibernate 가 Spring 빈 컨테이너로 만들기 때문에 생성자 주입이 된다.
+ */
+public class CatalogEntityListener {
+
+    private final CatalogVersion catalogVersion;
+
+    public CatalogEntityListener(CatalogVersion catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Object entity) {
+        catalogVersion.markDirty();
+    }
+}
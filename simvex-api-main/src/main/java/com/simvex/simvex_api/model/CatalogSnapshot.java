@@ -0,0 +1,320 @@
+// src/main/java/com/simvex/simvex_api/model/CatalogSnapshot.java
+package com.simvex.simvex_api.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simvex.simvex_api.dto.PartDto;
+import com.simvex.simvex_api.dto.StudyBundleDto;
+import com.simvex.simvex_api.dto.StudyCatalogDto;
+import com.simvex.simvex_api.part.PartEntity;
+import com.simvex.simvex_api.part.PartRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Study API 용 카탈로그 스냅샷 (메모리, 불변, JSON 미리 직렬화)
+ *
+ * 도메인 → 카테고리 → 모델 → 부품 전체를 한 번 읽어 응답 JSON 바이트까지 만들어 둔다.
+ * StudyController 의 catalog / 카테고리별 모델 목록 / bundle 은 DB 조회, 그룹화, DTO 매핑 없이 맵 조회 한 번으로 끝난다.
+ *
+ * - 기동 직후와 CatalogChangedEvent 때 새로 만들어 volatile 참조 하나로 통째로 교체
+ * - 스냅샷마다 만들 때의 CatalogVersion 을 기록한다. 버전이 달라졌으면(이벤트 없는 엔티티 쓰기, 쓰기마다 오름)
+ *   조회 스레드는 지금 스냅샷을 그대로 받고 백그라운드 스레드 하나가 다시 만든다 (쓰기가 몰려도 재빌드는 한 번에 하나)
+ * - 그렇게 내려간 이전 버전 응답은 Json.stale 로 표시되어 StudyController 가 캐시 금지로 보낸다
+ *   (새 버전 ETag 가 이전 내용에 붙어 CDN 에 남지 않도록)
+ * - JSON 은 Spring 과 같은 ObjectMapper 로 만들므로 기존 응답과 바이트 단위로 같다
+ */
+@Component
+public class CatalogSnapshot {
+
+    private static final byte[] EMPTY_LIST = "[]".getBytes(StandardCharsets.UTF_8);
+
+    private final ModelRepository modelRepository;
+    private final PartRepository partRepository;
+    private final CatalogVersion catalogVersion;
+    private final AssetVariants assetVariants;
+    private final GlbSplitter glbSplitter;
+    private final ObjectMapper objectMapper;
+    private final Timer rebuildTimer;
+
+    // 버전이 어긋났을 때의 재빌드는 한 번에 하나만 대기
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "catalog-snapshot");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    public CatalogSnapshot(
+            ModelRepository modelRepository,
+            PartRepository partRepository,
+            CatalogVersion catalogVersion,
+            AssetVariants assetVariants,
+            GlbSplitter glbSplitter,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.modelRepository = modelRepository;
+        this.partRepository = partRepository;
+        this.catalogVersion = catalogVersion;
+        this.assetVariants = assetVariants;
+        this.glbSplitter = glbSplitter;
+        this.objectMapper = objectMapper;
+        this.rebuildTimer = Timer.builder("simvex.catalog.snapshot.rebuild")
+                .description("카탈로그 스냅샷 재빌드 시간")
+                .register(meterRegistry);
+    }
+
+    /**
+     * GET /api/study/catalog?domain= 의 JSON. 없는 도메인은 빈 카테고리 목록 (캐시하지 않음)
+     */
+    public Json catalogJson(String domainKey) {
+        Snapshot s = snapshot();
+        byte[] json = s.catalogs().get(domainKey);
+        if (json != null) return new Json(json, isStale(s));
+
+        StudyCatalogDto empty = new StudyCatalogDto();
+        empty.domainKey = domainKey;
+        empty.categories = List.of();
+        return new Json(write(empty), isStale(s));
+    }
+
+    /**
+     * GET /api/study/{domain}/{category}/models 의 JSON. 없으면 "[]"
+     */
+    public Json categoryModelsJson(String domainKey, String categoryKey) {
+        Snapshot s = snapshot();
+        return new Json(s.categoryModels().getOrDefault(key(domainKey, categoryKey), EMPTY_LIST), isStale(s));
+    }
+
+    /**
+     * GET /api/study/{domain}/{category}/{slug}/bundle 의 JSON. 없는 모델이면 null
+     */
+    public Json bundleJson(String domainKey, String categoryKey, String slug) {
+        Snapshot s = snapshot();
+        byte[] json = s.bundles().get(key(domainKey, categoryKey, slug));
+        return json == null ? null : new Json(json, isStale(s));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            System.out.println("[CATALOG] snapshot warm-up failed: " + e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        Snapshot s = rebuild();
+        System.out.println("[CATALOG] snapshot rebuilt (" + event.reason() + "): "
+                + s.catalogs().size() + " domains, " + s.bundles().size() + " bundles");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    // 아직 없을 때(기동 직후 warm-up 전)만 조회 스레드가 직접 만든다
+    private Snapshot snapshot() {
+        Snapshot s = snapshot;
+        if (s == null) return rebuild();
+        if (s.version() != catalogVersion.current()) {
+            rebuildLater();
+        }
+        return s;
+    }
+
+    private boolean isStale(Snapshot s) {
+        return s.version() != catalogVersion.current();
+    }
+
+    private void rebuildLater() {
+        if (!rebuildQueued.compareAndSet(false, true)) return;
+        try {
+            rebuilder.execute(() -> {
+                // 만드는 도중의 쓰기는 다시 예약되도록 먼저 내린다
+                rebuildQueued.set(false);
+                try {
+                    rebuild();
+                } catch (Exception e) {
+                    System.out.println("[CATALOG] snapshot rebuild failed: " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rebuildQueued.set(false);
+        }
+    }
+
+    private synchronized Snapshot rebuild() {
+        // 읽기 전에 버전을 잡아 둔다 (읽는 도중 바뀌면 다음 조회에서 또 어긋나 다시 만든다)
+        // 대기 중에 다른 스레드가 같은 버전으로 이미 만들었으면 그대로 쓴다
+        long version = catalogVersion.current();
+        Snapshot current = snapshot;
+        if (current != null && current.version() == version) return current;
+
+        Snapshot built = rebuildTimer.record(() -> build(version));
+        this.snapshot = built;
+        return built;
+    }
+
+    private Snapshot build(long version) {
+        List<ModelEntity> models = new ArrayList<>(modelRepository.findAll());
+        models.sort(Comparator.comparing(ModelEntity::getId));
+
+        Map<Long, List<PartDto>> partsByModel = new HashMap<>();
+        List<PartEntity> parts = new ArrayList<>(partRepository.findAll());
+        parts.sort(Comparator.comparing(PartEntity::getId));
+        for (PartEntity p : parts) {
+            // 지연 로딩 프록시여도 getId() 는 초기화 없이 식별자만 돌려준다
+            partsByModel.computeIfAbsent(p.getModel().getId(), k -> new ArrayList<>()).add(PartDto.from(p));
+        }
+
+        // 도메인 → (카테고리 → 모델들), 기존 컨트롤러와 같은 순서 (ID 오름차순, 카테고리는 처음 나온 순)
+        Map<String, Map<String, List<StudyCatalogDto.ModelItemDto>>> byDomain = new LinkedHashMap<>();
+        Map<String, List<StudyCatalogDto.ModelItemDto>> byCategory = new LinkedHashMap<>();
+        Map<String, byte[]> bundles = new HashMap<>();
+
+        for (ModelEntity m : models) {
+            StudyCatalogDto.ModelItemDto item = toItem(m);
+
+            if (m.getDomainKey() != null) {
+                byDomain.computeIfAbsent(m.getDomainKey(), k -> new LinkedHashMap<>())
+                        .computeIfAbsent(safe(m.getCategoryKey(), "mechanics"), k -> new ArrayList<>())
+                        .add(item);
+            }
+            // 카테고리별 목록과 bundle 은 DB 값 그대로 일치해야 찾을 수 있다 (기존 쿼리와 동일)
+            if (m.getDomainKey() != null && m.getCategoryKey() != null) {
+                byCategory.computeIfAbsent(key(m.getDomainKey(), m.getCategoryKey()), k -> new ArrayList<>())
+                        .add(item);
+                if (m.getSlug() != null) {
+                    StudyBundleDto bundle = new StudyBundleDto();
+                    bundle.model = toStudyModel(m);
+                    bundle.parts = partsByModel.getOrDefault(m.getId(), List.of());
+                    bundle.assets = streamAssets(m);
+                    bundles.put(key(m.getDomainKey(), m.getCategoryKey(), m.getSlug()), write(bundle));
+                }
+            }
+        }
+
+        Map<String, byte[]> catalogs = new HashMap<>();
+        for (var d : byDomain.entrySet()) {
+            StudyCatalogDto dto = new StudyCatalogDto();
+            dto.domainKey = d.getKey();
+            dto.categories = new ArrayList<>();
+            for (var c : d.getValue().entrySet()) {
+                StudyCatalogDto.CategoryDto cat = new StudyCatalogDto.CategoryDto();
+                cat.categoryKey = c.getKey();
+                cat.title = c.getKey(); // MVP: key를 title로 사용 (추후 개선 가능)
+                cat.models = c.getValue();
+                dto.categories.add(cat);
+            }
+            catalogs.put(d.getKey(), write(dto));
+        }
+
+        Map<String, byte[]> categoryModels = new HashMap<>();
+        for (var c : byCategory.entrySet()) {
+            categoryModels.put(c.getKey(), write(c.getValue()));
+        }
+
+        return new Snapshot(version, Map.copyOf(catalogs), Map.copyOf(categoryModels), Map.copyOf(bundles));
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("catalog snapshot serialization failed", e);
+        }
+    }
+
+    private static StudyCatalogDto.ModelItemDto toItem(ModelEntity m) {
+        StudyCatalogDto.ModelItemDto x = new StudyCatalogDto.ModelItemDto();
+        x.id = m.getId();
+        x.title = m.getTitle();
+        x.slug = m.getSlug();
+        x.modelUrl = m.getModelUrl();
+        x.domainKey = m.getDomainKey();
+        x.categoryKey = m.getCategoryKey();
+        return x;
+    }
+
+    private StudyBundleDto.StudyModelDto toStudyModel(ModelEntity m) {
+        StudyBundleDto.StudyModelDto x = new StudyBundleDto.StudyModelDto();
+        x.id = m.getId();
+        x.title = m.getTitle();
+        x.slug = m.getSlug();
+        x.modelUrl = m.getModelUrl();
+        x.domainKey = m.getDomainKey();
+        x.categoryKey = m.getCategoryKey();
+        x.variants = assetVariants.forUrl(m.getModelUrl()).stream().map(v -> {
+            StudyBundleDto.AssetVariantDto d = new StudyBundleDto.AssetVariantDto();
+            d.codec = v.codec();
+            d.encoding = v.encoding();
+            d.size = v.size();
+            return d;
+        }).toList();
+        return x;
+    }
+
+    private List<StudyBundleDto.StreamAssetDto> streamAssets(ModelEntity m) {
+        GlbSplitter.Split split = glbSplitter.forUrl(m.getModelUrl());
+        if (split == null) return List.of();
+        List<StudyBundleDto.StreamAssetDto> out = new ArrayList<>();
+        out.add(toStreamAsset("proxy", split.proxy()));
+        for (GlbSplitter.PartAsset p : split.parts()) out.add(toStreamAsset("part", p));
+        return out;
+    }
+
+    private static StudyBundleDto.StreamAssetDto toStreamAsset(String kind, GlbSplitter.PartAsset p) {
+        StudyBundleDto.StreamAssetDto x = new StudyBundleDto.StreamAssetDto();
+        x.kind = kind;
+        x.meshName = p.meshName();
+        x.url = p.url();
+        x.size = p.size();
+        x.triangles = p.triangles();
+        return x;
+    }
+
+    private static String safe(String s, String fallback) {
+        if (s == null || s.isBlank()) return fallback;
+        return s;
+    }
+
+    private static String key(String... parts) {
+        return String.join("|", parts);
+    }
+
+    /**
+     * 미리 직렬화된 응답 JSON
+     *
+     * @param stale 지금 CatalogVersion 보다 이전 스냅샷에서 나온 응답 (재빌드 중). HTTP 캐시에 남기면 안 된다
+     */
+    public record Json(byte[] body, boolean stale) {}
+
+    /**
+     * @param version        만들 때의 CatalogVersion
+     * @param catalogs       domainKey → StudyCatalogDto JSON
+     * @param categoryModels "domain|category" → ModelItemDto 목록 JSON
+     * @param bundles        "domain|category|slug" → StudyBundleDto JSON
+     */
+    private record Snapshot(long version,
+                            Map<String, byte[]> catalogs,
+                            Map<String, byte[]> categoryModels,
+                            Map<String, byte[]> bundles) {}
+}
@@ -0,0 +1,75 @@
+// src/main/java/com/simvex/simvex_api/model/CatalogVersion.java
+package com.simvex.simvex_api.model;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 카탈로그(모델/부품) 버전 카운터 — HTTP ETag/Last-Modified 의 근거
+ *
+ * - CatalogChangedEvent (임포트, 모델 등록/수정) 와 ModelEntity/PartEntity 쓰기(CatalogEntityListener) 때 올라간다
+ * - 트랜잭션 안의 쓰기는 커밋(또는 롤백) 뒤에 한 번 더 올린다.
+ *   커밋 전에 옛 데이터를 읽어 간 요청이 새 버전 ETag 를 달고 캐시되는 일을 막기 위해서다
+ * - 시작값은 기동 시각(ms)이라 재시작하면 ETag 가 모두 바뀐다 (재시작 사이의 변경을 놓치지 않음)
+ */
+@Component
+public class CatalogVersion {
+
+    private static final Object TX_KEY = new Object();
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private volatile long lastModifiedMillis = System.currentTimeMillis();
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * 마지막으로 버전이 오른 시각 (Last-Modified 용, 초 단위로 잘려서 나간다)
+     */
+    public long lastModifiedMillis() {
+        return lastModifiedMillis;
+    }
+
+    public String etag() {
+        return "\"catalog-" + version.get() + "\"";
+    }
+
+    // CatalogSnapshot 등이 새 버전으로 다시 만들도록 먼저 실행
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        bump();
+    }
+
+    /**
+     * 엔티티 쓰기 직후 호출. 트랜잭션 중이면 지금 한 번, 끝난 뒤 한 번 (트랜잭션당 한 번만 등록)
+     */
+    void markDirty() {
+        bump();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(TX_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(TX_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TX_KEY);
+                bump();
+            }
+        });
+    }
+
+    private void bump() {
+        long now = System.currentTimeMillis();
+        version.updateAndGet(v -> Math.max(v + 1, now));
+        lastModifiedMillis = now;
+    }
+}
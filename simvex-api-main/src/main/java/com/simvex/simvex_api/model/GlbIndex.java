@@ -0,0 +1,346 @@
+// src/main/java/com/simvex/simvex_api/model/GlbIndex.java
+package com.simvex.simvex_api.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * GLB/glTF 메시 인덱스 (노드 이름, 메시 이름, 월드 좌표 bbox, 삼각형/정점 수)
+ *
+ * - GLB 는 헤더와 JSON 청크만 메모리 매핑해서 읽는다. BIN 청크(정점/인덱스 데이터)는 읽지 않는다
+ *   bbox 는 POSITION accessor 의 min/max(스펙상 필수) 를 노드 월드 행렬로 변환해서, 삼각형 수는 accessor count 로 구한다
+ * - 이름은 three.js GLTFLoader 와 같은 규칙으로 정리한 이름(sanitize)으로 찾는다. Data_*.json 의 title 이 이 형식이다
+ * - 결과는 파일 내용 해시(AssetStore.Entry) 로 캐시한다
+ */
+@Component
+public class GlbIndex {
+
+    static final int GLB_MAGIC = 0x46546C67;      // "glTF"
+    static final int CHUNK_JSON = 0x4E4F534A;     // "JSON"
+    static final int CHUNK_BIN = 0x004E4942;      // "BIN\0"
+
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<String, GlbInfo> cache = new ConcurrentHashMap<>();
+
+    public GlbIndex(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 파싱 실패 시 null (임포트는 메시 정보 없이 계속 진행)
+     */
+    public GlbInfo inspect(AssetStore.Entry entry) {
+        if (entry == null) return null;
+        GlbInfo cached = cache.get(entry.hash());
+        if (cached != null) return cached;
+        try {
+            GlbInfo info = parse(entry.path());
+            cache.put(entry.hash(), info);
+            return info;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("[ASSET] GLB 파싱 실패: " + entry.path() + " (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+
+    GlbInfo parse(Path file) throws IOException {
+        long jsonBytes;
+        long binBytes = 0;
+        JsonNode gltf;
+
+        if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gltf")) {
+            gltf = objectMapper.readTree(file.toFile());
+            jsonBytes = Files.size(file);
+        } else {
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = ch.size();
+                if (size < 20) throw new IOException("GLB 헤더보다 작음");
+
+                MappedByteBuffer header = ch.map(FileChannel.MapMode.READ_ONLY, 0, 20);
+                header.order(ByteOrder.LITTLE_ENDIAN);
+                if (header.getInt(0) != GLB_MAGIC) throw new IOException("glTF magic 아님");
+                if (header.getInt(4) != 2) throw new IOException("glTF 2.0 아님: " + header.getInt(4));
+                jsonBytes = Integer.toUnsignedLong(header.getInt(12));
+                if (header.getInt(16) != CHUNK_JSON) throw new IOException("첫 청크가 JSON 아님");
+                if (20 + jsonBytes > size) throw new IOException("JSON 청크 길이 오류");
+
+                // JSON 청크만 매핑 (BIN 은 건드리지 않음)
+                MappedByteBuffer json = ch.map(FileChannel.MapMode.READ_ONLY, 20, jsonBytes);
+                byte[] bytes = new byte[(int) jsonBytes];
+                json.get(bytes);
+                gltf = objectMapper.readTree(bytes);
+
+                long binHeader = 20 + jsonBytes;
+                if (binHeader + 8 <= size) {
+                    MappedByteBuffer bin = ch.map(FileChannel.MapMode.READ_ONLY, binHeader, 8);
+                    bin.order(ByteOrder.LITTLE_ENDIAN);
+                    if (bin.getInt(4) == CHUNK_BIN) binBytes = Integer.toUnsignedLong(bin.getInt(0));
+                }
+            }
+        }
+        return index(gltf, jsonBytes, binBytes);
+    }
+
+    private GlbInfo index(JsonNode gltf, long jsonBytes, long binBytes) {
+        JsonNode meshes = gltf.path("meshes");
+        JsonNode nodes = gltf.path("nodes");
+        MeshStats stats = meshStats(gltf);
+        double[][] meshMin = stats.min();
+        double[][] meshMax = stats.max();
+        long[] meshTriangles = stats.triangles();
+        long[] meshVertices = stats.vertices();
+
+        Map<String, NodeInfo> byName = new LinkedHashMap<>();
+        for (int r : roots(gltf)) visit(r, identity(), nodes, meshes, meshMin, meshMax, meshTriangles, meshVertices,
+                byName, new HashSet<>());
+
+        long totalTriangles = 0;
+        for (long t : meshTriangles) totalTriangles += t;
+        return new GlbInfo(jsonBytes, binBytes, totalTriangles, Collections.unmodifiableMap(byName));
+    }
+
+    /**
+     * 메시별 로컬 bbox / 삼각형 / 정점 (accessor count 와 POSITION min/max 만 사용)
+     */
+    static MeshStats meshStats(JsonNode gltf) {
+        JsonNode accessors = gltf.path("accessors");
+        JsonNode meshes = gltf.path("meshes");
+        int meshCount = meshes.size();
+        double[][] meshMin = new double[meshCount][];
+        double[][] meshMax = new double[meshCount][];
+        long[] meshTriangles = new long[meshCount];
+        long[] meshVertices = new long[meshCount];
+        for (int m = 0; m < meshCount; m++) {
+            for (JsonNode prim : meshes.get(m).path("primitives")) {
+                JsonNode pos = prim.path("attributes").path("POSITION");
+                if (!pos.isInt()) continue;
+                JsonNode acc = accessors.path(pos.asInt());
+                long vertices = acc.path("count").asLong();
+                meshVertices[m] += vertices;
+
+                long n = prim.path("indices").isInt()
+                        ? accessors.path(prim.path("indices").asInt()).path("count").asLong()
+                        : vertices;
+                int mode = prim.path("mode").asInt(4);
+                if (mode == 4) meshTriangles[m] += n / 3;
+                else if (mode == 5 || mode == 6) meshTriangles[m] += Math.max(0, n - 2);
+
+                double[] min = vec3(acc.path("min"));
+                double[] max = vec3(acc.path("max"));
+                if (min == null || max == null) continue;
+                if (meshMin[m] == null) {
+                    meshMin[m] = min;
+                    meshMax[m] = max;
+                } else {
+                    for (int i = 0; i < 3; i++) {
+                        meshMin[m][i] = Math.min(meshMin[m][i], min[i]);
+                        meshMax[m][i] = Math.max(meshMax[m][i], max[i]);
+                    }
+                }
+            }
+        }
+        return new MeshStats(meshMin, meshMax, meshTriangles, meshVertices);
+    }
+
+    /**
+     * 루트 노드: 기본 장면의 노드, 장면이 없으면 부모가 없는 노드
+     */
+    static List<Integer> roots(JsonNode gltf) {
+        JsonNode nodes = gltf.path("nodes");
+        List<Integer> roots = new ArrayList<>();
+        JsonNode scenes = gltf.path("scenes");
+        if (scenes.size() > 0) {
+            for (JsonNode r : scenes.path(gltf.path("scene").asInt(0)).path("nodes")) roots.add(r.asInt());
+        } else {
+            boolean[] child = new boolean[nodes.size()];
+            for (JsonNode n : nodes) for (JsonNode c : n.path("children")) child[c.asInt()] = true;
+            for (int i = 0; i < nodes.size(); i++) if (!child[i]) roots.add(i);
+        }
+        return roots;
+    }
+
+    /**
+     * @return 서브트리 집계 [triangles, vertices, minX, minY, minZ, maxX, maxY, maxZ] (bbox 없으면 길이 2)
+     */
+    private double[] visit(int idx, double[] parent, JsonNode nodes, JsonNode meshes,
+                           double[][] meshMin, double[][] meshMax, long[] meshTriangles, long[] meshVertices,
+                           Map<String, NodeInfo> out, Set<Integer> seen) {
+        if (!seen.add(idx)) return new double[]{0, 0};
+        JsonNode node = nodes.path(idx);
+        double[] world = multiply(parent, localMatrix(node));
+
+        long triangles = 0;
+        long vertices = 0;
+        double[] min = null;
+        double[] max = null;
+        String meshName = null;
+
+        JsonNode meshRef = node.path("mesh");
+        if (meshRef.isInt() && meshRef.asInt() < meshMin.length) {
+            int m = meshRef.asInt();
+            meshName = meshes.path(m).path("name").asText(null);
+            triangles += meshTriangles[m];
+            vertices += meshVertices[m];
+            if (meshMin[m] != null) {
+                double[][] box = transformBox(world, meshMin[m], meshMax[m]);
+                min = box[0];
+                max = box[1];
+            }
+        }
+
+        for (JsonNode c : node.path("children")) {
+            double[] sub = visit(c.asInt(), world, nodes, meshes, meshMin, meshMax, meshTriangles, meshVertices, out, seen);
+            triangles += (long) sub[0];
+            vertices += (long) sub[1];
+            if (sub.length == 8) {
+                if (min == null) {
+                    min = new double[]{sub[2], sub[3], sub[4]};
+                    max = new double[]{sub[5], sub[6], sub[7]};
+                } else {
+                    for (int i = 0; i < 3; i++) {
+                        min[i] = Math.min(min[i], sub[2 + i]);
+                        max[i] = Math.max(max[i], sub[5 + i]);
+                    }
+                }
+            }
+        }
+
+        String name = node.path("name").asText(null);
+        if (name != null && !name.isBlank() && (triangles > 0 || min != null)) {
+            // 같은 이름이 여러 번 나오면 처음 것을 쓴다 (three.js 는 중복 이름에 접미사를 붙임)
+            out.putIfAbsent(sanitize(name), new NodeInfo(name, meshName, min, max, triangles, vertices));
+        }
+
+        return min == null
+                ? new double[]{triangles, vertices}
+                : new double[]{triangles, vertices, min[0], min[1], min[2], max[0], max[1], max[2]};
+    }
+
+    /**
+     * three.js PropertyBinding.sanitizeNodeName 과 같은 규칙: 공백 → "_", 예약 문자 [ ] . : / 제거
+     */
+    public static String sanitize(String name) {
+        return name.replaceAll("\\s", "_").replaceAll("[\\[\\]\\.:/]", "");
+    }
+
+    // ===== 행렬 (glTF 와 같은 column-major 4x4) =====
+
+    static double[] localMatrix(JsonNode node) {
+        JsonNode m = node.path("matrix");
+        if (m.isArray() && m.size() == 16) {
+            double[] out = new double[16];
+            for (int i = 0; i < 16; i++) out[i] = m.get(i).asDouble();
+            return out;
+        }
+        double[] t = vec(node.path("translation"), 3, 0);
+        double[] r = vec(node.path("rotation"), 4, 0);
+        if (!node.path("rotation").isArray()) r[3] = 1;
+        double[] s = vec(node.path("scale"), 3, 1);
+
+        double x = r[0], y = r[1], z = r[2], w = r[3];
+        return new double[]{
+                (1 - 2 * (y * y + z * z)) * s[0], (2 * (x * y + z * w)) * s[0], (2 * (x * z - y * w)) * s[0], 0,
+                (2 * (x * y - z * w)) * s[1], (1 - 2 * (x * x + z * z)) * s[1], (2 * (y * z + x * w)) * s[1], 0,
+                (2 * (x * z + y * w)) * s[2], (2 * (y * z - x * w)) * s[2], (1 - 2 * (x * x + y * y)) * s[2], 0,
+                t[0], t[1], t[2], 1
+        };
+    }
+
+    static double[] multiply(double[] a, double[] b) {
+        double[] out = new double[16];
+        for (int col = 0; col < 4; col++) {
+            for (int row = 0; row < 4; row++) {
+                double sum = 0;
+                for (int k = 0; k < 4; k++) sum += a[k * 4 + row] * b[col * 4 + k];
+                out[col * 4 + row] = sum;
+            }
+        }
+        return out;
+    }
+
+    // 로컬 AABB 의 8개 꼭짓점을 변환해 월드 AABB 를 만든다
+    static double[][] transformBox(double[] m, double[] min, double[] max) {
+        double[] outMin = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] outMax = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int c = 0; c < 8; c++) {
+            double x = (c & 1) == 0 ? min[0] : max[0];
+            double y = (c & 2) == 0 ? min[1] : max[1];
+            double z = (c & 4) == 0 ? min[2] : max[2];
+            for (int i = 0; i < 3; i++) {
+                double v = m[i] * x + m[4 + i] * y + m[8 + i] * z + m[12 + i];
+                outMin[i] = Math.min(outMin[i], v);
+                outMax[i] = Math.max(outMax[i], v);
+            }
+        }
+        return new double[][]{outMin, outMax};
+    }
+
+    static double[] identity() {
+        return new double[]{1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1};
+    }
+
+    private static double[] vec3(JsonNode n) {
+        return n.isArray() && n.size() >= 3 ? vec(n, 3, 0) : null;
+    }
+
+    private static double[] vec(JsonNode n, int size, double fallback) {
+        double[] out = new double[size];
+        for (int i = 0; i < size; i++) out[i] = n.isArray() && n.size() > i ? n.get(i).asDouble() : fallback;
+        return out;
+    }
+
+    /**
+     * 메시 인덱스별 값 (bbox 가 없는 메시는 min/max 가 null)
+     */
+    record MeshStats(double[][] min, double[][] max, long[] triangles, long[] vertices) {}
+
+    /**
+     * @param nodes sanitize 한 노드 이름 → 정보 (메시가 있는 노드와, 메시를 가진 자식을 묶는 그룹 노드)
+     */
+    public record GlbInfo(long jsonBytes, long binBytes, long totalTriangles, Map<String, NodeInfo> nodes) {}
+
+    /**
+     * @param name      GLB 원래 노드 이름
+     * @param mesh      메시 이름 (그룹 노드면 null)
+     * @param min       월드 좌표 bbox 최소 (x, y, z), 정점이 없으면 null
+     * @param triangles 서브트리 전체 삼각형 수
+     */
+    public record NodeInfo(String name, String mesh, double[] min, double[] max, long triangles, long vertices) {
+
+        /**
+         * PartEntity.content["mesh"] 에 저장하는 형태 (bbox 는 소수 6자리)
+         */
+        public Map<String, Object> toContent() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("node", name);
+            m.put("mesh", mesh);
+            if (min != null) {
+                m.put("bboxMin", List.of(round(min[0]), round(min[1]), round(min[2])));
+                m.put("bboxMax", List.of(round(max[0]), round(max[1]), round(max[2])));
+            }
+            m.put("triangles", narrow(triangles));
+            m.put("vertices", narrow(vertices));
+            return m;
+        }
+
+        // jsonb 에서 다시 읽으면 int 범위 숫자는 Integer 가 되므로, 저장값과 equals 비교가 되도록 맞춘다
+        private static Number narrow(long v) {
+            return v <= Integer.MAX_VALUE ? (Number) (int) v : (Number) v;
+        }
+
+        private static double round(double v) {
+            return Math.round(v * 1e6) / 1e6;
+        }
+    }
+}
@@ -0,0 +1,801 @@
+// src/main/java/com/simvex/simvex_api/model/GlbSplitter.java
+package com.simvex.simvex_api.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * 통합 GLB → 부품별 GLB + 저폴리 프록시 GLB 분할 (점진적 로딩용)
+ *
+ * - 메시를 가진 노드마다 GLB 하나 (n<노드번호>.glb). 노드의 월드 행렬을 그대로 넣어서 원본과 같은 위치에 놓인다
+ *   필요한 accessor/bufferView/material/texture/image 만 복사하고 인덱스를 다시 매긴다
+ * - GlbIndex 가 이름으로 찾는 그룹 노드(메시 자식을 묶는 노드) 는 서브트리의 메시 노드를 모두 담은 g<노드번호>.glb 하나
+ *   (메시 노드가 하나뿐이면 그 노드의 n 파일을 그대로 쓴다)
+ * - proxy.glb: 전체 모델을 격자 정점 클러스터링으로 줄인 것 (POSITION/NORMAL + 기본 색만, 텍스처 없음)
+ *   노드 이름은 원본과 같아서 뷰어가 상세 부품이 도착하면 같은 이름의 프록시 조각을 숨길 수 있다
+ * - 결과는 dir/<원본해시>/ 에 두고 index.json 으로 다시 읽는다. 원본이 바뀌면 새 해시 폴더가 생긴다
+ * - 우선순위: 프록시 → 부품(월드 bbox 부피가 큰 순, 화면에서 먼저 보이는 것부터)
+ * - 지오메트리 압축(draco/meshopt) 이나 외부 버퍼를 쓰는 GLB 는 분할하지 않는다
+ */
+@Component
+public class GlbSplitter {
+
+    public static final String PARTS_PREFIX = "/assets/parts/";
+    public static final String PROXY_FILE = "proxy.glb";
+    // 서브트리(g*.glb) 가 추가된 형식. 예전 index.json 만 있는 폴더는 다시 나눠서 빠진 파일만 채운다
+    private static final String INDEX_FILE = "index-v2.json";
+    private static final Pattern FILE_NAME = Pattern.compile("([ng]\\d+|proxy)\\.glb");
+    private static final Set<String> UNSUPPORTED = Set.of("KHR_draco_mesh_compression", "EXT_meshopt_compression");
+
+    private static final int FLOAT = 5126;
+    private static final int UNSIGNED_INT = 5125;
+    private static final int UNSIGNED_SHORT = 5123;
+    private static final int UNSIGNED_BYTE = 5121;
+    private static final int ARRAY_BUFFER = 34962;
+    private static final int ELEMENT_ARRAY_BUFFER = 34963;
+
+    private final AssetStore assetStore;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path dir;
+    private final int proxyGrid;
+
+    // 원본 해시 → 분할 결과 (분할할 수 없는 GLB 는 NONE)
+    private final ConcurrentHashMap<String, Split> splits = new ConcurrentHashMap<>();
+    private static final Split NONE = new Split(null, null, List.of(), List.of());
+
+    public GlbSplitter(
+            AssetStore assetStore,
+            ObjectMapper objectMapper,
+            @Value("${simvex.assets.split.enabled:true}") boolean enabled,
+            @Value("${simvex.assets.split.dir:${java.io.tmpdir}/simvex-asset-parts}") String dir,
+            @Value("${simvex.assets.split.proxy-grid:64}") int proxyGrid) {
+        this.assetStore = assetStore;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.dir = Paths.get(dir);
+        this.proxyGrid = Math.max(4, proxyGrid);
+    }
+
+    /**
+     * 분할하고(없을 때만) 결과를 돌려준다. 끄거나 분할할 수 없으면 null
+     */
+    public Split split(String folder, String fileName) {
+        if (!enabled) return null;
+        AssetStore.Entry source = assetStore.entry(folder, fileName);
+        if (source == null) return null;
+        Split s = splits.computeIfAbsent(source.hash(), h -> load(folder, fileName, source));
+        return s == NONE ? null : s;
+    }
+
+    /**
+     * 모델 URL (/assets/v/... 또는 /assets/3d/...) 의 분할 결과 (bundle 광고용)
+     */
+    public Split forUrl(String url) {
+        String[] location = AssetStore.parseUrl(url);
+        return location == null ? null : split(location[0], location[1]);
+    }
+
+    /**
+     * /assets/parts/<hash>/<file> 의 실제 파일. 없거나 이름 형식이 다르면 null
+     */
+    public Path file(String hash, String fileName) {
+        if (!hash.matches("[0-9a-f]{16}") || !FILE_NAME.matcher(fileName).matches()) return null;
+        Path p = dir.resolve(hash).resolve(fileName);
+        return Files.isRegularFile(p) ? p : null;
+    }
+
+    private Split load(String folder, String fileName, AssetStore.Entry source) {
+        Path out = dir.resolve(source.hash());
+        Path index = out.resolve(INDEX_FILE);
+        try {
+            if (Files.isRegularFile(index)) return objectMapper.readValue(index.toFile(), Split.class);
+
+            long start = System.currentTimeMillis();
+            Split s = build(source, out);
+            if (s == null) {
+                System.out.println("[ASSET] 분할 생략 (지원하지 않는 GLB): " + folder + "/" + fileName);
+                return NONE;
+            }
+            System.out.println("[ASSET] split " + folder + "/" + fileName + ": " + s.parts().size() + " parts, "
+                    + s.subtrees().size() + " subtrees, proxy "
+                    + s.proxy().triangles() + " tris / " + s.proxy().size() + " bytes ("
+                    + (System.currentTimeMillis() - start) + "ms)");
+            return s;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("[ASSET] 분할 실패: " + folder + "/" + fileName + " (" + e.getMessage() + ")");
+            return NONE;
+        }
+    }
+
+    private Split build(AssetStore.Entry source, Path out) throws IOException {
+        JsonNode gltf;
+        ByteBuffer bin;
+        try (FileChannel ch = FileChannel.open(source.path(), StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.getInt(0) != GlbIndex.GLB_MAGIC || buf.getInt(4) != 2 || buf.getInt(16) != GlbIndex.CHUNK_JSON) {
+                return null;
+            }
+            int jsonLength = buf.getInt(12);
+            byte[] json = new byte[jsonLength];
+            buf.get(20, json);
+            gltf = objectMapper.readTree(json);
+
+            int binHeader = 20 + jsonLength;
+            if (binHeader + 8 > buf.limit() || buf.getInt(binHeader + 4) != GlbIndex.CHUNK_BIN) return null;
+            bin = buf.slice(binHeader + 8, buf.getInt(binHeader)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        JsonNode buffers = gltf.path("buffers");
+        if (buffers.size() != 1 || buffers.get(0).has("uri")) return null;
+        for (JsonNode ext : gltf.path("extensionsUsed")) if (UNSUPPORTED.contains(ext.asText())) return null;
+
+        JsonNode nodes = gltf.path("nodes");
+        double[][] world = new double[nodes.size()][];
+        for (int r : GlbIndex.roots(gltf)) worldMatrices(nodes, r, GlbIndex.identity(), world);
+        GlbIndex.MeshStats stats = GlbIndex.meshStats(gltf);
+
+        // GlbIndex 가 이름을 붙이는 노드 (같은 순회, 같은 이름이면 처음 것) → 서브트리의 메시 노드
+        Map<String, Integer> named = new LinkedHashMap<>();
+        Map<Integer, List<Integer>> subtreeMeshes = new HashMap<>();
+        for (int r : GlbIndex.roots(gltf)) collect(nodes, r, stats, world, new HashSet<>(), named, subtreeMeshes);
+
+        // 다른 인스턴스와 겹치지 않게 임시 폴더에 쓰고 통째로 옮긴다
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempDirectory(dir, source.hash() + ".");
+        try {
+            List<PartAsset> parts = new ArrayList<>();
+            Map<Integer, PartAsset> partOfNode = new HashMap<>();
+            Builder proxy = new Builder(gltf, bin);
+            double[] modelMin = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+            double[] modelMax = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+            List<Integer> meshNodes = new ArrayList<>();
+
+            for (int i = 0; i < nodes.size(); i++) {
+                if (!hasMesh(nodes.get(i), stats) || world[i] == null) continue;
+                meshNodes.add(i);
+                PartAsset part = write(tmp, source, "n" + i + ".glb", List.of(i), i, gltf, bin, stats, world);
+                parts.add(part);
+                partOfNode.put(i, part);
+                double[][] box = bounds(List.of(i), nodes, stats, world);
+                if (box == null) continue;
+                for (int k = 0; k < 3; k++) {
+                    modelMin[k] = Math.min(modelMin[k], box[0][k]);
+                    modelMax[k] = Math.max(modelMax[k], box[1][k]);
+                }
+            }
+            if (meshNodes.isEmpty()) return null;
+
+            // 그룹 노드(또는 메시 자식이 있는 메시 노드) 는 서브트리 전체를 g<노드번호>.glb 하나로
+            // 메시 노드가 하나뿐인 서브트리는 그 노드의 n 파일을 같이 쓴다
+            List<PartAsset> subtrees = new ArrayList<>();
+            for (Map.Entry<String, Integer> e : named.entrySet()) {
+                int i = e.getValue();
+                List<Integer> members = subtreeMeshes.get(i);
+                if (members.size() == 1 && members.get(0) == i) continue;
+                PartAsset part = members.size() == 1
+                        ? partOfNode.get(members.get(0))
+                        : write(tmp, source, "g" + i + ".glb", members, i, gltf, bin, stats, world);
+                subtrees.add(new PartAsset(e.getKey(), nodes.get(i).path("name").asText(), part.url(), part.size(),
+                        part.triangles(), part.volume()));
+            }
+
+            if (modelMin[0] == Double.POSITIVE_INFINITY) {
+                modelMin = new double[]{0, 0, 0};
+                modelMax = new double[]{0, 0, 0};
+            }
+            double diagonal = Math.sqrt(Math.pow(modelMax[0] - modelMin[0], 2)
+                    + Math.pow(modelMax[1] - modelMin[1], 2) + Math.pow(modelMax[2] - modelMin[2], 2));
+            double cell = diagonal > 0 ? diagonal / proxyGrid : 1;
+            for (int i : meshNodes) {
+                JsonNode node = nodes.get(i);
+                int mesh = proxy.simplifiedMesh(node.path("mesh").asInt(), world[i], modelMin, cell);
+                if (mesh >= 0) proxy.addNode(node.path("name").asText(null), GlbIndex.identity(), mesh);
+            }
+            byte[] proxyGlb = proxy.toGlb(objectMapper);
+            Files.write(tmp.resolve(PROXY_FILE), proxyGlb);
+
+            parts.sort(Comparator.comparingDouble(PartAsset::volume).reversed());
+            Split split = new Split(
+                    source.hash(),
+                    new PartAsset(null, null, PARTS_PREFIX + source.hash() + "/" + PROXY_FILE,
+                            proxyGlb.length, proxy.triangles(), 0),
+                    List.copyOf(parts),
+                    List.copyOf(subtrees));
+            objectMapper.writeValue(tmp.resolve(INDEX_FILE).toFile(), split);
+
+            try {
+                Files.move(tmp, out, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileSystemException e) {
+                // 다른 인스턴스가 먼저 만들었거나 예전 형식(index.json) 폴더가 있다 (리눅스는 ENOTEMPTY 를 일반 예외로 준다)
+                // 같은 이름의 파일은 내용도 같으므로 없는 파일만 옮기고, index 는 마지막에 옮긴다
+                if (!Files.isDirectory(out)) throw e;
+                mergeInto(tmp, out);
+                deleteRecursively(tmp);
+            }
+            return split;
+        } catch (IOException | RuntimeException e) {
+            deleteRecursively(tmp);
+            throw e;
+        }
+    }
+
+    /**
+     * 메시 노드들을 각자의 월드 행렬로 담은 GLB 하나를 쓴다. 삼각형 수와 bbox 는 노드(인스턴스)마다 센다
+     */
+    private PartAsset write(Path tmp, AssetStore.Entry source, String file, List<Integer> members, int owner,
+                            JsonNode gltf, ByteBuffer bin, GlbIndex.MeshStats stats, double[][] world)
+            throws IOException {
+        JsonNode nodes = gltf.path("nodes");
+        Builder b = new Builder(gltf, bin);
+        long triangles = 0;
+        for (int m : members) {
+            JsonNode node = nodes.get(m);
+            b.addNode(node.path("name").asText(null), world[m], b.mesh(node.path("mesh").asInt()));
+            triangles += stats.triangles()[node.path("mesh").asInt()];
+        }
+        byte[] glb = b.toGlb(objectMapper);
+        Files.write(tmp.resolve(file), glb);
+
+        double[][] box = bounds(members, nodes, stats, world);
+        String name = nodes.get(owner).path("name").asText(null);
+        return new PartAsset(
+                name != null ? GlbIndex.sanitize(name) : null, name,
+                PARTS_PREFIX + source.hash() + "/" + file,
+                glb.length, triangles,
+                box == null ? 0 : (box[1][0] - box[0][0]) * (box[1][1] - box[0][1]) * (box[1][2] - box[0][2]));
+    }
+
+    // 메시 노드들의 월드 bbox 합 (부품 우선순위용). 정점 범위가 없으면 null
+    private static double[][] bounds(List<Integer> members, JsonNode nodes, GlbIndex.MeshStats stats,
+                                     double[][] world) {
+        double[][] out = null;
+        for (int m : members) {
+            int mesh = nodes.get(m).path("mesh").asInt();
+            if (stats.min()[mesh] == null) continue;
+            double[][] box = GlbIndex.transformBox(world[m], stats.min()[mesh], stats.max()[mesh]);
+            if (out == null) {
+                out = box;
+                continue;
+            }
+            for (int k = 0; k < 3; k++) {
+                out[0][k] = Math.min(out[0][k], box[0][k]);
+                out[1][k] = Math.max(out[1][k], box[1][k]);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * GlbIndex.visit 와 같은 순회. 이름 있는 노드의 서브트리에 메시 노드가 있으면 named 에 (처음 것만) 넣는다
+     *
+     * @return 이 노드 서브트리의 메시 노드 (자기 자신 먼저, 그다음 자식 순서)
+     */
+    private static List<Integer> collect(JsonNode nodes, int idx, GlbIndex.MeshStats stats, double[][] world,
+                                         Set<Integer> seen, Map<String, Integer> named,
+                                         Map<Integer, List<Integer>> subtreeMeshes) {
+        if (idx < 0 || idx >= nodes.size() || !seen.add(idx)) return List.of();
+        JsonNode node = nodes.get(idx);
+        List<Integer> members = new ArrayList<>();
+        if (hasMesh(node, stats) && world[idx] != null) members.add(idx);
+        for (JsonNode c : node.path("children")) {
+            members.addAll(collect(nodes, c.asInt(), stats, world, seen, named, subtreeMeshes));
+        }
+
+        String name = node.path("name").asText(null);
+        if (name != null && !name.isBlank() && !members.isEmpty()
+                && named.putIfAbsent(GlbIndex.sanitize(name), idx) == null) {
+            subtreeMeshes.put(idx, members);
+        }
+        return members;
+    }
+
+    private static boolean hasMesh(JsonNode node, GlbIndex.MeshStats stats) {
+        return node.path("mesh").isInt() && node.path("mesh").asInt() < stats.triangles().length;
+    }
+
+    private static void mergeInto(Path from, Path to) throws IOException {
+        List<Path> files;
+        try (var list = Files.list(from)) {
+            files = new ArrayList<>(list.toList());
+        }
+        files.sort(Comparator.comparing((Path f) -> f.getFileName().toString().equals(INDEX_FILE)));
+        for (Path f : files) {
+            try {
+                Files.move(f, to.resolve(f.getFileName()));
+            } catch (FileAlreadyExistsException ignored) {
+                // 이미 있는 파일은 그대로 둔다 (URL 이 immutable 이라 내용을 바꾸면 안 된다)
+            }
+        }
+    }
+
+    private static void worldMatrices(JsonNode nodes, int idx, double[] parent, double[][] out) {
+        if (idx < 0 || idx >= out.length || out[idx] != null) return;
+        double[] w = GlbIndex.multiply(parent, GlbIndex.localMatrix(nodes.get(idx)));
+        out[idx] = w;
+        for (JsonNode c : nodes.get(idx).path("children")) worldMatrices(nodes, c.asInt(), w, out);
+    }
+
+    private static void deleteRecursively(Path p) {
+        try (var files = Files.walk(p)) {
+            files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        } catch (IOException ignored) {
+            // 임시 폴더는 남아도 다음 빌드에 영향 없음
+        }
+    }
+
+    /**
+     * 원본 GLB 에서 필요한 것만 골라 새 GLB 를 만든다 (원본 인덱스 → 새 인덱스 매핑)
+     */
+    private static final class Builder {
+        private final JsonNode src;
+        private final ByteBuffer srcBin;
+        private final ObjectNode root;
+        private final ByteArrayOutputStream bin = new ByteArrayOutputStream();
+        private final Map<String, Map<Integer, Integer>> remap = new HashMap<>();
+
+        // 프록시 삼각형 수 (simplifiedMesh 로 만든 것만)
+        private long triangles;
+
+        Builder(JsonNode src, ByteBuffer srcBin) {
+            this.src = src;
+            this.srcBin = srcBin;
+            this.root = JsonNodeFactory.instance.objectNode();
+            ObjectNode asset = root.putObject("asset");
+            asset.put("version", "2.0");
+            asset.put("generator", "simvex GlbSplitter");
+            if (src.has("extensionsUsed")) root.set("extensionsUsed", src.get("extensionsUsed").deepCopy());
+            if (src.has("extensionsRequired")) root.set("extensionsRequired", src.get("extensionsRequired").deepCopy());
+            root.put("scene", 0);
+            root.putArray("scenes").addObject().putArray("nodes");
+        }
+
+        long triangles() {
+            return triangles;
+        }
+
+        void addNode(String name, double[] matrix, int mesh) {
+            ArrayNode nodes = array("nodes");
+            ObjectNode n = nodes.addObject();
+            if (name != null) n.put("name", name);
+            if (!Arrays.equals(matrix, GlbIndex.identity())) {
+                ArrayNode m = n.putArray("matrix");
+                for (double v : matrix) m.add(v);
+            }
+            n.put("mesh", mesh);
+            ((ArrayNode) root.path("scenes").get(0).path("nodes")).add(nodes.size() - 1);
+        }
+
+        // ===== 원본 복사 =====
+
+        int mesh(int i) {
+            return copy("meshes", i, m -> {
+                for (JsonNode p : m.path("primitives")) {
+                    ObjectNode prim = (ObjectNode) p;
+                    ObjectNode attrs = (ObjectNode) prim.path("attributes");
+                    attrs.fieldNames().forEachRemaining(k -> attrs.put(k, accessor(attrs.get(k).asInt())));
+                    if (prim.has("indices")) prim.put("indices", accessor(prim.get("indices").asInt()));
+                    if (prim.has("material")) prim.put("material", material(prim.get("material").asInt()));
+                    for (JsonNode t : prim.path("targets")) {
+                        ObjectNode target = (ObjectNode) t;
+                        target.fieldNames().forEachRemaining(k -> target.put(k, accessor(target.get(k).asInt())));
+                    }
+                }
+            });
+        }
+
+        private int accessor(int i) {
+            return copy("accessors", i, a -> {
+                if (a.has("bufferView")) a.put("bufferView", bufferView(a.get("bufferView").asInt()));
+                JsonNode sparse = a.path("sparse");
+                if (sparse.isObject()) {
+                    ObjectNode idx = (ObjectNode) sparse.path("indices");
+                    ObjectNode val = (ObjectNode) sparse.path("values");
+                    idx.put("bufferView", bufferView(idx.get("bufferView").asInt()));
+                    val.put("bufferView", bufferView(val.get("bufferView").asInt()));
+                }
+            });
+        }
+
+        private int bufferView(int i) {
+            return copy("bufferViews", i, v -> {
+                int offset = v.path("byteOffset").asInt(0);
+                int length = v.path("byteLength").asInt();
+                byte[] bytes = new byte[length];
+                srcBin.get(offset, bytes);
+                v.put("buffer", 0);
+                v.put("byteOffset", append(bytes));
+            });
+        }
+
+        private int material(int i) {
+            return copy("materials", i, this::remapTextures);
+        }
+
+        // textureInfo ({"index": n, ...}) 는 코어/확장 모두 "...Texture" 키에 있다
+        private void remapTextures(JsonNode n) {
+            if (!n.isObject()) {
+                if (n.isArray()) n.forEach(this::remapTextures);
+                return;
+            }
+            ObjectNode o = (ObjectNode) n;
+            o.fields().forEachRemaining(e -> {
+                JsonNode v = e.getValue();
+                if (e.getKey().endsWith("Texture") && v.isObject() && v.path("index").isInt()) {
+                    ((ObjectNode) v).put("index", texture(v.get("index").asInt()));
+                }
+                remapTextures(v);
+            });
+        }
+
+        private int texture(int i) {
+            return copy("textures", i, t -> {
+                if (t.has("sampler")) t.put("sampler", copy("samplers", t.get("sampler").asInt(), s -> {}));
+                if (t.has("source")) t.put("source", image(t.get("source").asInt()));
+                // EXT_texture_webp, KHR_texture_basisu 등도 "source" 로 이미지를 가리킨다
+                for (JsonNode ext : t.path("extensions")) {
+                    if (ext.path("source").isInt()) ((ObjectNode) ext).put("source", image(ext.get("source").asInt()));
+                }
+            });
+        }
+
+        private int image(int i) {
+            return copy("images", i, img -> {
+                if (img.has("bufferView")) img.put("bufferView", bufferView(img.get("bufferView").asInt()));
+            });
+        }
+
+        private int copy(String kind, int i, Consumer<ObjectNode> fix) {
+            Map<Integer, Integer> m = remap.computeIfAbsent(kind, k -> new HashMap<>());
+            Integer existing = m.get(i);
+            if (existing != null) return existing;
+            ObjectNode copy = src.path(kind).get(i).deepCopy();
+            ArrayNode out = array(kind);
+            out.add(copy);
+            int idx = out.size() - 1;
+            m.put(i, idx);
+            fix.accept(copy);
+            return idx;
+        }
+
+        // ===== 프록시 (격자 정점 클러스터링) =====
+
+        /**
+         * 메시를 월드 좌표로 옮긴 뒤 cell 크기 격자로 정점을 합친다. 삼각형이 모두 사라지면 -1
+         */
+        int simplifiedMesh(int meshIndex, double[] world, double[] origin, double cell) {
+            JsonNode srcMesh = src.path("meshes").get(meshIndex);
+            ObjectNode mesh = JsonNodeFactory.instance.objectNode();
+            if (srcMesh.has("name")) mesh.put("name", srcMesh.get("name").asText());
+            ArrayNode prims = mesh.putArray("primitives");
+
+            for (JsonNode p : srcMesh.path("primitives")) {
+                if (p.path("mode").asInt(4) != 4) continue;
+                float[] positions = readPositions(p.path("attributes").path("POSITION").asInt(-1));
+                if (positions == null) continue;
+                int[] indices = p.has("indices") ? readIndices(p.get("indices").asInt()) : sequence(positions.length / 3);
+                if (indices == null) continue;
+
+                Map<Long, Integer> clusterOf = new HashMap<>();
+                List<double[]> sums = new ArrayList<>();
+                int[] cluster = new int[positions.length / 3];
+                for (int v = 0; v < cluster.length; v++) {
+                    double[] w = transform(world, positions[v * 3], positions[v * 3 + 1], positions[v * 3 + 2]);
+                    long key = ((long) Math.floor((w[0] - origin[0]) / cell) & 0x1FFFFF) << 42
+                            | ((long) Math.floor((w[1] - origin[1]) / cell) & 0x1FFFFF) << 21
+                            | ((long) Math.floor((w[2] - origin[2]) / cell) & 0x1FFFFF);
+                    Integer c = clusterOf.get(key);
+                    if (c == null) {
+                        c = sums.size();
+                        clusterOf.put(key, c);
+                        sums.add(new double[4]);
+                    }
+                    double[] s = sums.get(c);
+                    s[0] += w[0];
+                    s[1] += w[1];
+                    s[2] += w[2];
+                    s[3]++;
+                    cluster[v] = c;
+                }
+
+                // 퇴화/중복 삼각형 제거
+                List<int[]> tris = new ArrayList<>();
+                Set<List<Integer>> seen = new HashSet<>();
+                for (int t = 0; t + 2 < indices.length; t += 3) {
+                    int a = cluster[indices[t]], b = cluster[indices[t + 1]], c = cluster[indices[t + 2]];
+                    if (a == b || b == c || a == c) continue;
+                    Integer[] sorted = {a, b, c};
+                    Arrays.sort(sorted);
+                    if (seen.add(List.of(sorted))) tris.add(new int[]{a, b, c});
+                }
+                if (tris.isEmpty()) continue;
+
+                // 사용되는 클러스터만 새 정점으로
+                int[] newIndex = new int[sums.size()];
+                Arrays.fill(newIndex, -1);
+                List<double[]> verts = new ArrayList<>();
+                for (int[] t : tris) {
+                    for (int k = 0; k < 3; k++) {
+                        if (newIndex[t[k]] < 0) {
+                            double[] s = sums.get(t[k]);
+                            newIndex[t[k]] = verts.size();
+                            verts.add(new double[]{s[0] / s[3], s[1] / s[3], s[2] / s[3]});
+                        }
+                        t[k] = newIndex[t[k]];
+                    }
+                }
+
+                float[] pos = new float[verts.size() * 3];
+                float[] nor = new float[verts.size() * 3];
+                double[] normalSum = new double[verts.size() * 3];
+                for (int v = 0; v < verts.size(); v++) {
+                    for (int k = 0; k < 3; k++) pos[v * 3 + k] = (float) verts.get(v)[k];
+                }
+                int[] idx = new int[tris.size() * 3];
+                for (int t = 0; t < tris.size(); t++) {
+                    int[] tri = tris.get(t);
+                    double[] a = verts.get(tri[0]), b = verts.get(tri[1]), c = verts.get(tri[2]);
+                    double ux = b[0] - a[0], uy = b[1] - a[1], uz = b[2] - a[2];
+                    double vx = c[0] - a[0], vy = c[1] - a[1], vz = c[2] - a[2];
+                    double nx = uy * vz - uz * vy, ny = uz * vx - ux * vz, nz = ux * vy - uy * vx; // 면적 가중
+                    for (int k = 0; k < 3; k++) {
+                        idx[t * 3 + k] = tri[k];
+                        normalSum[tri[k] * 3] += nx;
+                        normalSum[tri[k] * 3 + 1] += ny;
+                        normalSum[tri[k] * 3 + 2] += nz;
+                    }
+                }
+                for (int v = 0; v < verts.size(); v++) {
+                    double x = normalSum[v * 3], y = normalSum[v * 3 + 1], z = normalSum[v * 3 + 2];
+                    double len = Math.sqrt(x * x + y * y + z * z);
+                    if (len == 0) len = 1;
+                    nor[v * 3] = (float) (x / len);
+                    nor[v * 3 + 1] = (float) (y / len);
+                    nor[v * 3 + 2] = (float) (z / len);
+                }
+
+                ObjectNode prim = prims.addObject();
+                ObjectNode attrs = prim.putObject("attributes");
+                attrs.put("POSITION", floatAccessor(pos, true));
+                attrs.put("NORMAL", floatAccessor(nor, false));
+                prim.put("indices", indexAccessor(idx, verts.size()));
+                if (p.has("material")) prim.put("material", plainMaterial(p.get("material").asInt()));
+                triangles += tris.size();
+            }
+
+            if (prims.isEmpty()) return -1;
+            ArrayNode meshes = array("meshes");
+            meshes.add(mesh);
+            return meshes.size() - 1;
+        }
+
+        // 텍스처/확장 없이 기본 PBR 값만 (프록시 용량을 작게)
+        private int plainMaterial(int i) {
+            Map<Integer, Integer> m = remap.computeIfAbsent("plainMaterials", k -> new HashMap<>());
+            Integer existing = m.get(i);
+            if (existing != null) return existing;
+            JsonNode srcMat = src.path("materials").get(i);
+            ObjectNode mat = JsonNodeFactory.instance.objectNode();
+            if (srcMat.has("name")) mat.put("name", srcMat.get("name").asText());
+            ObjectNode pbr = mat.putObject("pbrMetallicRoughness");
+            JsonNode srcPbr = srcMat.path("pbrMetallicRoughness");
+            for (String k : List.of("baseColorFactor", "metallicFactor", "roughnessFactor")) {
+                if (srcPbr.has(k)) pbr.set(k, srcPbr.get(k).deepCopy());
+            }
+            for (String k : List.of("alphaMode", "doubleSided")) {
+                if (srcMat.has(k)) mat.set(k, srcMat.get(k).deepCopy());
+            }
+            ArrayNode materials = array("materials");
+            materials.add(mat);
+            m.put(i, materials.size() - 1);
+            return materials.size() - 1;
+        }
+
+        private float[] readPositions(int accessorIndex) {
+            JsonNode a = src.path("accessors").path(accessorIndex);
+            if (a.path("componentType").asInt() != FLOAT || !"VEC3".equals(a.path("type").asText())
+                    || !a.has("bufferView") || a.has("sparse")) {
+                return null;
+            }
+            JsonNode view = src.path("bufferViews").get(a.get("bufferView").asInt());
+            int count = a.path("count").asInt();
+            int base = view.path("byteOffset").asInt(0) + a.path("byteOffset").asInt(0);
+            int stride = view.path("byteStride").asInt(12);
+            float[] out = new float[count * 3];
+            for (int v = 0; v < count; v++) {
+                for (int k = 0; k < 3; k++) out[v * 3 + k] = srcBin.getFloat(base + v * stride + k * 4);
+            }
+            return out;
+        }
+
+        private int[] readIndices(int accessorIndex) {
+            JsonNode a = src.path("accessors").path(accessorIndex);
+            if (!a.has("bufferView") || a.has("sparse")) return null;
+            JsonNode view = src.path("bufferViews").get(a.get("bufferView").asInt());
+            int count = a.path("count").asInt();
+            int base = view.path("byteOffset").asInt(0) + a.path("byteOffset").asInt(0);
+            int type = a.path("componentType").asInt();
+            int[] out = new int[count];
+            for (int k = 0; k < count; k++) {
+                out[k] = switch (type) {
+                    case UNSIGNED_BYTE -> srcBin.get(base + k) & 0xFF;
+                    case UNSIGNED_SHORT -> srcBin.getShort(base + k * 2) & 0xFFFF;
+                    case UNSIGNED_INT -> srcBin.getInt(base + k * 4);
+                    default -> throw new IllegalArgumentException("index componentType " + type);
+                };
+            }
+            return out;
+        }
+
+        private static int[] sequence(int n) {
+            int[] out = new int[n];
+            for (int i = 0; i < n; i++) out[i] = i;
+            return out;
+        }
+
+        private int floatAccessor(float[] data, boolean withBounds) {
+            ByteBuffer b = ByteBuffer.allocate(data.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+            for (float f : data) b.putFloat(f);
+            int view = newView(b.array(), ARRAY_BUFFER);
+            ObjectNode a = array("accessors").addObject();
+            a.put("bufferView", view);
+            a.put("componentType", FLOAT);
+            a.put("count", data.length / 3);
+            a.put("type", "VEC3");
+            if (withBounds) {
+                float[] min = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE};
+                float[] max = {-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+                for (int i = 0; i < data.length; i++) {
+                    min[i % 3] = Math.min(min[i % 3], data[i]);
+                    max[i % 3] = Math.max(max[i % 3], data[i]);
+                }
+                ArrayNode mn = a.putArray("min");
+                ArrayNode mx = a.putArray("max");
+                for (int k = 0; k < 3; k++) {
+                    mn.add(min[k]);
+                    mx.add(max[k]);
+                }
+            }
+            return array("accessors").size() - 1;
+        }
+
+        private int indexAccessor(int[] data, int vertexCount) {
+            boolean shortIndex = vertexCount <= 0xFFFF;
+            ByteBuffer b = ByteBuffer.allocate(data.length * (shortIndex ? 2 : 4)).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i : data) {
+                if (shortIndex) b.putShort((short) i);
+                else b.putInt(i);
+            }
+            int view = newView(b.array(), ELEMENT_ARRAY_BUFFER);
+            ObjectNode a = array("accessors").addObject();
+            a.put("bufferView", view);
+            a.put("componentType", shortIndex ? UNSIGNED_SHORT : UNSIGNED_INT);
+            a.put("count", data.length);
+            a.put("type", "SCALAR");
+            return array("accessors").size() - 1;
+        }
+
+        private int newView(byte[] bytes, int target) {
+            ObjectNode v = array("bufferViews").addObject();
+            v.put("buffer", 0);
+            v.put("byteOffset", append(bytes));
+            v.put("byteLength", bytes.length);
+            v.put("target", target);
+            return array("bufferViews").size() - 1;
+        }
+
+        // ===== 출력 =====
+
+        // accessor 정렬 요구(성분 크기 배수)를 위해 모든 bufferView 를 4바이트 경계에서 시작
+        private int append(byte[] bytes) {
+            while (bin.size() % 4 != 0) bin.write(0);
+            int offset = bin.size();
+            bin.write(bytes, 0, bytes.length);
+            return offset;
+        }
+
+        private ArrayNode array(String kind) {
+            JsonNode a = root.get(kind);
+            return a != null ? (ArrayNode) a : root.putArray(kind);
+        }
+
+        byte[] toGlb(ObjectMapper objectMapper) throws IOException {
+            while (bin.size() % 4 != 0) bin.write(0);
+            if (bin.size() > 0) root.putArray("buffers").addObject().put("byteLength", bin.size());
+            // 복사하지 않은 확장은 선언에서 뺀다 (three.js 는 모르는 필수 확장이 있으면 로드 실패)
+            pruneExtensions();
+
+            byte[] json = objectMapper.writeValueAsBytes(root);
+            int jsonPadded = (json.length + 3) & ~3;
+            int total = 12 + 8 + jsonPadded + (bin.size() > 0 ? 8 + bin.size() : 0);
+
+            ByteBuffer out = ByteBuffer.allocate(total).order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(GlbIndex.GLB_MAGIC).putInt(2).putInt(total);
+            out.putInt(jsonPadded).putInt(GlbIndex.CHUNK_JSON).put(json);
+            for (int i = json.length; i < jsonPadded; i++) out.put((byte) ' ');
+            if (bin.size() > 0) {
+                out.putInt(bin.size()).putInt(GlbIndex.CHUNK_BIN).put(bin.toByteArray());
+            }
+            return out.array();
+        }
+
+        private void pruneExtensions() {
+            Set<String> used = new HashSet<>();
+            collectExtensions(root, used);
+            for (String key : List.of("extensionsUsed", "extensionsRequired")) {
+                JsonNode list = root.get(key);
+                if (list == null) continue;
+                ArrayNode kept = JsonNodeFactory.instance.arrayNode();
+                for (JsonNode e : list) if (used.contains(e.asText())) kept.add(e.asText());
+                root.remove(key);
+                if (!kept.isEmpty()) root.set(key, kept);
+            }
+        }
+
+        private static void collectExtensions(JsonNode n, Set<String> out) {
+            if (n.isObject()) {
+                n.fields().forEachRemaining(e -> {
+                    if (e.getKey().equals("extensions") && e.getValue().isObject()) {
+                        e.getValue().fieldNames().forEachRemaining(out::add);
+                    }
+                    collectExtensions(e.getValue(), out);
+                });
+            } else if (n.isArray()) {
+                n.forEach(c -> collectExtensions(c, out));
+            }
+        }
+    }
+
+    private static double[] transform(double[] m, double x, double y, double z) {
+        return new double[]{
+                m[0] * x + m[4] * y + m[8] * z + m[12],
+                m[1] * x + m[5] * y + m[9] * z + m[13],
+                m[2] * x + m[6] * y + m[10] * z + m[14]
+        };
+    }
+
+    /**
+     * @param hash     원본 GLB 내용 해시
+     * @param proxy    저폴리 전체 모델
+     * @param parts    메시 노드별 GLB (우선순위 순: 월드 bbox 부피 큰 순). 모두 받으면 모델 전체가 된다
+     * @param subtrees 그룹 노드처럼 메시 노드 여러 개를 묶는 이름의 GLB (서브트리 전체). parts 와 겹치므로 스트리밍하지 않는다
+     */
+    public record Split(String hash, PartAsset proxy, List<PartAsset> parts, List<PartAsset> subtrees) {
+
+        /**
+         * meshName (Data_*.json title, sanitize 규칙 적용) 으로 부품 찾기. GlbIndex 가 같은 이름에 고르는 노드의 서브트리
+         */
+        public PartAsset part(String meshName) {
+            String key = GlbIndex.sanitize(meshName);
+            for (PartAsset p : subtrees) if (key.equals(p.meshName())) return p;
+            for (PartAsset p : parts) if (key.equals(p.meshName())) return p;
+            return null;
+        }
+    }
+
+    /**
+     * @param meshName  sanitize 한 노드 이름 (PartEntity.meshName 과 같은 형식), 프록시는 null
+     * @param node      GLB 원래 노드 이름
+     * @param size      GLB 바이트 수
+     * @param volume    월드 bbox 부피 (우선순위 정렬용)
+     */
+    public record PartAsset(String meshName, String node, String url, long size, long triangles, double volume) {}
+}
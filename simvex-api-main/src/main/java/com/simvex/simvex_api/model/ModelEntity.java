@@ -10,6 +10,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(CatalogEntityListener.class)
 @Table(
         name = "models",
         uniqueConstraints = {
@@ -1,7 +1,10 @@
 // src/main/java/com/simvex/simvex_api/model/ModelRepository.java
 package com.simvex.simvex_api.model;
 
+import com.simvex.simvex_api.dto.ModelDto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -32,4 +35,18 @@ public interface ModelRepository extends JpaRepository<ModelEntity, Long> {
             String domainKey,
             String categoryKey
     );
+
+    /**
+     * 모델 목록용 (description TEXT 는 읽지 않음)
+     */
+    @Query("SELECT new com.simvex.simvex_api.dto.ModelDto(m.id, m.title, m.modelUrl, m.domainKey, m.categoryKey, m.slug) " +
+            "FROM ModelEntity m ORDER BY m.id")
+    List<ModelDto> findAllSummaries();
+
+    /**
+     * 모델 상세 (엔티티/연관관계 없이 DTO 로 바로)
+     */
+    @Query("SELECT new com.simvex.simvex_api.dto.ModelDto(m.id, m.title, m.modelUrl, m.description, m.domainKey, m.categoryKey, m.slug) " +
+            "FROM ModelEntity m WHERE m.id = :id")
+    Optional<ModelDto> findDtoById(@Param("id") Long id);
 }
\ No newline at end of file
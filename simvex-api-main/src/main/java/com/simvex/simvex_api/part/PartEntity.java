@@ -1,6 +1,7 @@
 // src/main/java/com/simvex/simvex_api/part/PartEntity.java
 package com.simvex.simvex_api.part;
 
+import com.simvex.simvex_api.model.CatalogEntityListener;
 import com.simvex.simvex_api.model.ModelEntity;
 import jakarta.persistence.*;
 
@@ -8,6 +9,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Entity
+@EntityListeners(CatalogEntityListener.class)
 @Table(
         name = "model_parts",
         uniqueConstraints = @UniqueConstraint(name = "uk_model_mesh", columnNames = {"model_id", "mesh_name"})
@@ -1,7 +1,10 @@
 // src/main/java/com/simvex/simvex_api/part/PartRepository.java
 package com.simvex.simvex_api.part;
 
+import com.simvex.simvex_api.dto.PartDto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,4 +16,12 @@ public interface PartRepository extends JpaRepository<PartEntity, Long> {
 
     // 추가: AI ask 용 단건 조회
     Optional<PartEntity> findByModel_IdAndMeshName(Long modelId, String meshName);
+
+    /**
+     * 모델 존재 확인 + 부품 목록을 쿼리 한 번으로.
+     * 결과가 비어 있으면 모델 없음, 부품 없는 모델이면 id 가 null 인 행 하나.
+     */
+    @Query("SELECT new com.simvex.simvex_api.dto.PartDto(p.id, p.meshName, p.content) " +
+            "FROM ModelEntity m LEFT JOIN m.parts p WHERE m.id = :modelId ORDER BY p.id")
+    List<PartDto> findDtosWithModelCheck(@Param("modelId") Long modelId);
 }
@@ -0,0 +1,40 @@
+// src/test/java/com/simvex/simvex_api/ai/AiAnswerCacheTest.java
+package com.simvex.simvex_api.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 답변 캐시는 만들 때의 AiContextIndex 버전에 묶인다 (이벤트 없는 카탈로그 쓰기도 반영)
+ */
+class AiAnswerCacheTest {
+
+    private final AiContextIndex index = mock(AiContextIndex.class);
+    private final AiAnswerCache cache = new AiAnswerCache(new SimpleMeterRegistry(), index, 100, 1 << 20, 600);
+
+    @Test
+    void contextIndexVersionChangeDropsAnswersBuiltFromOldDescriptions() {
+        String key = AiAnswerCache.key(1L, "Piston", "피스톤은 무슨 역할을 해?", "v1");
+        when(index.version()).thenReturn(7L);
+        cache.put(key, "옛 설명으로 만든 답");
+        assertThat(cache.get(key)).isEqualTo("옛 설명으로 만든 답");
+
+        when(index.version()).thenReturn(8L);
+
+        assertThat(cache.get(key)).isNull();
+        assertThat(cache.size()).isZero();
+        cache.put(key, "새 답");
+        assertThat(cache.get(key)).isEqualTo("새 답");
+    }
+
+    @Test
+    void keyNormalizesCaseSpacesAndTrailingPunctuation() {
+        assertThat(AiAnswerCache.key(1L, "Piston", "  What  does it DO?? ", "v1"))
+                .isEqualTo(AiAnswerCache.key(1L, "Piston", "what does it do", "v1"))
+                .isNotEqualTo(AiAnswerCache.key(1L, "Piston", "what does it do", "v2"));
+    }
+}
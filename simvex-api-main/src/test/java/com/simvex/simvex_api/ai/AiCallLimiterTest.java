@@ -0,0 +1,27 @@
+// src/test/java/com/simvex/simvex_api/ai/AiCallLimiterTest.java
+package com.simvex.simvex_api.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AiCallLimiterTest {
+
+    private final AiCallLimiter limiter = new AiCallLimiter(new SimpleMeterRegistry(), 1, 4);
+
+    @Test
+    void tryLimitFailsFastInsteadOfWaiting() {
+        Sinks.One<String> hold = Sinks.one();
+        limiter.limit(hold.asMono()).subscribe();
+
+        assertThatThrownBy(() -> limiter.tryLimit(Mono.just("hedge")).block())
+                .isInstanceOf(AiCallLimiter.AiBusyException.class);
+
+        hold.tryEmitValue("done");
+        assertThat(limiter.tryLimit(Mono.just("hedge")).block()).isEqualTo("hedge");
+    }
+}
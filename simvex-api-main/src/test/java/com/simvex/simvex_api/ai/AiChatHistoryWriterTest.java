@@ -0,0 +1,223 @@
+// src/test/java/com/simvex/simvex_api/ai/AiChatHistoryWriterTest.java
+package com.simvex.simvex_api.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 가짜 JdbcTemplate 으로 재시도 / 종료 경합 / write-behind 전후 submit 지연 확인
+ */
+class AiChatHistoryWriterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FakeJdbc jdbc = new FakeJdbc();
+
+    @Test
+    void retriesTransientErrorsInsteadOfDropping() {
+        jdbc.failures.add(new CannotGetJdbcConnectionException("connection refused"));
+        jdbc.failures.add(new CannotGetJdbcConnectionException("connection refused"));
+        AiChatHistoryWriter writer = writer(false, 10000, 3);
+
+        writer.submit(chat("q1"));
+
+        assertThat(jdbc.questions()).containsExactly("q1");
+        assertThat(count("simvex.ai.history.retried")).isEqualTo(2);
+        assertThat(count("simvex.ai.history.failed")).isZero();
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        for (int i = 0; i < 3; i++) jdbc.failures.add(new CannotGetJdbcConnectionException("down"));
+        AiChatHistoryWriter writer = writer(false, 10000, 3);
+
+        writer.submit(chat("q1"));
+
+        assertThat(jdbc.questions()).isEmpty();
+        assertThat(count("simvex.ai.history.failed")).isEqualTo(1);
+    }
+
+    @Test
+    void nonTransientErrorDropsOnlyTheBadRow() {
+        jdbc.rejectQuestion = "bad";
+        AiChatHistoryWriter writer = writer(true, 10000, 3);
+
+        writer.submit(chat("q1"));
+        writer.submit(chat("bad"));
+        writer.submit(chat("q2"));
+        writer.shutdown();
+
+        assertThat(jdbc.questions()).containsExactlyInAnyOrder("q1", "q2");
+        assertThat(count("simvex.ai.history.failed")).isEqualTo(1);
+        assertThat(count("simvex.ai.history.retried")).isZero();
+    }
+
+    @Test
+    void noRecordIsLostWhenShutdownRacesSubmit() throws Exception {
+        AiChatHistoryWriter writer = writer(true, 10000, 3);
+        int threads = 8;
+        int perThread = 2000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) writer.submit(chat(id + "-" + i));
+                return null;
+            }));
+        }
+
+        start.countDown();
+        Thread.sleep(5);
+        writer.shutdown();
+        for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertThat(jdbc.questions()).hasSize(threads * perThread).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void writeBehindKeepsDbLatencyOffTheSubmitPath() {
+        // DB 왕복 5ms 를 흉내 내고, 요청 스레드가 submit 에서 보내는 시간의 p99 를 비교
+        // write-behind 쪽은 표본을 늘려 GC / 스케줄링 한 번에 p99 가 흔들리지 않게 한다
+        jdbc.delayMs = 5;
+        long syncP99 = submitP99(writer(false, 10000, 3), 200);
+        AiChatHistoryWriter behind = writer(true, 10000, 3);
+        long behindP99 = submitP99(behind, 2000);
+        behind.shutdown();
+
+        System.out.printf("[AI] history submit p99: sync=%.2fms write-behind=%.3fms%n",
+                syncP99 / 1e6, behindP99 / 1e6);
+        assertThat(syncP99).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(behindP99).isLessThan(syncP99 / 5);
+        assertThat(jdbc.questions()).hasSize(250 + 2500);
+    }
+
+    @Test
+    void pendingShowsQueuedAndInFlightRowsNewestFirst() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        jdbc.gate = () -> {
+            writing.countDown();
+            release.await();
+        };
+        AiChatHistoryWriter writer = writer(true, 10000, 3);
+        LocalDateTime now = LocalDateTime.now();
+
+        writer.submit(chat("q1", now.minusSeconds(3)));
+        writing.await(5, TimeUnit.SECONDS);
+        writer.submit(chat("q2", now.minusSeconds(2)));
+        writer.submit(chat("q3", now.minusSeconds(1)));
+        writer.submit(new AiChatHistoryWriter.PendingChat(1L, "Piston", "other user", "a", "student-2", null,
+                null, null, now));
+
+        // q1 은 워커가 쓰는 중 (큐에 없음), q2/q3 은 큐에 있다
+        assertThat(writer.pending(1L, "student-1", 10)).extracting(AiChatHistoryWriter.PendingChat::question)
+                .containsExactly("q3", "q2", "q1");
+        assertThat(writer.pending(1L, "student-1", 2)).extracting(AiChatHistoryWriter.PendingChat::question)
+                .containsExactly("q3", "q2");
+
+        release.countDown();
+        writer.shutdown();
+        assertThat(writer.pending(1L, "student-1", 10)).isEmpty();
+    }
+
+    private long submitP99(AiChatHistoryWriter writer, int n) {
+        // JIT / 워커 스레드 기동 영향을 빼기 위해 앞부분은 재지 않는다
+        for (int i = 0; i < n / 4; i++) writer.submit(chat("w" + i));
+        long[] nanos = new long[n];
+        for (int i = 0; i < n; i++) {
+            long start = System.nanoTime();
+            writer.submit(chat("p" + i));
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[(int) Math.ceil(n * 0.99) - 1];
+    }
+
+    private AiChatHistoryWriter writer(boolean writeBehind, int capacity, int maxAttempts) {
+        return new AiChatHistoryWriter(jdbc, registry, writeBehind, capacity, 100, 20, 100, maxAttempts, 1);
+    }
+
+    private double count(String name) {
+        return registry.get(name).counter().count();
+    }
+
+    private static AiChatHistoryWriter.PendingChat chat(String question) {
+        return chat(question, LocalDateTime.now());
+    }
+
+    private static AiChatHistoryWriter.PendingChat chat(String question, LocalDateTime createdAt) {
+        return new AiChatHistoryWriter.PendingChat(1L, "Piston", question, "answer", "student-1", "resp_1",
+                null, null, createdAt);
+    }
+
+    private static class FakeJdbc extends JdbcTemplate {
+        final List<AiChatHistoryWriter.PendingChat> rows = Collections.synchronizedList(new ArrayList<>());
+        final Queue<RuntimeException> failures = new ConcurrentLinkedQueue<>();
+        volatile long delayMs;
+        volatile String rejectQuestion;
+        volatile Gate gate;
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> pss) {
+            Gate g = gate;
+            if (g != null) {
+                gate = null;
+                try {
+                    g.pass();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (delayMs > 0) {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            RuntimeException failure = failures.poll();
+            if (failure != null) throw failure;
+            for (T t : batchArgs) {
+                if (((AiChatHistoryWriter.PendingChat) t).question().equals(rejectQuestion)) {
+                    throw new DataIntegrityViolationException("bad row");
+                }
+            }
+            for (T t : batchArgs) rows.add((AiChatHistoryWriter.PendingChat) t);
+            return new int[0][];
+        }
+
+        interface Gate {
+            void pass() throws InterruptedException;
+        }
+
+        List<String> questions() {
+            synchronized (rows) {
+                return rows.stream().map(AiChatHistoryWriter.PendingChat::question).toList();
+            }
+        }
+    }
+}
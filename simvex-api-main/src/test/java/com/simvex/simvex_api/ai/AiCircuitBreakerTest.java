@@ -0,0 +1,173 @@
+// src/test/java/com/simvex/simvex_api/ai/AiCircuitBreakerTest.java
+package com.simvex.simvex_api.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 상태 전이 (CLOSED → OPEN → HALF_OPEN → CLOSED), 최근 window 기준 실패율, 실패로 세지 않는 결과,
+ * 동시 호출 제한(AiCallLimiter)보다 먼저 확인하는지
+ */
+class AiCircuitBreakerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void opensAfterFailureRateThenRecoversThroughHalfOpen() throws InterruptedException {
+        AiCircuitBreaker breaker = breaker(10, 4, 100, 2);
+
+        fail(breaker);
+        fail(breaker);
+        fail(breaker);
+        // minimum-calls 전에는 실패율을 보지 않는다
+        assertThat(breaker.state()).isEqualTo(AiCircuitBreaker.State.CLOSED);
+        fail(breaker);
+        assertThat(breaker.state()).isEqualTo(AiCircuitBreaker.State.OPEN);
+
+        Thread.sleep(150);
+        assertThat(breaker.state()).isEqualTo(AiCircuitBreaker.State.HALF_OPEN);
+
+        succeed(breaker);
+        assertThat(breaker.state()).isEqualTo(AiCircuitBreaker.State.HALF_OPEN);
+        succeed(breaker);
+        assertThat(breaker.state()).isEqualTo(AiCircuitBreaker.State.CLOSED);
+
+        assertThat(transitions("CLOSED", "OPEN")).isEqualTo(1);
+        assertThat(transitions("OPEN", "HALF_OPEN")).isEqualTo(1);
+        assertThat(transitions("HALF_OPEN", "CLOSED")).isEqualTo(1);
+    }
+
+    @Test
+    void openCircuitRejectsWithoutCallingUpstream() {
+        AiCircuitBreaker breaker = breaker(10, 2, 60000, 2);
+        fail(breaker);
+        fail(breaker);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> breaker.protect(Mono.fromSupplier(calls::incrementAndGet)).block())
+                .isInstanceOf(AiCircuitBreaker.CircuitOpenException.class);
+        assertThatThrownBy(() -> breaker.protect(Flux.defer(() -> Flux.just(calls.incrementAndGet()))).blockLast())
+                .isInstanceOf(AiCircuitBreaker.CircuitOpenException.class);
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    void halfOpenFailureReopensAndLimitsTrialCalls() throws InterruptedException {
+        AiCircuitBreaker breaker = breaker(10, 2, 100, 1);
+        fail(breaker);
+        fail(breaker);
+        Thread.sleep(150);
+
+        // 시험 호출 1건이 진행 중이면 나머지는 바로 거절
+        Disposable trial = breaker.protect(Mono.never()).subscribe();
+        assertThatThrownBy(() -> breaker.protect(Mono.just("x")).block())
+                .isInstanceOf(AiCircuitBreaker.CircuitOpenException.class);
+        trial.dispose();
+
+        fail(breaker);
+        assertThat(breaker.state()).isEqualTo(AiCircuitBreaker.State.OPEN);
+        assertThat(transitions("HALF_OPEN", "OPEN")).isEqualTo(1);
+    }
+
+    @Test
+    void failureRateIsOverTheSlidingWindowOnly() {
+        AiCircuitBreaker breaker = breaker(4, 4, 60000, 1);
+
+        // 누적으로는 3/7 (43%) 이지만 최근 4건은 [S, S, F, F] = 50%
+        fail(breaker);
+        succeed(breaker);
+        succeed(breaker);
+        succeed(breaker);
+        succeed(breaker);
+        fail(breaker);
+        assertThat(breaker.state()).isEqualTo(AiCircuitBreaker.State.CLOSED);
+        fail(breaker);
+
+        assertThat(breaker.state()).isEqualTo(AiCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void clientErrorsAndLimiterRejectionsDoNotCount() {
+        AiCircuitBreaker breaker = breaker(10, 2, 60000, 1);
+        WebClientResponseException badRequest = WebClientResponseException.create(
+                HttpStatus.BAD_REQUEST.value(), "Bad Request", null, null, null);
+        Mono<String> busy = Mono.error(new AiCallLimiter.AiBusyException());
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> breaker.protect(Mono.<String>error(badRequest)).block())
+                    .isSameAs(badRequest);
+            assertThatThrownBy(() -> breaker.protect(Mono.just("x"), call -> busy).block())
+                    .isInstanceOf(AiCallLimiter.AiBusyException.class);
+        }
+
+        assertThat(breaker.state()).isEqualTo(AiCircuitBreaker.State.CLOSED);
+        // 400 은 성공으로 기록, limiter 거절은 호출이 없었으므로 아예 기록하지 않는다
+        assertThat(breaker.health().getDetails()).containsEntry("calls", 5).containsEntry("failures", 0);
+        // 429 는 upstream 과부하이므로 센다
+        fail(breaker, WebClientResponseException.create(429, "Too Many Requests", null, null, null));
+        assertThat(breaker.health().getDetails()).containsEntry("failures", 1);
+    }
+
+    @Test
+    void openCircuitIsCheckedBeforeQueueingForAPermit() {
+        AiCircuitBreaker breaker = breaker(10, 2, 60000, 1);
+        // permit 1개, 대기열 0 → 하나가 잡고 있으면 다음 호출은 limiter 에서 AiBusyException
+        AiCallLimiter limiter = new AiCallLimiter(registry, 1, 0);
+        Disposable holder = limiter.limit(Mono.never()).subscribe();
+        fail(breaker);
+        fail(breaker);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> breaker.protect(Mono.fromSupplier(calls::incrementAndGet), limiter::limit).block())
+                .isInstanceOf(AiCircuitBreaker.CircuitOpenException.class);
+        assertThat(calls).hasValue(0);
+        assertThat(registry.get("simvex.ai.llm.rejected").counter().count()).isZero();
+        holder.dispose();
+    }
+
+    @Test
+    void slowCallIsTimedFromPermitNotFromQueueEntry() {
+        // 느린 호출 기준 100ms, 느린 호출 비율 50% 넘으면 OPEN
+        AiCircuitBreaker breaker = new AiCircuitBreaker(registry, 10, 1, 50, 100, 50, 60000, 1);
+        AiCallLimiter limiter = new AiCallLimiter(registry, 1, 4);
+        Disposable holder = limiter.limit(Mono.delay(Duration.ofMillis(300))).subscribe();
+
+        // 대기열에서 300ms 가까이 기다리지만 호출 자체는 바로 끝난다
+        String v = breaker.protect(Mono.just("ok"), limiter::limit).block(Duration.ofSeconds(5));
+
+        assertThat(v).isEqualTo("ok");
+        assertThat(breaker.state()).isEqualTo(AiCircuitBreaker.State.CLOSED);
+        holder.dispose();
+    }
+
+    private AiCircuitBreaker breaker(int windowSize, int minimumCalls, long openDurationMs, int halfOpenCalls) {
+        return new AiCircuitBreaker(registry, windowSize, minimumCalls, 50, 20000, 80, openDurationMs, halfOpenCalls);
+    }
+
+    private static void succeed(AiCircuitBreaker breaker) {
+        breaker.protect(Mono.just("ok")).block();
+    }
+
+    private static void fail(AiCircuitBreaker breaker) {
+        fail(breaker, new IllegalStateException("upstream down"));
+    }
+
+    private static void fail(AiCircuitBreaker breaker, RuntimeException e) {
+        assertThatThrownBy(() -> breaker.protect(Mono.error(e)).block()).isSameAs(e);
+    }
+
+    private double transitions(String from, String to) {
+        return registry.get("simvex.ai.circuit.transitions").tag("from", from).tag("to", to).counter().count();
+    }
+}
@@ -0,0 +1,187 @@
+// src/test/java/com/simvex/simvex_api/ai/AiClientRouterTest.java
+package com.simvex.simvex_api.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 가짜 제공자 두 개로 헤지 admission / 첫 제공자 실패 시 즉시 failover / 대화 체인 고정 확인
+ */
+class AiClientRouterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FakeClient openai = new FakeClient(OpenAIClient.NAME, 300, true);
+    private final FakeClient local = new FakeClient("local", 10, false);
+    private final AiClientRouter router = new AiClientRouter(List.of(openai, local), new MockEnvironment(), registry,
+            true, 50, 50, 20, 200, 0.2, 3000, 4.0, 0.5, 0.0);
+
+    @Test
+    void hedgeRunsOnlyWhenAdmittedSeparately() {
+        CountingAdmission admission = new CountingAdmission(true);
+
+        AiClientRouter.Routed<OpenAIClient.AiResponseWrapper> routed = router.askAsync("p", null, admission).block();
+
+        assertThat(routed.provider()).isEqualTo("local");
+        assertThat(admission.admitted.get()).isEqualTo(1);
+        assertThat(hedges("started")).isEqualTo(1);
+        assertThat(hedges("won")).isEqualTo(1);
+    }
+
+    @Test
+    void hedgeIsSkippedWhenPermitOrBudgetIsNotAvailable() {
+        CountingAdmission admission = new CountingAdmission(false);
+
+        AiClientRouter.Routed<OpenAIClient.AiResponseWrapper> routed = router.askAsync("p", null, admission).block();
+
+        assertThat(routed.provider()).isEqualTo(OpenAIClient.NAME);
+        assertThat(local.calls.get()).isZero();
+        assertThat(hedges("skipped")).isEqualTo(1);
+        assertThat(hedges("started")).isZero();
+    }
+
+    @Test
+    void streamHedgeIsSkippedWhenNotAdmitted() {
+        List<AiClientRouter.Routed<OpenAIClient.StreamDelta>> deltas = router
+                .askStream("p", null, new CountingAdmission(false)).collectList().block();
+
+        assertThat(deltas).extracting(AiClientRouter.Routed::provider).containsOnly(OpenAIClient.NAME);
+        assertThat(local.calls.get()).isZero();
+        assertThat(hedges("skipped")).isEqualTo(1);
+    }
+
+    @Test
+    void chainedTurnIsPinnedToOpenAiWithoutHedge() {
+        CountingAdmission admission = new CountingAdmission(true);
+
+        AiClientRouter.Routed<OpenAIClient.AiResponseWrapper> routed = router
+                .askAsync("p", "resp_prev", admission).block();
+
+        assertThat(routed.provider()).isEqualTo(OpenAIClient.NAME);
+        assertThat(openai.lastPreviousId).isEqualTo("resp_prev");
+        assertThat(admission.admitted.get()).isZero();
+        assertThat(router.continuesConversation(OpenAIClient.NAME)).isTrue();
+        assertThat(router.continuesConversation("local")).isFalse();
+    }
+
+    @Test
+    void failedPrimaryFailsOverWithoutWaitingForTheHedgeDelay() {
+        // 지연 표본이 없을 때의 헤지 지연 8초
+        AiClientRouter slowHedge = new AiClientRouter(List.of(openai, local), new MockEnvironment(), registry,
+                true, 1500, 8000, 20, 200, 0.2, 3000, 4.0, 0.5, 0.0);
+        openai.failure = WebClientResponseException.create(503, "Service Unavailable", null, null, null);
+        CountingAdmission admission = new CountingAdmission(true);
+
+        long start = System.nanoTime();
+        AiClientRouter.Routed<OpenAIClient.AiResponseWrapper> routed = slowHedge.askAsync("p", null, admission).block();
+
+        assertThat(routed.provider()).isEqualTo("local");
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(2000);
+        assertThat(admission.admitted.get()).isEqualTo(1);
+        assertThat(hedges("failover")).isEqualTo(1);
+        assertThat(hedges("started")).isZero();
+    }
+
+    @Test
+    void failedStreamPrimaryFailsOverWithoutWaitingForTheHedgeDelay() {
+        AiClientRouter slowHedge = new AiClientRouter(List.of(openai, local), new MockEnvironment(), registry,
+                true, 1500, 8000, 20, 200, 0.2, 3000, 4.0, 0.5, 0.0);
+        openai.failure = new IllegalStateException("connection refused");
+
+        long start = System.nanoTime();
+        List<AiClientRouter.Routed<OpenAIClient.StreamDelta>> deltas = slowHedge
+                .askStream("p", null, new CountingAdmission(true)).collectList().block();
+
+        assertThat(deltas).extracting(AiClientRouter.Routed::provider).containsOnly("local");
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(2000);
+        assertThat(hedges("failover")).isEqualTo(1);
+    }
+
+    @Test
+    void failedPrimaryErrorIsReturnedWhenFailoverIsNotAdmitted() {
+        AiClientRouter slowHedge = new AiClientRouter(List.of(openai, local), new MockEnvironment(), registry,
+                true, 1500, 8000, 20, 200, 0.2, 3000, 4.0, 0.5, 0.0);
+        WebClientResponseException down = WebClientResponseException.create(503, "Service Unavailable", null, null, null);
+        openai.failure = down;
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> slowHedge.askAsync("p", null, new CountingAdmission(false)).block()).isSameAs(down);
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(2000);
+        assertThat(local.calls.get()).isZero();
+        assertThat(hedges("skipped")).isEqualTo(1);
+    }
+
+    private double hedges(String result) {
+        return registry.get("simvex.ai.router.hedges").tag("result", result).counter().count();
+    }
+
+    private static class CountingAdmission implements AiClientRouter.HedgeAdmission {
+        final AtomicInteger admitted = new AtomicInteger();
+        final boolean allow;
+
+        CountingAdmission(boolean allow) {
+            this.allow = allow;
+        }
+
+        @Override
+        public <T> Mono<T> admit(Mono<T> call) {
+            if (!allow) return Mono.error(new AiCallLimiter.AiBusyException());
+            admitted.incrementAndGet();
+            return call;
+        }
+
+        @Override
+        public <T> Flux<T> admit(Flux<T> call) {
+            if (!allow) return Flux.error(new AiCallLimiter.AiBusyException());
+            admitted.incrementAndGet();
+            return call;
+        }
+    }
+
+    private static class FakeClient implements AiClient {
+        final String name;
+        final long delayMs;
+        final boolean conversation;
+        final AtomicInteger calls = new AtomicInteger();
+        volatile String lastPreviousId;
+        // 설정하면 바로 실패 (연결 실패 / 5xx 흉내)
+        volatile RuntimeException failure;
+
+        FakeClient(String name, long delayMs, boolean conversation) {
+            this.name = name;
+            this.delayMs = delayMs;
+            this.conversation = conversation;
+        }
+
+        public String name() { return name; }
+        public boolean enabled() { return true; }
+        public boolean supportsConversation() { return conversation; }
+
+        @Override
+        public Mono<OpenAIClient.AiResponseWrapper> askAsync(String prompt, String previousResponseId) {
+            return Mono.defer(() -> {
+                calls.incrementAndGet();
+                lastPreviousId = previousResponseId;
+                if (failure != null) return Mono.error(failure);
+                return Mono.delay(Duration.ofMillis(delayMs)).map(t -> new OpenAIClient.AiResponseWrapper(
+                        name + " answer", conversation ? "resp_new" : null, null));
+            });
+        }
+
+        @Override
+        public Flux<OpenAIClient.StreamDelta> askStream(String prompt, String previousResponseId) {
+            return askAsync(prompt, previousResponseId).flux()
+                    .map(w -> new OpenAIClient.StreamDelta(w.text(), w.responseId(), null));
+        }
+    }
+}
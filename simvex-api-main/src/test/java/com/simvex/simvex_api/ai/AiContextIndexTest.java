@@ -0,0 +1,100 @@
+// src/test/java/com/simvex/simvex_api/ai/AiContextIndexTest.java
+package com.simvex.simvex_api.ai;
+
+import com.simvex.simvex_api.model.CatalogChangedEvent;
+import com.simvex.simvex_api.model.CatalogVersion;
+import com.simvex.simvex_api.model.ModelEntity;
+import com.simvex.simvex_api.model.ModelRepository;
+import com.simvex.simvex_api.part.PartEntity;
+import com.simvex.simvex_api.part.PartRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AiContextIndexTest {
+
+    private final ModelRepository modelRepository = mock(ModelRepository.class);
+    private final PartRepository partRepository = mock(PartRepository.class);
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final AiContextIndex index = new AiContextIndex(modelRepository, partRepository, catalogVersion);
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    void loadsOnceWhileVersionIsUnchanged() {
+        ModelEntity engine = model(1L, "V4 Engine");
+        PartEntity piston = part(engine, "Piston", "왕복 운동");
+        when(modelRepository.findAll()).thenReturn(List.of(engine));
+        when(partRepository.findAll()).thenReturn(List.of(piston));
+
+        assertThat(index.model(1L).title()).isEqualTo("V4 Engine");
+        assertThat(index.part(1L, "Piston").description()).isEqualTo("왕복 운동");
+        assertThat(index.part(1L, "Crankshaft")).isNull();
+
+        verify(modelRepository, times(1)).findAll();
+    }
+
+    @Test
+    void entityWriteWithoutEventServesOldSnapshotThenRebuildsInBackground() throws InterruptedException {
+        ModelEntity engine = model(1L, "V4 Engine");
+        ModelEntity drone = model(2L, "Drone");
+        when(modelRepository.findAll()).thenReturn(List.of(engine));
+        when(partRepository.findAll()).thenReturn(List.of());
+        assertThat(index.model(2L)).isNull();
+
+        // CatalogEntityListener 처럼 이벤트 없이 버전만 오른 경우
+        when(modelRepository.findAll()).thenReturn(List.of(engine, drone));
+        catalogVersion.onCatalogChanged(new CatalogChangedEvent("entity write"));
+
+        // 조회 스레드는 DB 를 기다리지 않고 지금 스냅샷을 받는다
+        assertThat(index.model(2L)).isNull();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (index.model(2L) == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(index.model(2L).title()).isEqualTo("Drone");
+    }
+
+    @Test
+    void catalogEventRebuildsImmediately() {
+        ModelEntity engine = model(1L, "V4 Engine");
+        ModelEntity drone = model(2L, "Drone");
+        when(modelRepository.findAll()).thenReturn(List.of(engine));
+        when(partRepository.findAll()).thenReturn(List.of());
+        assertThat(index.model(2L)).isNull();
+
+        when(modelRepository.findAll()).thenReturn(List.of(engine, drone));
+        CatalogChangedEvent event = new CatalogChangedEvent("import");
+        catalogVersion.onCatalogChanged(event);
+        index.onCatalogChanged(event);
+
+        assertThat(index.model(2L).title()).isEqualTo("Drone");
+    }
+
+    private static ModelEntity model(Long id, String title) {
+        ModelEntity m = mock(ModelEntity.class);
+        when(m.getId()).thenReturn(id);
+        when(m.getTitle()).thenReturn(title);
+        return m;
+    }
+
+    private static PartEntity part(ModelEntity model, String meshName, String description) {
+        PartEntity p = mock(PartEntity.class);
+        when(p.getModel()).thenReturn(model);
+        when(p.getMeshName()).thenReturn(meshName);
+        when(p.getContent()).thenReturn(Map.of("title", meshName, "description", description));
+        return p;
+    }
+}
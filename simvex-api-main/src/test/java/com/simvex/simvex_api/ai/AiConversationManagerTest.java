@@ -0,0 +1,85 @@
+// src/test/java/com/simvex/simvex_api/ai/AiConversationManagerTest.java
+package com.simvex.simvex_api.ai;
+
+import com.simvex.simvex_api.domain.AiChatHistoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AiConversationManagerTest {
+
+    private final AiChatHistoryRepository repository = mock(AiChatHistoryRepository.class);
+    private final AiChatHistoryWriter writer = mock(AiChatHistoryWriter.class);
+    private final AiConversationManager manager = new AiConversationManager(repository, writer,
+            new SimpleMeterRegistry(), true, 2, 8000, 3, 1500, 1440);
+
+    @Test
+    void summaryIncludesTurnsStillQueuedInTheWriter() {
+        LocalDateTime now = LocalDateTime.now();
+        AiChatHistoryWriter.PendingChat flushing = pending("피스톤 재질은?", "알루미늄 합금", now.minusSeconds(20));
+        when(writer.pending(eq(1L), eq("student-1"), anyInt())).thenReturn(List.of(
+                pending("그럼 무게는?", "가볍다", now.minusSeconds(1)),
+                flushing));
+        // 방금 커밋된 배치라 DB 에도 같은 행이 보이는 경우
+        when(repository.findPageBefore(eq(1L), eq("student-1"), any(LocalDateTime.class), any(Long.class),
+                any(Pageable.class))).thenReturn(List.of(
+                row(2L, "피스톤 재질은?", "알루미늄 합금", flushing.createdAt()),
+                row(1L, "피스톤은 무슨 역할?", "왕복 운동", now.minusMinutes(5))));
+
+        compactAfterTwoTurns();
+        String summary = manager.prepare(1L, "student-1", "resp_2").summary();
+
+        assertThat(summary).contains("그럼 무게는?", "피스톤 재질은?", "피스톤은 무슨 역할?");
+        assertThat(summary.indexOf("피스톤은 무슨 역할?")).isLessThan(summary.indexOf("피스톤 재질은?"));
+        assertThat(summary.indexOf("피스톤 재질은?")).isLessThan(summary.indexOf("그럼 무게는?"));
+        assertThat(summary.split("피스톤 재질은\\?", -1)).hasSize(2);
+    }
+
+    @Test
+    void keepsOnlyTheNewestSummaryTurns() {
+        LocalDateTime now = LocalDateTime.now();
+        when(writer.pending(eq(1L), eq("student-1"), anyInt())).thenReturn(List.of(
+                pending("q4", "a4", now.minusSeconds(1)),
+                pending("q3", "a3", now.minusSeconds(2))));
+        when(repository.findPageBefore(eq(1L), eq("student-1"), any(LocalDateTime.class), any(Long.class),
+                any(Pageable.class))).thenReturn(List.of(
+                row(2L, "q2", "a2", now.minusMinutes(1)),
+                row(1L, "q1", "a1", now.minusMinutes(2))));
+
+        compactAfterTwoTurns();
+        String summary = manager.prepare(1L, "student-1", "resp_4").summary();
+
+        assertThat(summary).contains("q2", "q3", "q4").doesNotContain("q1");
+    }
+
+    private void compactAfterTwoTurns() {
+        OpenAIClient.Usage usage = new OpenAIClient.Usage("gpt-5-mini", 500, 50, 800);
+        manager.record(1L, "student-1", usage);
+        manager.record(1L, "student-1", usage);
+    }
+
+    private static AiChatHistoryWriter.PendingChat pending(String question, String answer, LocalDateTime at) {
+        return new AiChatHistoryWriter.PendingChat(1L, "Piston", question, answer, "student-1", "resp", null,
+                null, at);
+    }
+
+    private static AiChatHistoryRepository.HistoryRow row(Long id, String question, String answer,
+                                                          LocalDateTime createdAt) {
+        return new AiChatHistoryRepository.HistoryRow() {
+            public Long getId() { return id; }
+            public String getQuestion() { return question; }
+            public LocalDateTime getCreatedAt() { return createdAt; }
+            public String getAnswer() { return answer; }
+        };
+    }
+}
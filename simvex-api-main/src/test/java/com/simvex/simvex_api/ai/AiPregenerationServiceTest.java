@@ -0,0 +1,112 @@
+// src/test/java/com/simvex/simvex_api/ai/AiPregenerationServiceTest.java
+package com.simvex.simvex_api.ai;
+
+import com.simvex.simvex_api.domain.AiChatHistoryRepository;
+import com.simvex.simvex_api.dto.AiAskRequestDto;
+import com.simvex.simvex_api.part.PartEntity;
+import com.simvex.simvex_api.part.PartRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AiPregenerationServiceTest {
+
+    private final PartRepository partRepository = mock(PartRepository.class);
+    private final AiChatHistoryRepository historyRepository = mock(AiChatHistoryRepository.class);
+    private final AiService aiService = mock(AiService.class);
+    private final AiAnswerCache answerCache = mock(AiAnswerCache.class);
+    private final AiSemanticCache semanticCache = mock(AiSemanticCache.class);
+    private final AiChatHistoryWriter writer = mock(AiChatHistoryWriter.class);
+    private final PromptTemplateService templates = new PromptTemplateService("");
+    private AiPregenerationService pregen;
+
+    @BeforeEach
+    void setUp() {
+        pregen = new AiPregenerationService(partRepository, historyRepository, aiService, mock(AiContextIndex.class),
+                answerCache, semanticCache, writer, templates, new SimpleMeterRegistry(),
+                "{part} 역할은?", 2, 4, 0, 24, "__pregen__");
+
+        PartEntity piston = mock(PartEntity.class);
+        when(piston.getMeshName()).thenReturn("Piston");
+        when(partRepository.findByModelIdOrderByIdAsc(1L)).thenReturn(List.of(piston));
+        AiContextResult ctx = new AiContextResult("PART", "", "", null, Map.of(), "fallback", null, null, null);
+        when(aiService.buildContext(eq(1L), eq("Piston"), isNull())).thenReturn(ctx);
+        when(aiService.composePrompt(anyString(), any())).thenReturn("prompt");
+        when(aiService.answerCacheKey(anyLong(), anyString(), anyString())).thenReturn("key");
+    }
+
+    @Test
+    void mockAnswersAreNeitherCachedNorStored() throws InterruptedException {
+        when(aiService.generateFreshAnswer(any(AiAskRequestDto.class), anyString()))
+                .thenReturn(Mono.just(new AiService.AiAnswerResult("[MOCK] 답", null, "mock", null, null)));
+
+        AiPregenerationService.JobStatus status = await(pregen.start(1L, null, null));
+
+        assertThat(status.generated()).isEqualTo(1);
+        verify(answerCache, never()).put(anyString(), anyString(), anyLong());
+        verify(semanticCache, never()).put(any(), any(), any(), any());
+        verify(writer, never()).submit(any());
+    }
+
+    @Test
+    void realAnswersAreCachedAndStoredWithPromptVersion() throws InterruptedException {
+        OpenAIClient.Usage usage = new OpenAIClient.Usage("gpt-5-mini", 300, 80, 1200);
+        AiService.AiAnswerResult answer = new AiService.AiAnswerResult("왕복 운동", "resp_1", "openai", null, null, usage);
+        when(aiService.generateFreshAnswer(any(AiAskRequestDto.class), anyString())).thenReturn(Mono.just(answer));
+        when(aiService.reusableVersion(any(), eq(answer))).thenReturn(templates.version());
+
+        await(pregen.start(1L, null, null));
+
+        verify(answerCache).put(eq("key"), eq("왕복 운동"), anyLong());
+        verify(writer).submit(any(AiChatHistoryWriter.PendingChat.class));
+    }
+
+    @Test
+    void resumeReusesOnlyRowsOfTheCurrentTemplateVersion() throws InterruptedException {
+        when(historyRepository.findReusableQaByModelAndUser(1L, "__pregen__", templates.version()))
+                .thenReturn(List.of(row("Piston", "Piston 역할은?", "왕복 운동")));
+
+        AiPregenerationService.JobStatus status = await(pregen.start(1L, null, null));
+
+        assertThat(status.reused()).isEqualTo(1);
+        verify(aiService, never()).generateFreshAnswer(any(), anyString());
+        verify(answerCache).put(eq("key"), eq("왕복 운동"), anyLong());
+    }
+
+    private AiPregenerationService.JobStatus await(AiPregenerationService.JobStatus started) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        AiPregenerationService.JobStatus s = started;
+        while ("RUNNING".equals(s.state()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            s = pregen.status(started.modelId());
+        }
+        assertThat(s.state()).isEqualTo("COMPLETED");
+        return s;
+    }
+
+    private static AiChatHistoryRepository.QaRow row(String meshName, String question, String answer) {
+        return new AiChatHistoryRepository.QaRow() {
+            public Long getModelId() { return 1L; }
+            public String getMeshName() { return meshName; }
+            public String getQuestion() { return question; }
+            public String getAnswer() { return answer; }
+            public LocalDateTime getCreatedAt() { return LocalDateTime.now(); }
+        };
+    }
+}
@@ -0,0 +1,120 @@
+// src/test/java/com/simvex/simvex_api/ai/AiPromptBuilderTest.java
+package com.simvex.simvex_api.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 설명 토큰 예산 배분 / 문장 경계 자르기 / 정적 prefix 캐시
+ */
+class AiPromptBuilderTest {
+
+    private final AiContextIndex index = mock(AiContextIndex.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AiPromptBuilder builder = new AiPromptBuilder(new PromptTemplateService(""), index, registry,
+            300, 100);
+
+    @Test
+    void partDescriptionGetsPriorityButModelKeepsItsMinimum() {
+        List<String> fitted = builder.fit(List.of(sentences("부품 설명입니다.", 100), sentences("모델 설명입니다.", 100)));
+
+        int part = AiPromptBuilder.estimateTokens(fitted.get(0));
+        int model = AiPromptBuilder.estimateTokens(fitted.get(1));
+        assertThat(part + model).isLessThanOrEqualTo(300);
+        assertThat(model).isBetween(50, 100);
+        assertThat(part).isGreaterThan(model);
+    }
+
+    @Test
+    void shortSectionsAreLeftAlone() {
+        List<String> ranked = List.of("크랭크축은 회전 운동을 만든다.", "V4 엔진.");
+
+        assertThat(builder.fit(ranked)).isEqualTo(ranked);
+    }
+
+    @Test
+    void truncateCutsAtSentenceEnd() {
+        String text = sentences("피스톤이 움직인다.", 40);
+
+        String cut = AiPromptBuilder.truncate(text, 60);
+
+        assertThat(AiPromptBuilder.estimateTokens(cut)).isLessThanOrEqualTo(60);
+        assertThat(cut).endsWith("움직인다. …(생략)");
+    }
+
+    @Test
+    void estimatesAsciiAtFourCharsPerToken() {
+        assertThat(AiPromptBuilder.estimateTokens("abcdefgh")).isEqualTo(2);
+        assertThat(AiPromptBuilder.estimateTokens("크랭크")).isEqualTo(3);
+        assertThat(AiPromptBuilder.estimateTokens(null)).isZero();
+    }
+
+    @Test
+    void prefixIsCachedAndStaysInFrontOfEveryTurn() {
+        when(index.model(1L)).thenReturn(model("V4 엔진"));
+        when(index.part(1L, "Crankshaft")).thenReturn(part("크랭크축", "회전 운동을 만든다."));
+
+        AiPromptBuilder.Prefix first = builder.prefix(1L, "Crankshaft");
+        AiPromptBuilder.Prefix second = builder.prefix(1L, "Crankshaft");
+        String turn1 = builder.compose(second, "", "재질은?");
+        String turn2 = builder.compose(second, "- Previous Conversation Summary:\n  Q: 재질은?", "무게는?");
+
+        assertThat(second).isSameAs(first);
+        assertThat(turn1).startsWith(first.text()).endsWith("재질은?\n");
+        assertThat(turn2).startsWith(first.text());
+        assertThat(registry.get("simvex.ai.prompt.prefix").tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void prefixIsRebuiltWhenContextIndexVersionMoves() {
+        when(index.version()).thenReturn(7L);
+        when(index.model(1L)).thenReturn(model("V4 엔진"));
+        when(index.part(1L, "Crankshaft")).thenReturn(part("크랭크축", "회전 운동을 만든다."));
+        AiPromptBuilder.Prefix first = builder.prefix(1L, "Crankshaft");
+
+        // 이벤트 없는 엔티티 쓰기 → 인덱스가 새 설명으로 다시 만들어져 버전이 바뀜
+        when(index.version()).thenReturn(8L);
+        when(index.part(1L, "Crankshaft")).thenReturn(part("크랭크축", "왕복 운동을 회전 운동으로 바꾼다."));
+        AiPromptBuilder.Prefix second = builder.prefix(1L, "Crankshaft");
+
+        assertThat(first.catalogVersion()).isEqualTo(7L);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.catalogVersion()).isEqualTo(8L);
+        assertThat(second.text()).contains("왕복 운동을 회전 운동으로 바꾼다.");
+        assertThat(builder.prefix(1L, "Crankshaft")).isSameAs(second);
+    }
+
+    @Test
+    void unknownPartIsNotCachedAndCatalogChangeClearsTheCache() {
+        when(index.model(1L)).thenReturn(model("V4 엔진"));
+
+        AiPromptBuilder.Prefix unknown = builder.prefix(1L, "NoSuchPart");
+        AiPromptBuilder.Prefix whole = builder.prefix(1L, null);
+        builder.onCatalogChanged(null);
+
+        assertThat(unknown.cacheable()).isFalse();
+        assertThat(unknown.text()).contains("NoSuchPart");
+        assertThat(builder.prefix(1L, "NoSuchPart")).isNotSameAs(unknown);
+        assertThat(builder.prefix(1L, null)).isNotSameAs(whole);
+    }
+
+    private static String sentences(String sentence, int count) {
+        return (sentence + " ").repeat(count).strip();
+    }
+
+    private static AiContextIndex.ModelContext model(String description) {
+        return new AiContextIndex.ModelContext("V4_Engine", "engineering-dict", description,
+                AiContextIndex.ModelContext.format("V4_Engine", description), description);
+    }
+
+    private static AiContextIndex.PartContext part(String title, String description) {
+        return new AiContextIndex.PartContext(title, description,
+                AiContextIndex.PartContext.format(title, description), description);
+    }
+}
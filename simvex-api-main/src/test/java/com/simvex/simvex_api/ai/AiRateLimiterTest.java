@@ -0,0 +1,176 @@
+// src/test/java/com/simvex/simvex_api/ai/AiRateLimiterTest.java
+package com.simvex.simvex_api.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 토큰 버킷 (리필 / CAS), 사용자별 vs 전체 upstream 예산, 429 의 Retry-After, 예산 맵 크기
+ */
+class AiRateLimiterTest {
+
+    private final AiContextIndex index = mock(AiContextIndex.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MockEnvironment env = new MockEnvironment();
+
+    @Test
+    void bucketRefillsAtTheConfiguredRate() throws InterruptedException {
+        // 분당 6000 = 10ms 에 1개
+        AiRateLimiter.TokenBucket bucket = new AiRateLimiter.TokenBucket(2, 6000);
+
+        assertThat(bucket.tryConsume(1)).isZero();
+        assertThat(bucket.tryConsume(1)).isZero();
+        long wait = bucket.tryConsume(1);
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+
+        Thread.sleep(30);
+
+        assertThat(bucket.tryConsume(1)).isZero();
+    }
+
+    @Test
+    void settlingIsCappedAtCapacityAndCarriesDebt() {
+        AiRateLimiter.TokenBucket bucket = new AiRateLimiter.TokenBucket(10, 1);
+
+        bucket.add(100);
+        assertThat(bucket.tryConsume(10)).isZero();
+        assertThat(bucket.tryConsume(1)).isPositive();
+
+        // 실제 사용량이 예상보다 많았으면 빚으로 남아 다음 요청이 더 기다린다
+        bucket.add(-5);
+        assertThat(bucket.tryConsume(1)).isGreaterThan(TimeUnit.MINUTES.toNanos(5));
+    }
+
+    @Test
+    void concurrentConsumersNeverTakeMoreThanCapacity() throws Exception {
+        // 분당 1개 → 테스트 동안 리필은 사실상 0
+        AiRateLimiter.TokenBucket bucket = new AiRateLimiter.TokenBucket(1000, 1);
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int admitted = 0;
+                    for (int i = 0; i < 500; i++) {
+                        if (bucket.tryConsume(1) == 0) admitted++;
+                    }
+                    return admitted;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> f : results) total += f.get(10, TimeUnit.SECONDS);
+
+            assertThat(total).isEqualTo(1000);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void userLimitIsPerUserButUpstreamBudgetIsShared() {
+        env.setProperty("simvex.ai.rate.user.requests-per-minute", "1");
+        env.setProperty("simvex.ai.rate.user.burst", "2");
+        env.setProperty("simvex.ai.rate.upstream.tokens-per-minute", "1000");
+        AiRateLimiter limiter = limiter();
+
+        limiter.acquireUser("alice", 1L);
+        limiter.acquireUser("alice", 1L);
+        assertThatThrownBy(() -> limiter.acquireUser("alice", 1L)).isInstanceOf(AiRateLimiter.AiRateLimitedException.class);
+        // 다른 사용자는 자기 버킷을 쓴다
+        assertThatCode(() -> limiter.acquireUser("bob", 1L)).doesNotThrowAnyException();
+
+        // upstream 예산은 사용자와 관계없이 하나 (프롬프트 500 + 출력 예상 100 토큰씩 → 두 번째는 초과)
+        limiter.acquireUpstream(1L, "p".repeat(2000));
+        assertThatThrownBy(() -> limiter.acquireUpstream(1L, "p".repeat(2000)))
+                .isInstanceOfSatisfying(AiRateLimiter.AiRateLimitedException.class,
+                        e -> assertThat(e.getMessage()).contains("upstream"));
+        assertThat(throttled("user")).isEqualTo(1);
+        assertThat(throttled("upstream")).isEqualTo(1);
+    }
+
+    @Test
+    void throttledRequestCarriesRetryAfterUntilTheNextToken() {
+        // 분당 60 = 1초에 1개
+        env.setProperty("simvex.ai.rate.user.requests-per-minute", "60");
+        env.setProperty("simvex.ai.rate.user.burst", "1");
+        AiRateLimiter limiter = limiter();
+
+        limiter.acquireUser("alice", 1L);
+
+        assertThatThrownBy(() -> limiter.acquireUser("alice", 1L))
+                .isInstanceOfSatisfying(AiRateLimiter.AiRateLimitedException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                    assertThat(e.getRetryAfterSeconds()).isBetween(1L, 2L);
+                    assertThat(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))
+                            .isEqualTo(String.valueOf(e.getRetryAfterSeconds()));
+                });
+    }
+
+    @Test
+    void modelOverrideGetsItsOwnBucket() {
+        env.setProperty("simvex.ai.rate.user.requests-per-minute", "1");
+        env.setProperty("simvex.ai.rate.user.burst", "1");
+        env.setProperty("simvex.ai.rate.models.2.user.burst", "3");
+        when(index.model(1L)).thenReturn(model("general"));
+        when(index.model(2L)).thenReturn(model("general"));
+        AiRateLimiter limiter = limiter();
+
+        limiter.acquireUser("alice", 1L);
+        limiter.acquireUser("alice", 2L);
+        limiter.acquireUser("alice", 2L);
+
+        assertThatThrownBy(() -> limiter.acquireUser("alice", 1L)).isInstanceOf(AiRateLimiter.AiRateLimitedException.class);
+        assertThat(registry.find("simvex.ai.rate.requests").tag("scope", "model:2").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void unknownModelIdsShareOneBudget() {
+        when(index.model(anyLong())).thenReturn(null);
+        when(index.model(1L)).thenReturn(model("general"));
+        AiRateLimiter limiter = limiter();
+
+        limiter.acquireUser("alice", 1L);
+        for (int i = 0; i < 1000; i++) {
+            limiter.acquireUpstream(ThreadLocalRandom.current().nextLong(1000, Long.MAX_VALUE), "p");
+        }
+        limiter.acquireUser("alice", null);
+
+        // 카탈로그 모델 1개 + 공용 1개
+        assertThat(registry.get("simvex.ai.rate.budgets").gauge().value()).isEqualTo(2);
+    }
+
+    private AiRateLimiter limiter() {
+        return new AiRateLimiter(env, index, registry, true, 100, 600);
+    }
+
+    private double throttled(String type) {
+        return registry.find("simvex.ai.rate.requests").tag("type", type).tag("result", "throttled").counter().count();
+    }
+
+    private static AiContextIndex.ModelContext model(String domainKey) {
+        return new AiContextIndex.ModelContext("V4 엔진", domainKey, "엔진", "- Model: V4 엔진", null);
+    }
+}
@@ -0,0 +1,149 @@
+// src/test/java/com/simvex/simvex_api/ai/AiRequestCoalescerTest.java
+package com.simvex.simvex_api.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 같은 키의 동시 호출은 upstream 구독 1번, 끝나면(성공/에러) 키가 빠지고 에러는 이후 요청에 재사용되지 않는다
+ */
+class AiRequestCoalescerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AiRequestCoalescer coalescer = new AiRequestCoalescer(registry);
+
+    @Test
+    void concurrentIdenticalQuestionsSubscribeUpstreamOnce() throws Exception {
+        int callers = 16;
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger subscriptions = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<AiRequestCoalescer.Shared<String>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return coalescer.execute("q", () -> {
+                        subscriptions.incrementAndGet();
+                        return upstream.asMono();
+                    }).block(Duration.ofSeconds(10));
+                }));
+            }
+            start.countDown();
+            // 모두 합류할 때까지 upstream 응답을 붙잡아 둔다
+            waitUntil(() -> calls("leader") + calls("follower") == callers);
+            assertThat(inFlight()).isEqualTo(1);
+
+            upstream.tryEmitValue("답");
+
+            int leaders = 0;
+            for (Future<AiRequestCoalescer.Shared<String>> f : results) {
+                AiRequestCoalescer.Shared<String> shared = f.get(10, TimeUnit.SECONDS);
+                assertThat(shared.value()).isEqualTo("답");
+                if (shared.leader()) leaders++;
+            }
+            assertThat(subscriptions).hasValue(1);
+            assertThat(leaders).isEqualTo(1);
+            assertThat(calls("follower")).isEqualTo(callers - 1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void entryIsRemovedAfterCompletion() {
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        coalescer.execute("q", () -> Mono.fromSupplier(() -> "a" + subscriptions.incrementAndGet())).block();
+        assertThat(inFlight()).isZero();
+
+        // 끝난 뒤의 같은 질문은 합쳐지지 않고 새로 호출한다 (이후는 AiAnswerCache 몫)
+        AiRequestCoalescer.Shared<String> next = coalescer.execute("q",
+                () -> Mono.fromSupplier(() -> "a" + subscriptions.incrementAndGet())).block();
+        assertThat(next.value()).isEqualTo("a2");
+        assertThat(next.leader()).isTrue();
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void errorIsSharedWithWaitingCallersButNotCachedForLaterOnes() {
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        Mono<AiRequestCoalescer.Shared<String>> leader = coalescer.execute("q", () -> {
+            subscriptions.incrementAndGet();
+            return upstream.asMono();
+        }).cache();
+        leader.subscribe(v -> { }, e -> { });
+        Mono<AiRequestCoalescer.Shared<String>> follower = coalescer.execute("q",
+                () -> Mono.just("follower 는 호출하지 않는다")).cache();
+        follower.subscribe(v -> { }, e -> { });
+
+        upstream.tryEmitError(new IllegalStateException("upstream down"));
+
+        assertThatThrownBy(leader::block).hasMessage("upstream down");
+        assertThatThrownBy(follower::block).hasMessage("upstream down");
+        assertThat(inFlight()).isZero();
+
+        AiRequestCoalescer.Shared<String> retry = coalescer.execute("q", () -> {
+            subscriptions.incrementAndGet();
+            return Mono.just("복구");
+        }).block();
+        assertThat(retry.value()).isEqualTo("복구");
+        assertThat(retry.leader()).isTrue();
+        assertThat(subscriptions).hasValue(2);
+    }
+
+    @Test
+    void differentKeysAreNotCoalesced() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+
+        coalescer.execute("a", () -> {
+            subscriptions.incrementAndGet();
+            return upstream.asMono();
+        }).subscribe();
+        coalescer.execute("b", () -> {
+            subscriptions.incrementAndGet();
+            return upstream.asMono();
+        }).subscribe();
+
+        assertThat(subscriptions).hasValue(2);
+        assertThat(inFlight()).isEqualTo(2);
+        upstream.tryEmitValue("x");
+        assertThat(inFlight()).isZero();
+    }
+
+    private double calls(String role) {
+        return registry.get("simvex.ai.coalesce.calls").tag("role", role).counter().count();
+    }
+
+    private double inFlight() {
+        return registry.get("simvex.ai.coalesce.in-flight").gauge().value();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) throw new AssertionError("timed out");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+// src/test/java/com/simvex/simvex_api/ai/AiSemanticCacheTest.java
+package com.simvex.simvex_api.ai;
+
+import com.simvex.simvex_api.domain.AiChatHistoryRepository;
+import com.simvex.simvex_api.model.CatalogChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AiSemanticCacheTest {
+
+    @TempDir
+    Path promptDir;
+
+    private final AiChatHistoryRepository repository = mock(AiChatHistoryRepository.class);
+    private final AiContextIndex index = mock(AiContextIndex.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PromptTemplateService templates;
+
+    @BeforeEach
+    void setUp() {
+        templates = new PromptTemplateService(promptDir.toString());
+    }
+
+    @Test
+    void servesSameQuestionOnlyForSameModelAndPart() {
+        AiSemanticCache cache = cache(3600);
+        cache.put(1L, "Piston", "피스톤은 무슨 역할을 해?", "왕복 운동");
+
+        assertThat(cache.lookup(1L, "Piston", "피스톤은 무슨 역할을 해")).isEqualTo("왕복 운동");
+        assertThat(cache.lookup(1L, "Crankshaft", "피스톤은 무슨 역할을 해")).isNull();
+        assertThat(cache.lookup(2L, "Piston", "피스톤은 무슨 역할을 해")).isNull();
+    }
+
+    @Test
+    void blankMeshNameIsTheWholeModelIndex() {
+        AiSemanticCache cache = cache(3600);
+        cache.put(1L, null, "이 엔진은 어떻게 작동해?", "4행정");
+
+        assertThat(cache.lookup(1L, " ", "이 엔진은 어떻게 작동해")).isEqualTo("4행정");
+        assertThat(cache.lookup(1L, "Piston", "이 엔진은 어떻게 작동해")).isNull();
+    }
+
+    @Test
+    void dropsEntriesWhenTemplateVersionChanges() throws IOException {
+        AiSemanticCache cache = cache(3600);
+        cache.put(1L, "Piston", "피스톤은 무슨 역할을 해?", "old");
+
+        Files.writeString(promptDir.resolve("ask_question.txt"), "changed {{question}}");
+        templates.reloadIfChanged();
+
+        assertThat(cache.lookup(1L, "Piston", "피스톤은 무슨 역할을 해?")).isNull();
+        cache.put(1L, "Piston", "피스톤은 무슨 역할을 해?", "new");
+        assertThat(cache.lookup(1L, "Piston", "피스톤은 무슨 역할을 해?")).isEqualTo("new");
+    }
+
+    @Test
+    void ignoresExpiredEntries() throws InterruptedException {
+        AiSemanticCache cache = cache(1);
+        cache.put(1L, "Piston", "피스톤은 무슨 역할을 해?", "A");
+        assertThat(cache.lookup(1L, "Piston", "피스톤은 무슨 역할을 해?")).isEqualTo("A");
+
+        Thread.sleep(1100);
+
+        assertThat(cache.lookup(1L, "Piston", "피스톤은 무슨 역할을 해?")).isNull();
+        cache.sweep();
+        assertThat(entries()).isZero();
+    }
+
+    @Test
+    void catalogChangeClearsEverything() {
+        AiSemanticCache cache = cache(3600);
+        cache.put(1L, "Piston", "피스톤은 무슨 역할을 해?", "A");
+
+        cache.onCatalogChanged(new CatalogChangedEvent("import"));
+
+        assertThat(cache.lookup(1L, "Piston", "피스톤은 무슨 역할을 해?")).isNull();
+        assertThat(entries()).isZero();
+    }
+
+    @Test
+    void contextIndexVersionChangeClearsEverything() {
+        when(index.version()).thenReturn(7L);
+        AiSemanticCache cache = cache(3600);
+        cache.put(1L, "Piston", "피스톤은 무슨 역할을 해?", "옛 설명으로 만든 답");
+        assertThat(cache.lookup(1L, "Piston", "피스톤은 무슨 역할을 해?")).isEqualTo("옛 설명으로 만든 답");
+
+        // 이벤트 없이 엔티티만 바뀌어 인덱스가 새로 만들어진 경우
+        when(index.version()).thenReturn(8L);
+
+        assertThat(cache.lookup(1L, "Piston", "피스톤은 무슨 역할을 해?")).isNull();
+        assertThat(entries()).isZero();
+    }
+
+    @Test
+    void neverStoresOrServesFollowUps() {
+        AiSemanticCache cache = cache(3600);
+        cache.put(1L, "Piston", "더 자세히 설명해줘", "앞 대화에 대한 답");
+        cache.put(1L, "Piston", "Explain more", "앞 대화에 대한 답");
+
+        assertThat(entries()).isZero();
+        assertThat(cache.lookup(1L, "Piston", "더 자세히 설명해줘")).isNull();
+        assertThat(AiSemanticCache.looksLikeFollowUp("피스톤은 무슨 역할을 해?")).isFalse();
+        assertThat(AiSemanticCache.looksLikeFollowUp("can you elaborate?")).isTrue();
+    }
+
+    @Test
+    void paraphraseHitsAndDifferentQuestionMisses() {
+        AiSemanticCache cache = cache(3600);
+        cache.put(1L, "Piston", "피스톤은 무슨 역할?", "왕복 운동");
+        cache.put(1L, "Piston", "what does the piston do", "reciprocating motion");
+
+        assertThat(cache.lookup(1L, "Piston", "피스톤 역할이 뭐야")).isEqualTo("왕복 운동");
+        assertThat(cache.lookup(1L, "Piston", "피스톤의 기능은 무엇인가요?")).isEqualTo("왕복 운동");
+        assertThat(cache.lookup(1L, "Piston", "piston role?")).isEqualTo("reciprocating motion");
+        assertThat(cache.lookup(1L, "Piston", "피스톤의 재질은 뭐야?")).isNull();
+        assertThat(cache.lookup(1L, "Piston", "피스톤 링은 무슨 역할?")).isNull();
+    }
+
+    @Test
+    void negatedOrOppositeQuestionNeverGetsTheCachedAnswer() {
+        AiSemanticCache cache = cache(3600);
+        cache.put(1L, "Crankshaft", "크랭크축은 무슨 역할을 해?", "회전 운동");
+        cache.put(1L, "Crankshaft", "크랭크축은 무슨 역할을 안 해?", "밸브 개폐는 하지 않는다");
+        cache.put(1L, "Piston", "상사점에서 피스톤 속도는?", "0");
+
+        // 부정 질문을 넣어도 긍정 질문 항목을 덮어쓰지 않는다
+        assertThat(entries()).isEqualTo(3);
+        assertThat(cache.lookup(1L, "Crankshaft", "크랭크축은 무슨 역할을 하나요?")).isEqualTo("회전 운동");
+        assertThat(cache.lookup(1L, "Crankshaft", "크랭크축은 무슨 역할을 하지 않아?")).isEqualTo("밸브 개폐는 하지 않는다");
+        assertThat(cache.lookup(1L, "Piston", "하사점에서 피스톤 속도는?")).isNull();
+    }
+
+    // 정답 표시된 질문 쌍으로 threshold(0.85) 를 맞춘다: 같은 질문은 넘고 다른 질문은 못 넘어야 한다
+    @Test
+    void defaultThresholdSeparatesLabeledPairs() {
+        AiSemanticCache cache = cache(3600);
+        List<String[]> same = List.of(
+                new String[]{"피스톤은 무슨 역할?", "피스톤 역할이 뭐야"},
+                new String[]{"what does the piston do", "piston role?"},
+                new String[]{"크랭크축은 무슨 역할을 해?", "크랭크축은 무슨 역할을 하나요?"},
+                new String[]{"피스톤이 하는 일은?", "피스톤의 용도를 알려줘"},
+                new String[]{"실린더 헤드의 재질은 뭐야?", "실린더 헤드 소재는 무엇인가요"},
+                new String[]{"이 엔진은 어떻게 작동해?", "이 엔진의 작동 원리는?"},
+                new String[]{"What is the weight of the crankshaft?", "crankshaft weight"},
+                new String[]{"밸브는 어디에 있어?", "밸브 위치는?"});
+        List<String[]> different = List.of(
+                new String[]{"피스톤은 무슨 역할을 해?", "피스톤의 재질은 뭐야?"},
+                new String[]{"피스톤은 무슨 역할을 해?", "크랭크축은 무슨 역할을 해?"},
+                new String[]{"실린더 헤드의 재질은?", "실린더 블록의 재질은?"},
+                new String[]{"크랭크축은 무슨 역할을 해?", "크랭크축은 무슨 역할을 안 해?"},
+                new String[]{"does the valve open?", "does the valve not open?"},
+                new String[]{"흡입 행정에서 밸브는?", "배기 행정에서 밸브는?"},
+                new String[]{"회전수가 증가하면 토크는?", "회전수가 감소하면 토크는?"},
+                new String[]{"피스톤 무게는?", "피스톤 크기는?"});
+
+        for (String[] pair : same) {
+            assertThat(cache.similarity(pair[0], pair[1])).as("%s / %s", pair[0], pair[1]).isGreaterThanOrEqualTo(0.85);
+        }
+        for (String[] pair : different) {
+            assertThat(cache.similarity(pair[0], pair[1])).as("%s / %s", pair[0], pair[1]).isLessThan(0.85);
+        }
+    }
+
+    @Test
+    void warmUpReadsOnlyReusableRowsOfCurrentVersion() {
+        LocalDateTime now = LocalDateTime.now();
+        when(repository.findRecentReusableQa(eq(templates.version()), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(
+                        row(1L, "Piston", "피스톤은 무슨 역할을 해?", "A", now.minusMinutes(1)),
+                        row(1L, "Piston", "그거 다시 설명해줘", "B", now.minusMinutes(2))));
+        AiSemanticCache cache = cache(3600);
+
+        cache.warmUp();
+
+        verify(repository).findRecentReusableQa(eq(templates.version()), any(LocalDateTime.class), any(Pageable.class));
+        assertThat(cache.lookup(1L, "Piston", "피스톤은 무슨 역할을 해")).isEqualTo("A");
+        assertThat(entries()).isEqualTo(1);
+    }
+
+    private AiSemanticCache cache(long ttlSeconds) {
+        return new AiSemanticCache(repository, templates, index, registry, true, 0.85, 512, 200, 5000, ttlSeconds);
+    }
+
+    private double entries() {
+        return registry.get("simvex.ai.semantic.entries").gauge().value();
+    }
+
+    private static AiChatHistoryRepository.QaRow row(Long modelId, String meshName, String question, String answer,
+                                                     LocalDateTime createdAt) {
+        return new AiChatHistoryRepository.QaRow() {
+            public Long getModelId() { return modelId; }
+            public String getMeshName() { return meshName; }
+            public String getQuestion() { return question; }
+            public String getAnswer() { return answer; }
+            public LocalDateTime getCreatedAt() { return createdAt; }
+        };
+    }
+}
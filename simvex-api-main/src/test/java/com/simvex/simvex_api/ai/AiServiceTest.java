@@ -0,0 +1,215 @@
+// src/test/java/com/simvex/simvex_api/ai/AiServiceTest.java
+package com.simvex.simvex_api.ai;
+
+import com.simvex.simvex_api.domain.AiChatHistoryRepository;
+import com.simvex.simvex_api.dto.AiAskRequestDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 앞 대화를 잇는 질문(이전 체인 / 대화 요약이 붙은 턴)은 공유 캐시와 동일 질문 합치기를 거치지 않는다
+ * 대화 중이라도 앞 대화와 무관한 질문은 체인에서 떼어 공유 경로로 답한다
+ */
+class AiServiceTest {
+
+    private final AiClientRouter router = mock(AiClientRouter.class);
+    private final MockAiClient mockAiClient = mock(MockAiClient.class);
+    private final AiAnswerCache answerCache = mock(AiAnswerCache.class);
+    private final AiSemanticCache semanticCache = mock(AiSemanticCache.class);
+    private final AiRequestCoalescer coalescer = mock(AiRequestCoalescer.class);
+    private final PromptTemplateService templates = new PromptTemplateService("");
+    private AiService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AiService(mock(AiChatHistoryRepository.class), router, mockAiClient, answerCache,
+                mock(AiCallLimiter.class), coalescer, mock(AiCircuitBreaker.class), semanticCache, templates,
+                mock(AiPromptBuilder.class), mock(AiRateLimiter.class), mock(AiContextIndex.class),
+                mock(AiChatHistoryWriter.class), mock(AiConversationManager.class), 50, 200);
+        when(router.enabled()).thenReturn(false);
+        when(mockAiClient.ask(anyString())).thenReturn("fresh");
+        when(answerCache.get(anyString())).thenReturn("cached for everyone");
+    }
+
+    @Test
+    void standaloneTurnUsesSharedCache() {
+        AiService.AiAnswerResult result = service.generateAnswerAsync(req(), "prompt", ctx(null, null)).block();
+
+        assertThat(result.answer()).isEqualTo("cached for everyone");
+        assertThat(result.provider()).isEqualTo("cache");
+    }
+
+    @Test
+    void chainedTurnSkipsCacheAndCoalescer() {
+        AiService.AiAnswerResult result = service.generateAnswerAsync(req(), "prompt", ctx("resp_prev", null)).block();
+
+        assertThat(result.answer()).isEqualTo("fresh");
+        verifyNoInteractions(answerCache, semanticCache, coalescer);
+    }
+
+    @Test
+    void summarizedTurnSkipsCacheAndCoalescer() {
+        AiService.AiAnswerResult result = service
+                .generateAnswerAsync(req(), "prompt", ctx(null, "- Previous Conversation Summary:\n  Q: 모터?")).block();
+
+        assertThat(result.answer()).isEqualTo("fresh");
+        verifyNoInteractions(answerCache, semanticCache, coalescer);
+    }
+
+    @Test
+    void chainedStreamSkipsCache() {
+        List<AiService.AiStreamEvent> events = service.streamAnswer(req(), "prompt", ctx("resp_prev", null))
+                .collectList().block();
+
+        assertThat(events.get(events.size() - 1).result().answer()).isEqualTo("fresh");
+        verifyNoInteractions(answerCache, semanticCache);
+    }
+
+    @Test
+    void standaloneQuestionOnLaterTurnStillHitsSharedCache() {
+        AiAskRequestDto req = req("피스톤은 무슨 역할을 해?");
+        AiContextResult ctx = service.forQuestion(req, ctx("resp_prev", null));
+
+        AiService.AiAnswerResult result = service.generateAnswerAsync(req, "prompt", ctx).block();
+
+        assertThat(ctx.standalone()).isTrue();
+        assertThat(ctx.detached()).isTrue();
+        assertThat(result.answer()).isEqualTo("cached for everyone");
+        assertThat(result.provider()).isEqualTo("cache");
+        assertThat(result.newResponseId()).isEqualTo("resp_prev");
+    }
+
+    @Test
+    void standaloneQuestionOnLaterTurnIsCoalescedAndKeepsTheChain() {
+        AiService live = liveService();
+        AiAskRequestDto req = req("피스톤은 무슨 역할을 해?");
+        AiContextResult ctx = live.forQuestion(req, ctx("resp_prev", null));
+        when(answerCache.get(anyString())).thenReturn(null);
+        when(coalescer.execute(anyString(), any())).thenAnswer(inv -> {
+            Supplier<Mono<AiService.AiAnswerResult>> call = inv.getArgument(1);
+            return call.get().map(v -> new AiRequestCoalescer.Shared<>(v, true));
+        });
+        // 체인 밖 호출이므로 previous_response_id 없이 나간다
+        when(router.askAsync(eq("prompt"), isNull(), any())).thenReturn(Mono.just(
+                new AiClientRouter.Routed<>("openai", new OpenAIClient.AiResponseWrapper("공유 답", "resp_new", null))));
+
+        AiService.AiAnswerResult result = live.generateAnswerAsync(req, "prompt", ctx).block();
+
+        verify(coalescer).execute(eq(live.answerCacheKey(1L, "Piston", req.question)), any());
+        assertThat(result.answer()).isEqualTo("공유 답");
+        assertThat(result.newResponseId()).isEqualTo("resp_prev");
+    }
+
+    @Test
+    void followUpIsDecidedPerQuestionOrByTheClient() {
+        AiContextResult chained = ctx("resp_prev", null);
+        AiAskRequestDto elliptical = req("그럼 재질은?");
+        AiAskRequestDto flagged = req("피스톤은 무슨 역할을 해?");
+        flagged.followUp = true;
+        AiAskRequestDto unflagged = req("그거 더 자세히");
+        unflagged.followUp = false;
+
+        assertThat(service.forQuestion(elliptical, chained)).isSameAs(chained);
+        assertThat(service.forQuestion(flagged, chained)).isSameAs(chained);
+        assertThat(service.forQuestion(unflagged, chained).upstreamResponseId()).isNull();
+        assertThat(service.forQuestion(unflagged, ctx(null, "- Previous Conversation Summary:"))
+                .conversationSummary()).isNull();
+    }
+
+    @Test
+    void localAnswerKeepsThePreviousOpenAiChain() {
+        AiService live = liveService();
+        when(router.askAsync(eq("prompt"), eq("resp_prev"), any())).thenReturn(Mono.just(
+                new AiClientRouter.Routed<>("local", new OpenAIClient.AiResponseWrapper("local 답", null, null))));
+
+        AiService.AiAnswerResult result = live.generateAnswerAsync(req(), "prompt", ctx("resp_prev", null)).block();
+
+        assertThat(result.provider()).isEqualTo("local");
+        assertThat(result.newResponseId()).isEqualTo("resp_prev");
+    }
+
+    @Test
+    void localStreamKeepsThePreviousOpenAiChain() {
+        AiService live = liveService();
+        when(router.askStream(eq("prompt"), eq("resp_prev"), any())).thenReturn(Flux.just(
+                new AiClientRouter.Routed<>("local", new OpenAIClient.StreamDelta("local 답", null, null))));
+
+        List<AiService.AiStreamEvent> events = live.streamAnswer(req(), "prompt", ctx("resp_prev", null))
+                .collectList().block();
+
+        assertThat(events.get(events.size() - 1).result().newResponseId()).isEqualTo("resp_prev");
+    }
+
+    @Test
+    void openCircuitFallsBackWithoutWaitingForAPermit() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AiCircuitBreaker breaker = new AiCircuitBreaker(registry, 20, 1, 50, 20000, 80, 60000, 1);
+        breaker.protect(Mono.error(new IllegalStateException("down"))).onErrorResume(e -> Mono.empty()).block();
+        // permit 1개를 다른 호출이 잡고 있고 대기열도 없다
+        AiCallLimiter limiter = new AiCallLimiter(registry, 1, 0);
+        limiter.limit(Mono.never()).subscribe();
+        AiService live = liveService(limiter, breaker);
+        AtomicInteger upstream = new AtomicInteger();
+        when(router.askAsync(eq("prompt"), eq("resp_prev"), any())).thenReturn(Mono.fromSupplier(() -> {
+            upstream.incrementAndGet();
+            return new AiClientRouter.Routed<>("openai", new OpenAIClient.AiResponseWrapper("답", "resp_new", null));
+        }));
+
+        AiService.AiAnswerResult result = live.generateAnswerAsync(req(), "prompt", ctx("resp_prev", null)).block();
+
+        assertThat(result.errorCode()).isEqualTo("circuit_open");
+        assertThat(result.provider()).isEqualTo("fallback");
+        assertThat(result.answer()).isEqualTo("fallback");
+        assertThat(upstream).hasValue(0);
+    }
+
+    // 실제 limiter / breaker 를 쓰고 라우터만 가짜로 둔 서비스
+    private AiService liveService() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        return liveService(new AiCallLimiter(registry, 4, 4),
+                new AiCircuitBreaker(registry, 20, 10, 50, 20000, 80, 30000, 3));
+    }
+
+    private AiService liveService(AiCallLimiter limiter, AiCircuitBreaker breaker) {
+        when(router.enabled()).thenReturn(true);
+        return new AiService(mock(AiChatHistoryRepository.class), router, mockAiClient, answerCache,
+                limiter, coalescer, breaker, semanticCache, templates,
+                mock(AiPromptBuilder.class), mock(AiRateLimiter.class), mock(AiContextIndex.class),
+                mock(AiChatHistoryWriter.class), mock(AiConversationManager.class), 50, 200);
+    }
+
+    private static AiAskRequestDto req() {
+        return req("그럼 재질은?");
+    }
+
+    private static AiAskRequestDto req(String question) {
+        AiAskRequestDto req = new AiAskRequestDto();
+        req.modelId = 1L;
+        req.meshName = "Piston";
+        req.question = question;
+        return req;
+    }
+
+    private static AiContextResult ctx(String upstreamResponseId, String conversationSummary) {
+        return new AiContextResult("PART", "", "", "resp_prev", Map.of(), "fallback",
+                upstreamResponseId, conversationSummary, null);
+    }
+}
@@ -0,0 +1,56 @@
+// src/test/java/com/simvex/simvex_api/ai/AiTelemetryTest.java
+package com.simvex.simvex_api.ai;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AiTelemetryTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AiContextIndex index = mock(AiContextIndex.class);
+    private final AiTelemetry telemetry = new AiTelemetry(registry, index);
+
+    @Test
+    void tagsKnownModelsById() {
+        when(index.model(7L)).thenReturn(new AiContextIndex.ModelContext("V4 Engine", "engineering", null, "", null));
+
+        telemetry.record(7L, "PART", ok(), System.nanoTime());
+
+        assertThat(registry.find("simvex.ai.request.latency").tag("model_id", "7").timer()).isNotNull();
+        assertThat(registry.find("simvex.ai.upstream.latency").tag("model_id", "7").timer()).isNotNull();
+        assertThat(registry.find("simvex.ai.tokens").tag("model_id", "7").tag("kind", "input").counter().count())
+                .isEqualTo(100);
+    }
+
+    @Test
+    void bucketsUnknownIdsIntoOneSeries() {
+        for (long id = 1000; id < 1050; id++) {
+            telemetry.record(id, "GLOBAL", ok(), System.nanoTime());
+        }
+        telemetry.record(null, "GLOBAL", ok(), System.nanoTime());
+
+        assertThat(modelIds("simvex.ai.request.latency")).containsExactlyInAnyOrder("unknown", "none");
+        assertThat(modelIds("simvex.ai.upstream.latency")).containsExactlyInAnyOrder("unknown", "none");
+        assertThat(registry.find("simvex.ai.request.latency").tag("model_id", "unknown").timer().count())
+                .isEqualTo(50);
+    }
+
+    private Set<String> modelIds(String name) {
+        Set<String> ids = new HashSet<>();
+        for (Meter m : registry.find(name).meters()) ids.add(m.getId().getTag("model_id"));
+        return ids;
+    }
+
+    private static AiService.AiAnswerResult ok() {
+        return new AiService.AiAnswerResult("답", "resp_1", "openai", null, null,
+                new OpenAIClient.Usage("gpt-5-mini", 100, 20, 900));
+    }
+}
@@ -0,0 +1,231 @@
+// src/test/java/com/simvex/simvex_api/ai/OpenAIClientStubServerTest.java
+package com.simvex.simvex_api.ai;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * OpenAIConfig 로 만든 WebClient + OpenAIClient 를 로컬 스텁 HTTP 서버(JDK HttpServer)에 붙여서 확인
+ * (재시도 / Retry-After / 시도별 지표 / 설정 기반 타임아웃 / 스트리밍)
+ */
+class OpenAIClientStubServerTest {
+
+    private static final String OK_BODY = """
+            {"id":"resp_1","model":"gpt-5-mini","output_text":"ok","usage":{"input_tokens":12,"output_tokens":3}}""";
+
+    private final OpenAIConfig config = new OpenAIConfig();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger requests = new AtomicInteger();
+    // 요청 순서대로 꺼내 쓰는 응답 (비면 마지막 응답 반복)
+    private final Queue<StubResponse> script = new ConcurrentLinkedQueue<>();
+    private volatile StubResponse last = new StubResponse(200, null, OK_BODY, "application/json", 0);
+
+    private HttpServer server;
+    private ConnectionProvider connectionProvider;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/responses", this::handle);
+        server.start();
+        connectionProvider = config.openAIConnectionProvider(10, 10, 1000, 1000, 10000, 1000);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        connectionProvider.dispose();
+    }
+
+    @Test
+    void retriesOn429AndHonorsRetryAfter() {
+        respond(new StubResponse(429, "0", "{}", "application/json", 0));
+        respond(new StubResponse(429, "0", "{}", "application/json", 0));
+
+        OpenAIClient.AiResponseWrapper res = client(baseUrl(), 60000, 2, 8000).askAsync("p", null).block();
+
+        assertThat(res.text()).isEqualTo("ok");
+        assertThat(res.responseId()).isEqualTo("resp_1");
+        assertThat(res.usage().inputTokens()).isEqualTo(12);
+        assertThat(res.usage().outputTokens()).isEqualTo(3);
+        assertThat(requests.get()).isEqualTo(3);
+        assertThat(attempts("429")).isEqualTo(2);
+        assertThat(attempts("200")).isEqualTo(1);
+    }
+
+    @Test
+    void givesUpWhenRetryAfterExceedsMaxBackoff() {
+        respond(new StubResponse(429, "3600", "{}", "application/json", 0));
+
+        OpenAIClient client = client(baseUrl(), 60000, 2, 200);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.askAsync("p", null).block())
+                .isInstanceOfSatisfying(WebClientResponseException.class,
+                        e -> assertThat(e.getStatusCode().value()).isEqualTo(429));
+        // 서버가 허락한 시각 전에 다시 보내지 않는다
+        assertThat(requests.get()).isEqualTo(1);
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(2000);
+    }
+
+    @Test
+    void waitsForRetryAfterWithinMaxBackoff() {
+        respond(new StubResponse(429, "1", "{}", "application/json", 0));
+
+        long start = System.nanoTime();
+        OpenAIClient.AiResponseWrapper res = client(baseUrl(), 60000, 2, 2000).askAsync("p", null).block();
+
+        assertThat(res.text()).isEqualTo("ok");
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat((System.nanoTime() - start) / 1_000_000).isGreaterThanOrEqualTo(1000);
+    }
+
+    @Test
+    void returnsLastErrorAfterMaxRetries() {
+        last = new StubResponse(503, null, "{\"error\":\"down\"}", "application/json", 0);
+
+        OpenAIClient client = client(baseUrl(), 60000, 2, 8000);
+
+        assertThatThrownBy(() -> client.askAsync("p", null).block())
+                .isInstanceOfSatisfying(WebClientResponseException.class,
+                        e -> assertThat(e.getStatusCode().value()).isEqualTo(503));
+        assertThat(requests.get()).isEqualTo(3);
+        assertThat(attempts("503")).isEqualTo(3);
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        last = new StubResponse(400, null, "{\"error\":\"bad\"}", "application/json", 0);
+
+        OpenAIClient client = client(baseUrl(), 60000, 2, 8000);
+
+        assertThatThrownBy(() -> client.askAsync("p", null).block())
+                .isInstanceOf(WebClientResponseException.BadRequest.class);
+        assertThat(requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    void retriesConnectFailures() throws IOException {
+        int closedPort;
+        try (ServerSocket s = new ServerSocket(0)) {
+            closedPort = s.getLocalPort();
+        }
+
+        OpenAIClient client = client("http://127.0.0.1:" + closedPort, 60000, 2, 8000);
+
+        assertThatThrownBy(() -> client.askAsync("p", null).block())
+                .isInstanceOf(WebClientRequestException.class);
+        assertThat(attempts("connect_error")).isEqualTo(3);
+    }
+
+    @Test
+    void responseTimeoutComesFromConfig() {
+        last = new StubResponse(200, null, OK_BODY, "application/json", 1500);
+
+        OpenAIClient client = client(baseUrl(), 300, 0, 8000);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.askAsync("p", null).block())
+                .isInstanceOf(WebClientRequestException.class);
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(1500);
+    }
+
+    @Test
+    void slowResponseWithinConfiguredTimeoutSucceeds() {
+        last = new StubResponse(200, null, OK_BODY, "application/json", 800);
+
+        OpenAIClient.AiResponseWrapper res = client(baseUrl(), 5000, 0, 8000).askAsync("p", null).block();
+
+        assertThat(res.text()).isEqualTo("ok");
+    }
+
+    @Test
+    void streamsDeltasThenCompletion() {
+        String sse = """
+                event: response.output_text.delta
+                data: {"type":"response.output_text.delta","delta":"크랭크"}
+
+                event: response.output_text.delta
+                data: {"type":"response.output_text.delta","delta":"축"}
+
+                event: response.completed
+                data: {"type":"response.completed","response":{"id":"resp_2","model":"gpt-5-mini","usage":{"input_tokens":5,"output_tokens":2}}}
+
+                """;
+        last = new StubResponse(200, null, sse, "text/event-stream", 0);
+
+        List<OpenAIClient.StreamDelta> deltas = client(baseUrl(), 60000, 0, 8000)
+                .askStream("p", "resp_1").collectList().block();
+
+        assertThat(deltas).extracting(OpenAIClient.StreamDelta::text).containsExactly("크랭크", "축", null);
+        OpenAIClient.StreamDelta done = deltas.get(2);
+        assertThat(done.responseId()).isEqualTo("resp_2");
+        assertThat(done.usage().inputTokens()).isEqualTo(5);
+        assertThat(done.usage().outputTokens()).isEqualTo(2);
+    }
+
+    private OpenAIClient client(String baseUrl, long responseTimeoutMs, int maxRetries, long maxBackoffMs) {
+        WebClient webClient = config.openAIWebClient("test-key", baseUrl, 1000, responseTimeoutMs, false,
+                maxRetries, 10, maxBackoffMs, connectionProvider, registry);
+        return new OpenAIClient(webClient, "test-key", "gpt-5-mini");
+    }
+
+    private String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void respond(StubResponse r) {
+        script.add(r);
+    }
+
+    private long attempts(String outcome) {
+        var timer = registry.find("simvex.ai.openai.attempt").tag("outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        requests.incrementAndGet();
+        ex.getRequestBody().readAllBytes();
+        StubResponse r = script.poll();
+        if (r == null) r = last;
+        try {
+            if (r.delayMs() > 0) Thread.sleep(r.delayMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = r.body().getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().add("Content-Type", r.contentType());
+        if (r.retryAfter() != null) ex.getResponseHeaders().add("Retry-After", r.retryAfter());
+        try {
+            ex.sendResponseHeaders(r.status(), body.length);
+            ex.getResponseBody().write(body);
+        } catch (IOException ignore) {
+            // 클라이언트가 타임아웃으로 먼저 끊은 경우
+        } finally {
+            ex.close();
+        }
+    }
+
+    private record StubResponse(int status, String retryAfter, String body, String contentType, long delayMs) {
+    }
+}
@@ -0,0 +1,208 @@
+// src/test/java/com/simvex/simvex_api/ai/OpenAICompatibleClientStubServerTest.java
+package com.simvex.simvex_api.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * OpenAIConfig 의 localAiWebClient + OpenAICompatibleClient 를 로컬 스텁 HTTP 서버(JDK HttpServer)에 붙여서 확인
+ * (Chat Completions 요청 형태 / usage 파싱 / 에러는 재시도 없이 그대로 → 라우터가 다른 제공자로 넘김 / 스트리밍)
+ */
+class OpenAICompatibleClientStubServerTest {
+
+    private static final String OK_BODY = """
+            {"id":"chatcmpl-1","model":"llama-served","choices":[{"index":0,"message":{"role":"assistant","content":"ok"}}],
+             "usage":{"prompt_tokens":21,"completion_tokens":4,"total_tokens":25}}""";
+
+    private final OpenAIConfig config = new OpenAIConfig();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private volatile StubResponse next = new StubResponse(200, OK_BODY, "application/json");
+    private volatile Captured captured;
+
+    private HttpServer server;
+    private ConnectionProvider connectionProvider;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/", this::handle);
+        server.start();
+        connectionProvider = config.localAiConnectionProvider(4);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        connectionProvider.dispose();
+    }
+
+    @Test
+    void sendsChatCompletionsRequestAndParsesUsage() throws IOException {
+        OpenAIClient.AiResponseWrapper res = client(baseUrl(), "local-key").askAsync("피스톤은?", "resp_prev").block();
+
+        assertThat(res.text()).isEqualTo("ok");
+        // Chat Completions 는 대화를 이어갈 수 없으므로 response_id 를 돌려주지 않는다
+        assertThat(res.responseId()).isNull();
+        assertThat(res.usage().model()).isEqualTo("llama-served");
+        assertThat(res.usage().inputTokens()).isEqualTo(21);
+        assertThat(res.usage().outputTokens()).isEqualTo(4);
+
+        assertThat(captured.method()).isEqualTo("POST");
+        assertThat(captured.path()).isEqualTo("/v1/chat/completions");
+        assertThat(captured.authorization()).isEqualTo("Bearer local-key");
+        assertThat(captured.contentType()).startsWith("application/json");
+        JsonNode body = objectMapper.readTree(captured.body());
+        assertThat(body.get("model").asText()).isEqualTo("llama-test");
+        assertThat(body.get("messages")).hasSize(1);
+        assertThat(body.at("/messages/0/role").asText()).isEqualTo("user");
+        assertThat(body.at("/messages/0/content").asText()).isEqualTo("피스톤은?");
+        // 비스트리밍 요청에는 stream 필드를 보내지 않는다 / previous_response_id 도 없음
+        assertThat(body.has("stream")).isFalse();
+        assertThat(body.has("stream_options")).isFalse();
+        assertThat(body.has("previous_response_id")).isFalse();
+    }
+
+    @Test
+    void omitsAuthorizationWithoutApiKey() {
+        client(baseUrl(), "").askAsync("p", null).block();
+
+        assertThat(captured.authorization()).isNull();
+    }
+
+    @Test
+    void missingChoicesOrUsageIsAnEmptyAnswerNotAnError() {
+        next = new StubResponse(200, "{\"id\":\"chatcmpl-2\",\"choices\":[]}", "application/json");
+
+        OpenAIClient.AiResponseWrapper res = client(baseUrl(), "").askAsync("p", null).block();
+
+        assertThat(res.text()).isEmpty();
+        assertThat(res.usage().model()).isEqualTo("llama-test");
+        assertThat(res.usage().inputTokens()).isNull();
+    }
+
+    @Test
+    void serverErrorIsReturnedOnceWithoutRetry() {
+        next = new StubResponse(503, "{\"error\":\"loading model\"}", "application/json");
+
+        assertThatThrownBy(() -> client(baseUrl(), "").askAsync("p", null).block())
+                .isInstanceOfSatisfying(WebClientResponseException.class, e -> {
+                    assertThat(e.getStatusCode().value()).isEqualTo(503);
+                    assertThat(e.getResponseBodyAsString()).contains("loading model");
+                });
+        // 재시도는 라우터의 failover 몫
+        assertThat(requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    void clientErrorIsMappedToItsStatus() {
+        next = new StubResponse(400, "{\"error\":\"bad model\"}", "application/json");
+
+        assertThatThrownBy(() -> client(baseUrl(), "").askAsync("p", null).block())
+                .isInstanceOf(WebClientResponseException.BadRequest.class);
+    }
+
+    @Test
+    void connectFailureIsARequestException() throws IOException {
+        int closedPort;
+        try (ServerSocket s = new ServerSocket(0)) {
+            closedPort = s.getLocalPort();
+        }
+
+        assertThatThrownBy(() -> client("http://127.0.0.1:" + closedPort + "/v1", "").askAsync("p", null).block())
+                .isInstanceOf(WebClientRequestException.class);
+    }
+
+    @Test
+    void streamsDeltasUsageThenDone() throws IOException {
+        String sse = """
+                data: {"id":"c1","model":"llama-served","choices":[{"index":0,"delta":{"role":"assistant"}}]}
+
+                data: {"id":"c1","model":"llama-served","choices":[{"index":0,"delta":{"content":"크랭크"}}]}
+
+                data: {"id":"c1","model":"llama-served","choices":[{"index":0,"delta":{"content":"축"}}]}
+
+                data: {"id":"c1","model":"llama-served","choices":[],"usage":{"prompt_tokens":9,"completion_tokens":2}}
+
+                data: [DONE]
+
+                """;
+        next = new StubResponse(200, sse, "text/event-stream");
+
+        List<OpenAIClient.StreamDelta> deltas = client(baseUrl(), "").askStream("p", "resp_prev").collectList().block();
+
+        assertThat(deltas).extracting(OpenAIClient.StreamDelta::text).containsExactly("크랭크", "축", null, null);
+        OpenAIClient.Usage usage = deltas.get(2).usage();
+        assertThat(usage.model()).isEqualTo("llama-served");
+        assertThat(usage.inputTokens()).isEqualTo(9);
+        assertThat(usage.outputTokens()).isEqualTo(2);
+        assertThat(deltas).extracting(OpenAIClient.StreamDelta::responseId).containsOnlyNulls();
+
+        JsonNode body = objectMapper.readTree(captured.body());
+        assertThat(body.get("stream").asBoolean()).isTrue();
+        assertThat(body.at("/stream_options/include_usage").asBoolean()).isTrue();
+        assertThat(captured.accept()).contains("text/event-stream");
+    }
+
+    @Test
+    void invalidStreamChunkFailsTheStream() {
+        next = new StubResponse(200, "data: {not json\n\n", "text/event-stream");
+
+        assertThatThrownBy(() -> client(baseUrl(), "").askStream("p", null).blockLast())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Invalid stream chunk");
+    }
+
+    private OpenAICompatibleClient client(String baseUrl, String apiKey) {
+        WebClient webClient = config.localAiWebClient(baseUrl, apiKey, 1000, 5000, connectionProvider);
+        return new OpenAICompatibleClient(webClient, objectMapper, baseUrl, "llama-test", 5000);
+    }
+
+    private String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/v1";
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        requests.incrementAndGet();
+        captured = new Captured(ex.getRequestMethod(), ex.getRequestURI().getPath(),
+                ex.getRequestHeaders().getFirst("Authorization"), ex.getRequestHeaders().getFirst("Content-Type"),
+                ex.getRequestHeaders().getFirst("Accept"),
+                new String(ex.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        StubResponse r = next;
+        byte[] body = r.body().getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().add("Content-Type", r.contentType());
+        try {
+            ex.sendResponseHeaders(r.status(), body.length);
+            ex.getResponseBody().write(body);
+        } finally {
+            ex.close();
+        }
+    }
+
+    private record StubResponse(int status, String body, String contentType) {
+    }
+
+    private record Captured(String method, String path, String authorization, String contentType, String accept,
+                            String body) {
+    }
+}
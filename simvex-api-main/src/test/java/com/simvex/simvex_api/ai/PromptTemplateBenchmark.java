@@ -0,0 +1,66 @@
+// src/test/java/com/simvex/simvex_api/ai/PromptTemplateBenchmark.java
+package com.simvex.simvex_api.ai;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 프롬프트 렌더링 JMH 벤치마크: 예전 구현(매 호출 classpath 읽기 + replace 3번) vs 컴파일된 세그먼트
+ *
+ * 실행: ./gradlew jmh -Pjmh.args="PromptTemplateBenchmark"   (결과는 ns/op, 할당량은 뒤에 -prof gc)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptTemplateBenchmark {
+
+    @Param({"part_with_notes", "ask_context"})
+    public String template;
+
+    // 부품 설명 길이 (실제 Data_*.json 설명은 수백 자~수천 자)
+    @Param({"200", "4000"})
+    public int contextChars;
+
+    private PromptTemplateService service;
+    private Map<String, String> vars;
+
+    @Setup
+    public void setUp() {
+        service = new PromptTemplateService("");
+        String context = "- Part Name: Crankshaft\n- Description: " + "피스톤의 왕복 운동을 회전 운동으로 바꾼다. ".repeat(
+                Math.max(1, contextChars / 25));
+        vars = new HashMap<>();
+        vars.put("context", context);
+        vars.put("question", "크랭크축은 어떤 재질로 만들어?");
+        vars.put("notes", "시험 범위: 동력 전달");
+        vars.put("modelContext", "- Model: V4 Engine\n- Description: 4기통 V형 엔진");
+        vars.put("partContext", context);
+    }
+
+    @Benchmark
+    public String legacyReadAndReplace() throws IOException {
+        return PromptTemplateServiceTest.legacyRender(template, vars);
+    }
+
+    @Benchmark
+    public String compiledSegments() {
+        return service.render(template, vars);
+    }
+}
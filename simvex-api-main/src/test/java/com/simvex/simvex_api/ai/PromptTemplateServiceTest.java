@@ -0,0 +1,126 @@
+// src/test/java/com/simvex/simvex_api/ai/PromptTemplateServiceTest.java
+package com.simvex.simvex_api.ai;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 컴파일된 세그먼트 렌더링이 예전 방식(파일 읽기 + String.replace) 과 같은 결과를 내는지, 그리고 폴더 hot-reload
+ */
+class PromptTemplateServiceTest {
+
+    private static final Map<String, String> VARS = Map.of(
+            "context", "- Part Name: 프로펠러\n- Description: 추력을 만든다 (CW/CCW)",
+            "question", "프로펠러는 왜 두 방향이야?",
+            "notes", "시험 범위: 추력",
+            "modelContext", "- Model: Drone",
+            "partContext", "- Part Name: Propeller",
+            "conversationSummary", "- Previous Conversation Summary:\n  Q: 모터?\n  A: BLDC");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void everyBundledTemplateMatchesLegacyReplace() throws IOException {
+        PromptTemplateService service = new PromptTemplateService("");
+
+        for (String name : new String[]{"global", "part", "part_with_notes", "ask_context", "ask_question"}) {
+            assertThat(service.render(name, VARS)).as(name).isEqualTo(legacyRender(name, VARS));
+        }
+    }
+
+    @Test
+    void modeRenderPicksTemplateLikeBefore() throws IOException {
+        PromptTemplateService service = new PromptTemplateService("");
+        Map<String, String> noNotes = new HashMap<>(VARS);
+        noNotes.put("notes", null);
+
+        assertThat(service.render("PART", VARS.get("context"), VARS.get("question"), VARS.get("notes")))
+                .isEqualTo(legacyRender("part_with_notes", VARS));
+        assertThat(service.render("PART", VARS.get("context"), VARS.get("question"), " "))
+                .isEqualTo(legacyRender("part", VARS));
+        assertThat(service.render("GLOBAL", null, VARS.get("question"), null))
+                .isEqualTo(legacyRender("global", noNotes));
+    }
+
+    @Test
+    void segmentEdgeCases() {
+        assertThat(compile("{{a}}{{b}}").render(Map.of("a", "1", "b", "2"))).isEqualTo("12");
+        assertThat(compile("x{{ a }}y").render(Map.of("a", "1"))).isEqualTo("x1y");
+        assertThat(compile("no vars").render(Map.of())).isEqualTo("no vars");
+        assertThat(compile("").render(Map.of())).isEmpty();
+        // 닫히지 않은 {{ 는 글자 그대로
+        assertThat(compile("a {{b").render(Map.of("b", "x"))).isEqualTo("a {{b");
+        // 없는 변수와 null 은 빈 문자열 (예전 safe() 와 같음)
+        Map<String, String> withNull = new HashMap<>();
+        withNull.put("a", null);
+        assertThat(compile("[{{a}}|{{missing}}]").render(withNull)).isEqualTo("[|]");
+    }
+
+    @Test
+    void valuesAreNotExpandedAgain() {
+        // 예전 replace 연쇄는 context 안의 "{{question}}" 까지 바꿨다. 세그먼트 렌더링은 값 안을 보지 않는다
+        assertThat(compile("{{context}} / {{question}}").render(Map.of("context", "{{question}}", "question", "Q")))
+                .isEqualTo("{{question}} / Q");
+    }
+
+    @Test
+    void unknownTemplateFails() {
+        PromptTemplateService service = new PromptTemplateService("");
+        assertThatThrownBy(() -> service.render("nope", Map.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void overrideDirectoryWinsAndReloadsOnChange() throws IOException {
+        PromptTemplateService service = new PromptTemplateService(dir.toString());
+        String classpathVersion = service.version();
+
+        Path file = dir.resolve("global.txt");
+        Files.writeString(file, "v2 {{question}}", StandardCharsets.UTF_8);
+        service.reloadIfChanged();
+        String overriddenVersion = service.version();
+
+        assertThat(service.render("global", VARS)).isEqualTo("v2 " + VARS.get("question"));
+        assertThat(overriddenVersion).isNotEqualTo(classpathVersion);
+
+        Files.writeString(file, "v3 {{question}}", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        service.reloadIfChanged();
+
+        assertThat(service.render("global", VARS)).isEqualTo("v3 " + VARS.get("question"));
+        assertThat(service.version()).isNotEqualTo(overriddenVersion);
+
+        Files.delete(file);
+        service.reloadIfChanged();
+
+        assertThat(service.render("global", VARS)).isEqualTo(legacyRender("global", VARS));
+        assertThat(service.version()).isEqualTo(classpathVersion);
+    }
+
+    private static PromptTemplateService.CompiledTemplate compile(String src) {
+        return PromptTemplateService.CompiledTemplate.compile(src);
+    }
+
+    // user-008 이전 구현: 매번 classpath 에서 읽고 알려진 변수마다 replace
+    static String legacyRender(String name, Map<String, String> vars) throws IOException {
+        String template = new String(new ClassPathResource("prompts/" + name + ".txt").getInputStream().readAllBytes(),
+                StandardCharsets.UTF_8);
+        for (Map.Entry<String, String> e : vars.entrySet()) {
+            template = template.replace("{{" + e.getKey() + "}}", e.getValue() == null ? "" : e.getValue());
+        }
+        return template;
+    }
+}
@@ -0,0 +1,98 @@
+// src/test/java/com/simvex/simvex_api/config/CatalogCacheHeadersTest.java
+package com.simvex.simvex_api.config;
+
+import com.simvex.simvex_api.controller.ModelController;
+import com.simvex.simvex_api.controller.StudyController;
+import com.simvex.simvex_api.domain.MemoRepository;
+import com.simvex.simvex_api.domain.QuizRepository;
+import com.simvex.simvex_api.dto.ModelDto;
+import com.simvex.simvex_api.model.CatalogSnapshot;
+import com.simvex.simvex_api.model.CatalogVersion;
+import com.simvex.simvex_api.model.ModelRepository;
+import com.simvex.simvex_api.part.PartRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 카탈로그 캐시 헤더는 2xx 응답에만 붙고, 304 는 컨트롤러 전에 끝난다
+ */
+class CatalogCacheHeadersTest {
+
+    private final ModelRepository modelRepository = mock(ModelRepository.class);
+    private final PartRepository partRepository = mock(PartRepository.class);
+    private final CatalogSnapshot catalogSnapshot = mock(CatalogSnapshot.class);
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final MockMvc mvc = MockMvcBuilders
+            .standaloneSetup(new ModelController(modelRepository, partRepository, mock(QuizRepository.class),
+                    mock(MemoRepository.class)), new StudyController(catalogSnapshot))
+            .addMappedInterceptors(new String[]{"/api/models/**", "/api/study/**"},
+                    new CatalogCacheInterceptor(catalogVersion, 60, 300))
+            .setControllerAdvice(new CatalogCacheHeaderAdvice())
+            .build();
+
+    @Test
+    void okResponseCarriesValidatorsAndCacheControl() throws Exception {
+        when(modelRepository.findDtoById(1L)).thenReturn(Optional.of(
+                new ModelDto(1L, "V4 Engine", "/v4.glb", "engineering", "engine", "v4-engine")));
+
+        MvcResult res = mvc.perform(get("/api/models/1")).andExpect(status().isOk()).andReturn();
+
+        assertThat(res.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo(catalogVersion.etag());
+        assertThat(res.getResponse().getHeader(HttpHeaders.CACHE_CONTROL)).contains("public", "s-maxage=300");
+        assertThat(res.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)).isNotNull();
+    }
+
+    @Test
+    void notFoundIsNotCacheable() throws Exception {
+        when(modelRepository.findDtoById(99L)).thenReturn(Optional.empty());
+        when(partRepository.findDtosWithModelCheck(99L)).thenReturn(List.of());
+
+        for (String path : List.of("/api/models/99", "/api/models/99/parts")) {
+            MvcResult res = mvc.perform(get(path)).andExpect(status().isNotFound()).andReturn();
+
+            assertThat(res.getResponse().getHeader(HttpHeaders.CACHE_CONTROL)).isNull();
+            assertThat(res.getResponse().getHeader(HttpHeaders.ETAG)).isNull();
+            assertThat(res.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)).isNull();
+        }
+    }
+
+    @Test
+    void staleSnapshotResponseIsNotStored() throws Exception {
+        when(catalogSnapshot.bundleJson("engineering", "engine", "v4-engine"))
+                .thenReturn(new CatalogSnapshot.Json("{}".getBytes(), true));
+        when(catalogSnapshot.bundleJson("engineering", "engine", "drone"))
+                .thenReturn(new CatalogSnapshot.Json("{}".getBytes(), false));
+
+        MvcResult stale = mvc.perform(get("/api/study/engineering/engine/v4-engine/bundle"))
+                .andExpect(status().isOk()).andReturn();
+        assertThat(stale.getResponse().getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-store");
+        assertThat(stale.getResponse().getHeader(HttpHeaders.ETAG)).isNull();
+
+        MvcResult fresh = mvc.perform(get("/api/study/engineering/engine/drone/bundle"))
+                .andExpect(status().isOk()).andReturn();
+        assertThat(fresh.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo(catalogVersion.etag());
+    }
+
+    @Test
+    void matchingEtagEndsWithNotModifiedBeforeTheController() throws Exception {
+        MvcResult res = mvc.perform(get("/api/models").header(HttpHeaders.IF_NONE_MATCH, catalogVersion.etag()))
+                .andExpect(status().isNotModified()).andReturn();
+
+        assertThat(res.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo(catalogVersion.etag());
+        assertThat(res.getResponse().getHeader(HttpHeaders.CACHE_CONTROL)).contains("s-maxage=300");
+        verifyNoInteractions(modelRepository);
+    }
+}
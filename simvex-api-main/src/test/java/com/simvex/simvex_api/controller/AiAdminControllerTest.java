@@ -0,0 +1,50 @@
+// src/test/java/com/simvex/simvex_api/controller/AiAdminControllerTest.java
+package com.simvex.simvex_api.controller;
+
+import com.simvex.simvex_api.ai.AiPregenerationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class AiAdminControllerTest {
+
+    private final AiPregenerationService pregen = mock(AiPregenerationService.class);
+
+    @Test
+    void refusesEverythingWhenNoTokenIsConfigured() {
+        AiAdminController controller = new AiAdminController(pregen, "");
+
+        assertForbidden(() -> controller.pregenerate(1L, null, null));
+        assertForbidden(() -> controller.pregenerate(1L, "", null));
+        assertForbidden(() -> controller.pregenerateStatus(1L, "anything"));
+        assertForbidden(() -> controller.cancelPregenerate(1L, null));
+        verifyNoInteractions(pregen);
+    }
+
+    @Test
+    void requiresMatchingToken() {
+        AiAdminController controller = new AiAdminController(pregen, "s3cret");
+
+        assertForbidden(() -> controller.pregenerate(1L, null, null));
+        assertForbidden(() -> controller.pregenerate(1L, "s3cre", null));
+        assertForbidden(() -> controller.pregenerate(1L, "s3cret ", null));
+        verifyNoInteractions(pregen);
+
+        assertThat(controller.pregenerate(1L, "s3cret", null).getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        verify(pregen).start(anyLong(), any(), any());
+    }
+
+    private static void assertForbidden(Runnable call) {
+        assertThatThrownBy(call::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN));
+    }
+}
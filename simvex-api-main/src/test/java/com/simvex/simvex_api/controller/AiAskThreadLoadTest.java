@@ -0,0 +1,143 @@
+// src/test/java/com/simvex/simvex_api/controller/AiAskThreadLoadTest.java
+package com.simvex.simvex_api.controller;
+
+import com.simvex.simvex_api.ai.AiContextResult;
+import com.simvex.simvex_api.ai.AiRateLimiter;
+import com.simvex.simvex_api.ai.AiService;
+import com.simvex.simvex_api.ai.AiTelemetry;
+import com.simvex.simvex_api.dto.AiAskRequestDto;
+import org.apache.catalina.connector.Connector;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * /api/ai/ask 가 LLM 응답을 기다리는 동안 Tomcat 워커 스레드를 붙잡지 않는지 확인하는 부하 테스트
+ *
+ * 워커 스레드 8개짜리 Tomcat 에 동시 요청 32개를 보내고, LLM 자리는 신호를 줄 때까지 답하지 않는 스텁으로 둔다.
+ * 스레드가 요청마다 묶인다면 8개 넘게 LLM 대기 상태에 들어갈 수 없다.
+ * 32개가 모두 대기 중일 때 바쁜 워커 스레드 수가 요청 수(그리고 스레드 상한)보다 적어야 한다. 신호를 준 뒤에는 모두 200 이어야 한다.
+ */
+@SpringBootTest(classes = AiAskThreadLoadTest.App.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"server.tomcat.threads.max=8", "server.tomcat.threads.min-spare=2"})
+class AiAskThreadLoadTest {
+
+    private static final int MAX_THREADS = 8;
+    private static final int REQUESTS = 32;
+
+    // @SpringBootConfiguration 을 쓰면 같은 패키지의 @DataJpaTest 가 이 클래스를 설정으로 찾아 쓰고,
+    // @TestConfiguration 은 주 설정으로 쓰이지 않아 SimvexApiApplication 전체가 함께 뜬다 → 일반 @Configuration 으로 둔다
+    @Configuration(proxyBeanMethods = false)
+    @EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            JpaRepositoriesAutoConfiguration.class})
+    @Import(AiController.class)
+    static class App {
+    }
+
+    @MockBean
+    AiService aiService;
+    @MockBean
+    AiRateLimiter aiRateLimiter;
+    @MockBean
+    AiTelemetry aiTelemetry;
+
+    @Autowired
+    ServletWebServerApplicationContext context;
+
+    @LocalServerPort
+    int port;
+
+    @Test
+    void waitingOnTheLlmDoesNotPinWorkerThreads() throws Exception {
+        // LLM 자리: release 신호 전까지 답하지 않는다
+        Sinks.Empty<Void> release = Sinks.empty();
+        AtomicInteger waiting = new AtomicInteger();
+        when(aiService.buildContext(any(AiAskRequestDto.class), anyString())).thenReturn(
+                new AiContextResult("PART", "", "", null, Map.of(), "fallback", null, null, null));
+        when(aiService.composePrompt(anyString(), any(AiContextResult.class))).thenReturn("prompt");
+        when(aiService.generateAnswerAsync(any(AiAskRequestDto.class), anyString(), any(AiContextResult.class)))
+                .thenAnswer(inv -> Mono.defer(() -> {
+                    waiting.incrementAndGet();
+                    return release.asMono().then(Mono.just(
+                            new AiService.AiAnswerResult("답", null, "openai", null, null)));
+                }));
+
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            HttpRequest req = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/ai/ask"))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .header("X-User-ID", "student-" + i)
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"modelId\":1,\"meshName\":\"Piston\",\"question\":\"피스톤은 무슨 역할을 해?\"}"))
+                    .build();
+            responses.add(http.sendAsync(req, HttpResponse.BodyHandlers.ofString()));
+        }
+
+        // 워커 스레드 수보다 많은 요청이 동시에 LLM 을 기다린다
+        waitUntil(() -> waiting.get() == REQUESTS);
+        int busy = 0;
+        for (int i = 0; i < 20; i++) {
+            busy = Math.max(busy, workerPool().getActiveCount());
+            Thread.sleep(10);
+        }
+        System.out.println("[LOAD] LLM 대기 " + waiting.get() + "건 / 바쁜 워커 스레드 최대 " + busy
+                + " (max " + MAX_THREADS + ")");
+        // 요청마다 스레드가 묶였다면 8개가 모두 바빠야 하고 나머지 24건은 LLM 까지 오지도 못한다
+        assertThat(busy).isLessThan(MAX_THREADS);
+
+        release.tryEmitEmpty();
+
+        for (CompletableFuture<HttpResponse<String>> f : responses) {
+            HttpResponse<String> res = f.get(30, TimeUnit.SECONDS);
+            assertThat(res.statusCode()).isEqualTo(200);
+            assertThat(res.body()).contains("\"answer\":\"답\"");
+        }
+    }
+
+    private ThreadPoolExecutor workerPool() {
+        Connector connector = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector();
+        return (ThreadPoolExecutor) connector.getProtocolHandler().getExecutor();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) throw new AssertionError("timed out");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+// src/test/java/com/simvex/simvex_api/controller/AssetControllerTest.java
+package com.simvex.simvex_api.controller;
+
+import com.simvex.simvex_api.model.AssetStore;
+import com.simvex.simvex_api.model.AssetVariants;
+import com.simvex.simvex_api.model.GlbSplitter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 내용 해시 URL 의 캐시 헤더, Range (단일 / 끝에서 n / 열린 구간), 416, If-Range, 예전 해시 302
+ */
+class AssetControllerTest {
+
+    private static final String HASH = "abc123";
+    private static final String URL = "/assets/v/" + HASH + "/engine/engine.glb";
+    private static final String ETAG = "\"" + HASH + "\"";
+
+    @TempDir
+    Path dir;
+
+    private final AssetStore assetStore = mock(AssetStore.class);
+    private final AssetVariants assetVariants = mock(AssetVariants.class);
+    private byte[] content;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        content = new byte[100];
+        for (int i = 0; i < content.length; i++) content[i] = (byte) i;
+        Path file = Files.write(dir.resolve("engine.glb"), content);
+
+        AssetVariants.Variant identity = new AssetVariants.Variant(null, AssetVariants.IDENTITY, file,
+                content.length, ETAG);
+        when(assetStore.entry("engine", "engine.glb")).thenReturn(new AssetStore.Entry(file, HASH, content.length, 0));
+        when(assetVariants.prepare("engine", "engine.glb")).thenReturn(List.of(identity));
+        when(assetVariants.select(anyList(), any(), any())).thenReturn(identity);
+
+        mvc = MockMvcBuilders
+                .standaloneSetup(new AssetController(assetStore, assetVariants, mock(GlbSplitter.class),
+                        new SimpleMeterRegistry(), 49152))
+                .build();
+    }
+
+    @Test
+    void hashedUrlIsImmutableAndSentWhole() throws Exception {
+        MockHttpServletResponse res = mvc.perform(get(URL)).andReturn().getResponse();
+
+        assertThat(res.getStatus()).isEqualTo(200);
+        assertThat(res.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("public, max-age=31536000, immutable");
+        assertThat(res.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        assertThat(res.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(res.getContentType()).isEqualTo("model/gltf-binary");
+        assertThat(res.getContentLengthLong()).isEqualTo(100);
+        assertThat(res.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void singleRange() throws Exception {
+        MockHttpServletResponse res = mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andReturn().getResponse();
+
+        assertPartial(res, 10, 19);
+    }
+
+    @Test
+    void suffixRangeIsTheLastNBytes() throws Exception {
+        MockHttpServletResponse res = mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=-5"))
+                .andReturn().getResponse();
+
+        assertPartial(res, 95, 99);
+    }
+
+    @Test
+    void openEndedRangeRunsToTheEnd() throws Exception {
+        MockHttpServletResponse res = mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=90-"))
+                .andReturn().getResponse();
+
+        assertPartial(res, 90, 99);
+    }
+
+    @Test
+    void rangeEndPastTheFileIsClamped() throws Exception {
+        MockHttpServletResponse res = mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=50-1000"))
+                .andReturn().getResponse();
+
+        assertPartial(res, 50, 99);
+    }
+
+    @Test
+    void unsatisfiableRangeIs416WithTheFileLength() throws Exception {
+        MockHttpServletResponse res = mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=100-"))
+                .andReturn().getResponse();
+
+        assertThat(res.getStatus()).isEqualTo(416);
+        assertThat(res.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */100");
+        assertThat(res.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void ifRangeMismatchSendsTheWholeFile() throws Exception {
+        MockHttpServletResponse res = mvc.perform(get(URL)
+                        .header(HttpHeaders.RANGE, "bytes=10-19")
+                        .header(HttpHeaders.IF_RANGE, "\"old-hash\""))
+                .andReturn().getResponse();
+
+        assertThat(res.getStatus()).isEqualTo(200);
+        assertThat(res.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(res.getContentAsByteArray()).isEqualTo(content);
+
+        MockHttpServletResponse matched = mvc.perform(get(URL)
+                        .header(HttpHeaders.RANGE, "bytes=10-19")
+                        .header(HttpHeaders.IF_RANGE, ETAG))
+                .andReturn().getResponse();
+        assertPartial(matched, 10, 19);
+    }
+
+    @Test
+    void multipleOrMalformedRangesFallBackToTheWholeFile() throws Exception {
+        for (String range : List.of("bytes=0-1,5-6", "items=0-1", "bytes=x-", "bytes=20-10")) {
+            MockHttpServletResponse res = mvc.perform(get(URL).header(HttpHeaders.RANGE, range))
+                    .andReturn().getResponse();
+
+            assertThat(res.getStatus()).as(range).isEqualTo(200);
+            assertThat(res.getContentAsByteArray()).as(range).isEqualTo(content);
+        }
+    }
+
+    @Test
+    void matchingEtagIs304() throws Exception {
+        MockHttpServletResponse res = mvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, "W/" + ETAG))
+                .andReturn().getResponse();
+
+        assertThat(res.getStatus()).isEqualTo(304);
+        assertThat(res.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void oldHashRedirectsToTheCurrentUrl() throws Exception {
+        MockHttpServletResponse res = mvc.perform(get("/assets/v/old999/engine/engine.glb"))
+                .andReturn().getResponse();
+
+        assertThat(res.getStatus()).isEqualTo(302);
+        assertThat(res.getHeader(HttpHeaders.LOCATION)).isEqualTo(URL);
+        // 리다이렉트 자체는 캐시하지 않는다 (파일이 다시 바뀔 수 있음)
+        assertThat(res.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+    }
+
+    @Test
+    void unknownFileIs404() throws Exception {
+        MockHttpServletResponse res = mvc.perform(get("/assets/v/" + HASH + "/engine/missing.glb"))
+                .andReturn().getResponse();
+
+        assertThat(res.getStatus()).isEqualTo(404);
+    }
+
+    private void assertPartial(MockHttpServletResponse res, int start, int end) {
+        assertThat(res.getStatus()).isEqualTo(206);
+        assertThat(res.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes " + start + "-" + end + "/100");
+        assertThat(res.getContentLengthLong()).isEqualTo(end - start + 1);
+        assertThat(res.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, start, end + 1));
+        assertThat(res.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("public, max-age=31536000, immutable");
+    }
+}
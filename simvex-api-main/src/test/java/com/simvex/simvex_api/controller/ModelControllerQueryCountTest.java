@@ -0,0 +1,139 @@
+// src/test/java/com/simvex/simvex_api/controller/ModelControllerQueryCountTest.java
+package com.simvex.simvex_api.controller;
+
+import com.simvex.simvex_api.domain.MemoRepository;
+import com.simvex.simvex_api.domain.QuizEntity;
+import com.simvex.simvex_api.domain.QuizRepository;
+import com.simvex.simvex_api.dto.ModelDto;
+import com.simvex.simvex_api.dto.PartDto;
+import com.simvex.simvex_api.dto.QuizDto;
+import com.simvex.simvex_api.model.CatalogVersion;
+import com.simvex.simvex_api.model.ModelEntity;
+import com.simvex.simvex_api.model.ModelRepository;
+import com.simvex.simvex_api.part.PartEntity;
+import com.simvex.simvex_api.part.PartRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ModelController 조회 엔드포인트별 SQL 수를 Hibernate 통계로 고정한다 (projection 이라 엔티티 로드도 0)
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(CatalogVersion.class)
+class ModelControllerQueryCountTest {
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ModelRepository modelRepository;
+    @Autowired
+    private PartRepository partRepository;
+    @Autowired
+    private QuizRepository quizRepository;
+    @Autowired
+    private MemoRepository memoRepository;
+
+    private ModelController controller;
+    private Statistics stats;
+    private Long engineId;
+    private Long emptyId;
+
+    @BeforeEach
+    void setUp() {
+        controller = new ModelController(modelRepository, partRepository, quizRepository, memoRepository);
+        stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        ModelEntity engine = new ModelEntity("V4 Engine", "/assets/3d/V4_Engine/V4_Engine.glb");
+        engine.setDescription("4기통 V형 엔진. ".repeat(200));
+        em.persist(engine);
+        ModelEntity empty = new ModelEntity("Drone", "/assets/3d/Drone/Drone.glb");
+        em.persist(empty);
+        for (String mesh : List.of("Piston", "Crankshaft", "Camshaft")) {
+            em.persist(new PartEntity(engine, mesh, Map.of("title", mesh)));
+        }
+        for (int i = 0; i < 5; i++) {
+            QuizEntity quiz = new QuizEntity("문제 " + i, 1, List.of("a", "b", "c", "d"), "해설");
+            quiz.setModel(engine);
+            em.persist(quiz);
+        }
+        em.flush();
+        em.clear();
+        engineId = engine.getId();
+        emptyId = empty.getId();
+        stats.clear();
+    }
+
+    @Test
+    void listModelsIsOneQueryWithoutDescriptions() {
+        List<ModelDto> models = controller.listModels();
+
+        assertThat(models).hasSize(2).allSatisfy(m -> assertThat(m.getDescription()).isNull());
+        assertQueries(1);
+    }
+
+    @Test
+    void getModelIsOneQuery() {
+        ResponseEntity<ModelDto> res = controller.getModel(engineId);
+
+        assertThat(res.getBody().getDescription()).startsWith("4기통");
+        assertQueries(1);
+    }
+
+    @Test
+    void listPartsChecksModelAndFetchesInOneQuery() {
+        ResponseEntity<List<PartDto>> parts = controller.listParts(engineId);
+        assertThat(parts.getBody()).hasSize(3);
+        assertQueries(1);
+
+        stats.clear();
+        ResponseEntity<List<PartDto>> none = controller.listParts(emptyId);
+        assertThat(none.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(none.getBody()).isEmpty();
+        assertQueries(1);
+
+        stats.clear();
+        assertThat(controller.listParts(-1L).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertQueries(1);
+    }
+
+    @Test
+    void listQuizzesIsOneQuery() {
+        ResponseEntity<List<QuizDto>> quizzes = controller.listQuizzes(engineId);
+
+        assertThat(quizzes.getBody()).hasSize(5);
+        assertQueries(1);
+    }
+
+    @Test
+    void examReadsIdsThenOnlyPickedRows() {
+        ResponseEntity<List<QuizDto>> exam = controller.generateExam(List.of(engineId, emptyId));
+
+        assertThat(exam.getBody()).hasSize(5);
+        assertQueries(2);
+    }
+
+    private void assertQueries(long expected) {
+        assertThat(stats.getPrepareStatementCount()).as("SQL statements").isEqualTo(expected);
+        assertThat(stats.getEntityLoadCount()).as("entities loaded").isZero();
+    }
+}
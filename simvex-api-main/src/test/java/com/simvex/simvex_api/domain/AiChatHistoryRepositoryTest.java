@@ -0,0 +1,97 @@
+// src/test/java/com/simvex/simvex_api/domain/AiChatHistoryRepositoryTest.java
+package com.simvex.simvex_api.domain;
+
+import com.simvex.simvex_api.ai.AiChatHistoryWriter;
+import com.simvex.simvex_api.ai.OpenAIClient;
+import com.simvex.simvex_api.model.CatalogVersion;
+import com.simvex.simvex_api.model.ModelEntity;
+import com.simvex.simvex_api.model.ModelRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "simvex.ai.history.write-behind=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({CatalogVersion.class, AiChatHistoryWriter.class, AiChatHistoryRepositoryTest.Metrics.class})
+class AiChatHistoryRepositoryTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private ModelRepository modelRepository;
+    @Autowired
+    private AiChatHistoryRepository aiChatHistoryRepository;
+    @Autowired
+    private AiChatHistoryWriter aiChatHistoryWriter;
+
+    @Test
+    void recentReusableQaSkipsChainedOldAndOtherVersionRows() {
+        Long modelId = modelRepository.save(new ModelEntity("V4 Engine", "/assets/3d/V4_Engine/")).getId();
+        LocalDateTime now = LocalDateTime.now();
+        OpenAIClient.Usage usage = new OpenAIClient.Usage("gpt-5-mini", 100, 20, 900);
+
+        save(modelId, "Piston", "피스톤은 무슨 역할?", "reusable", usage, "v1", now.minusMinutes(5));
+        save(modelId, "Piston", "더 자세히", "chained turn", usage, null, now.minusMinutes(4));
+        save(modelId, "Piston", "피스톤 재질은?", "old template", usage, "v0", now.minusMinutes(3));
+        save(modelId, "Piston", "피스톤 크기는?", "expired", usage, "v1", now.minusDays(3));
+        save(modelId, null, "엔진은 어떻게 작동해?", "model level", usage, "v1", now.minusMinutes(1));
+
+        List<AiChatHistoryRepository.QaRow> rows = aiChatHistoryRepository
+                .findRecentReusableQa("v1", now.minusDays(1), PageRequest.of(0, 10));
+
+        assertThat(rows).extracting(AiChatHistoryRepository.QaRow::getAnswer)
+                .containsExactly("model level", "reusable");
+        assertThat(rows.get(0).getMeshName()).isNull();
+        assertThat(rows.get(1).getModelId()).isEqualTo(modelId);
+        assertThat(rows.get(1).getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    void pregenResumeReadsOnlyCurrentVersionRowsOfThatUser() {
+        Long modelId = modelRepository.save(new ModelEntity("Drone", "/assets/3d/Drone/")).getId();
+        LocalDateTime now = LocalDateTime.now();
+        OpenAIClient.Usage usage = new OpenAIClient.Usage("gpt-5-mini", 100, 20, 900);
+
+        save(modelId, "Propeller", "__pregen__", "역할은?", "current", usage, "v1", now);
+        save(modelId, "Propeller", "__pregen__", "작동은?", "mock answer", null, null, now);
+        save(modelId, "Propeller", "__pregen__", "재질은?", "old template", usage, "v0", now);
+        save(modelId, "Propeller", "student-1", "역할은?", "student", usage, "v1", now);
+
+        List<AiChatHistoryRepository.QaRow> rows = aiChatHistoryRepository
+                .findReusableQaByModelAndUser(modelId, "__pregen__", "v1");
+
+        assertThat(rows).extracting(AiChatHistoryRepository.QaRow::getAnswer).containsExactly("current");
+    }
+
+    private void save(Long modelId, String meshName, String question, String answer, OpenAIClient.Usage usage,
+                      String promptVersion, LocalDateTime createdAt) {
+        save(modelId, meshName, "student-1", question, answer, usage, promptVersion, createdAt);
+    }
+
+    private void save(Long modelId, String meshName, String userId, String question, String answer,
+                      OpenAIClient.Usage usage, String promptVersion, LocalDateTime createdAt) {
+        aiChatHistoryWriter.submit(new AiChatHistoryWriter.PendingChat(
+                modelId, meshName, question, answer, userId, "resp_" + question.hashCode(), usage,
+                promptVersion, createdAt));
+    }
+}
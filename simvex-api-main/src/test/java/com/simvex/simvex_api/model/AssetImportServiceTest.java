@@ -0,0 +1,124 @@
+// src/test/java/com/simvex/simvex_api/model/AssetImportServiceTest.java
+package com.simvex.simvex_api.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simvex.simvex_api.part.PartRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * manifest 기반 증분 임포트: JSON / GLB 해시가 그대로면 건너뛰고, GLB 만 바뀌어도 다시 임포트한다
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(CatalogVersion.class)
+class AssetImportServiceTest {
+
+    private static final String MANIFEST_KEY = AssetImportManifestEntity.JSON + "Data_V4Engine.json";
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private ModelRepository modelRepository;
+    @Autowired
+    private PartRepository partRepository;
+    @Autowired
+    private AssetImportManifestRepository manifestRepository;
+
+    @TempDir
+    Path root;
+    @TempDir
+    Path splitDir;
+
+    private final List<Object> events = new ArrayList<>();
+    private AssetImportService service;
+    private Long engineId;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path folder = Files.createDirectories(root.resolve("V4_Engine"));
+        Files.writeString(folder.resolve("V4_Engine.glb"), "glb v1");
+        AssetStore store = new AssetStore(root.toString());
+        ObjectMapper objectMapper = new ObjectMapper();
+        service = new AssetImportService(objectMapper, modelRepository, partRepository, events::add, store,
+                new GlbIndex(objectMapper), new GlbSplitter(store, objectMapper, false, splitDir.toString(), 64),
+                manifestRepository, 4);
+
+        engineId = em.persist(new ModelEntity("V4_Engine", "/assets/3d/V4_Engine/V4_Engine.glb")).getId();
+        em.flush();
+    }
+
+    @Test
+    void unchangedFilesAreSkippedOnTheNextRun() throws Exception {
+        service.importAllFromResources();
+        em.flush();
+        em.clear();
+        AssetImportManifestEntity first = manifestRepository.findById(MANIFEST_KEY).orElseThrow();
+        long parts = partRepository.count();
+        LocalDateTime importedAt = first.getImportedAt();
+
+        service.importAllFromResources();
+        em.flush();
+
+        assertThat(parts).isPositive();
+        assertThat(first.getModelId()).isEqualTo(engineId);
+        assertThat(first.getGlbPath()).isEqualTo("V4_Engine/V4_Engine.glb");
+        assertThat(events).hasSize(1);
+        assertThat(partRepository.count()).isEqualTo(parts);
+        assertThat(manifestRepository.findById(MANIFEST_KEY).orElseThrow().getImportedAt()).isEqualTo(importedAt);
+    }
+
+    @Test
+    void changedGlbTriggersReimport() throws Exception {
+        service.importAllFromResources();
+        em.flush();
+        String oldHash = manifestRepository.findById(MANIFEST_KEY).orElseThrow().getGlbHash();
+
+        Files.writeString(root.resolve("V4_Engine/V4_Engine.glb"), "glb v2 (re-exported)");
+        service.importAllFromResources();
+        em.flush();
+
+        assertThat(events).hasSize(2);
+        assertThat(manifestRepository.findById(MANIFEST_KEY).orElseThrow().getGlbHash()).isNotEqualTo(oldHash);
+    }
+
+    @Test
+    void deletedModelIsImportedAgain() throws Exception {
+        service.importAllFromResources();
+        em.flush();
+        AssetImportManifestEntity row = manifestRepository.findById(MANIFEST_KEY).orElseThrow();
+        row.setModelId(-1L);
+        em.flush();
+
+        service.importAllFromResources();
+
+        assertThat(events).hasSize(2);
+    }
+
+    @Test
+    void runParallelKeepsInputOrderAndRethrowsTheTaskFailure() throws Exception {
+        assertThat(service.runParallel(List.of(5, 1, 4, 2, 3), i -> i * 10)).containsExactly(50, 10, 40, 20, 30);
+        assertThatThrownBy(() -> service.runParallel(List.of(1, 2, 3), i -> {
+            if (i == 2) throw new IllegalStateException("bad item");
+            return i;
+        })).isInstanceOf(IllegalStateException.class).hasMessage("bad item");
+    }
+}
@@ -0,0 +1,73 @@
+// src/test/java/com/simvex/simvex_api/model/AssetVariantsTest.java
+package com.simvex.simvex_api.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssetVariantsTest {
+
+    @TempDir
+    Path root;
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    void rebuiltMeshoptFileGetsNewEtagAndGzip() throws IOException {
+        Path folder = Files.createDirectories(root.resolve("V4_Engine"));
+        Files.writeString(folder.resolve("V4_Engine.glb"), "source geometry ".repeat(4000));
+        Files.writeString(folder.resolve("V4_Engine.meshopt.glb"), "meshopt v1 ".repeat(2000));
+        AssetVariants variants = new AssetVariants(new AssetStore(root.toString()), true, cacheDir.toString(), 5);
+
+        List<AssetVariants.Variant> first = variants.prepare("V4_Engine", "V4_Engine.glb");
+        AssetVariants.Variant meshopt1 = pick(variants, first, AssetVariants.IDENTITY);
+        AssetVariants.Variant meshoptGz1 = pick(variants, first, AssetVariants.GZIP);
+
+        // 원본은 그대로, 압축본만 다시 만든 경우
+        Files.writeString(folder.resolve("V4_Engine.meshopt.glb"), "meshopt v2 (re-encoded) ".repeat(1500));
+        List<AssetVariants.Variant> second = variants.prepare("V4_Engine", "V4_Engine.glb");
+        AssetVariants.Variant meshopt2 = pick(variants, second, AssetVariants.IDENTITY);
+        AssetVariants.Variant meshoptGz2 = pick(variants, second, AssetVariants.GZIP);
+
+        assertThat(second.get(0).etag()).isEqualTo(first.get(0).etag());
+        assertThat(meshopt2.etag()).isNotEqualTo(meshopt1.etag());
+        assertThat(meshoptGz2.etag()).isNotEqualTo(meshoptGz1.etag());
+        assertThat(meshoptGz2.path()).isNotEqualTo(meshoptGz1.path());
+        assertThat(gunzip(meshoptGz2.path())).startsWith("meshopt v2");
+    }
+
+    @Test
+    void unchangedFilesReuseThePreparedList() throws IOException {
+        Path folder = Files.createDirectories(root.resolve("Drone"));
+        Files.writeString(folder.resolve("Drone.glb"), "drone ".repeat(4000));
+        Files.writeString(folder.resolve("Drone.draco.glb"), "draco ".repeat(1000));
+        AssetVariants variants = new AssetVariants(new AssetStore(root.toString()), true, cacheDir.toString(), 5);
+
+        assertThat(variants.prepare("Drone", "Drone.glb")).isSameAs(variants.prepare("Drone", "Drone.glb"));
+    }
+
+    private static AssetVariants.Variant pick(AssetVariants variants, List<AssetVariants.Variant> list,
+                                              String encoding) {
+        String accept = AssetVariants.IDENTITY.equals(encoding) ? null : encoding;
+        AssetVariants.Variant v = variants.select(list, accept, Set.of("meshopt"));
+        assertThat(v.codec()).isEqualTo("meshopt");
+        assertThat(v.encoding()).isEqualTo(encoding);
+        return v;
+    }
+
+    private static String gunzip(Path gz) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(gz))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
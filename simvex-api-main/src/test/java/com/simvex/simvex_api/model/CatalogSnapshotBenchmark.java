@@ -0,0 +1,100 @@
+// src/test/java/com/simvex/simvex_api/model/CatalogSnapshotBenchmark.java
+package com.simvex.simvex_api.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simvex.simvex_api.part.PartRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 엔티티 쓰기가 섞일 때 bundle 조회 지연: writeEvery 번 조회마다 CatalogVersion 을 한 번 올린다 (0 = 쓰기 없음)
+ *
+ * 재빌드는 dbMillis 만큼 걸리는 findAll 을 흉내 낸다. 예전 구현은 버전이 바뀐 뒤 첫 조회들이 이 시간을 그대로 기다렸다.
+ * 실행: ./gradlew jmh -Pjmh.args="CatalogSnapshotBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class CatalogSnapshotBenchmark {
+
+    @Param({"0", "100", "10000"})
+    public int writeEvery;
+
+    @Param({"5"})
+    public int dbMillis;
+
+    private CatalogSnapshot snapshot;
+    private CatalogVersion catalogVersion;
+    private final AtomicLong reads = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<ModelEntity> models = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) models.add(model(id));
+
+        ModelRepository modelRepository = mock(ModelRepository.class);
+        when(modelRepository.findAll()).thenAnswer(inv -> {
+            Thread.sleep(dbMillis);
+            return models;
+        });
+        PartRepository partRepository = mock(PartRepository.class);
+        when(partRepository.findAll()).thenReturn(List.of());
+        AssetVariants assetVariants = mock(AssetVariants.class);
+        when(assetVariants.forUrl(any())).thenReturn(List.of());
+
+        catalogVersion = new CatalogVersion();
+        snapshot = new CatalogSnapshot(modelRepository, partRepository, catalogVersion, assetVariants,
+                mock(GlbSplitter.class), new ObjectMapper(), new SimpleMeterRegistry());
+        snapshot.warmUp();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        snapshot.shutdown();
+    }
+
+    @Benchmark
+    public CatalogSnapshot.Json bundleWithConcurrentWrites() {
+        if (writeEvery > 0 && reads.incrementAndGet() % writeEvery == 0) {
+            catalogVersion.markDirty();
+        }
+        return snapshot.bundleJson("engineering", "engine", "model-42");
+    }
+
+    private static ModelEntity model(long id) {
+        ModelEntity m = mock(ModelEntity.class);
+        when(m.getId()).thenReturn(id);
+        when(m.getTitle()).thenReturn("Model " + id);
+        when(m.getSlug()).thenReturn("model-" + id);
+        when(m.getDomainKey()).thenReturn("engineering");
+        when(m.getCategoryKey()).thenReturn("engine");
+        when(m.getModelUrl()).thenReturn("/assets/model-" + id + ".glb");
+        return m;
+    }
+}
@@ -0,0 +1,113 @@
+// src/test/java/com/simvex/simvex_api/model/CatalogSnapshotTest.java
+package com.simvex.simvex_api.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simvex.simvex_api.part.PartRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogSnapshotTest {
+
+    private final ModelRepository modelRepository = mock(ModelRepository.class);
+    private final PartRepository partRepository = mock(PartRepository.class);
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final AssetVariants assetVariants = mock(AssetVariants.class);
+    private final CatalogSnapshot snapshot = new CatalogSnapshot(modelRepository, partRepository, catalogVersion,
+            assetVariants, mock(GlbSplitter.class), new ObjectMapper(), new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        snapshot.shutdown();
+    }
+
+    @Test
+    void entityWriteServesLastSnapshotAndRebuildsInBackground() throws InterruptedException {
+        ModelEntity engine = model(1L, "V4 Engine", "v4-engine");
+        ModelEntity drone = model(2L, "Drone", "drone");
+        when(assetVariants.forUrl(any())).thenReturn(List.of());
+        when(modelRepository.findAll()).thenReturn(List.of(engine));
+        when(partRepository.findAll()).thenReturn(List.of());
+        snapshot.warmUp();
+
+        // CatalogEntityListener 처럼 쓰기마다 버전만 오른 경우
+        when(modelRepository.findAll()).thenReturn(List.of(engine, drone));
+        catalogVersion.markDirty();
+
+        // 조회 스레드는 재빌드를 기다리지 않고 이전 스냅샷을 캐시 금지 표시와 함께 받는다
+        CatalogSnapshot.Json stale = snapshot.categoryModelsJson("engineering", "engine");
+        assertThat(stale.stale()).isTrue();
+        assertThat(text(stale)).doesNotContain("Drone");
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (snapshot.bundleJson("engineering", "engine", "drone") == null
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        CatalogSnapshot.Json fresh = snapshot.bundleJson("engineering", "engine", "drone");
+        assertThat(fresh).isNotNull();
+        assertThat(fresh.stale()).isFalse();
+    }
+
+    @Test
+    void burstOfWritesDoesNotRebuildPerRead() throws InterruptedException {
+        ModelEntity engine = model(1L, "V4 Engine", "v4-engine");
+        when(assetVariants.forUrl(any())).thenReturn(List.of());
+        when(modelRepository.findAll()).thenReturn(List.of(engine));
+        when(partRepository.findAll()).thenReturn(List.of());
+        snapshot.warmUp();
+
+        for (int i = 0; i < 1000; i++) {
+            catalogVersion.markDirty();
+            assertThat(snapshot.bundleJson("engineering", "engine", "v4-engine")).isNotNull();
+        }
+        Thread.sleep(200);
+
+        // 예전 구현은 읽을 때마다 (여기선 1000번) 동기 재빌드했다
+        verify(modelRepository, atMost(100)).findAll();
+    }
+
+    @Test
+    void catalogEventRebuildsImmediately() {
+        ModelEntity engine = model(1L, "V4 Engine", "v4-engine");
+        ModelEntity drone = model(2L, "Drone", "drone");
+        when(assetVariants.forUrl(any())).thenReturn(List.of());
+        when(modelRepository.findAll()).thenReturn(List.of(engine));
+        when(partRepository.findAll()).thenReturn(List.of());
+        snapshot.warmUp();
+
+        when(modelRepository.findAll()).thenReturn(List.of(engine, drone));
+        CatalogChangedEvent event = new CatalogChangedEvent("import");
+        catalogVersion.onCatalogChanged(event);
+        snapshot.onCatalogChanged(event);
+
+        assertThat(snapshot.bundleJson("engineering", "engine", "drone").stale()).isFalse();
+        verify(modelRepository, times(2)).findAll();
+    }
+
+    private static String text(CatalogSnapshot.Json json) {
+        return new String(json.body(), StandardCharsets.UTF_8);
+    }
+
+    private static ModelEntity model(Long id, String title, String slug) {
+        ModelEntity m = mock(ModelEntity.class);
+        when(m.getId()).thenReturn(id);
+        when(m.getTitle()).thenReturn(title);
+        when(m.getSlug()).thenReturn(slug);
+        when(m.getDomainKey()).thenReturn("engineering");
+        when(m.getCategoryKey()).thenReturn("engine");
+        when(m.getModelUrl()).thenReturn("/assets/" + slug + ".glb");
+        return m;
+    }
+}
@@ -0,0 +1,105 @@
+// src/test/java/com/simvex/simvex_api/model/GlbIndexTest.java
+package com.simvex.simvex_api.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * JSON 만 읽어서 만드는 노드 인덱스 (sanitize 이름, 월드 bbox, 서브트리 삼각형 수)
+ */
+class GlbIndexTest {
+
+    private static final String GLTF = """
+            {
+              "asset": {"version": "2.0"},
+              "scene": 0,
+              "scenes": [{"nodes": [0, 3]}],
+              "accessors": [
+                {"componentType": 5126, "count": 3, "type": "VEC3", "min": [0, 0, 0], "max": [1, 1, 0]},
+                {"componentType": 5123, "count": 6, "type": "SCALAR"}
+              ],
+              "meshes": [
+                {"name": "tri", "primitives": [{"attributes": {"POSITION": 0}}]},
+                {"name": "quad", "primitives": [{"attributes": {"POSITION": 0}, "indices": 1}]}
+              ],
+              "nodes": [
+                {"name": "Main Frame", "translation": [10, 0, 0], "children": [1, 2]},
+                {"name": "Arm.L", "mesh": 0, "translation": [0, 5, 0]},
+                {"name": "Arm.L", "mesh": 1},
+                {"name": "Empty"}
+              ]
+            }
+            """;
+
+    private final GlbIndex index = new GlbIndex(new ObjectMapper());
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void groupNodeAggregatesItsSubtree() throws IOException {
+        GlbIndex.GlbInfo info = index.parse(gltf(GLTF));
+
+        GlbIndex.NodeInfo frame = info.nodes().get("Main_Frame");
+        assertThat(frame.name()).isEqualTo("Main Frame");
+        assertThat(frame.mesh()).isNull();
+        assertThat(frame.triangles()).isEqualTo(3);
+        assertThat(frame.min()).containsExactly(10, 0, 0);
+        assertThat(frame.max()).containsExactly(11, 6, 0);
+        assertThat(info.totalTriangles()).isEqualTo(3);
+        // 그릴 것이 없는 노드는 인덱스에 넣지 않는다
+        assertThat(info.nodes()).doesNotContainKey("Empty");
+    }
+
+    @Test
+    void duplicateSanitizedNameKeepsTheFirstNode() throws IOException {
+        GlbIndex.GlbInfo info = index.parse(gltf(GLTF));
+
+        GlbIndex.NodeInfo arm = info.nodes().get("ArmL");
+        assertThat(arm.mesh()).isEqualTo("tri");
+        assertThat(arm.min()).containsExactly(10, 5, 0);
+        assertThat(info.nodes().keySet()).containsExactly("ArmL", "Main_Frame");
+    }
+
+    @Test
+    void sanitizeFollowsThreeJsRules() {
+        assertThat(GlbIndex.sanitize("Main Frame [v2].obj:1/a")).isEqualTo("Main_Frame_v2obj1a");
+    }
+
+    @Test
+    void contentRoundsBoundsAndNarrowsCounts() {
+        GlbIndex.NodeInfo node = new GlbIndex.NodeInfo("Arm", "tri",
+                new double[]{0.12345678, 0, 0}, new double[]{1, 1, 1}, 12, 36);
+
+        Map<String, Object> content = node.toContent();
+
+        assertThat(content.get("bboxMin")).isEqualTo(List.of(0.123457, 0.0, 0.0));
+        assertThat(content.get("triangles")).isEqualTo(12);
+        assertThat(content.get("vertices")).isInstanceOf(Integer.class);
+    }
+
+    @Test
+    void brokenGlbIsRejectedAndInspectReturnsNull() throws IOException {
+        Path file = dir.resolve("broken.glb");
+        Files.writeString(file, "not a glb file at all");
+
+        assertThatThrownBy(() -> index.parse(file)).hasMessageContaining("magic");
+        assertThat(index.inspect(new AssetStore.Entry(file, "0123456789abcdef", 21, 0))).isNull();
+    }
+
+    private Path gltf(String json) throws IOException {
+        Path file = dir.resolve("model.gltf");
+        Files.writeString(file, json);
+        return file;
+    }
+}
@@ -0,0 +1,185 @@
+// src/test/java/com/simvex/simvex_api/model/GlbSplitterTest.java
+package com.simvex.simvex_api.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 그룹 노드(메시 자식을 묶는 노드) 도 GlbIndex 와 같은 이름으로 서브트리 GLB 를 갖는다
+ */
+class GlbSplitterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path root;
+    @TempDir
+    Path splitDir;
+
+    private AssetStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path folder = Files.createDirectories(root.resolve("Vice"));
+        Files.write(folder.resolve("Vice.glb"), sampleGlb());
+        store = new AssetStore(root.toString());
+    }
+
+    @Test
+    void groupNodeGetsOneGlbWithTheWholeSubtree() throws IOException {
+        GlbSplitter.Split split = splitter().split("Vice", "Vice.glb");
+
+        GlbSplitter.PartAsset assembly = split.part("Assembly");
+        assertThat(assembly.url()).endsWith("/g0.glb");
+        assertThat(assembly.node()).isEqualTo("Assembly");
+        assertThat(assembly.triangles()).isEqualTo(2);
+
+        JsonNode gltf = json(read(split, assembly));
+        assertThat(gltf.path("nodes")).extracting(n -> n.path("name").asText()).containsExactly("Bolt", "Nut");
+        assertThat(gltf.path("meshes").size()).isEqualTo(1);
+        // 그룹의 이동(10, 0, 0) 이 자식 월드 행렬에 들어간다
+        assertThat(gltf.path("nodes").get(0).path("matrix").get(12).asDouble()).isEqualTo(10);
+        assertThat(gltf.path("nodes").get(0).path("matrix").get(13).asDouble()).isEqualTo(1);
+
+        // 메시 자식이 있는 메시 노드는 자기 메시만 (n) 과 서브트리 (g) 를 따로 갖는다
+        GlbSplitter.PartAsset housing = split.part("Housing");
+        assertThat(housing.url()).endsWith("/g3.glb");
+        assertThat(housing.triangles()).isEqualTo(4);
+        assertThat(json(read(split, housing)).path("nodes")).extracting(n -> n.path("name").asText())
+                .containsExactly("Housing", "Cap");
+    }
+
+    @Test
+    void singleMeshSubtreeReusesTheNodeFile() throws IOException {
+        GlbSplitter.Split split = splitter().split("Vice", "Vice.glb");
+
+        assertThat(split.part("Wrapper").url()).isEqualTo(split.part("Pin").url()).endsWith("/n6.glb");
+        assertThat(split.part("Bolt").url()).endsWith("/n1.glb");
+        assertThat(split.part("Missing")).isNull();
+    }
+
+    @Test
+    void streamingListHoldsEachMeshNodeOnce() {
+        GlbSplitter.Split split = splitter().split("Vice", "Vice.glb");
+
+        assertThat(split.parts()).extracting(GlbSplitter.PartAsset::meshName)
+                .containsExactlyInAnyOrder("Bolt", "Nut", "Housing", "Cap", "Pin");
+        assertThat(split.parts()).allSatisfy(p -> assertThat(p.url()).matches(".*/n\\d+\\.glb"));
+        assertThat(split.subtrees()).extracting(GlbSplitter.PartAsset::meshName)
+                .containsExactly("Assembly", "Housing", "Wrapper");
+    }
+
+    @Test
+    void oldLayoutFolderGetsMissingFilesWithoutRewritingExistingOnes() throws IOException {
+        String hash = store.entry("Vice", "Vice.glb").hash();
+        Path out = Files.createDirectories(splitDir.resolve(hash));
+        Files.writeString(out.resolve("index.json"), "{}");
+        Files.writeString(out.resolve("n1.glb"), "already served");
+
+        GlbSplitter splitter = splitter();
+        GlbSplitter.Split split = splitter.split("Vice", "Vice.glb");
+
+        assertThat(Files.readString(out.resolve("n1.glb"))).isEqualTo("already served");
+        assertThat(splitter.file(hash, "g0.glb")).isNotNull();
+        assertThat(splitter.file(hash, "n2.glb")).isNotNull();
+        // 다시 읽을 때는 새 index 를 쓴다
+        assertThat(splitter().split("Vice", "Vice.glb")).isEqualTo(split);
+    }
+
+    private GlbSplitter splitter() {
+        return new GlbSplitter(store, objectMapper, true, splitDir.toString(), 64);
+    }
+
+    private byte[] read(GlbSplitter.Split split, GlbSplitter.PartAsset part) throws IOException {
+        String file = part.url().substring(part.url().lastIndexOf('/') + 1);
+        return Files.readAllBytes(splitter().file(split.hash(), file));
+    }
+
+    private JsonNode json(byte[] glb) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(glb).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] json = new byte[buf.getInt(12)];
+        buf.get(20, json);
+        return objectMapper.readTree(json);
+    }
+
+    /**
+     * Assembly(그룹, x+10) ─ Bolt(삼각형), Nut(삼각형, 같은 메시)
+     * Housing(사각형) ─ Cap(사각형)
+     * Wrapper(그룹) ─ Pin(삼각형)
+     */
+    private byte[] sampleGlb() throws IOException {
+        float[] positions = {
+                0, 0, 0, 1, 0, 0, 0, 1, 0,                          // 삼각형 (메시 0)
+                0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 0, 0, 1, 1, 0, 0, 1, 0 // 사각형 (메시 1)
+        };
+        ByteBuffer bin = ByteBuffer.allocate(positions.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (float f : positions) bin.putFloat(f);
+
+        ObjectNode gltf = objectMapper.createObjectNode();
+        gltf.putObject("asset").put("version", "2.0");
+        gltf.put("scene", 0);
+        gltf.putArray("scenes").addObject().putArray("nodes").add(0).add(3).add(5);
+        gltf.putArray("buffers").addObject().put("byteLength", bin.capacity());
+        gltf.putArray("bufferViews").addObject().put("buffer", 0).put("byteLength", bin.capacity());
+        ArrayNode accessors = gltf.putArray("accessors");
+        accessor(accessors, 0, 3, new double[]{1, 1, 0});
+        accessor(accessors, 36, 6, new double[]{1, 1, 0});
+        ArrayNode meshes = gltf.putArray("meshes");
+        for (int m = 0; m < 2; m++) {
+            meshes.addObject().putArray("primitives").addObject().putObject("attributes").put("POSITION", m);
+        }
+
+        ArrayNode nodes = gltf.putArray("nodes");
+        node(nodes, "Assembly", null, new double[]{10, 0, 0}, 1, 2);
+        node(nodes, "Bolt", 0, new double[]{0, 1, 0});
+        node(nodes, "Nut", 0, new double[]{0, 2, 0});
+        node(nodes, "Housing", 1, null, 4);
+        node(nodes, "Cap", 1, new double[]{0, 0, 1});
+        node(nodes, "Wrapper", null, null, 6);
+        node(nodes, "Pin", 0, null);
+
+        return glb(objectMapper.writeValueAsBytes(gltf), bin.array());
+    }
+
+    private static void accessor(ArrayNode accessors, int byteOffset, int count, double[] max) {
+        ObjectNode a = accessors.addObject();
+        a.put("bufferView", 0).put("byteOffset", byteOffset).put("componentType", 5126)
+                .put("count", count).put("type", "VEC3");
+        a.putArray("min").add(0).add(0).add(0);
+        a.putArray("max").add(max[0]).add(max[1]).add(max[2]);
+    }
+
+    private static void node(ArrayNode nodes, String name, Integer mesh, double[] translation, int... children) {
+        ObjectNode n = nodes.addObject().put("name", name);
+        if (mesh != null) n.put("mesh", mesh);
+        if (translation != null) n.putArray("translation").add(translation[0]).add(translation[1]).add(translation[2]);
+        if (children.length > 0) {
+            ArrayNode c = n.putArray("children");
+            for (int child : children) c.add(child);
+        }
+    }
+
+    private static byte[] glb(byte[] json, byte[] bin) {
+        int jsonPadded = (json.length + 3) & ~3;
+        int total = 12 + 8 + jsonPadded + 8 + bin.length;
+        ByteBuffer out = ByteBuffer.allocate(total).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(GlbIndex.GLB_MAGIC).putInt(2).putInt(total);
+        out.putInt(jsonPadded).putInt(GlbIndex.CHUNK_JSON).put(json);
+        for (int i = json.length; i < jsonPadded; i++) out.put((byte) ' ');
+        out.putInt(bin.length).putInt(GlbIndex.CHUNK_BIN).put(bin);
+        return out.array();
+    }
+}